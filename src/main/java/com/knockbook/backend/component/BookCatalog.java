@@ -0,0 +1,617 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.BookCatalogEntry;
+import com.knockbook.backend.domain.BookCounterDelta;
+import com.knockbook.backend.domain.BookSummary;
+import com.knockbook.backend.repository.BookCatalogRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Read-optimized, in-process copy of the listable catalog used by /books/summaries and the search filters.
+ * Books are rows of primitive columns next to the summary returned in pages; per sort key, row indexes
+ * are kept sorted ascending by (value, id) for the whole catalog, each category and each subcategory.
+ * A reload builds a fresh copy and swaps it in. Admin writes and flushed view/sales/rental counts patch
+ * the affected rows in place, moving each row within the sorted indexes instead of re-sorting them.
+ * Readers share a read lock and patches take the write lock. Reloads and refreshes run on one dedicated
+ * thread, never on the caller's thread or the common pool.
+ */
+@Log4j2
+@Component
+public class BookCatalog {
+
+    /**
+     * SNAPSHOT serves listings from memory (patched on admin writes and counter flushes, reloaded after
+     * max-staleness); DATABASE always falls back to the QueryDSL path.
+     */
+    public enum ConsistencyMode { SNAPSHOT, DATABASE }
+
+    private enum SortKey { VIEWS, SALES, RENTALS, PRICE, PUBLISHED }
+
+    private final BookCatalogRepository bookCatalogRepository;
+    private final ConsistencyMode mode;
+    private final long maxStalenessMillis;
+    private final Executor worker;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Rows rows; // swapped and patched under the write lock
+    private final AtomicBoolean reloading = new AtomicBoolean(false);
+    private final Set<Long> pendingRefresh = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+
+    public BookCatalog(BookCatalogRepository bookCatalogRepository,
+                       @Value("${book.catalog.mode:SNAPSHOT}") ConsistencyMode mode,
+                       @Value("${book.catalog.max-staleness-seconds:300}") long maxStalenessSeconds) {
+        this(bookCatalogRepository, mode, maxStalenessSeconds, Executors.newSingleThreadExecutor(r -> {
+            final var t = new Thread(r, "book-catalog");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    BookCatalog(BookCatalogRepository bookCatalogRepository, ConsistencyMode mode, long maxStalenessSeconds,
+                Executor worker) {
+        this.bookCatalogRepository = bookCatalogRepository;
+        this.mode = mode;
+        this.maxStalenessMillis = maxStalenessSeconds * 1000L;
+        this.worker = worker;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (mode == ConsistencyMode.DATABASE) {
+            return;
+        }
+        reload();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (worker instanceof ExecutorService executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues a book to be re-read after an admin write. Its row is patched on the catalog thread;
+     * books queued while a refresh runs are folded into the next one.
+     */
+    public void refresh(Long bookId) {
+        if (bookId == null || rows == null) {
+            return;
+        }
+        pendingRefresh.add(bookId);
+        if (refreshing.compareAndSet(false, true)) {
+            submit(this::drainRefreshes, refreshing);
+        }
+    }
+
+    /**
+     * Adds counter deltas that were just written to the books table, so the view/sales/rental sorts and
+     * counts follow the database on this node without waiting for a reload.
+     */
+    public void applyCounterDeltas(List<BookCounterDelta> deltas) {
+        if (mode == ConsistencyMode.DATABASE || rows == null || deltas.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            final var r = rows;
+            for (final var d : deltas) {
+                final var row = r.rowById.get(d.getBookId());
+                if (row == null) {
+                    continue;
+                }
+                r.adjust(row, SortKey.VIEWS, d.getViews());
+                r.adjust(row, SortKey.SALES, d.getSales());
+                r.adjust(row, SortKey.RENTALS, d.getRentals());
+            }
+            r.version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the requested page from memory, or empty when the caller must use the database
+     * (DATABASE mode, catalog not loaded yet, or a sort the catalog does not index).
+     */
+    public Optional<Page<BookSummary>> find(String categoryCodeName, String subcategoryCodeName,
+                                            Pageable pageable, Integer minPrice, Integer maxPrice) {
+        final var orders = pageable.getSort().toList();
+        if (orders.size() != 1) {
+            return Optional.empty();
+        }
+        final var sortKey = toSortKey(orders.get(0).getProperty());
+        if (sortKey == null) {
+            return Optional.empty();
+        }
+        final var ascending = orders.get(0).isAscending();
+
+        lock.readLock().lock();
+        try {
+            final var r = usableRows();
+            if (r == null) {
+                return Optional.empty();
+            }
+
+            // 1) Pick the narrowest sorted index for the category filters
+            final var filterCategory = categoryCodeName != null && !"all".equals(categoryCodeName);
+            final var filterSubcategory = subcategoryCodeName != null && !"all".equals(subcategoryCodeName);
+            final Rows.SortedRows index;
+            if (filterSubcategory) {
+                index = r.indexOf(r.bySubcategory, subcategoryCodeName, sortKey);
+            } else if (filterCategory) {
+                index = r.indexOf(r.byCategory, categoryCodeName, sortKey);
+            } else {
+                index = r.all[sortKey.ordinal()];
+            }
+
+            final var categoryId = filterCategory && filterSubcategory
+                    ? r.categoryIdsByCode.get(categoryCodeName) : null;
+            if (filterCategory && filterSubcategory && categoryId == null) {
+                return Optional.of(new PageImpl<>(List.of(), pageable, 0));
+            }
+
+            // 2) Walk the index in sort order, applying the remaining filters
+            final var offset = pageable.getOffset();
+            final var size = pageable.getPageSize();
+            final var content = new ArrayList<BookSummary>(size);
+            final var total = index == null ? 0 : index.size;
+            long matched = 0;
+
+            final var unfiltered = categoryId == null && minPrice == null && maxPrice == null;
+            if (unfiltered) {
+                for (long i = offset; i < total && content.size() < size; i++) {
+                    content.add(r.summaryAt(index.rowAt((int) i, ascending)));
+                }
+                return Optional.of(new PageImpl<>(content, pageable, total));
+            }
+
+            for (int i = 0; i < total; i++) {
+                final var row = index.rowAt(i, ascending);
+                if (categoryId != null && r.categoryIds[row] != categoryId) continue;
+                if (minPrice != null && r.prices[row] < minPrice) continue;
+                if (maxPrice != null && r.prices[row] > maxPrice) continue;
+
+                if (matched >= offset && content.size() < size) {
+                    content.add(r.summaryAt(row));
+                }
+                matched++;
+            }
+            return Optional.of(new PageImpl<>(content, pageable, matched));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Keeps the keyword search hits that pass the listing filters, in rank order, each with its value for
+     * {@code sortBy} (the id when sortBy is null). Hidden and deleted books are not in the catalog, so they drop out.
+     * Empty when the caller must filter in the database (DATABASE mode, catalog not loaded, unknown sort).
+     */
+    public Optional<List<SearchHit>> filterSearchHits(long[] rankedIds, String categoryCodeName,
+                                                      String subcategoryCodeName, Integer minPrice,
+                                                      Integer maxPrice, String sortBy) {
+        final var sortKey = sortBy == null ? null : toSortKey(sortBy);
+        if (sortBy != null && sortKey == null) {
+            return Optional.empty();
+        }
+        final var category = categoryCodeName != null && !"all".equals(categoryCodeName) ? categoryCodeName : null;
+        final var subcategory = subcategoryCodeName != null && !"all".equals(subcategoryCodeName)
+                ? subcategoryCodeName : null;
+
+        lock.readLock().lock();
+        try {
+            final var r = usableRows();
+            if (r == null) {
+                return Optional.empty();
+            }
+            final var hits = new ArrayList<SearchHit>();
+            for (final var id : rankedIds) {
+                final var row = r.rowById.get(id);
+                if (row == null) continue;
+                if (category != null && !category.equals(r.categoryCodes[row])) continue;
+                if (subcategory != null && !subcategory.equals(r.subcategoryCodes[row])) continue;
+                if (minPrice != null && r.prices[row] < minPrice) continue;
+                if (maxPrice != null && r.prices[row] > maxPrice) continue;
+
+                hits.add(new SearchHit(id, sortKey == null ? id : r.sortValues[sortKey.ordinal()][row]));
+            }
+            return Optional.of(hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long version() {
+        lock.readLock().lock();
+        try {
+            final var r = rows;
+            return r == null ? 0L : r.version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // The loaded rows if listings may be served from them; schedules a reload once they are too old
+    private Rows usableRows() {
+        final var r = rows;
+        if (mode == ConsistencyMode.DATABASE || r == null) {
+            return null;
+        }
+        if (System.currentTimeMillis() - r.loadedAt > maxStalenessMillis && reloading.compareAndSet(false, true)) {
+            submit(this::reloadQuietly, reloading);
+        }
+        return r;
+    }
+
+    private void reload() {
+        final var entries = bookCatalogRepository.findAllCatalogEntries();
+        final var previous = rows;
+        final var loaded = new Rows(entries, previous == null ? 1L : previous.version + 1);
+        lock.writeLock().lock();
+        try {
+            rows = loaded;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book catalog loaded: version={}, books={}", loaded.version, entries.size());
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Book catalog reload failed", e);
+        } finally {
+            reloading.set(false);
+        }
+    }
+
+    private void drainRefreshes() {
+        try {
+            while (!pendingRefresh.isEmpty()) {
+                final var bookIds = new HashSet<Long>();
+                for (final var it = pendingRefresh.iterator(); it.hasNext(); ) {
+                    bookIds.add(it.next());
+                    it.remove();
+                }
+                applyRefresh(bookIds);
+            }
+        } catch (Exception e) {
+            // The max-staleness reload picks the books up later
+            log.warn("Book catalog refresh failed", e);
+        } finally {
+            refreshing.set(false);
+        }
+        // A book queued between the last drain and releasing the flag would otherwise wait for the next write
+        if (!pendingRefresh.isEmpty() && refreshing.compareAndSet(false, true)) {
+            submit(this::drainRefreshes, refreshing);
+        }
+    }
+
+    private void applyRefresh(Set<Long> bookIds) {
+        // Read outside the lock; only the patch itself blocks readers
+        final var entries = new HashMap<Long, Optional<BookCatalogEntry>>();
+        for (final var bookId : bookIds) {
+            entries.put(bookId, bookCatalogRepository.findCatalogEntryById(bookId));
+        }
+
+        lock.writeLock().lock();
+        try {
+            final var r = rows;
+            if (r == null) {
+                return;
+            }
+            entries.forEach((bookId, entry) -> {
+                if (entry.isPresent()) {
+                    r.put(entry.get());
+                } else {
+                    r.remove(bookId); // hidden or deleted
+                }
+            });
+            r.version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void submit(Runnable task, AtomicBoolean flag) {
+        try {
+            worker.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            flag.set(false);
+        }
+    }
+
+    private static SortKey toSortKey(String sortBy) {
+        return switch (sortBy) {
+            case "views"     -> SortKey.VIEWS;
+            case "sales"     -> SortKey.SALES;
+            case "rentals"   -> SortKey.RENTALS;
+            case "price"     -> SortKey.PRICE;
+            case "published" -> SortKey.PUBLISHED;
+            default          -> null;
+        };
+    }
+
+    /**
+     * A search hit that passed the filters, with its sort value (epoch day for dates).
+     */
+    public record SearchHit(long id, long value) {}
+
+    /**
+     * The listable books as columns, one slot per row. The row of a book that became unlistable stays
+     * empty until the next reload; new books are appended.
+     */
+    private static final class Rows {
+        private long version;
+        private final long loadedAt = System.currentTimeMillis();
+
+        private int size;
+        private BookSummary[] summaries;
+        private long[] ids;
+        private long[] categoryIds;
+        private String[] categoryCodes;
+        private String[] subcategoryCodes;
+        private int[] prices;
+        private long[][] sortValues; // [sortKey][row]
+
+        private final Map<Long, Integer> rowById;
+        private final SortedRows[] all = new SortedRows[SortKey.values().length];
+        private final Map<String, SortedRows[]> byCategory = new HashMap<>();
+        private final Map<String, SortedRows[]> bySubcategory = new HashMap<>();
+        private final Map<String, Long> categoryIdsByCode = new HashMap<>();
+        // One instance per code name instead of one per row
+        private final Map<String, String> codes = new HashMap<>();
+
+        private Rows(List<BookCatalogEntry> entries, long version) {
+            final var n = entries.size();
+            this.version = version;
+            this.rowById = new HashMap<>(Math.max(16, n * 4 / 3 + 1));
+            allocate(Math.max(16, n));
+
+            final var categoryRows = new HashMap<String, List<Integer>>();
+            final var subcategoryRows = new HashMap<String, List<Integer>>();
+            for (final var entry : entries) {
+                final var row = size++;
+                set(row, entry);
+                rowById.put(ids[row], row);
+                categoryRows.computeIfAbsent(categoryCodes[row], k -> new ArrayList<>()).add(row);
+                subcategoryRows.computeIfAbsent(subcategoryCodes[row], k -> new ArrayList<>()).add(row);
+            }
+
+            final var allRows = new ArrayList<Integer>(n);
+            for (int row = 0; row < n; row++) {
+                allRows.add(row);
+            }
+            sortedIndexes(allRows, all);
+            categoryRows.forEach((code, r) -> sortedIndexes(r, byCategory.computeIfAbsent(code, k -> newIndexes())));
+            subcategoryRows.forEach((code, r) -> sortedIndexes(r, bySubcategory.computeIfAbsent(code, k -> newIndexes())));
+        }
+
+        /**
+         * Inserts a book or replaces its row, moving the row within every index it belongs to.
+         */
+        void put(BookCatalogEntry entry) {
+            final var id = entry.getSummary().getId();
+            final var existing = rowById.get(id);
+            final int row;
+            if (existing != null) {
+                row = existing;
+                unindex(row);
+            } else {
+                if (size == ids.length) {
+                    grow();
+                }
+                row = size++;
+                rowById.put(id, row);
+            }
+            set(row, entry);
+            index(row);
+        }
+
+        void remove(long id) {
+            final var row = rowById.remove(id);
+            if (row == null) {
+                return;
+            }
+            unindex(row);
+            summaries[row] = null;
+        }
+
+        void adjust(int row, SortKey key, long delta) {
+            if (delta == 0) {
+                return;
+            }
+            final var k = key.ordinal();
+            final var scopes = scopesOf(row);
+            for (final var scope : scopes) {
+                scope[k].remove(row);
+            }
+            sortValues[k][row] = Math.max(0L, sortValues[k][row] + delta);
+            for (final var scope : scopes) {
+                scope[k].add(row);
+            }
+        }
+
+        // The stored summary with the live counters, which move with every flush
+        BookSummary summaryAt(int row) {
+            return summaries[row].toBuilder()
+                    .viewCount((int) sortValues[SortKey.VIEWS.ordinal()][row])
+                    .salesCount((int) sortValues[SortKey.SALES.ordinal()][row])
+                    .rentalCount((int) sortValues[SortKey.RENTALS.ordinal()][row])
+                    .build();
+        }
+
+        SortedRows indexOf(Map<String, SortedRows[]> indexes, String codeName, SortKey sortKey) {
+            final var perKey = indexes.get(codeName);
+            return perKey == null ? null : perKey[sortKey.ordinal()];
+        }
+
+        private void set(int row, BookCatalogEntry entry) {
+            final var s = entry.getSummary();
+            summaries[row] = s;
+            ids[row] = s.getId();
+            categoryIds[row] = s.getCategoryId();
+            categoryCodes[row] = codes.computeIfAbsent(entry.getCategoryCodeName(), c -> c);
+            subcategoryCodes[row] = codes.computeIfAbsent(entry.getSubcategoryCodeName(), c -> c);
+            prices[row] = s.getDiscountedPurchaseAmount();
+            sortValues[SortKey.VIEWS.ordinal()][row] = s.getViewCount();
+            sortValues[SortKey.SALES.ordinal()][row] = s.getSalesCount();
+            sortValues[SortKey.RENTALS.ordinal()][row] = s.getRentalCount();
+            sortValues[SortKey.PRICE.ordinal()][row] = s.getDiscountedPurchaseAmount();
+            sortValues[SortKey.PUBLISHED.ordinal()][row] = s.getPublishedAt().toEpochDay();
+            categoryIdsByCode.put(categoryCodes[row], s.getCategoryId());
+        }
+
+        private void index(int row) {
+            for (final var scope : scopesOf(row)) {
+                for (final var sorted : scope) {
+                    sorted.add(row);
+                }
+            }
+        }
+
+        private void unindex(int row) {
+            for (final var scope : scopesOf(row)) {
+                for (final var sorted : scope) {
+                    sorted.remove(row);
+                }
+            }
+        }
+
+        private List<SortedRows[]> scopesOf(int row) {
+            return List.of(all,
+                    byCategory.computeIfAbsent(categoryCodes[row], k -> newIndexes()),
+                    bySubcategory.computeIfAbsent(subcategoryCodes[row], k -> newIndexes()));
+        }
+
+        private SortedRows[] newIndexes() {
+            final var result = new SortedRows[SortKey.values().length];
+            for (final var key : SortKey.values()) {
+                result[key.ordinal()] = new SortedRows(key.ordinal(), new int[4], 0);
+            }
+            return result;
+        }
+
+        private void sortedIndexes(List<Integer> rowList, SortedRows[] target) {
+            for (final var key : SortKey.values()) {
+                final var values = sortValues[key.ordinal()];
+                final var sorted = rowList.stream()
+                        .sorted(Comparator.<Integer>comparingLong(r -> values[r]).thenComparingLong(r -> ids[r]))
+                        .mapToInt(Integer::intValue)
+                        .toArray();
+                target[key.ordinal()] = new SortedRows(key.ordinal(), sorted, sorted.length);
+            }
+        }
+
+        private void allocate(int capacity) {
+            summaries = new BookSummary[capacity];
+            ids = new long[capacity];
+            categoryIds = new long[capacity];
+            categoryCodes = new String[capacity];
+            subcategoryCodes = new String[capacity];
+            prices = new int[capacity];
+            sortValues = new long[SortKey.values().length][capacity];
+        }
+
+        private void grow() {
+            final var capacity = ids.length * 2;
+            summaries = Arrays.copyOf(summaries, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            categoryIds = Arrays.copyOf(categoryIds, capacity);
+            categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+            subcategoryCodes = Arrays.copyOf(subcategoryCodes, capacity);
+            prices = Arrays.copyOf(prices, capacity);
+            for (int k = 0; k < sortValues.length; k++) {
+                sortValues[k] = Arrays.copyOf(sortValues[k], capacity);
+            }
+        }
+
+        /**
+         * Rows ascending by (sort value, id) for one key. A row is found by binary search on its current
+         * value, so it is removed before that value changes and added back after.
+         */
+        private final class SortedRows {
+            private final int key;
+            private int[] rows;
+            private int size;
+
+            private SortedRows(int key, int[] rows, int size) {
+                this.key = key;
+                this.rows = rows;
+                this.size = size;
+            }
+
+            int rowAt(int i, boolean ascending) {
+                return ascending ? rows[i] : rows[size - 1 - i];
+            }
+
+            void add(int row) {
+                final var pos = search(row);
+                if (pos >= 0) {
+                    return;
+                }
+                final var at = -pos - 1;
+                if (size == rows.length) {
+                    rows = Arrays.copyOf(rows, Math.max(4, size * 2));
+                }
+                System.arraycopy(rows, at, rows, at + 1, size - at);
+                rows[at] = row;
+                size++;
+            }
+
+            void remove(int row) {
+                final var pos = search(row);
+                if (pos < 0) {
+                    return;
+                }
+                System.arraycopy(rows, pos + 1, rows, pos, size - pos - 1);
+                size--;
+            }
+
+            private int search(int row) {
+                final var values = sortValues[key];
+                final var value = values[row];
+                final var id = ids[row];
+                int low = 0;
+                int high = size - 1;
+                while (low <= high) {
+                    final var mid = (low + high) >>> 1;
+                    final var other = rows[mid];
+                    var cmp = Long.compare(values[other], value);
+                    if (cmp == 0) {
+                        cmp = Long.compare(ids[other], id);
+                    }
+                    if (cmp < 0) {
+                        low = mid + 1;
+                    } else if (cmp > 0) {
+                        high = mid - 1;
+                    } else {
+                        return mid;
+                    }
+                }
+                return -(low + 1);
+            }
+        }
+    }
+}
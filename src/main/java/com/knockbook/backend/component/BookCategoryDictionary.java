@@ -0,0 +1,43 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.BookCategory;
+import com.knockbook.backend.exception.CategoryNotFoundException;
+import com.knockbook.backend.repository.BookCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory id -> display name dictionary of the (small, rarely changing) book categories.
+ * Loaded at startup; an unknown id triggers one reload before it is reported as missing.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCategoryDictionary {
+
+    private final BookCategoryRepository bookCategoryRepository;
+
+    private volatile Map<Long, String> displayNames = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        displayNames = bookCategoryRepository.findAllCategories().stream()
+                .collect(Collectors.toUnmodifiableMap(BookCategory::getId, BookCategory::getDisplayName));
+    }
+
+    public String displayNameOf(final Long categoryId) {
+        var name = displayNames.get(categoryId);
+        if (name == null) {
+            load();
+            name = displayNames.get(categoryId);
+        }
+        if (name == null) {
+            throw new CategoryNotFoundException(String.valueOf(categoryId));
+        }
+        return name;
+    }
+}
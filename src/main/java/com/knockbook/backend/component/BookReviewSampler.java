@@ -0,0 +1,172 @@
+package com.knockbook.backend.component;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-rating arrays of visible review ids for constant-time random sampling.
+ * Ids are stored as primitive longs (8 bytes per review, about 80MB at 10M reviews).
+ * Each array is kept sorted, so membership is a binary search and no id-to-position map is needed.
+ * Deletions are tombstoned and compacted lazily; removing an id the sampler never held is a no-op.
+ */
+@Component
+public class BookReviewSampler {
+
+    private static final int MIN_RATING = 1;
+    private static final int MAX_RATING = 5;
+
+    private final Bucket[] buckets = new Bucket[MAX_RATING + 1];
+    private volatile boolean ready = false;
+
+    public BookReviewSampler() {
+        for (int rating = MIN_RATING; rating <= MAX_RATING; rating++) {
+            buckets[rating] = new Bucket();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public void add(final Long reviewId, final Integer rating) {
+        if (reviewId == null || !isValidRating(rating)) {
+            return;
+        }
+        buckets[rating].add(reviewId);
+    }
+
+    public void remove(final Long reviewId, final Integer rating) {
+        if (reviewId == null || !isValidRating(rating)) {
+            return;
+        }
+        buckets[rating].remove(reviewId);
+    }
+
+    /**
+     * Removes an id whatever rating it was sampled under, e.g. when its current rating is unknown.
+     */
+    public void remove(final Long reviewId) {
+        if (reviewId == null) {
+            return;
+        }
+        for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+            buckets[r].remove(reviewId);
+        }
+    }
+
+    /**
+     * Picks a review id uniformly at random among reviews with the given rating (any rating if null).
+     */
+    public OptionalLong sample(final Integer rating) {
+        final var random = ThreadLocalRandom.current();
+        if (rating != null) {
+            return isValidRating(rating) ? buckets[rating].sample(random) : OptionalLong.empty();
+        }
+
+        // Pick a bucket weighted by its size, then an id inside it: uniform over all reviews
+        final var sizes = new int[MAX_RATING + 1];
+        long total = 0;
+        for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+            sizes[r] = buckets[r].size();
+            total += sizes[r];
+        }
+        if (total == 0) {
+            return OptionalLong.empty();
+        }
+        var pick = random.nextLong(total);
+        for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+            if (pick < sizes[r]) {
+                return buckets[r].sample(random);
+            }
+            pick -= sizes[r];
+        }
+        return OptionalLong.empty();
+    }
+
+    public long memoryFootprintBytes() {
+        long bytes = 0;
+        for (int r = MIN_RATING; r <= MAX_RATING; r++) {
+            bytes += buckets[r].capacityBytes();
+        }
+        return bytes;
+    }
+
+    private static boolean isValidRating(final Integer rating) {
+        return rating != null && rating >= MIN_RATING && rating <= MAX_RATING;
+    }
+
+    private static final class Bucket {
+        private long[] ids = new long[1024];
+        private int size = 0;
+        private final Set<Long> removed = new HashSet<>();
+
+        synchronized void add(long id) {
+            final var pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                removed.remove(id); // already present, possibly tombstoned
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+            // New reviews have the largest ids, so this is almost always an append
+            final var insertAt = -pos - 1;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        synchronized void remove(long id) {
+            if (Arrays.binarySearch(ids, 0, size, id) < 0 || !removed.add(id)) {
+                return;
+            }
+            // Compact once tombstones exceed 10% of the bucket
+            if (removed.size() > Math.max(64, size / 10)) {
+                compact();
+            }
+        }
+
+        synchronized int size() {
+            return size - removed.size();
+        }
+
+        synchronized OptionalLong sample(ThreadLocalRandom random) {
+            if (size - removed.size() <= 0) {
+                return OptionalLong.empty();
+            }
+            // Tombstones are at most ~10% of the array, so a few tries are enough
+            for (int attempt = 0; attempt < 8; attempt++) {
+                final var id = ids[random.nextInt(size)];
+                if (!removed.contains(id)) {
+                    return OptionalLong.of(id);
+                }
+            }
+            compact();
+            return size == 0 ? OptionalLong.empty() : OptionalLong.of(ids[random.nextInt(size)]);
+        }
+
+        synchronized long capacityBytes() {
+            return (long) ids.length * Long.BYTES;
+        }
+
+        private void compact() {
+            int write = 0;
+            for (int read = 0; read < size; read++) {
+                if (!removed.contains(ids[read])) {
+                    ids[write++] = ids[read];
+                }
+            }
+            size = write;
+            removed.clear();
+        }
+    }
+}
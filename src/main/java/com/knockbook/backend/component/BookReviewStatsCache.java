@@ -0,0 +1,121 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.BookReviewStatistic;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Per-book materialized review statistics (rating histogram + MBTI histogram).
+ * Entries are loaded once from the database and then maintained incrementally on review
+ * create/delete, so /books/{bookId}/reviews/statistics is served in O(1).
+ * Entries expire after a TTL to pick up drift such as reviewers changing their MBTI.
+ */
+@Component
+public class BookReviewStatsCache {
+
+    private static final long TTL_MILLIS = 10 * 60 * 1000L;
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final Map<Long, Stats> cache = new ConcurrentHashMap<>();
+
+    public BookReviewStatistic get(final Long bookId, final Supplier<BookReviewStatistic> loader) {
+        final var now = System.currentTimeMillis();
+        final var cached = cache.get(bookId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.toStatistic();
+        }
+
+        final var loaded = loader.get();
+        if (cache.size() >= MAX_ENTRIES) {
+            cache.clear();
+        }
+        cache.put(bookId, Stats.from(loaded, now + TTL_MILLIS));
+        return loaded;
+    }
+
+    public void reviewAdded(final Long bookId, final int rating, final String mbti) {
+        final var stats = cache.get(bookId);
+        if (stats != null) {
+            stats.apply(rating, mbti, 1);
+        }
+    }
+
+    public void reviewRemoved(final Long bookId, final int rating, final String mbti) {
+        final var stats = cache.get(bookId);
+        if (stats != null) {
+            stats.apply(rating, mbti, -1);
+        }
+    }
+
+    public void evict(final Long bookId) {
+        cache.remove(bookId);
+    }
+
+    private static final class Stats {
+        private final long[] ratingCounts = new long[6]; // index 1..5
+        private final Map<String, Long> mbtiCounts = new HashMap<>();
+        private final long expiresAt;
+
+        private Stats(long expiresAt) {
+            this.expiresAt = expiresAt;
+        }
+
+        static Stats from(BookReviewStatistic statistic, long expiresAt) {
+            final var stats = new Stats(expiresAt);
+            statistic.getScoreCounts().forEach(s -> {
+                if (s.getScore() != null && s.getScore() >= 1 && s.getScore() <= 5) {
+                    stats.ratingCounts[s.getScore()] = s.getCount() == null ? 0L : s.getCount();
+                }
+            });
+            statistic.getMbtiCounts().forEach(m -> stats.mbtiCounts.put(m.getMbti(), m.getCount()));
+            return stats;
+        }
+
+        synchronized void apply(int rating, String mbti, int delta) {
+            if (rating >= 1 && rating <= 5) {
+                ratingCounts[rating] = Math.max(0L, ratingCounts[rating] + delta);
+            }
+            if (mbti != null && !mbti.isBlank()) {
+                final var next = mbtiCounts.getOrDefault(mbti, 0L) + delta;
+                if (next > 0) {
+                    mbtiCounts.put(mbti, next);
+                } else {
+                    mbtiCounts.remove(mbti);
+                }
+            }
+        }
+
+        synchronized BookReviewStatistic toStatistic() {
+            long total = 0;
+            long sum = 0;
+            for (int score = 1; score <= 5; score++) {
+                total += ratingCounts[score];
+                sum += ratingCounts[score] * score;
+            }
+            final var average = total == 0 ? 0.0 : Math.round((double) sum / total * 10.0) / 10.0;
+
+            final var scoreCounts = IntStream.rangeClosed(1, 5)
+                    .mapToObj(score -> BookReviewStatistic.ScoreCount.builder()
+                            .score(score)
+                            .count(ratingCounts[score])
+                            .build())
+                    .collect(Collectors.toList());
+
+            final var mbti = mbtiCounts.entrySet().stream()
+                    .map(e -> new BookReviewStatistic.MbtiCount(e.getKey(), e.getValue()))
+                    .collect(Collectors.toList());
+
+            return BookReviewStatistic.builder()
+                    .averageRating(average)
+                    .totalCount(total)
+                    .scoreCounts(scoreCounts)
+                    .mbtiCounts(mbti)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,335 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process inverted index over book text fields.
+ * Text is normalized (lower case, whitespace removed) and split into character bigrams,
+ * which works for Hangul syllables as well as latin text without a morpheme dictionary.
+ * Each posting list is a sorted primitive array of book ids.
+ * Title, author and publisher candidates are verified against their stored normalized text, so matching
+ * keeps the substring semantics of the former LIKE '%keyword%' search. Introductions are not stored:
+ * an introduction matches when it contains every bigram of the keyword.
+ * One-character keywords have no bigram; they are matched by scanning the stored short fields only.
+ */
+@Component
+public class BookSearchIndex {
+
+    public enum Field { TITLE, AUTHOR, PUBLISHER, INTRODUCTION }
+
+    private static final int GRAM_SIZE = 2;
+    private static final long[] NO_IDS = new long[0];
+    // Ranking packs (score, id) into one long; ids are auto-increment values far below 2^48
+    private static final int ID_BITS = 48;
+    private static final long ID_MASK = (1L << ID_BITS) - 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Field, Map<String, Postings>> postings = new EnumMap<>(Field.class);
+    // Normalized title, author and publisher per book; the introduction length stands in for its text
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    public BookSearchIndex() {
+        for (final var field : Field.values()) {
+            postings.put(field, new HashMap<>());
+        }
+    }
+
+    /**
+     * Insert or replace the indexed text of a book.
+     */
+    public void index(final Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+
+        final var introduction = normalize(book.getIntroductionTitle()) + "\n" + normalize(book.getIntroductionDetail());
+        final var document = new Document(
+                normalize(book.getTitle()), normalize(book.getAuthor()), normalize(book.getPublisher()),
+                introduction.length());
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(book.getId());
+            documents.put(book.getId(), document);
+            for (final var field : Field.values()) {
+                final var text = field == Field.INTRODUCTION ? introduction : document.text(field);
+                final var fieldPostings = postings.get(field);
+                for (final var gram : grams(text)) {
+                    fieldPostings.computeIfAbsent(gram, g -> new Postings()).add(book.getId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(final Long bookId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(bookId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the ids of all books whose given fields contain the keyword, best match first.
+     * The hit set is never truncated here; callers filter and page it.
+     */
+    public long[] search(final Collection<Field> fields, final String keyword) {
+        final var query = normalize(keyword);
+        if (query.isEmpty() || fields.isEmpty()) {
+            return NO_IDS;
+        }
+
+        // Best score per book, kept as parallel arrays sorted by id
+        long[] ids = NO_IDS;
+        int[] scores = new int[0];
+
+        lock.readLock().lock();
+        try {
+            for (final var field : fields) {
+                final var candidates = query.length() < GRAM_SIZE
+                        ? scan(field, query)
+                        : candidates(postings.get(field), grams(query));
+                final var fieldScores = new int[candidates.length];
+                int matched = 0;
+                for (final var bookId : candidates) {
+                    final var score = score(field, documents.get(bookId), query);
+                    if (score > 0) {
+                        candidates[matched] = bookId;
+                        fieldScores[matched++] = score;
+                    }
+                }
+                final var merged = merge(ids, scores, ids.length, candidates, fieldScores, matched);
+                ids = merged.ids;
+                scores = merged.scores;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        // Best score first, then newest id first
+        final var ranked = new long[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ranked[i] = ((long) scores[i] << ID_BITS) | ids[i];
+        }
+        Arrays.sort(ranked);
+        final var result = new long[ranked.length];
+        for (int i = 0; i < ranked.length; i++) {
+            result[i] = ranked[ranked.length - 1 - i] & ID_MASK;
+        }
+        return result;
+    }
+
+    private long[] candidates(final Map<String, Postings> fieldPostings, final Set<String> queryGrams) {
+        // Intersect starting from the rarest gram to keep the working set small
+        final var lists = new ArrayList<Postings>(queryGrams.size());
+        for (final var gram : queryGrams) {
+            final var ids = fieldPostings.get(gram);
+            if (ids == null) {
+                return NO_IDS;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(p -> p.size));
+
+        var result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        var size = result.length;
+        for (int i = 1; i < lists.size() && size > 0; i++) {
+            size = lists.get(i).retainIn(result, size);
+        }
+        return Arrays.copyOf(result, size);
+    }
+
+    // One-character keywords: the stored short fields are scanned; introductions are not stored
+    private long[] scan(final Field field, final String query) {
+        if (field == Field.INTRODUCTION) {
+            return NO_IDS;
+        }
+        final var result = new long[documents.size()];
+        int size = 0;
+        for (final var entry : documents.entrySet()) {
+            if (entry.getValue().text(field).contains(query)) {
+                result[size++] = entry.getKey();
+            }
+        }
+        final var ids = Arrays.copyOf(result, size);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private void removeLocked(final Long bookId) {
+        final var previous = documents.remove(bookId);
+        if (previous == null) {
+            return;
+        }
+        for (final var field : Field.values()) {
+            final var fieldPostings = postings.get(field);
+            if (field == Field.INTRODUCTION) {
+                // The introduction text is not kept, so its postings are found by id
+                fieldPostings.values().removeIf(ids -> ids.remove(bookId) && ids.size == 0);
+                continue;
+            }
+            for (final var gram : grams(previous.text(field))) {
+                final var ids = fieldPostings.get(gram);
+                if (ids != null && ids.remove(bookId) && ids.size == 0) {
+                    fieldPostings.remove(gram);
+                }
+            }
+        }
+    }
+
+    /**
+     * Exact field match > prefix match > contains; shorter fields rank higher.
+     * Title matches outrank the other fields. An introduction match is only known to contain the keyword's
+     * bigrams, so it scores as a plain contains.
+     */
+    private static int score(final Field field, final Document document, final String query) {
+        final int base;
+        final int length;
+        if (field == Field.INTRODUCTION) {
+            base = 1000;
+            length = document.introductionLength;
+        } else {
+            final var text = document.text(field);
+            final var pos = text.indexOf(query);
+            if (pos < 0) {
+                return 0;
+            }
+            base = text.length() == query.length() ? 3000 : pos == 0 ? 2000 : 1000;
+            length = text.length();
+        }
+        final var weight = switch (field) {
+            case TITLE -> 4;
+            case AUTHOR -> 3;
+            case PUBLISHER -> 2;
+            case INTRODUCTION -> 1;
+        };
+        return base * weight - Math.min(length, 999);
+    }
+
+    // Union of two id-sorted score lists, keeping the higher score of a book found in both
+    private static Scores merge(final long[] ids, final int[] scores, final int size,
+                                final long[] otherIds, final int[] otherScores, final int otherSize) {
+        final var mergedIds = new long[size + otherSize];
+        final var mergedScores = new int[size + otherSize];
+        int i = 0, j = 0, n = 0;
+        while (i < size || j < otherSize) {
+            if (j == otherSize || (i < size && ids[i] < otherIds[j])) {
+                mergedIds[n] = ids[i];
+                mergedScores[n++] = scores[i++];
+            } else if (i == size || otherIds[j] < ids[i]) {
+                mergedIds[n] = otherIds[j];
+                mergedScores[n++] = otherScores[j++];
+            } else {
+                mergedIds[n] = ids[i];
+                mergedScores[n++] = Math.max(scores[i++], otherScores[j++]);
+            }
+        }
+        return new Scores(Arrays.copyOf(mergedIds, n), Arrays.copyOf(mergedScores, n));
+    }
+
+    private static Set<String> grams(final String text) {
+        if (text.length() < GRAM_SIZE) {
+            return Set.of();
+        }
+        final var result = new HashSet<String>();
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM_SIZE));
+        }
+        return result;
+    }
+
+    private static String normalize(final String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+    }
+
+    private record Scores(long[] ids, int[] scores) {}
+
+    private record Document(String title, String author, String publisher, int introductionLength) {
+
+        String text(final Field field) {
+            return switch (field) {
+                case TITLE -> title;
+                case AUTHOR -> author;
+                case PUBLISHER -> publisher;
+                case INTRODUCTION -> "";
+            };
+        }
+    }
+
+    /**
+     * Ids containing one gram, sorted ascending. Books are indexed in id order at startup,
+     * so adds are appends there; later edits shift the tail.
+     */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(final long id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                final var pos = Arrays.binarySearch(ids, 0, size, id);
+                if (pos >= 0) {
+                    return;
+                }
+                insertAt(-pos - 1, id);
+                return;
+            }
+            insertAt(size, id);
+        }
+
+        boolean remove(final long id) {
+            final var pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        /**
+         * Keeps the ids of {@code target[0, targetSize)} that are also in this list; returns the new size.
+         */
+        int retainIn(final long[] target, final int targetSize) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < targetSize && from < size; i++) {
+                final var pos = Arrays.binarySearch(ids, from, size, target[i]);
+                if (pos >= 0) {
+                    target[kept++] = target[i];
+                    from = pos + 1;
+                } else {
+                    from = -pos - 1;
+                }
+            }
+            return kept;
+        }
+
+        private void insertAt(final int pos, final long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.CartRef;
+import com.knockbook.backend.domain.OrderAggregate;
+import com.knockbook.backend.domain.OrderItem;
+import com.knockbook.backend.repository.CartRepository;
+import com.knockbook.backend.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the cart lines a paid order consumed, off the payment path.
+ * Removal is deferred until the approving transaction commits and runs on a single worker in its own
+ * transaction, so approval no longer holds its locks while cart rows are deleted.
+ * Each cleanup subtracts the ordered quantities from lines added before the payment, and claims the
+ * order in the same transaction, so it happens once whichever worker or node gets there first.
+ * The queue is bounded: when it is full the cleanup is dropped, not queued. Dropped cleanups and those
+ * lost in a crash are redone by {@link #sweep()}, which picks up orders paid since the previous sweep
+ * whose cleanup is still unclaimed (the first sweep after a start looks back
+ * {@code cart.cleanup.recovery-window-minutes}).
+ */
+@Log4j2
+@Component
+public class CartCleanupQueue {
+
+    // Approvals commit after their paidAt; the overlap catches those still committing during a sweep
+    private static final Duration SWEEP_OVERLAP = Duration.ofMinutes(5);
+
+    private final CartRepository cartRepository;
+    private final OrderRepository orderRepository;
+    private final ThreadPoolExecutor worker;
+    private final Counter dropped;
+    private volatile Instant sweptUntil;
+
+    public CartCleanupQueue(CartRepository cartRepository,
+                            OrderRepository orderRepository,
+                            MeterRegistry meterRegistry,
+                            @Value("${cart.cleanup.queue-capacity:10000}") int queueCapacity,
+                            @Value("${cart.cleanup.recovery-window-minutes:60}") long recoveryWindowMinutes) {
+        this.cartRepository = cartRepository;
+        this.orderRepository = orderRepository;
+        this.sweptUntil = Instant.now().minus(Duration.ofMinutes(recoveryWindowMinutes));
+        this.worker = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    final var t = new Thread(r, "cart-cleanup");
+                    t.setDaemon(true);
+                    return t;
+                });
+
+        this.dropped = Counter.builder("cart.cleanup.dropped")
+                .description("Cleanups dropped by the full queue, left to the sweep")
+                .register(meterRegistry);
+        Gauge.builder("cart.cleanup.pending", worker, w -> w.getQueue().size())
+                .description("Cleanups waiting for the worker")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queues removal of the paid order's lines from its owner's cart once the current transaction commits.
+     */
+    public void removeAfterCommit(final OrderAggregate paidOrder) {
+        final var refs = refsOf(paidOrder);
+        if (refs.isEmpty()) {
+            return;
+        }
+        final Runnable submit = () -> {
+            try {
+                worker.execute(() -> remove(paidOrder, refs));
+            } catch (RejectedExecutionException e) {
+                dropped.increment();
+                log.warn("Cart cleanup queue full; order {} is left to the sweep", paidOrder.getId());
+            }
+        };
+        AfterCommit.run(submit);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.cleanup.sweep-interval-millis:300000}",
+            initialDelayString = "${cart.cleanup.sweep-interval-millis:300000}")
+    public void sweep() {
+        final var startedAt = Instant.now();
+        final var orders = orderRepository.findPaidAwaitingCartCleanupSince(sweptUntil.minus(SWEEP_OVERLAP));
+        for (final var order : orders) {
+            final var refs = refsOf(order);
+            if (!refs.isEmpty()) {
+                remove(order, refs);
+            }
+        }
+        sweptUntil = startedAt;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void remove(final OrderAggregate order, final List<CartRef> refs) {
+        try {
+            cartRepository.removeOrderedLines(order.getId(), order.getUserId(), refs, order.getPaidAt());
+        } catch (Exception e) {
+            log.warn("Cart cleanup failed for order {} ({} lines)", order.getId(), refs.size(), e);
+        }
+    }
+
+    private static List<CartRef> refsOf(final OrderAggregate order) {
+        if (order.getItems() == null) {
+            return List.of();
+        }
+        return order.getItems().stream().map(i ->
+                        CartRef.builder()
+                                .refId(i.getRefId())
+                                .refType(i.getRefType().name())
+                                .rentalDays(i.getRefType() == OrderItem.RefType.BOOK_RENTAL ? i.getRentalDays() : 0)
+                                .quantity(i.getQuantity() == null ? 0 : i.getQuantity())
+                                .build())
+                .toList();
+    }
+}
@@ -0,0 +1,110 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.FeedCursor;
+import com.knockbook.backend.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque, tamper-proof feed cursors: base64url("epochSecond:nano:id") + "." + truncated HMAC-SHA256.
+ * feed.cursor.secret is required unless only local profiles are active. Locally a random key
+ * is issued at boot (like the JWE/JWS keys), so cursors then do not survive a restart.
+ */
+@Component
+public class FeedCursorCodec {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 16;
+    private static final Set<String> LOCAL_PROFILES = Set.of("local", "dev", "test");
+
+    private final SecretKeySpec key;
+
+    public FeedCursorCodec(@Value("${feed.cursor.secret:}") String secret, Environment environment) {
+        final byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            // A per-boot key breaks cursors across instances and restarts, so only local runs may omit it
+            final var profiles = Arrays.asList(environment.getActiveProfiles());
+            if (!LOCAL_PROFILES.containsAll(profiles)) {
+                throw new IllegalStateException("feed.cursor.secret must be set for profiles " + profiles);
+            }
+            keyBytes = new byte[32]; // 256-bit
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public String encode(Instant sortedAt, Long id) {
+        final var payload = sortedAt.getEpochSecond() + ":" + sortedAt.getNano() + ":" + id;
+        final var payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        final var encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(sign(payloadBytes));
+    }
+
+    /**
+     * Decodes and verifies a cursor. Throws InvalidCursorException (400) if it is malformed or was altered.
+     */
+    public FeedCursor decode(String cursor) {
+        try {
+            final var dot = cursor.indexOf('.');
+            if (dot < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            final var decoder = Base64.getUrlDecoder();
+            final var payloadBytes = decoder.decode(cursor.substring(0, dot));
+            final var signature = decoder.decode(cursor.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payloadBytes), signature)) {
+                throw new InvalidCursorException(cursor);
+            }
+
+            final var parts = new String(payloadBytes, StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new InvalidCursorException(cursor);
+            }
+            return FeedCursor.builder()
+                    .sortedAt(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])))
+                    .id(Long.parseLong(parts[2]))
+                    .build();
+        } catch (IllegalArgumentException | DateTimeException e) { // bad base64, NumberFormatException, range
+            throw new InvalidCursorException(cursor);
+        }
+    }
+
+    /**
+     * Parses the legacy ?after= post id; anything but a number is rejected like a bad cursor.
+     */
+    public Long parseAfterId(String after) {
+        if (after == null || after.isBlank()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException(after);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            final var mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return Arrays.copyOf(mac.doFinal(payload), SIGNATURE_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+}
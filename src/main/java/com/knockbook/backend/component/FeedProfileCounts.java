@@ -0,0 +1,70 @@
+package com.knockbook.backend.component;
+
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user post and saved-post counts for the feed profile, kept in memory.
+ * A count is loaded once with a COUNT query and then maintained by the write repositories;
+ * deltas are applied after commit so a rolled-back write never skews the count.
+ * Entries expire after a TTL to repair any remaining drift.
+ */
+@Component
+public class FeedProfileCounts {
+
+    public enum Kind { POSTS, SAVES }
+
+    private static final long TTL_MILLIS = 10 * 60 * 1000L;
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final Map<Kind, Map<Long, Entry>> counts = new EnumMap<>(Kind.class);
+
+    public FeedProfileCounts() {
+        for (final var kind : Kind.values()) {
+            counts.put(kind, new ConcurrentHashMap<>());
+        }
+    }
+
+    public long get(final Kind kind, final Long userId, final LongSupplier loader) {
+        final var byUser = counts.get(kind);
+        final var now = System.currentTimeMillis();
+        final var cached = byUser.get(userId);
+        if (cached != null && cached.expiresAt > now) {
+            return cached.count.get();
+        }
+
+        final var loaded = loader.getAsLong();
+        if (byUser.size() >= MAX_ENTRIES) {
+            byUser.clear();
+        }
+        byUser.put(userId, new Entry(loaded, now + TTL_MILLIS));
+        return loaded;
+    }
+
+    /**
+     * Applies a delta once the surrounding transaction commits (immediately outside a transaction).
+     */
+    public void adjust(final Kind kind, final Long userId, final long delta) {
+        AfterCommit.run(() -> {
+            final var entry = counts.get(kind).get(userId);
+            if (entry != null) {
+                entry.count.updateAndGet(v -> Math.max(0L, v + delta));
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        Entry(long count, long expiresAt) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.FeedPost;
+import com.knockbook.backend.domain.ReactionTarget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Shared cache of the newest posts of the global feed (no keyword, no MBTI filter).
+ * Holds everything that is the same for every viewer: post, author, image URLs and counts.
+ * The per-viewer likedByMe / savedByMe flags are not cached and must be overlaid by the caller.
+ * Create/delete invalidates the head; like and comment counts are patched in place after commit.
+ * Like counts loaded from the database are overlaid with the deltas still pending in
+ * {@link ReactionCounterBuffer}, so a reload does not briefly roll recent likes back.
+ * Concurrent misses share one reload.
+ */
+@Component
+public class FeedTimelineCache {
+
+    public static final int CACHED_POSTS = 200;
+    private static final long TTL_MILLIS = 30_000L;
+
+    public record Page(List<FeedPost> feedPosts, String nextAfter) {}
+
+    private final AtomicLong generation = new AtomicLong();
+    private volatile Head current;
+    private final AtomicReference<Load> loading = new AtomicReference<>();
+
+    private final ReactionCounterBuffer reactionCounterBuffer;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public FeedTimelineCache(ReactionCounterBuffer reactionCounterBuffer, MeterRegistry meterRegistry) {
+        this.reactionCounterBuffer = reactionCounterBuffer;
+        this.hits = Counter.builder("feed.timeline.cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("feed.timeline.cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Returns the page after the given post id from the cached head, or empty when the page
+     * reaches past the cached window (or the cursor is not in it) and the caller must query.
+     * The loader receives the number of rows to fetch, newest first.
+     */
+    public Optional<Page> page(Long after, int size, IntFunction<List<FeedPost>> loader) {
+        final var head = headOrLoad(loader);
+
+        final int start;
+        if (after == null) {
+            start = 0;
+        } else {
+            final var position = head.positions.get(after);
+            if (position == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            start = position + 1;
+        }
+
+        final var end = start + size;
+        if (end > head.entries.size() && !head.complete) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+
+        final var last = Math.min(end, head.entries.size());
+        final var posts = new ArrayList<FeedPost>(Math.max(0, last - start));
+        for (int i = start; i < last; i++) {
+            posts.add(head.entries.get(i).toPost());
+        }
+        final var hasMore = end < head.entries.size() || !head.complete;
+        final var nextAfter = hasMore && !posts.isEmpty() ? posts.get(posts.size() - 1).getPostId() : null;
+        return Optional.of(new Page(posts, nextAfter));
+    }
+
+    /**
+     * Drops the cached head now and again after the surrounding transaction commits,
+     * so a reload racing with the write cannot re-cache the pre-commit state.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        current = null;
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generation.incrementAndGet();
+                    current = null;
+                }
+            });
+        }
+    }
+
+    public void adjustLikes(Long postId, int delta) {
+        AfterCommit.run(() -> {
+            final var entry = entryOf(postId);
+            if (entry != null) {
+                entry.likes.updateAndGet(v -> Math.max(0, v + delta));
+            }
+        });
+    }
+
+    public void adjustComments(Long postId, int delta) {
+        AfterCommit.run(() -> {
+            final var entry = entryOf(postId);
+            if (entry != null) {
+                entry.comments.updateAndGet(v -> Math.max(0, v + delta));
+            }
+        });
+    }
+
+    private Entry entryOf(Long postId) {
+        final var head = current;
+        if (head == null || postId == null) {
+            return null;
+        }
+        final var position = head.positions.get(postId);
+        return position == null ? null : head.entries.get(position);
+    }
+
+    private Head headOrLoad(IntFunction<List<FeedPost>> loader) {
+        final var head = current;
+        if (head != null && head.expiresAt > System.currentTimeMillis()) {
+            return head;
+        }
+
+        // Single flight: join a reload started in the current generation instead of issuing another
+        final var startedAt = generation.get();
+        final var mine = new Load(startedAt, new CompletableFuture<>());
+        final var running = loading.compareAndExchange(null, mine);
+        if (running != null) {
+            if (running.generation == startedAt) {
+                return await(running.future);
+            }
+            // Started before an invalidation this caller may depend on: load on our own
+            return load(loader, startedAt);
+        }
+
+        try {
+            final var loaded = load(loader, startedAt);
+            mine.future.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.compareAndSet(mine, null);
+        }
+    }
+
+    private Head load(IntFunction<List<FeedPost>> loader, long startedAt) {
+        final var rows = loader.apply(CACHED_POSTS + 1);
+        final var loaded = new Head(rows, System.currentTimeMillis() + TTL_MILLIS,
+                postId -> reactionCounterBuffer.pendingDelta(ReactionTarget.FEED_POST, postId));
+        // Install only if no invalidation happened while loading
+        if (generation.get() == startedAt) {
+            current = loaded;
+        }
+        return loaded;
+    }
+
+    private static Head await(CompletableFuture<Head> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    private record Load(long generation, CompletableFuture<Head> future) {}
+
+    private static final class Head {
+        private final List<Entry> entries;
+        private final Map<Long, Integer> positions;
+        private final boolean complete;
+        private final long expiresAt;
+
+        Head(List<FeedPost> rows, long expiresAt, ToLongFunction<Long> pendingLikes) {
+            this.complete = rows.size() <= CACHED_POSTS;
+            final var kept = complete ? rows : rows.subList(0, CACHED_POSTS);
+            this.entries = kept.stream()
+                    .map(post -> new Entry(post, pendingLikes.applyAsLong(Long.valueOf(post.getPostId()))))
+                    .toList();
+            this.positions = new HashMap<>(entries.size() * 2);
+            for (int i = 0; i < entries.size(); i++) {
+                positions.put(Long.valueOf(entries.get(i).base.getPostId()), i);
+            }
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Entry {
+        private final FeedPost base;
+        private final AtomicInteger likes;
+        private final AtomicInteger comments;
+
+        Entry(FeedPost base, long pendingLikes) {
+            this.base = base;
+            final var stored = base.getLikesCount() == null ? 0 : base.getLikesCount();
+            this.likes = new AtomicInteger((int) Math.max(0L, stored + pendingLikes));
+            this.comments = new AtomicInteger(base.getCommentsCount() == null ? 0 : base.getCommentsCount());
+        }
+
+        FeedPost toPost() {
+            return FeedPost.builder()
+                    .postId(base.getPostId())
+                    .userId(base.getUserId())
+                    .displayName(base.getDisplayName())
+                    .avatarUrl(base.getAvatarUrl())
+                    .content(base.getContent())
+                    .images(base.getImages())
+                    .likesCount(likes.get())
+                    .commentsCount(comments.get())
+                    .createdAt(base.getCreatedAt())
+                    .build();
+        }
+    }
+}
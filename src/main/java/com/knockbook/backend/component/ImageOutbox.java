@@ -0,0 +1,516 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.ImageUploadTarget;
+import com.knockbook.backend.domain.ImageVariant;
+import com.knockbook.backend.domain.ImageVariants;
+import com.knockbook.backend.repository.ImageOutboxRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox for image uploads, so request latency does not depend on ImgBB.
+ * A request spools each file to the spool directory and stores a placeholder URL in its row;
+ * a small worker pool then renders the image's size variants, uploads them (retrying with backoff)
+ * and patches the real URL into the owning row.
+ * <p>
+ * Everything lives in the spool directory, which must be shared by all instances when several run:
+ * {token} data + {token}.job metadata, a {token}.lock claim held by the node working on the job and,
+ * once uploaded, {token}.url with the real URL. Any node can therefore serve or redirect a placeholder
+ * (PendingImageController), and a job whose node died is picked up by the next sweep once its claim
+ * goes stale. Pending uploads survive a restart the same way.
+ */
+@Log4j2
+@Component
+public class ImageOutbox {
+
+    public static final String PENDING_PATH = "/images/pending/";
+
+    private static final String JOB_SUFFIX = ".job";
+    private static final String LOCK_SUFFIX = ".lock";
+    private static final String URL_SUFFIX = ".url";
+    private static final String VARIANT_URL_PREFIX = "url.";
+    private static final Set<String> LOCAL_PROFILES = Set.of("local", "dev", "test");
+    private static final int MAX_UPLOAD_ATTEMPTS = 8;
+    private static final int MAX_PATCH_ATTEMPTS = 5;
+    private static final long MAX_BACKOFF_MILLIS = 5 * 60 * 1000L;
+    // Claims are touched on every attempt; backoff never exceeds MAX_BACKOFF_MILLIS, so this means the owner died
+    private static final long STALE_LOCK_MILLIS = 2 * MAX_BACKOFF_MILLIS;
+    private static final long COMPLETED_RETENTION_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final ImgbbUploader imgbbUploader;
+    private final ImageProcessor imageProcessor;
+    private final ImageOutboxRepository outboxRepository;
+    private final FeedTimelineCache feedTimelineCache;
+    private final Path spoolDir;
+    private final String placeholderBaseUrl;
+    private final long baseBackoffMillis;
+    private final ScheduledExecutorService workers;
+
+    // Tokens this node has claimed, so a rescan never schedules a job that is already queued here
+    private final Set<String> active = ConcurrentHashMap.newKeySet();
+
+    public ImageOutbox(ImgbbUploader imgbbUploader,
+                       ImageProcessor imageProcessor,
+                       ImageOutboxRepository outboxRepository,
+                       FeedTimelineCache feedTimelineCache,
+                       Environment environment,
+                       @Value("${image.outbox.dir:${java.io.tmpdir}/knockbook-image-outbox}") Path spoolDir,
+                       @Value("${image.outbox.placeholder-base-url:}") String placeholderBaseUrl,
+                       @Value("${image.outbox.workers:4}") int workerCount,
+                       @Value("${image.outbox.base-backoff-millis:2000}") long baseBackoffMillis) throws IOException {
+        this.imgbbUploader = imgbbUploader;
+        this.imageProcessor = imageProcessor;
+        this.outboxRepository = outboxRepository;
+        this.feedTimelineCache = feedTimelineCache;
+        this.spoolDir = Files.createDirectories(spoolDir);
+        this.placeholderBaseUrl = validateBaseUrl(placeholderBaseUrl, environment);
+        this.baseBackoffMillis = baseBackoffMillis;
+        this.workers = Executors.newScheduledThreadPool(workerCount, r -> {
+            final var t = new Thread(r, "image-outbox");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Spools the file and returns the placeholder URL to store in place of the real one.
+     * Call {@link #dispatch(Long, List)} once the row holding the placeholder is saved.
+     */
+    public String stage(final MultipartFile file, final ImageUploadTarget target) {
+        final var token = UUID.randomUUID() + extensionOf(file.getOriginalFilename());
+        final var placeholder = placeholderBaseUrl + PENDING_PATH + token;
+        try {
+            // Claimed from the start, so no sweep picks the job up before its row is committed
+            Files.createFile(lockPath(token));
+            active.add(token);
+            file.transferTo(dataPath(token));
+
+            final var job = new Properties();
+            job.setProperty("target", target.name());
+            job.setProperty("placeholder", placeholder);
+            job.setProperty("name", Objects.requireNonNullElse(file.getOriginalFilename(), "file"));
+            job.setProperty("contentType", Objects.requireNonNullElse(file.getContentType(), ""));
+            writeJob(token, job);
+        } catch (IOException e) {
+            discardToken(token);
+            throw new UncheckedIOException("failed to spool upload", e);
+        } catch (RuntimeException e) {
+            discardToken(token);
+            throw e;
+        }
+        return placeholder;
+    }
+
+    /**
+     * Stages every file, or none: if one cannot be spooled, the ones already staged are discarded.
+     */
+    public List<String> stageAll(final List<MultipartFile> files, final ImageUploadTarget target) {
+        final var placeholders = new ArrayList<String>(files.size());
+        try {
+            for (final var file : files) {
+                placeholders.add(stage(file, target));
+            }
+        } catch (RuntimeException e) {
+            discard(placeholders);
+            throw e;
+        }
+        return placeholders;
+    }
+
+    /**
+     * Records the row the placeholders belong to and starts uploading once the transaction commits
+     * (immediately outside a transaction). A rollback discards the staged files instead.
+     */
+    public void dispatch(final Long ownerId, final List<String> placeholders) {
+        if (placeholders.isEmpty()) {
+            return;
+        }
+        for (final var placeholder : placeholders) {
+            final var token = tokenOf(placeholder);
+            try {
+                final var job = readJob(token);
+                job.setProperty("ownerId", String.valueOf(ownerId));
+                writeJob(token, job);
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("failed to record owner of staged upload " + token, e);
+            }
+        }
+
+        final Runnable submit = () -> placeholders.forEach(p -> submit(tokenOf(p), 0, 0L));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        submit.run();
+                    } else {
+                        discard(placeholders);
+                    }
+                }
+            });
+        } else {
+            submit.run();
+        }
+    }
+
+    /**
+     * Drops staged files whose row was never saved.
+     */
+    public void discard(final List<String> placeholders) {
+        placeholders.forEach(p -> {
+            final var token = tokenOf(p);
+            discardToken(token);
+            deleteQuietly(urlPath(token));
+        });
+    }
+
+    /**
+     * Spooled bytes of a pending upload, if it is still pending.
+     */
+    public Optional<Path> pendingFile(final String token) {
+        if (!isValidToken(token)) {
+            return Optional.empty();
+        }
+        final var path = dataPath(token);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Uploaded URL of a placeholder, written by whichever node did the upload.
+     */
+    public Optional<String> completedUrl(final String token) {
+        if (!isValidToken(token)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readString(urlPath(token), StandardCharsets.UTF_8));
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            log.warn("Image outbox could not read the URL of {}", token, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Claims and schedules every job that no live node is working on:
+     * on startup, and periodically for jobs left behind by a node that died.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        try (var files = Files.list(spoolDir)) {
+            final var tokens = files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.endsWith(JOB_SUFFIX))
+                    .map(name -> name.substring(0, name.length() - JOB_SUFFIX.length()))
+                    .filter(this::claim)
+                    .toList();
+            tokens.forEach(token -> submit(token, 0, 0L));
+            if (!tokens.isEmpty()) {
+                log.info("Image outbox resumed {} pending uploads", tokens.size());
+            }
+        } catch (IOException e) {
+            log.warn("Image outbox could not scan {}", spoolDir, e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${image.outbox.sweep-interval-millis:600000}",
+            initialDelayString = "${image.outbox.sweep-interval-millis:600000}")
+    public void sweep() {
+        resumePending();
+        pruneCompleted();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Jobs stay on disk; releasing the claims lets the next node (or start) resume them right away
+        workers.shutdownNow();
+        active.forEach(token -> deleteQuietly(lockPath(token)));
+    }
+
+    private void submit(final String token, final int attempt, final long delayMillis) {
+        workers.schedule(() -> process(token, attempt), delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void process(final String token, final int attempt) {
+        final Properties job;
+        try {
+            job = readJob(token);
+        } catch (NoSuchFileException e) {
+            release(token); // already finished or discarded
+            return;
+        } catch (IOException e) {
+            log.warn("Image outbox job {} unreadable, dropping", token, e);
+            discardToken(token);
+            return;
+        }
+        touch(token);
+
+        final var ownerId = job.getProperty("ownerId");
+        if (ownerId == null) {
+            // Never dispatched: the transaction saving its row did not get that far
+            discardToken(token);
+            return;
+        }
+
+        // 1) Upload once; the URL is kept in the job so a patch retry never re-uploads
+        final var target = ImageUploadTarget.valueOf(job.getProperty("target"));
+        var url = job.getProperty("url");
+        var patchAttempt = attempt;
+        if (url == null) {
+            try {
+                url = upload(token, job, target);
+                job.setProperty("url", url);
+                writeJob(token, job);
+                Files.writeString(urlPath(token), url, StandardCharsets.UTF_8);
+            } catch (Exception e) {
+                if (attempt + 1 >= MAX_UPLOAD_ATTEMPTS) {
+                    log.error("Image outbox upload {} failed {} times, leaving it for the next sweep",
+                            token, attempt + 1, e);
+                    release(token);
+                    return;
+                }
+                log.warn("Image outbox upload {} failed (attempt {}), retrying", token, attempt + 1, e);
+                submit(token, attempt + 1, backoff(attempt));
+                return;
+            }
+            patchAttempt = 0; // patch retries get their own budget
+        }
+
+        // 2) Patch the placeholder; zero rows means the row is not visible yet or was deleted
+        final var patched = outboxRepository.replacePlaceholder(
+                target, Long.valueOf(ownerId), job.getProperty("placeholder"), url);
+        if (patched == 0 && patchAttempt + 1 < MAX_PATCH_ATTEMPTS) {
+            submit(token, patchAttempt + 1, backoff(patchAttempt));
+            return;
+        }
+
+        discardToken(token);
+        if (target == ImageUploadTarget.FEED_POST_IMAGE) {
+            feedTimelineCache.invalidate();
+        }
+    }
+
+    // Image targets get their size variants (encoded into one stored URL);
+    // other files, and images the processor cannot decode, are uploaded as-is
+    private String upload(final String token, final Properties job, final ImageUploadTarget target) {
+        final var name = job.getProperty("name");
+        final var rendered = imageProcessor.process(new FileSystemResource(dataPath(token)), target.getVariants());
+        if (rendered.isPresent()) {
+            // Variants that came out the same size share a byte array and are uploaded once.
+            // Each variant URL is saved in the job as soon as it is known, so a retry after
+            // a failed variant only uploads the variants that are still missing
+            final var uploaded = new IdentityHashMap<byte[], String>();
+            final var urls = new EnumMap<ImageVariant, String>(ImageVariant.class);
+            rendered.get().forEach((variant, bytes) -> {
+                var url = job.getProperty(VARIANT_URL_PREFIX + variant.name());
+                if (url == null) {
+                    url = uploaded.computeIfAbsent(bytes, b -> imgbbUploader.upload(b,
+                            ImageProcessor.variantFileName(name, variant), ImageProcessor.CONTENT_TYPE));
+                    job.setProperty(VARIANT_URL_PREFIX + variant.name(), url);
+                    try {
+                        writeJob(token, job);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                } else {
+                    uploaded.putIfAbsent(bytes, url);
+                }
+                urls.put(variant, url);
+            });
+            return ImageVariants.builder()
+                    .thumbnailUrl(urls.get(ImageVariant.THUMBNAIL))
+                    .feedUrl(urls.get(ImageVariant.FEED))
+                    .fullUrl(urls.get(ImageVariant.FULL))
+                    .build()
+                    .encode();
+        }
+        final var contentType = job.getProperty("contentType");
+        return imgbbUploader.upload(dataPath(token), name, contentType.isEmpty() ? null : contentType);
+    }
+
+    private long backoff(final int attempt) {
+        return Math.min(MAX_BACKOFF_MILLIS, baseBackoffMillis << Math.min(attempt, 16));
+    }
+
+    // Atomic create of the lock file is the cross-node claim; a claim that stopped being touched is taken over
+    private boolean claim(final String token) {
+        if (!isValidToken(token) || !active.add(token)) {
+            return false;
+        }
+        final var lock = lockPath(token);
+        try {
+            try {
+                Files.createFile(lock);
+                return true;
+            } catch (FileAlreadyExistsException e) {
+                final var age = System.currentTimeMillis() - Files.getLastModifiedTime(lock).toMillis();
+                if (age < STALE_LOCK_MILLIS) {
+                    active.remove(token);
+                    return false;
+                }
+                log.info("Image outbox taking over stale job {}", token);
+                Files.deleteIfExists(lock);
+                Files.createFile(lock);
+                return true;
+            }
+        } catch (IOException e) { // lost a race for the stale claim, or the lock vanished with the job
+            active.remove(token);
+            return false;
+        }
+    }
+
+    private void touch(final String token) {
+        try {
+            Files.setLastModifiedTime(lockPath(token), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Image outbox could not touch the claim of {}", token, e);
+        }
+    }
+
+    private void release(final String token) {
+        active.remove(token);
+        deleteQuietly(lockPath(token));
+    }
+
+    // Uploaded URLs are kept for a day so stale placeholders (caches, open pages) still redirect
+    private void pruneCompleted() {
+        final var cutoff = System.currentTimeMillis() - COMPLETED_RETENTION_MILLIS;
+        try (var files = Files.list(spoolDir)) {
+            files.filter(p -> p.getFileName().toString().endsWith(URL_SUFFIX))
+                    .filter(p -> {
+                        try {
+                            return Files.getLastModifiedTime(p).toMillis() < cutoff;
+                        } catch (IOException e) {
+                            return false;
+                        }
+                    })
+                    .forEach(ImageOutbox::deleteQuietly);
+        } catch (IOException e) {
+            log.warn("Image outbox could not prune {}", spoolDir, e);
+        }
+    }
+
+    private Properties readJob(final String token) throws IOException {
+        final var job = new Properties();
+        try (InputStream in = Files.newInputStream(jobPath(token))) {
+            job.load(in);
+        }
+        return job;
+    }
+
+    // Written to a temp file and moved, so a crash never leaves a half-written job
+    private void writeJob(final String token, final Properties job) throws IOException {
+        final var tmp = spoolDir.resolve(token + JOB_SUFFIX + ".tmp");
+        try (OutputStream out = Files.newOutputStream(tmp)) {
+            job.store(out, null);
+        }
+        Files.move(tmp, jobPath(token), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void discardToken(final String token) {
+        if (!isValidToken(token)) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(jobPath(token));
+            Files.deleteIfExists(dataPath(token));
+        } catch (IOException e) {
+            log.warn("Image outbox could not delete spooled files of {}", token, e);
+        }
+        release(token);
+    }
+
+    private static void deleteQuietly(final Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Image outbox could not delete {}", path, e);
+        }
+    }
+
+    private Path dataPath(final String token) {
+        return spoolDir.resolve(token);
+    }
+
+    private Path jobPath(final String token) {
+        return spoolDir.resolve(token + JOB_SUFFIX);
+    }
+
+    private Path lockPath(final String token) {
+        return spoolDir.resolve(token + LOCK_SUFFIX);
+    }
+
+    private Path urlPath(final String token) {
+        return spoolDir.resolve(token + URL_SUFFIX);
+    }
+
+    // Placeholders are rendered by the frontend on another origin, so they must be absolute URLs
+    private static String validateBaseUrl(final String baseUrl, final Environment environment) {
+        final var trimmed = baseUrl == null ? "" : baseUrl.trim().replaceAll("/+$", "");
+        if (trimmed.isEmpty()) {
+            final var profiles = Arrays.asList(environment.getActiveProfiles());
+            if (!LOCAL_PROFILES.containsAll(profiles)) {
+                throw new IllegalStateException("image.outbox.placeholder-base-url must be set for profiles " + profiles);
+            }
+            return trimmed;
+        }
+        try {
+            final var uri = new URI(trimmed);
+            final var scheme = uri.getScheme();
+            if (uri.getHost() == null || !("http".equals(scheme) || "https".equals(scheme))) {
+                throw new IllegalStateException("image.outbox.placeholder-base-url must be an absolute http(s) URL: "
+                        + trimmed);
+            }
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("image.outbox.placeholder-base-url is not a valid URL: " + trimmed, e);
+        }
+        return trimmed;
+    }
+
+    private static String tokenOf(final String placeholder) {
+        return placeholder.substring(placeholder.lastIndexOf('/') + 1);
+    }
+
+    // UUID plus an optional short extension; anything else could escape the spool directory
+    private static boolean isValidToken(final String token) {
+        return token != null && token.matches("[0-9a-f\\-]{36}(\\.[a-z0-9]{1,5})?");
+    }
+
+    // The extension keeps placeholders recognisable as images (e.g. the lounge preview extractor)
+    private static String extensionOf(final String name) {
+        if (name == null || !name.contains(".")) {
+            return "";
+        }
+        final var ext = name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        return ext.matches("[a-z0-9]{1,5}") ? "." + ext : "";
+    }
+}
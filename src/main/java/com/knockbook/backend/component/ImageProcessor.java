@@ -0,0 +1,273 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.ImageVariant;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import java.awt.Color;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Decodes an uploaded image once and re-encodes it as JPEG variants of the {@link ImageVariant} ladder.
+ * Re-encoding writes no metadata, so EXIF (GPS position, camera data) is stripped; the EXIF orientation
+ * is applied to the pixels first so phone photos stay upright.
+ * Decoding is memory-heavy, so it runs on a small bounded pool rather than on the caller's thread;
+ * when the queue is full the call is rejected instead of piling up decoded bitmaps.
+ */
+@Log4j2
+@Component
+public class ImageProcessor {
+
+    public static final String CONTENT_TYPE = "image/jpeg";
+
+    // A 24 MP source is still decoded subsampled (see render), so the bitmap held per worker stays small
+    private static final long MAX_SOURCE_PIXELS = 24_000_000L;
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final ThreadPoolExecutor pool;
+
+    public ImageProcessor(@Value("${image.processing.workers:2}") int workers,
+                          @Value("${image.processing.queue-capacity:64}") int queueCapacity) {
+        this.pool = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    final var t = new Thread(r, "image-processing");
+                    t.setDaemon(true);
+                    return t;
+                });
+    }
+
+    /**
+     * Renders the requested variants, largest first; variants that would come out the same size share
+     * one byte array. Empty when the source is not a still image this processor can decode
+     * (GIF, unknown format, oversized), in which case callers upload the original.
+     *
+     * @throws RejectedExecutionException when the processing queue is full
+     */
+    public Optional<Map<ImageVariant, byte[]>> process(final InputStreamSource source,
+                                                       final Set<ImageVariant> variants) {
+        if (variants.isEmpty()) {
+            return Optional.empty();
+        }
+        final var future = CompletableFuture.supplyAsync(() -> render(source, variants), pool);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("image processing interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("image processing failed", e.getCause());
+        }
+    }
+
+    /**
+     * File name for an uploaded variant, e.g. "photo.png" -> "photo-thumbnail.jpg".
+     */
+    public static String variantFileName(final String originalName, final ImageVariant variant) {
+        final var name = (originalName == null || originalName.isBlank()) ? "image" : originalName;
+        final var dot = name.lastIndexOf('.');
+        final var base = dot > 0 ? name.substring(0, dot) : name;
+        return base + "-" + variant.name().toLowerCase(Locale.ROOT) + ".jpg";
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private Optional<Map<ImageVariant, byte[]>> render(final InputStreamSource source,
+                                                       final Set<ImageVariant> variants) {
+        try {
+            // 1) Probe format and dimensions, then decode with the same reader
+            final String format;
+            BufferedImage image;
+            try (var in = ImageIO.createImageInputStream(source.getInputStream())) {
+                final var readers = in == null ? Collections.<ImageReader>emptyIterator()
+                        : ImageIO.getImageReaders(in);
+                if (!readers.hasNext()) {
+                    return Optional.empty();
+                }
+                final var reader = readers.next();
+                try {
+                    reader.setInput(in, true, true);
+                    format = reader.getFormatName().toLowerCase(Locale.ROOT);
+                    // GIFs may be animated; re-encoding would keep only the first frame
+                    if ("gif".equals(format)
+                            || (long) reader.getWidth(0) * reader.getHeight(0) > MAX_SOURCE_PIXELS) {
+                        return Optional.empty();
+                    }
+                    // Decode at most twice the largest requested edge (enough for the halving resize)
+                    // instead of the full resolution: a 12 MP photo for a 320px avatar is read at 1/6
+                    final var neededEdge = 2 * variants.stream().mapToInt(ImageVariant::getMaxEdge).max().orElse(1);
+                    final var fullEdge = Math.max(reader.getWidth(0), reader.getHeight(0));
+                    final var subsampling = Math.max(1, fullEdge / neededEdge);
+                    final var param = reader.getDefaultReadParam();
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                    image = reader.read(0, param);
+                } finally {
+                    reader.dispose();
+                }
+            }
+
+            // 2) The re-encoded file carries no EXIF, so bake the orientation into the pixels
+            if ("jpeg".equals(format) || "jpg".equals(format)) {
+                image = orient(image, readExifOrientation(source));
+            }
+
+            // 3) Scale down step by step from the previous variant; never upscale
+            final var ordered = variants.stream()
+                    .sorted(Comparator.comparingInt(ImageVariant::getMaxEdge).reversed())
+                    .toList();
+            final var result = new EnumMap<ImageVariant, byte[]>(ImageVariant.class);
+            final var sourceEdge = Math.max(image.getWidth(), image.getHeight());
+            var current = image;
+            byte[] previous = null;
+            for (final var variant : ordered) {
+                final var scale = Math.min(1.0, (double) variant.getMaxEdge() / sourceEdge);
+                final var width = Math.max(1, (int) Math.round(image.getWidth() * scale));
+                final var height = Math.max(1, (int) Math.round(image.getHeight() * scale));
+                if (previous == null || width != current.getWidth() || height != current.getHeight()) {
+                    current = resize(current, width, height);
+                    previous = encodeJpeg(current);
+                }
+                result.put(variant, previous);
+            }
+            return Optional.of(result);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Image could not be processed, the original will be used", e);
+            return Optional.empty();
+        }
+    }
+
+    // Halves at most once per pass (bilinear), which keeps large downscales from aliasing;
+    // also flattens transparency onto white since JPEG has no alpha
+    private static BufferedImage resize(final BufferedImage source, final int width, final int height) {
+        var current = source;
+        var w = source.getWidth();
+        var h = source.getHeight();
+        do {
+            w = Math.max(width, w / 2);
+            h = Math.max(height, h / 2);
+            final var next = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            final var g = next.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, w, h);
+                g.drawImage(current, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (w != width || h != height);
+        return current;
+    }
+
+    private static byte[] encodeJpeg(final BufferedImage image) throws IOException {
+        final var writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        final var out = new ByteArrayOutputStream();
+        try (var ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            final var param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            // No metadata argument: nothing from the source (EXIF, ICC, comments) is written
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static BufferedImage orient(final BufferedImage source, final int orientation) {
+        if (orientation <= 1 || orientation > 8) {
+            return source;
+        }
+        final var w = source.getWidth();
+        final var h = source.getHeight();
+        final var t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }
+            case 7 -> { t.translate(h, w); t.rotate(Math.PI / 2); t.scale(-1, 1); }
+            case 8 -> { t.translate(0, w); t.rotate(-Math.PI / 2); }
+            default -> { }
+        }
+        final var swap = orientation >= 5;
+        final var rotated = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        final var g = rotated.createGraphics();
+        try {
+            g.drawImage(source, t, null);
+        } finally {
+            g.dispose();
+        }
+        return rotated;
+    }
+
+    // EXIF orientation (1..8) from the JPEG's APP1 segment; 1 when absent or unreadable
+    private static int readExifOrientation(final InputStreamSource source) {
+        try (var in = new DataInputStream(new BufferedInputStream(source.getInputStream()))) {
+            if (in.readUnsignedShort() != 0xFFD8) {
+                return 1;
+            }
+            while (true) {
+                final var marker = in.readUnsignedShort();
+                // Start of scan (or garbage): EXIF always precedes the pixel data
+                if ((marker & 0xFF00) != 0xFF00 || marker == 0xFFDA) {
+                    return 1;
+                }
+                final var length = in.readUnsignedShort() - 2;
+                if (marker != 0xFFE1) {
+                    in.skipNBytes(length);
+                    continue;
+                }
+                final var orientation = orientationOf(in.readNBytes(length));
+                if (orientation > 0) {
+                    return orientation;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            return 1;
+        }
+    }
+
+    // 0 when the APP1 segment is not EXIF (e.g. XMP)
+    private static int orientationOf(final byte[] segment) {
+        if (segment.length < 14 || segment[0] != 'E' || segment[1] != 'x'
+                || segment[2] != 'i' || segment[3] != 'f') {
+            return 0;
+        }
+        final var tiff = ByteBuffer.wrap(segment, 6, segment.length - 6).slice();
+        tiff.order(tiff.getShort(0) == 0x4949 ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+        final var ifd = tiff.getInt(4);
+        final var entries = tiff.getShort(ifd) & 0xFFFF;
+        for (int i = 0; i < entries; i++) {
+            final var entry = ifd + 2 + i * 12;
+            if ((tiff.getShort(entry) & 0xFFFF) == 0x0112) {
+                return tiff.getShort(entry + 8) & 0xFFFF;
+            }
+        }
+        return 1;
+    }
+}
@@ -6,13 +6,30 @@ import com.knockbook.backend.exception.EmptyFileException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.InvalidMediaTypeException;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
 import org.springframework.stereotype.Component;
-import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 @Component
 @RequiredArgsConstructor
@@ -22,52 +39,135 @@ public class ImgbbUploader {
     private final WebClient webClient;
     private final ImgbbApiProperties props;
 
+    private static final int STREAM_CHUNK_BYTES = 64 * 1024;
+
 //    upload file to ImgBB and return public URL
 //    throw runtime exception if failed
     public String upload(final MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            final var name = file != null ? file.getOriginalFilename() : null;
-            throw new EmptyFileException(name != null ? name : "unknown");
+        validate(file);
+        try {
+            return uploadMono(file, file.getOriginalFilename(), file.getContentType()).block();
+        } catch (RuntimeException e) {
+            throw toUploadException(e);
         }
+    }
 
-        final var safeName = sanitizeFileName(file.getOriginalFilename());
-        final var form = new LinkedMultiValueMap<String, Object>();
-        form.add("image", new ByteArrayResource(toBytes(file)) {
-            @Override public String getFilename() { return safeName; }
-        });
-        form.add("name", safeName);
-
+    /**
+     * Uploads all files concurrently (at most imgbb.api.upload-concurrency at a time)
+     * and returns their URLs in input order. Fails if any file fails after its retries.
+     * Call this before opening a DB transaction so no connection is held during the uploads.
+     */
+    public List<String> uploadAll(final List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) {
+            return List.of();
+        }
+        files.forEach(ImgbbUploader::validate);
         try {
-            final var res = webClient.post()
-                    .uri(u -> u.path(props.getUploadPath())
-                            .queryParam("key", props.getKey())
-                            .build())
-                    .contentType(MediaType.MULTIPART_FORM_DATA)
-                    .body(BodyInserters.fromMultipartData(form))
-                    .retrieve()
-                    .bodyToMono(ImgbbUploadResponse.class)
+            return Flux.fromIterable(files)
+                    .flatMapSequential(f -> uploadMono(f, f.getOriginalFilename(), f.getContentType()),
+                            props.getUploadConcurrency())
+                    .collectList()
                     .block();
+        } catch (RuntimeException e) {
+            throw toUploadException(e);
+        }
+    }
+
+    /**
+     * Uploads a file that is already on local disk (e.g. the upload outbox spool).
+     */
+    public String upload(final Path file, final String originalName, final String contentType) {
+        try {
+            return uploadMono(new FileSystemResource(file), originalName, contentType).block();
+        } catch (RuntimeException e) {
+            throw toUploadException(e);
+        }
+    }
 
-            if (res == null || !Boolean.TRUE.equals(res.getSuccess())
-                    || res.getData() == null || res.getData().getUrl() == null) {
-                final var err = (res != null && res.getError() != null)
-                        ? res.getError().getMessage() : "unknown";
-                throw new RuntimeException("ImgBB upload failed: " + err);
-            }
-            return res.getData().getUrl();
-
-        } catch (WebClientResponseException e) {
-            throw new RuntimeException("ImgBB http error: " + e.getRawStatusCode()
-                    + " " + e.getResponseBodyAsString(), e);
-        } catch (Exception e) {
-            throw new RuntimeException("ImgBB upload error: " + e.getMessage(), e);
+    /**
+     * Uploads an in-memory file, e.g. a resized variant from ImageProcessor.
+     */
+    public String upload(final byte[] bytes, final String fileName, final String contentType) {
+        try {
+            return uploadMono(new ByteArrayResource(bytes), fileName, contentType).block();
+        } catch (RuntimeException e) {
+            throw toUploadException(e);
         }
     }
 
-    private static byte[] toBytes(final MultipartFile file) {
-        try { return file.getBytes();
-        } catch (Exception e) {
-            throw new RuntimeException("failed to read file bytes", e);
+    // One upload attempt chain: per-attempt timeout, backoff retries on transient failures only
+    private Mono<String> uploadMono(final InputStreamSource source, final String originalName,
+                                    final String contentType) {
+        return Mono.defer(() -> {
+                    final var safeName = sanitizeFileName(originalName);
+                    // Stream the part in 64KB buffers straight from the multipart temp file / stream;
+                    // the file is re-opened per attempt, so retries do not need a heap copy either.
+                    // The reads block, so they run on boundedElastic instead of a Netty event loop
+                    final var content = DataBufferUtils.readInputStream(
+                                    source::getInputStream, DefaultDataBufferFactory.sharedInstance, STREAM_CHUNK_BYTES)
+                            .subscribeOn(Schedulers.boundedElastic());
+                    final var form = new MultipartBodyBuilder();
+                    form.asyncPart("image", content, DataBuffer.class)
+                            .filename(safeName)
+                            .contentType(toMediaType(contentType));
+                    form.part("name", safeName);
+
+                    return webClient.post()
+                            .uri(u -> u.path(props.getUploadPath())
+                                    .queryParam("key", props.getKey())
+                                    .build())
+                            .contentType(MediaType.MULTIPART_FORM_DATA)
+                            .body(BodyInserters.fromMultipartData(form.build()))
+                            .retrieve()
+                            .bodyToMono(ImgbbUploadResponse.class);
+                })
+                .timeout(Duration.ofSeconds(props.getFileTimeoutSeconds()))
+                .retryWhen(Retry.backoff(props.getMaxRetries(), Duration.ofMillis(props.getRetryBackoffMillis()))
+                        .filter(ImgbbUploader::isTransient)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .map(res -> {
+                    if (res == null || !Boolean.TRUE.equals(res.getSuccess())
+                            || res.getData() == null || res.getData().getUrl() == null) {
+                        final var err = (res != null && res.getError() != null)
+                                ? res.getError().getMessage() : "unknown";
+                        throw new RuntimeException("ImgBB upload failed: " + err);
+                    }
+                    return res.getData().getUrl();
+                });
+    }
+
+    private static boolean isTransient(final Throwable e) {
+        if (e instanceof WebClientResponseException r) {
+            return r.getStatusCode().is5xxServerError() || r.getStatusCode().value() == 429;
+        }
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    private static RuntimeException toUploadException(final RuntimeException e) {
+        final var cause = Exceptions.unwrap(e);
+        if (cause instanceof EmptyFileException empty) {
+            return empty;
+        }
+        if (cause instanceof WebClientResponseException r) {
+            return new RuntimeException("ImgBB http error: " + r.getRawStatusCode()
+                    + " " + r.getResponseBodyAsString(), r);
+        }
+        return new RuntimeException("ImgBB upload error: " + cause.getMessage(), cause);
+    }
+
+    private static void validate(final MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            final var name = file != null ? file.getOriginalFilename() : null;
+            throw new EmptyFileException(name != null ? name : "unknown");
+        }
+    }
+
+    private static MediaType toMediaType(final String contentType) {
+        try {
+            return contentType == null
+                    ? MediaType.APPLICATION_OCTET_STREAM : MediaType.parseMediaType(contentType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
         }
     }
 
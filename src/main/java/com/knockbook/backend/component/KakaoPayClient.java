@@ -46,4 +46,25 @@ public class KakaoPayClient {
         );
         return res.getBody();
     }
+
+    // Payment status by tid (status: READY, SUCCESS_PAYMENT, CANCEL_PAYMENT, FAIL_PAYMENT, ...)
+    public Map<String, Object> order(Map<String, Object> body) {
+        final var res = restTemplate.exchange(
+                props.getApiBase() + "/online/v1/payment/order",
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers()),
+                Map.class
+        );
+        return res.getBody();
+    }
+
+    public Map<String, Object> cancel(Map<String, Object> body) {
+        final var res = restTemplate.exchange(
+                props.getApiBase() + "/online/v1/payment/cancel",
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers()),
+                Map.class
+        );
+        return res.getBody();
+    }
 }
@@ -16,4 +16,5 @@ public class KakaoPayProps {
     private String approvalReturnBase;  // kakaopay.approval-return-base
     private String cancelReturnBase;    // kakaopay.cancel-return-base
     private String failReturnBase;      // kakaopay.fail-return-base
+    private long approvalStaleAfterSeconds = 120; // kakaopay.approval-stale-after-seconds
 }
@@ -0,0 +1,24 @@
+package com.knockbook.backend.component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM invalidation channel: delivers every event synchronously to the local subscribers.
+ * Correct for a single node and used as the stand-in in tests.
+ */
+public class LocalUserCacheInvalidationChannel implements UserCacheInvalidationChannel {
+
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long userId) {
+        listeners.forEach(l -> l.accept(userId));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+}
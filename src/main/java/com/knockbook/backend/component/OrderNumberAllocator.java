@@ -0,0 +1,130 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.repository.OrderNumberBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Hands out order numbers "O{yyyyMMdd}{seq}" (seq zero-padded to 6 digits) without touching the
+ * order row after insert. Each node reserves a block of sequence numbers per day from the database
+ * (hi/lo) and serves numbers from memory until the block is used up, so numbers are unique across
+ * nodes and an order is inserted with its number in one statement.
+ * Blocks are claimed on one background thread, never by a caller: callers already hold a transaction
+ * connection, and a claim needs a second one, so claiming in (or while blocking) callers could pin the
+ * whole pool. The next block is prefetched once half of the current one is used.
+ * Numbers left in a block at shutdown or day change are skipped, so sequences can have gaps.
+ */
+@Component
+public class OrderNumberAllocator {
+
+    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter YMD = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final long CLAIM_TIMEOUT_SECONDS = 10;
+
+    private final OrderNumberBlockRepository blockRepository;
+    private final int blockSize;
+    private final Supplier<String> today;
+    private final ExecutorService claimer = Executors.newSingleThreadExecutor(r -> {
+        final var t = new Thread(r, "order-no-claim");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Guarded by this
+    private Block current;
+    private CompletableFuture<Block> pending; // claim of the block after current, possibly done
+
+    public OrderNumberAllocator(OrderNumberBlockRepository blockRepository,
+                                @Value("${order.number.block-size:100}") int blockSize) {
+        this(blockRepository, blockSize, () -> LocalDate.now(ZONE_SEOUL).format(YMD));
+    }
+
+    OrderNumberAllocator(OrderNumberBlockRepository blockRepository, int blockSize, Supplier<String> today) {
+        this.blockRepository = blockRepository;
+        this.blockSize = blockSize;
+        this.today = today;
+    }
+
+    public String next() {
+        while (true) {
+            final CompletableFuture<Block> waitFor;
+            synchronized (this) {
+                final var day = today.get();
+                if (current != null && !current.day.equals(day)) {
+                    current = null;
+                }
+                if (pending != null && pending.isDone()) {
+                    final var claimed = pending.isCompletedExceptionally() ? null : pending.join();
+                    if (claimed == null || !claimed.day.equals(day)) {
+                        pending = null; // failed or for another day; claimed again below
+                    } else if (current == null || current.next > current.limit) {
+                        current = claimed;
+                        pending = null;
+                    }
+                }
+                if (current != null && current.next <= current.limit) {
+                    final var seq = current.next++;
+                    if (pending == null && current.limit - seq < blockSize / 2) {
+                        pending = claim(day);
+                    }
+                    return "O" + day + String.format("%06d", seq);
+                }
+                if (pending == null) {
+                    pending = claim(day);
+                }
+                waitFor = pending;
+            }
+            // Wait outside the monitor, so no caller holds it (and its connection) through a claim
+            await(waitFor);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        claimer.shutdownNow();
+    }
+
+    private CompletableFuture<Block> claim(final String day) {
+        return CompletableFuture.supplyAsync(() -> {
+            final var hi = blockRepository.claimBlock(day, blockSize);
+            return new Block(day, (hi - 1) * blockSize + 1, hi * blockSize);
+        }, claimer);
+    }
+
+    private static void await(final CompletableFuture<Block> claim) {
+        try {
+            claim.get(CLAIM_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("ORDER_NUMBER_UNAVAILABLE", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("ORDER_NUMBER_UNAVAILABLE", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("ORDER_NUMBER_UNAVAILABLE", e);
+        }
+    }
+
+    private static final class Block {
+        private final String day;
+        private long next;        // next sequence to hand out
+        private final long limit; // last sequence of the block
+
+        private Block(String day, long next, long limit) {
+            this.day = day;
+            this.next = next;
+            this.limit = limit;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.PaymentApprovalResult;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates payment approval requests (double-clicked or retried PG callbacks) within this node.
+ * Concurrent requests with the same key wait on the first one's in-flight future; requests arriving
+ * after it succeeded get its cached result for a while. Failures are not cached, so a retry runs again.
+ * Cross-node duplicates are handled by the payment's READY -> APPROVING claim in the database.
+ */
+@Component
+public class PaymentApprovalCoalescer {
+
+    private static final long COMPLETED_TTL_MILLIS = 10 * 60 * 1000L;
+    private static final int MAX_COMPLETED = 10_000;
+    private static final long MAX_WAIT_SECONDS = 30;
+
+    private final Map<String, CompletableFuture<PaymentApprovalResult>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Completed> completed = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Completed> eldest) {
+                    return size() > MAX_COMPLETED;
+                }
+            });
+
+    public PaymentApprovalResult approveOnce(final String key, final Supplier<PaymentApprovalResult> approval) {
+        final var done = completedResult(key);
+        if (done != null) {
+            return done;
+        }
+
+        final var mine = new CompletableFuture<PaymentApprovalResult>();
+        final var running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            // The previous owner may have finished between the cache check and putIfAbsent
+            final var raced = completedResult(key);
+            final var result = raced != null ? raced : approval.get();
+            // Cached before the in-flight entry is removed, so a late duplicate always finds one of them
+            completed.put(key, new Completed(result, System.currentTimeMillis() + COMPLETED_TTL_MILLIS));
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private PaymentApprovalResult completedResult(final String key) {
+        final var entry = completed.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            completed.remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    private static PaymentApprovalResult await(final CompletableFuture<PaymentApprovalResult> running) {
+        try {
+            return running.get(MAX_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("PAYMENT_APPROVAL_FAILED", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("PAYMENT_APPROVAL_IN_PROGRESS");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("PAYMENT_APPROVAL_IN_PROGRESS");
+        }
+    }
+
+    private record Completed(PaymentApprovalResult result, long expiresAt) {}
+}
@@ -0,0 +1,119 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.ReactionTarget;
+import com.knockbook.backend.repository.ReactionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Coalesces like/unlike count deltas per target in memory and writes them to the
+ * denormalized count columns in batched UPDATEs. A viral post then costs one row update
+ * per flush interval instead of one per like, and likes on it no longer queue on its row lock.
+ * <p>
+ * The count columns are eventually consistent with the like rows: the rows are written
+ * synchronously, the counts lag by up to one flush interval. A delta is only buffered once the
+ * transaction that wrote its like row commits. Shutdown flushes; a crash loses at most one interval
+ * of deltas, which a node started with reaction.counters.reconcile-on-startup=true recounts from
+ * the like rows. Idle targets are dropped and a full buffer flushes early (see {@link WriteBehindCounters});
+ * each target type has its own counters, so a failed chunk never re-queues another type's written deltas.
+ */
+@Log4j2
+@Component
+public class ReactionCounterBuffer {
+
+    private static final int MAX_TARGETS_PER_FLUSH = 500;
+    private static final int MAX_TRACKED_TARGETS = 50_000;
+
+    private final ReactionRepository reactionRepository;
+    private final boolean reconcileOnStartup;
+    private final Map<ReactionTarget, WriteBehindCounters<Long>> pending = new EnumMap<>(ReactionTarget.class);
+    private final ExecutorService earlyFlusher = Executors.newSingleThreadExecutor(r -> {
+        final var t = new Thread(r, "reaction-counters-flush");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReactionCounterBuffer(ReactionRepository reactionRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${reaction.counters.reconcile-on-startup:false}") boolean reconcileOnStartup) {
+        this.reactionRepository = reactionRepository;
+        this.reconcileOnStartup = reconcileOnStartup;
+        final var flushTimer = Timer.builder("reaction.counters.flush")
+                .description("Time spent writing buffered reaction counts")
+                .register(meterRegistry);
+        for (final var target : ReactionTarget.values()) {
+            pending.put(target, new WriteBehindCounters<Long>("Reaction counts " + target, 1,
+                    MAX_TRACKED_TARGETS, MAX_TARGETS_PER_FLUSH, chunk -> write(target, chunk),
+                    flushTimer, earlyFlusher));
+        }
+        Gauge.builder("reaction.counters.tracked.targets", pending,
+                        p -> p.values().stream().mapToInt(WriteBehindCounters::tracked).sum())
+                .description("Targets with in-memory reaction count accumulators")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Buffers a count change once the current transaction (if any) commits.
+     */
+    public void add(final ReactionTarget target, final Long targetId, final long delta) {
+        if (targetId == null || delta == 0) {
+            return;
+        }
+        AfterCommit.run(() -> pending.get(target).add(targetId, delta));
+    }
+
+    /**
+     * Delta not yet written to the count column, so reads can report an up-to-date count.
+     */
+    public long pendingDelta(final ReactionTarget target, final Long targetId) {
+        return pending.get(target).pending(targetId, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${reaction.counters.flush-interval-millis:1000}")
+    public synchronized void flush() {
+        pending.values().forEach(WriteBehindCounters::flush);
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        earlyFlusher.shutdown();
+        flush();
+    }
+
+    /**
+     * Repairs counts that drifted from the like rows, e.g. deltas lost in a crash.
+     * Pending deltas are written first so the recount does not count them twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void reconcile() {
+        if (!reconcileOnStartup) {
+            return;
+        }
+        for (final var target : ReactionTarget.values()) {
+            pending.get(target).flush();
+            final var updated = reactionRepository.recountAll(target);
+            log.info("Reaction counts reconciled for {}: {} rows", target, updated);
+        }
+    }
+
+    private void write(final ReactionTarget target, final List<WriteBehindCounters.Delta<Long>> chunk) {
+        final var deltas = new LinkedHashMap<Long, Long>();
+        chunk.forEach(d -> deltas.put(d.key(), d.values()[0]));
+        reactionRepository.applyCountDeltas(target, deltas);
+    }
+}
@@ -0,0 +1,204 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.User;
+import com.knockbook.backend.domain.UserDisplayProfile;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The one cache of users by id, with LRU eviction and a TTL. It serves two views of the same entry:
+ * the full {@link User} for UserService.getUser and the {@link UserDisplayProfile} shown next to
+ * posts, comments and reviews (missing ids are loaded together in one batch). A full user also
+ * answers profile lookups; a profile-only entry is upgraded when the full user is requested.
+ * Any write to a user goes through {@link #invalidate(Long)}, which broadcasts on the
+ * {@link UserCacheInvalidationChannel} so every node drops both views at once. A load that overlaps an
+ * invalidation is returned but not cached, since it may have read the row before the write.
+ * Hit/miss counts are exported as user.cache{view,result} (see /actuator/metrics/user.cache).
+ */
+@Component
+public class UserCache {
+
+    private final long ttlMillis;
+    private final int maxEntries;
+    private final UserCacheInvalidationChannel channel;
+    private final Map<Long, Entry> cache;
+    // Bumped on every invalidation; a load only caches its result if no invalidation happened meanwhile.
+    // Guarded by cache
+    private long generation;
+
+    private final Counter userHits;
+    private final Counter userMisses;
+    private final Counter profileHits;
+    private final Counter profileMisses;
+    private final Counter evictions;
+
+    public UserCache(UserCacheInvalidationChannel channel,
+                     MeterRegistry meterRegistry,
+                     @Value("${user.cache.ttl-seconds:300}") long ttlSeconds,
+                     @Value("${user.cache.max-entries:50000}") int maxEntries) {
+        this.channel = channel;
+        this.ttlMillis = ttlSeconds * 1000L;
+        this.maxEntries = maxEntries;
+
+        this.userHits = lookups(meterRegistry, "user", "hit");
+        this.userMisses = lookups(meterRegistry, "user", "miss");
+        this.profileHits = lookups(meterRegistry, "profile", "hit");
+        this.profileMisses = lookups(meterRegistry, "profile", "miss");
+        this.evictions = Counter.builder("user.cache.evictions")
+                .description("Users dropped by the LRU bound")
+                .register(meterRegistry);
+
+        // Access-ordered, so the eldest entry is the least recently used
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                final var evict = size() > UserCache.this.maxEntries;
+                if (evict) {
+                    UserCache.this.evictions.increment();
+                }
+                return evict;
+            }
+        };
+
+        Gauge.builder("user.cache.size", this, UserCache::size).register(meterRegistry);
+        Gauge.builder("user.cache.hit.ratio", this, UserCache::hitRatio)
+                .description("Hits / lookups since startup")
+                .register(meterRegistry);
+
+        channel.subscribe(this::evictLocal);
+    }
+
+    public Optional<User> get(final Long userId, final Function<Long, Optional<User>> loader) {
+        final var now = System.currentTimeMillis();
+        final long loadGeneration;
+        synchronized (cache) {
+            final var cached = cache.get(userId);
+            if (cached != null && cached.user != null && cached.expiresAt > now) {
+                userHits.increment();
+                return Optional.of(cached.user);
+            }
+            loadGeneration = generation;
+        }
+        userMisses.increment();
+
+        final var loaded = loader.apply(userId);
+        loaded.ifPresent(user -> {
+            synchronized (cache) {
+                if (generation == loadGeneration) {
+                    cache.put(userId, new Entry(user, toProfile(user), now + ttlMillis));
+                }
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Returns the display profiles of the given ids that exist; the loader receives only the ids not cached.
+     */
+    public Map<Long, UserDisplayProfile> getProfiles(final Collection<Long> userIds,
+                                                     final Function<Set<Long>, Map<Long, UserDisplayProfile>> loader) {
+        final var now = System.currentTimeMillis();
+        final var result = new HashMap<Long, UserDisplayProfile>(userIds.size());
+        final var missing = new HashSet<Long>();
+        final long loadGeneration;
+        synchronized (cache) {
+            loadGeneration = generation;
+            for (final var userId : userIds) {
+                if (userId == null) {
+                    continue;
+                }
+                final var cached = cache.get(userId);
+                if (cached != null && cached.expiresAt > now) {
+                    result.put(userId, cached.profile);
+                } else {
+                    missing.add(userId);
+                }
+            }
+        }
+        profileHits.increment(result.size());
+        if (missing.isEmpty()) {
+            return result;
+        }
+        profileMisses.increment(missing.size());
+
+        final var loaded = loader.apply(missing);
+        synchronized (cache) {
+            if (generation != loadGeneration) {
+                result.putAll(loaded);
+                return result;
+            }
+            loaded.forEach((userId, profile) -> {
+                // Never downgrade a full entry another thread cached meanwhile
+                final var current = cache.get(userId);
+                if (current == null || current.user == null || current.expiresAt <= now) {
+                    cache.put(userId, new Entry(null, profile, now + ttlMillis));
+                }
+            });
+        }
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Drops the user from the cache on every node now and again after the surrounding transaction
+     * commits, so a read racing with the write cannot re-cache the old row.
+     */
+    public void invalidate(final Long userId) {
+        if (userId == null) {
+            return;
+        }
+        channel.publish(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    channel.publish(userId);
+                }
+            });
+        }
+    }
+
+    private void evictLocal(final Long userId) {
+        synchronized (cache) {
+            generation++;
+            cache.remove(userId);
+        }
+    }
+
+    private static UserDisplayProfile toProfile(final User user) {
+        return UserDisplayProfile.builder()
+                .id(user.getId())
+                .displayName(user.getDisplayName())
+                .avatarUrl(user.getAvatarUrl())
+                .mbti(user.getMbti())
+                .bio(user.getBio())
+                .build();
+    }
+
+    private static Counter lookups(final MeterRegistry meterRegistry, final String view, final String result) {
+        return Counter.builder("user.cache").tag("view", view).tag("result", result).register(meterRegistry);
+    }
+
+    private double size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private double hitRatio() {
+        final var hits = userHits.count() + profileHits.count();
+        final var lookups = hits + userMisses.count() + profileMisses.count();
+        return lookups == 0 ? 0.0 : hits / lookups;
+    }
+
+    // user is null when only the display profile was loaded
+    private record Entry(User user, UserDisplayProfile profile, long expiresAt) {}
+}
@@ -0,0 +1,15 @@
+package com.knockbook.backend.component;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts "user changed" events to the {@link UserCache} of every node.
+ * The default bean is {@link LocalUserCacheInvalidationChannel} (this JVM only);
+ * a multi-node deployment registers a broker-backed implementation instead.
+ */
+public interface UserCacheInvalidationChannel {
+
+    void publish(Long userId);
+
+    void subscribe(Consumer<Long> listener);
+}
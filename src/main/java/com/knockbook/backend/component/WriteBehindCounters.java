@@ -0,0 +1,168 @@
+package com.knockbook.backend.component;
+
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keyed write-behind counters behind the counter buffers. Hot paths add deltas to in-memory
+ * accumulators (a fixed number of slots per key); {@link #flush()} drains them and hands the
+ * non-zero ones to the writer in chunks, re-queueing what a failed write left unwritten.
+ * Keys idle for a whole interval are dropped, and more than maxTracked keys trigger an early
+ * flush on the owner's flush executor. Not a bean: each buffer owns its instances.
+ */
+@Log4j2
+public class WriteBehindCounters<K> {
+
+    /**
+     * Writes one chunk of deltas, all or nothing.
+     */
+    @FunctionalInterface
+    public interface Writer<K> {
+        void write(List<Delta<K>> chunk);
+    }
+
+    public record Delta<K>(K key, long[] values) {}
+
+    private final String name;
+    private final int slots;
+    private final int maxTracked;
+    private final int maxPerFlush;
+    private final Writer<K> writer;
+    private final Timer flushTimer;
+    private final Executor earlyFlusher;
+
+    private final Map<K, AtomicLongArray> pending = new ConcurrentHashMap<>();
+    private final AtomicLong lastFlushedAt = new AtomicLong(System.currentTimeMillis());
+    private final AtomicBoolean earlyFlushQueued = new AtomicBoolean(false);
+
+    public WriteBehindCounters(String name, int slots, int maxTracked, int maxPerFlush,
+                               Writer<K> writer, Timer flushTimer, Executor earlyFlusher) {
+        this.name = name;
+        this.slots = slots;
+        this.maxTracked = maxTracked;
+        this.maxPerFlush = maxPerFlush;
+        this.writer = writer;
+        this.flushTimer = flushTimer;
+        this.earlyFlusher = earlyFlusher;
+    }
+
+    /**
+     * Adds one delta per slot to the key's accumulator.
+     */
+    public void add(final K key, final long... deltas) {
+        var counters = counters(key);
+        addTo(counters, deltas);
+        // The entry may have been evicted as idle between the lookup and the add; move what landed in it
+        while (pending.get(key) != counters) {
+            final var moved = drain(counters);
+            if (moved == null) {
+                break;
+            }
+            counters = counters(key);
+            addTo(counters, moved);
+        }
+
+        if (pending.size() > maxTracked && earlyFlushQueued.compareAndSet(false, true)) {
+            try {
+                earlyFlusher.execute(this::flush);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the shutdown flush writes everything
+                earlyFlushQueued.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delta of one slot not yet written, so reads can report an up-to-date value.
+     */
+    public long pending(final K key, final int slot) {
+        final var counters = pending.get(key);
+        return counters == null ? 0L : counters.get(slot);
+    }
+
+    public int tracked() {
+        return pending.size();
+    }
+
+    public long lastFlushedAt() {
+        return lastFlushedAt.get();
+    }
+
+    public synchronized void flush() {
+        earlyFlushQueued.set(false);
+        final var deltas = new ArrayList<Delta<K>>();
+        for (final var entry : pending.entrySet()) {
+            final var values = drain(entry.getValue());
+            if (values == null) {
+                evictIdle(entry.getKey(), entry.getValue());
+            } else {
+                deltas.add(new Delta<>(entry.getKey(), values));
+            }
+        }
+
+        if (deltas.isEmpty()) {
+            lastFlushedAt.set(System.currentTimeMillis());
+            return;
+        }
+
+        flushTimer.record(() -> {
+            for (int from = 0; from < deltas.size(); from += maxPerFlush) {
+                try {
+                    writer.write(deltas.subList(from, Math.min(from + maxPerFlush, deltas.size())));
+                } catch (Exception e) {
+                    // Put the unwritten deltas back so the next interval retries them
+                    final var unwritten = deltas.subList(from, deltas.size());
+                    log.warn("{} flush failed, re-queueing {} keys", name, unwritten.size(), e);
+                    unwritten.forEach(d -> add(d.key(), d.values()));
+                    return;
+                }
+            }
+            lastFlushedAt.set(System.currentTimeMillis());
+        });
+    }
+
+    private void evictIdle(final K key, final AtomicLongArray counters) {
+        if (!pending.remove(key, counters)) {
+            return;
+        }
+        // A writer that looked the entry up before the removal may already have added to it
+        final var late = drain(counters);
+        if (late != null) {
+            add(key, late);
+        }
+    }
+
+    private AtomicLongArray counters(final K key) {
+        return pending.computeIfAbsent(key, k -> new AtomicLongArray(slots));
+    }
+
+    private static void addTo(final AtomicLongArray counters, final long[] deltas) {
+        for (int i = 0; i < deltas.length; i++) {
+            if (deltas[i] != 0) {
+                counters.addAndGet(i, deltas[i]);
+            }
+        }
+    }
+
+    // Drained slot by slot with getAndSet; LongAdder.sumThenReset could drop an add racing the reset.
+    // Returns null when every slot was zero
+    private long[] drain(final AtomicLongArray counters) {
+        final var values = new long[slots];
+        var any = false;
+        for (int i = 0; i < slots; i++) {
+            values[i] = counters.getAndSet(i, 0);
+            any |= values[i] != 0;
+        }
+        return any ? values : null;
+    }
+}
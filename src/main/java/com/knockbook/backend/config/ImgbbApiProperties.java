@@ -14,4 +14,8 @@ public class ImgbbApiProperties {
     private long timeoutSeconds = 30;
     private int connectTimeoutMillis = 5000;
     private Integer maxInMemorySizeBytes;
+    private int uploadConcurrency = 4;   // parallel uploads per uploadAll call
+    private long fileTimeoutSeconds = 20; // per attempt
+    private int maxRetries = 2;          // transient failures only (5xx, 429, I/O, timeout)
+    private long retryBackoffMillis = 300;
 }
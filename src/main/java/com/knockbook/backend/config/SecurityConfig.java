@@ -30,6 +30,7 @@ public class SecurityConfig {
                         .requestMatchers("/auth/token/**").permitAll()
                         .requestMatchers("/checkout/kakao/**","/error").permitAll()
                         .requestMatchers("/db-ping").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/images/pending/**").permitAll()
                         .anyRequest().authenticated())
                 .addFilterBefore(accessTokenFilter, UsernamePasswordAuthenticationFilter.class)
                 .exceptionHandling(e -> e
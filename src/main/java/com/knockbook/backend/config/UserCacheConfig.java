@@ -0,0 +1,18 @@
+package com.knockbook.backend.config;
+
+import com.knockbook.backend.component.LocalUserCacheInvalidationChannel;
+import com.knockbook.backend.component.UserCacheInvalidationChannel;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class UserCacheConfig {
+
+    // Replaced by any other UserCacheInvalidationChannel bean (e.g. one backed by a message broker)
+    @Bean
+    @ConditionalOnMissingBean(UserCacheInvalidationChannel.class)
+    public UserCacheInvalidationChannel userCacheInvalidationChannel() {
+        return new LocalUserCacheInvalidationChannel();
+    }
+}
@@ -34,18 +34,37 @@ public class BookController {
     public ResponseEntity<GetBooksSummaryResponse> getBooksSummary(
             @RequestParam("category") String category,
             @RequestParam("subcategory") String subcategory,
-            @RequestParam("page") @Min(value = 1) int page,
+            @RequestParam(value = "page", required = false) @Min(value = 1) Integer page,
             @RequestParam("size") @Min(value = 1) @Max(value = 50) int size,
             @RequestParam(required = false, defaultValue ="published") String sortBy,
             @RequestParam(required = false, defaultValue ="desc") String order,
             @RequestParam(required = false) String searchBy,
             @RequestParam(required = false) String searchKeyword,
             @RequestParam(required = false) Integer minPrice,
-            @RequestParam(required = false) Integer maxPrice
+            @RequestParam(required = false) Integer maxPrice,
+            @RequestParam(required = false) String cursor
     ) {
 
+        // Cursor mode (cursor param present, empty for the first page): keyset paging with cached totals.
+        // An explicit page always selects offset paging, so existing page-based clients are unaffected.
+        if (cursor != null && page == null) {
+            final var result = bookService.getBooksSummaryByCursor(
+                    category, subcategory, sortBy, order.equalsIgnoreCase("asc"),
+                    cursor, size, searchBy, searchKeyword, minPrice, maxPrice
+            );
+            final var totalItems = result.getTotalItems() == null ? 0 : result.getTotalItems().intValue();
+            final var response = GetBooksSummaryResponse.builder()
+                    .books(result.getBooks().stream().map(BookDtoMapper::toSummaryDto).toList())
+                    .size(size)
+                    .totalItems(totalItems)
+                    .totalPages((totalItems + size - 1) / size)
+                    .nextCursor(result.getNextCursor())
+                    .build();
+            return ResponseEntity.ok(response);
+        }
+
         // 1) Create PageRequest
-        final var zeroBasedPage = page - 1;
+        final var zeroBasedPage = (page == null ? 1 : page) - 1;
         final var sort = order.equalsIgnoreCase("asc")
                 ? Sort.by(sortBy).ascending()
                 : Sort.by(sortBy).descending();
@@ -81,7 +100,7 @@ public class BookController {
         final var id = Long.valueOf(bookId);
 
         // 2) Retrieve detailed book information from domain
-        final var bookDetail = bookService.getBookDetails(id);
+        final var bookDetail = bookService.viewBookDetails(id);
 
         // 3) Map domain object to DTO
         final var response = BookDtoMapper.toDetailDto(bookDetail);
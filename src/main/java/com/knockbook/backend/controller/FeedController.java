@@ -1,8 +1,12 @@
 package com.knockbook.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.knockbook.backend.component.FeedCursorCodec;
+import com.knockbook.backend.domain.FeedComment;
 import com.knockbook.backend.dto.*;
 import com.knockbook.backend.service.FeedService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
@@ -11,8 +15,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
@@ -22,6 +30,8 @@ import java.util.List;
 @Validated
 public class FeedController {
     private final FeedService feedService;
+    private final FeedCursorCodec feedCursorCodec;
+    private final ObjectMapper objectMapper;
 
     // Read
     @PreAuthorize("#userId == authentication.name")
@@ -30,13 +40,14 @@ public class FeedController {
             @PathVariable("userId") String userId,
             @RequestParam(required = false) String searchKeyword,
             @RequestParam(required = false) String after, // last postId
+            @RequestParam(required = false) String cursor, // signed cursor (preferred over after)
             @RequestParam @Min(1) int size,
             @RequestParam(required=false) String mbti
     ){
         final var uid = Long.parseLong(userId);
-        final var afterId = (after == null || after.isBlank()) ? null : Long.parseLong(after);
+        final var afterId = feedCursorCodec.parseAfterId(after);
 
-        final var result = feedService.getFeedPosts(uid, searchKeyword, afterId, size, mbti);
+        final var result = feedService.getFeedPosts(uid, searchKeyword, cursor, afterId, size, mbti);
 
         final var feedPosts = result.getFeedPosts().stream()
                 .map(p -> FeedPostDTO.builder()
@@ -57,6 +68,7 @@ public class FeedController {
         final var body = GetFeedPostsResponse.builder()
                 .feedPosts(feedPosts)
                 .nextAfter(result.getNextAfter())
+                .nextCursor(result.getNextCursor())
                 .build();
 
         return ResponseEntity.ok(body);
@@ -67,11 +79,13 @@ public class FeedController {
     public ResponseEntity<GetFeedProfileResponse> getProfilePostThumbnails(
             @PathVariable("userId") String userId,
             @RequestParam(required = false) String after, // last postId
-            @RequestParam @Min(1) int size
+            @RequestParam(required = false) String cursor, // signed cursor (preferred over after)
+            @RequestParam @Min(1) int size,
+            @RequestParam(defaultValue = "false") boolean includeCount // count is always sent on the first page
     ) {
         final var uid = Long.parseLong(userId);
-        final var afterId = (after == null || after.isBlank()) ? null : Long.parseLong(after);
-        final var result = feedService.getProfilePostThumbnails(uid, afterId, size);
+        final var afterId = feedCursorCodec.parseAfterId(after);
+        final var result = feedService.getProfilePostThumbnails(uid, cursor, afterId, size, includeCount);
         final var body = GetFeedProfileResponse.builder()
                 .postsCount(result.getPostsCount())
                 .profileThumbnails(
@@ -82,6 +96,7 @@ public class FeedController {
                                         .build())
                                 .toList())
                 .nextAfter(result.getNextAfter())
+                .nextCursor(result.getNextCursor())
                 .build();
 
         return ResponseEntity.ok(body);
@@ -92,11 +107,13 @@ public class FeedController {
     public ResponseEntity<GetFeedProfileResponse> getProfileSavedThumbnails(
             @PathVariable("userId") String userId,
             @RequestParam(required = false) String after, // last postId
-            @RequestParam @Min(1) int size
+            @RequestParam(required = false) String cursor, // signed cursor (preferred over after)
+            @RequestParam @Min(1) int size,
+            @RequestParam(defaultValue = "false") boolean includeCount // count is always sent on the first page
     ) {
         final var uid = Long.parseLong(userId);
-        final var afterId = (after == null || after.isBlank()) ? null : Long.parseLong(after);
-        final var result = feedService.getProfileSavedThumbnails(uid, afterId, size);
+        final var afterId = feedCursorCodec.parseAfterId(after);
+        final var result = feedService.getProfileSavedThumbnails(uid, cursor, afterId, size, includeCount);
         final var body = GetFeedProfileResponse.builder()
                 .postsCount(result.getPostsCount())
                 .profileThumbnails(
@@ -107,6 +124,7 @@ public class FeedController {
                                         .build())
                                 .toList())
                 .nextAfter(result.getNextAfter())
+                .nextCursor(result.getNextCursor())
                 .build();
 
         return ResponseEntity.ok(body);
@@ -116,32 +134,55 @@ public class FeedController {
     @GetMapping("/post/{postId}/comments/{userId}")
     public ResponseEntity<GetFeedCommentsResponse> getFeedPostComments(
             @PathVariable("userId") String userId,
-            @PathVariable("postId") Long postId
+            @PathVariable("postId") Long postId,
+            @RequestParam(required = false) String after, // nextAfter of the previous page
+            @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size
     ) {
         final var uid = Long.parseLong(userId);
-        final var result = feedService.getFeedPostComments(uid, postId);
+        final var result = feedService.getFeedPostComments(uid, postId, after, size);
 
         final var feedComments = result.getFeedComments().stream()
-                .map(c -> FeedCommentDTO.builder()
-                        .commentId(c.getCommentId())
-                        .userId(c.getUserId())
-                        .displayName(c.getDisplayName())
-                        .avatarUrl(c.getAvatarUrl())
-                        .body(c.getBody())
-                        .createdAt(DateTimeFormatter.ISO_INSTANT.format(c.getCreatedAt()))
-                        .likedByMe(c.getLikedByMe())
-                        .likesCount(c.getLikesCount())
-                        .build()
-                ).toList();
+                .map(FeedController::toCommentDTO)
+                .toList();
 
         final var body = GetFeedCommentsResponse.builder()
                 .feedComments(feedComments)
                 .postId(result.getPostId())
+                .nextAfter(result.getNextAfter())
                 .build();
 
         return ResponseEntity.ok(body);
     }
 
+    // NDJSON: one FeedCommentDTO per line, flushed chunk by chunk as rows are read
+    @PreAuthorize("#userId == authentication.name")
+    @GetMapping(value = "/post/{postId}/comments/{userId}/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamFeedPostComments(
+            @PathVariable("userId") String userId,
+            @PathVariable("postId") Long postId
+    ) {
+        final var uid = Long.parseLong(userId);
+
+        final StreamingResponseBody body = out -> {
+            final var newline = "\n".getBytes(StandardCharsets.UTF_8);
+            feedService.streamFeedPostComments(uid, postId, chunk -> {
+                try {
+                    for (final var c : chunk) {
+                        out.write(objectMapper.writeValueAsBytes(toCommentDTO(c)));
+                        out.write(newline);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PreAuthorize("#userId == authentication.name")
     @GetMapping("/post/{postId}/{userId}")
     public ResponseEntity<GetFeedResponse> getFeedPostWithComments(
@@ -166,21 +207,13 @@ public class FeedController {
                 .build();
 
         final var feedComments = result.getFeedComments().stream()
-                .map(c -> FeedCommentDTO.builder()
-                        .commentId(c.getCommentId())
-                        .userId(c.getUserId())
-                        .displayName(c.getDisplayName())
-                        .avatarUrl(c.getAvatarUrl())
-                        .body(c.getBody())
-                        .createdAt(DateTimeFormatter.ISO_INSTANT.format(c.getCreatedAt()))
-                        .likedByMe(c.getLikedByMe())
-                        .likesCount(c.getLikesCount())
-                        .build()
-                ).toList();
+                .map(FeedController::toCommentDTO)
+                .toList();
 
         final var body = GetFeedResponse.builder()
                 .feedPost(feedPost)
                 .feedComments(feedComments)
+                .commentsNextAfter(result.getCommentsNextAfter())
                 .build();
 
         return ResponseEntity.ok(body);
@@ -334,4 +367,17 @@ public class FeedController {
 
         return ResponseEntity.noContent().build();
     }
+
+    private static FeedCommentDTO toCommentDTO(FeedComment c) {
+        return FeedCommentDTO.builder()
+                .commentId(c.getCommentId())
+                .userId(c.getUserId())
+                .displayName(c.getDisplayName())
+                .avatarUrl(c.getAvatarUrl())
+                .body(c.getBody())
+                .createdAt(DateTimeFormatter.ISO_INSTANT.format(c.getCreatedAt()))
+                .likedByMe(c.getLikedByMe())
+                .likesCount(c.getLikesCount())
+                .build();
+    }
 }
@@ -1,14 +1,21 @@
 package com.knockbook.backend.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.knockbook.backend.domain.OrderDirectRefType;
+import com.knockbook.backend.domain.OrderHistoryPage;
 import com.knockbook.backend.dto.*;
 import com.knockbook.backend.service.OrderService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 @RestController
@@ -17,6 +24,7 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService orderService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping("/{userId}/draft-from-cart")
     @PreAuthorize("#userId == authentication.name")
@@ -82,6 +90,58 @@ public class OrderController {
         return ResponseEntity.ok(dtoList);
     }
 
+    // Paginated history (keyset on order id, newest first)
+    @GetMapping("/{userId}/history")
+    @PreAuthorize("#userId == authentication.name")
+    public ResponseEntity<OrderPageResponse> getOrderHistory(
+            @PathVariable final String userId,
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size)
+    {
+        final var afterId = (after == null || after.isBlank()) ? null : Long.valueOf(after);
+        final var page = orderService.getOrderHistoryPage(Long.valueOf(userId), paymentStatus, afterId, size);
+        return ResponseEntity.ok(toPageResponse(page));
+    }
+
+    @GetMapping("/admin")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MODERATOR')")
+    public ResponseEntity<OrderPageResponse> getAllOrderHistory(
+            @RequestParam(required = false) String paymentStatus,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int size)
+    {
+        final var afterId = (after == null || after.isBlank()) ? null : Long.valueOf(after);
+        final var page = orderService.getOrderHistoryPage(null, paymentStatus, afterId, size);
+        return ResponseEntity.ok(toPageResponse(page));
+    }
+
+    // NDJSON export: one OrderResponse per line, written and flushed chunk by chunk
+    @GetMapping(value = "/admin/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasAnyAuthority('ADMIN', 'MODERATOR')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) String paymentStatus)
+    {
+        final StreamingResponseBody body = out -> {
+            final var newline = "\n".getBytes(StandardCharsets.UTF_8);
+            orderService.exportAllOrders(paymentStatus, chunk -> {
+                try {
+                    for (final var order : chunk) {
+                        out.write(objectMapper.writeValueAsBytes(OrderResponse.toResponse(order)));
+                        out.write(newline);
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     @PostMapping("/{userId}/{orderId}/coupon")
     @PreAuthorize("#userId == authentication.name")
     public ResponseEntity<OrderResponse> applyCoupon(
@@ -161,4 +221,11 @@ public class OrderController {
                 Long.valueOf(userId), Long.valueOf(orderId), status, rentalStatus);
         return ResponseEntity.ok(OrderResponse.toResponse(agg));
     }
+
+    private static OrderPageResponse toPageResponse(final OrderHistoryPage page) {
+        return OrderPageResponse.builder()
+                .orders(page.getOrders().stream().map(OrderResponse::toResponse).toList())
+                .nextAfter(page.getNextAfter())
+                .build();
+    }
 }
@@ -0,0 +1,42 @@
+package com.knockbook.backend.controller;
+
+import com.knockbook.backend.component.ImageOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+
+// Serves placeholder image URLs while their upload is still in the outbox
+@RestController
+@RequiredArgsConstructor
+public class PendingImageController {
+
+    private final ImageOutbox imageOutbox;
+
+    @GetMapping(ImageOutbox.PENDING_PATH + "{token}")
+    public ResponseEntity<Resource> getPendingImage(@PathVariable("token") String token) {
+        final var uploaded = imageOutbox.completedUrl(token);
+        if (uploaded.isPresent()) {
+            return ResponseEntity.status(302).location(URI.create(uploaded.get())).build();
+        }
+
+        return imageOutbox.pendingFile(token)
+                .<ResponseEntity<Resource>>map(path -> {
+                    final var resource = new FileSystemResource(path);
+                    return ResponseEntity.ok()
+                            .cacheControl(CacheControl.noStore())
+                            .contentType(MediaTypeFactory.getMediaType(resource)
+                                    .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                            .body(resource);
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,15 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class BookCatalogEntry {
+    private BookSummary summary;
+    private String categoryCodeName;
+    private String subcategoryCodeName;
+}
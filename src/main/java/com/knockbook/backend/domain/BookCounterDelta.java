@@ -0,0 +1,16 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class BookCounterDelta {
+    private Long bookId;
+    private long views;
+    private long sales;
+    private long rentals;
+}
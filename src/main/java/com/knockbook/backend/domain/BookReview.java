@@ -24,4 +24,5 @@ public class BookReview {
     private List<BookReviewImage> imageUrls;
     private Integer likesCount;
     private Instant createdAt;
+    private Boolean visible; // false when hidden by moderation; set where the status matters
 }
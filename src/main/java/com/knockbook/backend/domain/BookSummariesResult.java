@@ -0,0 +1,17 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class BookSummariesResult {
+    private List<BookSummary> books;
+    private String nextCursor;  // null when there is no next page
+    private Long totalItems;    // cached per filter, may lag behind recent writes
+}
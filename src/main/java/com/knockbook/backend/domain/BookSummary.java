@@ -10,7 +10,7 @@ import java.time.LocalDate;
 
 @Getter
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
-@Builder
+@Builder(toBuilder = true)
 public class BookSummary {
 
     public enum Availability { AVAILABLE, OUT_OF_STOCK }
@@ -11,4 +11,5 @@ public class CartRef {
     private final String refType; // "BOOK_PURCHASE"/"PRODUCT"/"BOOK_RENTAL"
     private final Long refId;
     private final Integer rentalDays;
+    private final Integer quantity;   // units ordered; only removeOrderedLines reads it
 }
@@ -13,4 +13,5 @@ import java.util.List;
 public class FeedCommentsResult {
     private String postId;
     private List<FeedComment> feedComments;
+    private String nextAfter; // signed cursor, null = no more
 }
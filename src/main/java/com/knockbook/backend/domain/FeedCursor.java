@@ -0,0 +1,19 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * Keyset position in a feed listing: sort timestamp (post, save or comment createdAt) and the row id.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class FeedCursor {
+    private Instant sortedAt;
+    private Long id; // post id, or comment id for comment listings
+}
@@ -13,4 +13,5 @@ import java.util.List;
 public class FeedPostsResult {
     private List<FeedPost> feedPosts;
     private String nextAfter;
+    private String nextCursor; // signed (sortedAt, postId) position
 }
@@ -13,6 +13,7 @@ import java.util.List;
 public class FeedProfileResult {
     private Long postsCount;
     private String nextAfter;
+    private String nextCursor; // signed (sortedAt, postId) position
 
     private List<FeedProfileThumbnail> profileThumbnails;
 }
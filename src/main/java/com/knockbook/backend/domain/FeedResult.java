@@ -13,4 +13,5 @@ import java.util.List;
 public class FeedResult {
     private FeedPost feedPost;
     private List<FeedComment> feedComments;
+    private String commentsNextAfter; // signed cursor for the next comment page, null = no more
 }
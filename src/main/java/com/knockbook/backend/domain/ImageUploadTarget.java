@@ -0,0 +1,26 @@
+package com.knockbook.backend.domain;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Where an asynchronously uploaded image URL has to be patched in once the upload finishes,
+ * and which size variants are rendered for it (none = upload the file as-is).
+ */
+@Getter
+public enum ImageUploadTarget {
+    BOOK_REVIEW_IMAGE(EnumSet.allOf(ImageVariant.class)),
+    FEED_POST_IMAGE(EnumSet.allOf(ImageVariant.class)),
+    CUSTOMER_QNA_FILE(EnumSet.noneOf(ImageVariant.class)),
+    // Embedded in the post body as a single URL, so only the feed-size variant is kept
+    LOUNGE_POST_CONTENT(EnumSet.of(ImageVariant.FEED));
+
+    private final Set<ImageVariant> variants;
+
+    ImageUploadTarget(final Set<ImageVariant> variants) {
+        this.variants = Collections.unmodifiableSet(variants);
+    }
+}
@@ -0,0 +1,17 @@
+package com.knockbook.backend.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Size ladder for processed uploads; each variant is bounded by its longest edge in pixels.
+ */
+@Getter
+@AllArgsConstructor
+public enum ImageVariant {
+    THUMBNAIL(320),
+    FEED(1080),
+    FULL(2048);
+
+    private final int maxEdge;
+}
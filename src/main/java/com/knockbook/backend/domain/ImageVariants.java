@@ -0,0 +1,82 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * URLs of one uploaded image's size variants, kept in a single URL column.
+ * The largest variant is stored as-is and the smaller ones ride in its fragment
+ * ("{full}#thumb={url}&feed={url}"), so the stored value is still a loadable URL.
+ * A plain legacy URL parses to the same URL for every variant.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class ImageVariants {
+
+    private static final String THUMB_KEY = "thumb=";
+    private static final String FEED_KEY = "feed=";
+
+    private String thumbnailUrl;
+    private String feedUrl;
+    private String fullUrl;
+
+    public static ImageVariants parse(final String stored) {
+        if (stored == null) {
+            return ImageVariants.builder().build();
+        }
+        final var hash = stored.indexOf('#');
+        final var base = hash < 0 ? stored : stored.substring(0, hash);
+        String thumb = null;
+        String feed = null;
+        if (hash >= 0) {
+            for (final var part : stored.substring(hash + 1).split("&")) {
+                if (part.startsWith(THUMB_KEY)) {
+                    thumb = decode(part.substring(THUMB_KEY.length()));
+                } else if (part.startsWith(FEED_KEY)) {
+                    feed = decode(part.substring(FEED_KEY.length()));
+                }
+            }
+        }
+        final var feedUrl = feed != null ? feed : base;
+        return ImageVariants.builder()
+                .thumbnailUrl(thumb != null ? thumb : feedUrl)
+                .feedUrl(feedUrl)
+                .fullUrl(base)
+                .build();
+    }
+
+    public static String thumbnailOf(final String stored) {
+        return parse(stored).getThumbnailUrl();
+    }
+
+    public static String feedOf(final String stored) {
+        return parse(stored).getFeedUrl();
+    }
+
+    /**
+     * Value to store: the largest present variant, plus fragments for the smaller ones that differ.
+     */
+    public String encode() {
+        final var base = fullUrl != null ? fullUrl : feedUrl != null ? feedUrl : thumbnailUrl;
+        final var fragment = new StringBuilder();
+        if (thumbnailUrl != null && !thumbnailUrl.equals(base)) {
+            fragment.append(THUMB_KEY).append(URLEncoder.encode(thumbnailUrl, StandardCharsets.UTF_8));
+        }
+        if (feedUrl != null && !feedUrl.equals(base)) {
+            fragment.append(fragment.isEmpty() ? "" : "&")
+                    .append(FEED_KEY).append(URLEncoder.encode(feedUrl, StandardCharsets.UTF_8));
+        }
+        return fragment.isEmpty() ? base : base + "#" + fragment;
+    }
+
+    private static String decode(final String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
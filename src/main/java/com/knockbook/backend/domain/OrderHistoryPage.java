@@ -0,0 +1,16 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class OrderHistoryPage {
+    private List<OrderAggregate> orders;
+    private String nextAfter; // last order id of the page, null = no more
+}
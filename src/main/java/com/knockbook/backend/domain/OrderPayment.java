@@ -13,7 +13,9 @@ import java.time.Instant;
 public class OrderPayment {
 
     public enum Method { KAKAOPAY, TOSSPAY }
-    public enum TxStatus { READY, APPROVED, PARTIAL_CANCELLED, CANCELLED, FAILED }
+    // READY -> APPROVING (claimed by one approval) -> APPROVED; APPROVING falls back to READY if Kakao did not
+    // capture, and goes to CANCELLED when the captured amount is refunded
+    public enum TxStatus { READY, APPROVING, APPROVED, PARTIAL_CANCELLED, CANCELLED, FAILED }
 
     private Long id;
     private Long orderId;
@@ -24,6 +26,8 @@ public class OrderPayment {
     private TxStatus status;
     private Instant approvedAt;
     private Instant cancelledAt;
+    private String pgTokenHash; // SHA-256 of the pg_token that claimed the approval
+    private Instant claimedAt;
     private Instant createdAt;
     private Instant updatedAt;
 }
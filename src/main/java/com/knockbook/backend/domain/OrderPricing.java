@@ -0,0 +1,167 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Single-pass pricing of an order, shared by draft creation and coupon/points repricing.
+ * Lines are folded into primitive running totals (kept per ref type for coupon scopes),
+ * so pricing an order allocates nothing beyond the accumulator itself.
+ * Coupon and points are applied on top, in that order, once all lines are added.
+ */
+@Getter
+public final class OrderPricing {
+
+    private static final int PERCENT_BASIS_POINTS = 10_000;
+
+    private int itemCount;
+    private int subtotalAmount;
+    private int discountAmount;
+    private int rentalAmount;
+    private int pointsEarned;
+
+    private int shippingAmount;
+    private int couponDiscountAmount;
+    private int pointsSpent;
+    private Long appliedCouponIssuanceId;
+
+    // Amounts of the most recently added line, for callers persisting it
+    private int lineSubtotalAmount;
+    private int lineDiscountAmount;
+    private int lineTotalAmount;
+    private int linePointsEarned;
+
+    @Getter(AccessLevel.NONE)
+    private final int[] lineTotalsByType = new int[OrderItem.RefType.values().length];
+
+    public OrderPricing(final int shippingAmount) {
+        this.shippingAmount = shippingAmount;
+    }
+
+    /**
+     * Folds lines that were already priced (their stored line amounts are trusted).
+     */
+    public static OrderPricing of(final List<OrderItem> items, final int shippingAmount) {
+        final var pricing = new OrderPricing(shippingAmount);
+        for (final var it : items) {
+            pricing.accumulate(it.getRefType(), nz(it.getQuantity()), nz(it.getLineSubtotalAmount()),
+                    nz(it.getLineDiscountAmount()), nz(it.getLineTotalAmount()), nz(it.getPointsEarnedItem()));
+        }
+        return pricing;
+    }
+
+    /**
+     * Prices one line from its unit snapshots and adds it.
+     * Purchases are charged the sale price (falling back to list); rentals the rental price, with no discount.
+     */
+    public OrderPricing addLine(final OrderItem.RefType type,
+                                final int unitList,
+                                final int unitSale,
+                                final int unitRental,
+                                final int qty,
+                                final int pointsRate) {
+        final int subtotal, discount, total;
+        switch (type) {
+            case BOOK_PURCHASE, PRODUCT -> {
+                subtotal = (unitList > 0 ? unitList : unitSale) * qty;
+                total = (unitSale > 0 ? unitSale : unitList) * qty;
+                discount = Math.max(0, subtotal - total);
+            }
+            case BOOK_RENTAL -> {
+                subtotal = unitRental * qty;
+                total = subtotal;
+                discount = 0;
+            }
+            default -> throw new IllegalStateException("Unexpected refType: " + type);
+        }
+        accumulate(type, qty, subtotal, discount, total, (total * pointsRate) / 100);
+        return this;
+    }
+
+    /**
+     * Applies a coupon (null clears it). FREESHIP waives shipping; PERCENT and AMOUNT discount the
+     * line totals within the coupon's scope, PERCENT capped by the coupon's max discount.
+     */
+    public OrderPricing coupon(final CouponIssuance ciOrNull) {
+        couponDiscountAmount = 0;
+        appliedCouponIssuanceId = null;
+        if (ciOrNull == null) {
+            return this;
+        }
+
+        appliedCouponIssuanceId = ciOrNull.getId();
+        if ("FREESHIP".equalsIgnoreCase(ciOrNull.getType())) {
+            shippingAmount = 0;
+        } else {
+            final int eligible = eligibleAmount(ciOrNull.getScope());
+            if ("PERCENT".equalsIgnoreCase(ciOrNull.getType())) {
+                final int raw = (eligible * nz(ciOrNull.getDiscountRateBp())) / PERCENT_BASIS_POINTS;
+                couponDiscountAmount = ciOrNull.getMaxDiscountAmount() == null
+                        ? raw : Math.min(raw, ciOrNull.getMaxDiscountAmount());
+            } else { // AMOUNT
+                couponDiscountAmount = Math.min(eligible, nz(ciOrNull.getDiscountAmount()));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Spends up to the requested points, capped by what is payable after discounts.
+     */
+    public OrderPricing points(final int requested) {
+        pointsSpent = Math.min(Math.max(0, requested), payableBeforePoints());
+        return this;
+    }
+
+    public int payableBeforePoints() {
+        return Math.max(0, subtotalAmount - discountAmount - couponDiscountAmount);
+    }
+
+    public int getTotalAmount() {
+        return subtotalAmount - discountAmount - couponDiscountAmount - pointsSpent + shippingAmount;
+    }
+
+    /**
+     * Sum of line totals a coupon scope applies to; ALL/CART (or no scope) cover every line.
+     */
+    public int eligibleAmount(final String scope) {
+        if (scope == null || scope.equalsIgnoreCase("ALL") || scope.equalsIgnoreCase("CART")) {
+            int sum = 0;
+            for (final var t : lineTotalsByType) {
+                sum += t;
+            }
+            return sum;
+        }
+        return switch (scope) {
+            case "BOOK_PURCHASE" -> lineTotalsByType[OrderItem.RefType.BOOK_PURCHASE.ordinal()];
+            case "BOOK_RENTAL"   -> lineTotalsByType[OrderItem.RefType.BOOK_RENTAL.ordinal()];
+            case "PRODUCT"       -> lineTotalsByType[OrderItem.RefType.PRODUCT.ordinal()];
+            default -> 0;
+        };
+    }
+
+    private void accumulate(final OrderItem.RefType type, final int qty, final int subtotal,
+                            final int discount, final int total, final int points) {
+        lineSubtotalAmount = subtotal;
+        lineDiscountAmount = discount;
+        lineTotalAmount = total;
+        linePointsEarned = points;
+
+        itemCount += qty;
+        subtotalAmount += subtotal;
+        discountAmount += discount;
+        pointsEarned += points;
+        if (type == OrderItem.RefType.BOOK_RENTAL) {
+            rentalAmount += total;
+        }
+        if (type != null) {
+            lineTotalsByType[type.ordinal()] += total;
+        }
+    }
+
+    private static int nz(final Integer v) {
+        return v == null ? 0 : v;
+    }
+}
@@ -0,0 +1,23 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class OrderStatusChange {
+    private OrderAggregate order;                       // after the update
+    private OrderAggregate.Status previousStatus;       // read under the same row lock
+    private OrderAggregate.RentalStatus previousRentalStatus;
+
+    public boolean becameStatus(final OrderAggregate.Status status) {
+        return status != null && status != previousStatus && status == order.getStatus();
+    }
+
+    public boolean becameRentalStatus(final OrderAggregate.RentalStatus rentalStatus) {
+        return rentalStatus != null && rentalStatus != previousRentalStatus && rentalStatus == order.getRentalStatus();
+    }
+}
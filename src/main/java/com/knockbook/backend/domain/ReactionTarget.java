@@ -0,0 +1,12 @@
+package com.knockbook.backend.domain;
+
+/**
+ * Things a user can like. Each target maps to a like table and a denormalized count column.
+ */
+public enum ReactionTarget {
+    FEED_POST,
+    FEED_COMMENT,
+    LOUNGE_POST,
+    PRODUCT_REVIEW,
+    BOOK_REVIEW
+}
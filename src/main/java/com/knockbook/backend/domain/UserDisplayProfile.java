@@ -0,0 +1,20 @@
+package com.knockbook.backend.domain;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Public fields shown next to a user's content (posts, comments, reviews).
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class UserDisplayProfile {
+    private Long id;
+    private String displayName;
+    private String avatarUrl;
+    private String mbti;
+    private String bio;
+}
@@ -18,4 +18,5 @@ public class GetBooksSummaryResponse {
     private int size;
     private int totalItems;
     private int totalPages;
+    private String nextCursor; // cursor mode only
 }
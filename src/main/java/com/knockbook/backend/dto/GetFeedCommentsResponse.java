@@ -13,4 +13,5 @@ import java.util.List;
 public class GetFeedCommentsResponse {
     private String postId;
     private List<FeedCommentDTO> feedComments;
+    private String nextAfter; // null = no more
 }
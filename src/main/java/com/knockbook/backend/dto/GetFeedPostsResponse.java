@@ -14,4 +14,5 @@ import java.util.List;
 public class GetFeedPostsResponse {
     private List<FeedPostDTO> feedPosts;
     private String nextAfter; // null = no more
+    private String nextCursor; // signed (sortedAt, postId) position
 }
@@ -11,8 +11,9 @@ import java.util.List;
 @AllArgsConstructor(access = AccessLevel.PRIVATE)
 @Builder
 public class GetFeedProfileResponse {
-    private Long postsCount;
+    private Long postsCount; // null = not requested (sent on the first page or with includeCount=true)
     private String nextAfter;
+    private String nextCursor; // signed (sortedAt, postId) position
 
     private List<FeedProfileThumbnailDTO> profileThumbnails;
 }
@@ -13,4 +13,5 @@ import java.util.List;
 public class GetFeedResponse {
     private FeedPostDTO feedPost;
     private List<FeedCommentDTO> feedComments;
+    private String commentsNextAfter; // pass as ?after= to the comments endpoint, null = no more
 }
@@ -0,0 +1,17 @@
+package com.knockbook.backend.dto;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.List;
+
+// Order history page response (keyset pagination with ?after=orderId, newest first)
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@Builder
+public class OrderPageResponse {
+    private List<OrderResponse> orders;
+    private String nextAfter; // null = no more
+}
@@ -86,6 +86,10 @@ public class OrderEntity {
     @Column(name = "paid_at")
     private LocalDateTime paidAt;
 
+    // Written only by the cart cleanup claim (CartRepository.removeOrderedLines)
+    @Column(name = "cart_cleaned_at", insertable = false, updatable = false)
+    private LocalDateTime cartCleanedAt;
+
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
@@ -15,7 +15,7 @@ import java.time.ZoneId;
 public class OrderPaymentEntity {
 
     public enum PaymentMethod { KAKAOPAY, TOSSPAY }
-    public enum PaymentTxStatus { READY, APPROVED, PARTIAL_CANCELLED, CANCELLED, FAILED }
+    public enum PaymentTxStatus { READY, APPROVING, APPROVED, PARTIAL_CANCELLED, CANCELLED, FAILED }
 
     private static final ZoneId KST = ZoneId.of("Asia/Seoul");
 
@@ -49,6 +49,13 @@ public class OrderPaymentEntity {
     @Column(name = "cancelled_at")
     private LocalDateTime cancelledAt;
 
+    // Written only by the approval claim (OrderPaymentRepository.claim / reclaim)
+    @Column(name = "pg_token_hash", insertable = false, updatable = false)
+    private String pgTokenHash;
+
+    @Column(name = "claimed_at", insertable = false, updatable = false)
+    private LocalDateTime claimedAt;
+
     @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -83,6 +90,8 @@ public class OrderPaymentEntity {
                 .status(OrderPayment.TxStatus.valueOf(status.name()))
                 .approvedAt(toInstant(approvedAt))
                 .cancelledAt(toInstant(cancelledAt))
+                .pgTokenHash(pgTokenHash)
+                .claimedAt(toInstant(claimedAt))
                 .createdAt(toInstant(createdAt))
                 .updatedAt(toInstant(updatedAt))
                 .build();
@@ -0,0 +1,25 @@
+package com.knockbook.backend.exception;
+
+import com.knockbook.backend.controller.FeedController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice(assignableTypes = FeedController.class)
+public class FeedControllerExceptionHandler {
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ProblemDetail invalidCursor(InvalidCursorException ex) {
+        return ProblemDetailFactory.of(
+                HttpStatus.BAD_REQUEST, "Invalid cursor",
+                ex.getMessage(), ex.getCode(), "about:blank#cursor");
+    }
+
+    @ExceptionHandler(ReactionTargetNotFoundException.class)
+    public ProblemDetail reactionTargetNotFound(ReactionTargetNotFoundException ex) {
+        return ProblemDetailFactory.of(
+                HttpStatus.NOT_FOUND, "Reaction target not found",
+                ex.getMessage(), ex.getCode(), "about:blank#reaction");
+    }
+}
@@ -0,0 +1,8 @@
+package com.knockbook.backend.exception;
+
+public class InvalidCursorException extends ApplicationException {
+
+    public InvalidCursorException(String cursor) {
+        super("INVALID_CURSOR", "Invalid cursor: cursor=%s".formatted(cursor));
+    }
+}
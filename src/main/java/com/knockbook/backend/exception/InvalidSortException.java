@@ -0,0 +1,8 @@
+package com.knockbook.backend.exception;
+
+public class InvalidSortException extends ApplicationException {
+
+    public InvalidSortException(String sortBy) {
+        super("INVALID_SORT", "Invalid sort: sortBy=%s".formatted(sortBy));
+    }
+}
@@ -62,6 +62,13 @@ public class LoungeControllerExceptionHandler {
                 ex.getMessage(), "COMMENT_NOT_FOUND", "about:blank#comment");
     }
 
+    @ExceptionHandler(ReactionTargetNotFoundException.class)
+    public ProblemDetail reactionTargetNotFound(ReactionTargetNotFoundException ex) {
+        return ProblemDetailFactory.of(
+                HttpStatus.NOT_FOUND, "Reaction target not found",
+                ex.getMessage(), ex.getCode(), "about:blank#reaction");
+    }
+
     @ExceptionHandler(DataAccessException.class)
     public ProblemDetail dbUnavailable(DataAccessException ex) {
         return ProblemDetailFactory.of(
@@ -0,0 +1,18 @@
+package com.knockbook.backend.exception;
+
+import com.knockbook.backend.controller.ProductController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice(assignableTypes = ProductController.class)
+public class ProductControllerExceptionHandler {
+
+    @ExceptionHandler(ReactionTargetNotFoundException.class)
+    public ProblemDetail reactionTargetNotFound(ReactionTargetNotFoundException ex) {
+        return ProblemDetailFactory.of(
+                HttpStatus.NOT_FOUND, "Reaction target not found",
+                ex.getMessage(), ex.getCode(), "about:blank#reaction");
+    }
+}
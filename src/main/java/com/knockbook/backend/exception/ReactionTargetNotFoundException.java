@@ -0,0 +1,11 @@
+package com.knockbook.backend.exception;
+
+import com.knockbook.backend.domain.ReactionTarget;
+
+public class ReactionTargetNotFoundException extends ApplicationException {
+
+    public ReactionTargetNotFoundException(ReactionTarget target, Long targetId) {
+        super(target.name() + "_NOT_FOUND",
+                "Reaction target not found: target=%s, id=%s".formatted(target, targetId));
+    }
+}
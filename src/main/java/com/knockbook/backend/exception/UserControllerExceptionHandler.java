@@ -0,0 +1,29 @@
+package com.knockbook.backend.exception;
+
+import com.knockbook.backend.controller.UserController;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.concurrent.RejectedExecutionException;
+
+@RestControllerAdvice(assignableTypes = UserController.class)
+public class UserControllerExceptionHandler {
+
+    private static final int IMAGE_BUSY_RETRY_AFTER_SECONDS = 5;
+
+    // ImageProcessor rejects work when its queue is full; the client should retry shortly
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ProblemDetail> imageProcessingBusy(RejectedExecutionException ex) {
+        final var body = ProblemDetailFactory.of(
+                HttpStatus.SERVICE_UNAVAILABLE, "Image processing busy",
+                "이미지 처리 요청이 많습니다. 잠시 후 다시 시도해주세요.",
+                "IMAGE_PROCESSING_BUSY", "about:blank#image");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(IMAGE_BUSY_RETRY_AFTER_SECONDS))
+                .body(body);
+    }
+}
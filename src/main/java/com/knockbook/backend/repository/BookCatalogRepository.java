@@ -0,0 +1,19 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.BookCatalogEntry;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface BookCatalogRepository {
+
+    /**
+     * Fetch every listable (visible, not deleted) book with its category code names.
+     */
+    List<BookCatalogEntry> findAllCatalogEntries();
+
+    /**
+     * Fetch a single listable book with its category code names; empty if hidden or deleted.
+     */
+    Optional<BookCatalogEntry> findCatalogEntryById(final Long id);
+}
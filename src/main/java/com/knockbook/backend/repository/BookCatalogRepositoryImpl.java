@@ -0,0 +1,53 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.BookCatalogEntry;
+import com.knockbook.backend.entity.*;
+import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.jpa.impl.JPAQueryFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+// Kept apart from BookRepositoryImpl, which filters search hits against the catalog built from these rows
+@Repository
+@RequiredArgsConstructor
+public class BookCatalogRepositoryImpl implements BookCatalogRepository {
+
+    private final JPAQueryFactory queryFactory;
+
+    private static final QBookEntity book = QBookEntity.bookEntity;
+    private static final QBookCategoryEntity category = QBookCategoryEntity.bookCategoryEntity;
+    private static final QBookSubcategoryEntity subcategory = QBookSubcategoryEntity.bookSubcategoryEntity;
+
+    @Override
+    public List<BookCatalogEntry> findAllCatalogEntries() {
+        return findCatalogEntries(null);
+    }
+
+    @Override
+    public Optional<BookCatalogEntry> findCatalogEntryById(Long id) {
+        return findCatalogEntries(book.id.eq(id)).stream().findFirst();
+    }
+
+    private List<BookCatalogEntry> findCatalogEntries(BooleanExpression condition) {
+        final var rows = queryFactory
+                .select(book, category.categoryCodeName, subcategory.subcategoryCodeName)
+                .from(book)
+                .innerJoin(category).on(book.bookCategoryId.eq(category.id))
+                .innerJoin(subcategory).on(book.bookSubcategoryId.eq(subcategory.id))
+                .where(book.status.eq(BookEntity.Status.VISIBLE)
+                        .and(book.deletedAt.isNull())
+                        .and(condition))
+                .fetch();
+
+        return rows.stream()
+                .map(t -> BookCatalogEntry.builder()
+                        .summary(BookEntityMapper.toSummaryDomain(t.get(book)))
+                        .categoryCodeName(t.get(category.categoryCodeName))
+                        .subcategoryCodeName(t.get(subcategory.subcategoryCodeName))
+                        .build())
+                .toList();
+    }
+}
@@ -1,19 +1,30 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.BookPurchaseHistory;
+import com.knockbook.backend.domain.BookPurchaseHistoryDetails;
 import com.knockbook.backend.domain.UserBookOrderCount;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookPurchaseHistoryRepository {
-    void upsertPurchase(final Long userId,
-                        final Long orderId,
-                        final Long bookId,
-                        final Instant purchasedAt);
+    /**
+     * Records the purchase of each given book under the order, skipping books already recorded for it.
+     */
+    void upsertPurchases(final Long userId,
+                         final Long orderId,
+                         final Collection<Long> bookIds,
+                         final Instant purchasedAt);
 
     List<BookPurchaseHistory> findAllByUserId(Long userId);
 
+    /**
+     * The user's purchase histories joined with their books' title, author and cover in one query,
+     * most recent first.
+     */
+    List<BookPurchaseHistoryDetails> findAllDetailsByUserId(Long userId);
+
     List<UserBookOrderCount> aggregateCountsByUserBetween(final Instant fromInclusive,
                                                           final Instant toExclusive);
 }
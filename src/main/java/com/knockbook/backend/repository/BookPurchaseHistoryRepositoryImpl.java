@@ -2,53 +2,73 @@ package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.Book;
 import com.knockbook.backend.domain.BookPurchaseHistory;
+import com.knockbook.backend.domain.BookPurchaseHistoryDetails;
 import com.knockbook.backend.domain.UserBookOrderCount;
 import com.knockbook.backend.entity.BookEntity;
 import com.knockbook.backend.entity.BookPurchaseHistoryEntity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @Repository
 @RequiredArgsConstructor
 public class BookPurchaseHistoryRepositoryImpl implements BookPurchaseHistoryRepository{
 
+    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+
     private final EntityManager em;
+    private final JdbcTemplate jdbc;
 
     @Override
     @Transactional
-    public void upsertPurchase(final Long userId,
-                               final Long orderId,
-                               final Long bookId,
-                               final Instant purchasedAt) {
+    public void upsertPurchases(final Long userId,
+                                final Long orderId,
+                                final Collection<Long> bookIds,
+                                final Instant purchasedAt) {
+        if (bookIds.isEmpty()) { return; }
 
-        final var cb = em.getCriteriaBuilder();
-        final var cq = cb.createQuery(BookPurchaseHistoryEntity.class);
-        final var root = cq.from(BookPurchaseHistoryEntity.class);
-        cq.select(root).where(cb.and(
-                cb.equal(root.get("userId"), userId),
-                cb.equal(root.get("orderId"), orderId),
-                cb.equal(root.get("bookId"), bookId)
-        ));
-        final var exists = !em.createQuery(cq)
+        // 1) Books of this order already recorded, in one locking read
+        final var recorded = new HashSet<Long>();
+        em.createQuery("""
+                        SELECT h FROM BookPurchaseHistoryEntity h
+                         WHERE h.userId = :userId AND h.orderId = :orderId AND h.bookId IN :bookIds
+                        """, BookPurchaseHistoryEntity.class)
+                .setParameter("userId", userId)
+                .setParameter("orderId", orderId)
+                .setParameter("bookIds", bookIds)
                 .setLockMode(LockModeType.PESSIMISTIC_READ)
-                .setMaxResults(1).getResultList().isEmpty();
-        if (exists) { return; }
-
-        final var now = new Date();
-        final var e = BookPurchaseHistoryEntity.builder()
-                .userId(userId).orderId(orderId).bookId(bookId)
-                .purchaseCount(1)
-                .firstPurchasedAt(Date.from(purchasedAt))
-                .lastPurchasedAt(Date.from(purchasedAt))
-                .createdAt(now).updatedAt(now)
-                .build();
-        em.persist(e);
+                .getResultList()
+                .forEach(h -> recorded.add(h.getBookId()));
+
+        final var missing = bookIds.stream().distinct().filter(id -> !recorded.contains(id)).toList();
+        if (missing.isEmpty()) { return; }
+
+        // 2) The rest in one JDBC batch (IDENTITY ids keep Hibernate from batching the inserts)
+        final var purchased = LocalDateTime.ofInstant(purchasedAt, ZONE_SEOUL);
+        final var now = LocalDateTime.now(ZONE_SEOUL);
+        jdbc.batchUpdate("""
+                        INSERT INTO book_purchase_histories
+                               (user_id, order_id, book_id, purchase_count,
+                                first_purchased_at, last_purchased_at, created_at, updated_at)
+                        VALUES (?, ?, ?, 1, ?, ?, ?, ?)
+                        """, missing, missing.size(), (ps, bookId) -> {
+                    ps.setLong(1, userId);
+                    ps.setLong(2, orderId);
+                    ps.setLong(3, bookId);
+                    ps.setObject(4, purchased);
+                    ps.setObject(5, purchased);
+                    ps.setObject(6, now);
+                    ps.setObject(7, now);
+                });
     }
 
     @Override
@@ -66,6 +86,29 @@ public class BookPurchaseHistoryRepositoryImpl implements BookPurchaseHistoryRep
         return entities.stream().map(BookPurchaseHistoryEntity::toDomain).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookPurchaseHistoryDetails> findAllDetailsByUserId(final Long userId) {
+        final var rows = em.createQuery("""
+                        SELECT h AS history, b.title AS title, b.author AS author, b.coverImageUrl AS cover
+                          FROM BookPurchaseHistoryEntity h
+                          JOIN BookEntity b ON b.id = h.bookId
+                         WHERE h.userId = :userId
+                         ORDER BY h.lastPurchasedAt DESC
+                        """, Tuple.class)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        return rows.stream()
+                .map(t -> BookPurchaseHistoryDetails.builder()
+                        .history(t.get("history", BookPurchaseHistoryEntity.class).toDomain())
+                        .bookTitle(t.get("title", String.class))
+                        .bookAuthor(t.get("author", String.class))
+                        .bookImageUrl(t.get("cover", String.class))
+                        .build())
+                .toList();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<UserBookOrderCount> aggregateCountsByUserBetween(final Instant fromInclusive,
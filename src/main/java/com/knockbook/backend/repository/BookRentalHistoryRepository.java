@@ -1,20 +1,31 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.BookRentalHistory;
+import com.knockbook.backend.domain.BookRentalHistoryDetails;
 import com.knockbook.backend.domain.UserBookOrderCount;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 
 public interface BookRentalHistoryRepository {
-    void upsertRental(final Long userId,
-                      final Long orderId,
-                      final Long bookId,
-                      final Instant rentalStart,
-                      final Instant rentalEnd, int rentalDays);
+    /**
+     * Records a rental starting at rentalStart for each given book (with its rental days) under the order,
+     * skipping books already recorded for it.
+     */
+    void upsertRentals(final Long userId,
+                       final Long orderId,
+                       final Map<Long, Integer> rentalDaysByBookId,
+                       final Instant rentalStart);
 
     List<BookRentalHistory> findAllByUserId(Long userId);
 
+    /**
+     * The user's rental histories joined with their books' title, author and cover in one query,
+     * most recent first.
+     */
+    List<BookRentalHistoryDetails> findAllDetailsByUserId(Long userId);
+
     List<UserBookOrderCount> aggregateCountsByUserBetween(final Instant fromInclusive,
                                                           final Instant toExclusive);
 }
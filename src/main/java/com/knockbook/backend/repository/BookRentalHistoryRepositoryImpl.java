@@ -1,56 +1,77 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.BookRentalHistory;
+import com.knockbook.backend.domain.BookRentalHistoryDetails;
 import com.knockbook.backend.domain.UserBookOrderCount;
 import com.knockbook.backend.entity.BookEntity;
 import com.knockbook.backend.entity.BookRentalHistoryEntity;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @Repository
 @RequiredArgsConstructor
 public class BookRentalHistoryRepositoryImpl implements BookRentalHistoryRepository{
 
+    private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
+
     private final EntityManager em;
+    private final JdbcTemplate jdbc;
 
     @Override
     @Transactional
-    public void upsertRental(final Long userId,
-                             final Long orderId,
-                             final Long bookId,
-                             final Instant rentalStart,
-                             final Instant rentalEnd,
-                             final int rentalDays) {
+    public void upsertRentals(final Long userId,
+                              final Long orderId,
+                              final Map<Long, Integer> rentalDaysByBookId,
+                              final Instant rentalStart) {
+        if (rentalDaysByBookId.isEmpty()) { return; }
 
-        final var cb = em.getCriteriaBuilder();
-        final var cq = cb.createQuery(BookRentalHistoryEntity.class);
-        final var root = cq.from(BookRentalHistoryEntity.class);
-        cq.select(root).where(cb.and(
-                cb.equal(root.get("userId"), userId),
-                cb.equal(root.get("orderId"), orderId),
-                cb.equal(root.get("bookId"), bookId)
-        ));
-        final var exists = !em.createQuery(cq)
+        // 1) Books of this order already recorded, in one locking read
+        final var recorded = new HashSet<Long>();
+        em.createQuery("""
+                        SELECT h FROM BookRentalHistoryEntity h
+                         WHERE h.userId = :userId AND h.orderId = :orderId AND h.bookId IN :bookIds
+                        """, BookRentalHistoryEntity.class)
+                .setParameter("userId", userId)
+                .setParameter("orderId", orderId)
+                .setParameter("bookIds", rentalDaysByBookId.keySet())
                 .setLockMode(LockModeType.PESSIMISTIC_READ)
-                .setMaxResults(1).getResultList().isEmpty();
-        if (exists) { return; }
-
-        final var now = new Date();
-        final var e = BookRentalHistoryEntity.builder()
-                .userId(userId).orderId(orderId).bookId(bookId)
-                .rentalCount(1)
-                .lastRentalStartAt(Date.from(rentalStart))
-                .lastRentalEndAt(Date.from(rentalEnd))
-                .lastRentalDays(rentalDays)
-                .createdAt(now).updatedAt(now)
-                .build();
-        em.persist(e);
+                .getResultList()
+                .forEach(h -> recorded.add(h.getBookId()));
+
+        final var missing = rentalDaysByBookId.entrySet().stream()
+                .filter(e -> !recorded.contains(e.getKey()))
+                .toList();
+        if (missing.isEmpty()) { return; }
+
+        // 2) The rest in one JDBC batch (IDENTITY ids keep Hibernate from batching the inserts)
+        final var start = LocalDateTime.ofInstant(rentalStart, ZONE_SEOUL);
+        final var now = LocalDateTime.now(ZONE_SEOUL);
+        jdbc.batchUpdate("""
+                        INSERT INTO book_rental_histories
+                               (user_id, order_id, book_id, rental_count, last_rental_start_at,
+                                last_rental_end_at, last_rental_days, created_at, updated_at)
+                        VALUES (?, ?, ?, 1, ?, ?, ?, ?, ?)
+                        """, missing, missing.size(), (ps, e) -> {
+                    final int days = e.getValue();
+                    ps.setLong(1, userId);
+                    ps.setLong(2, orderId);
+                    ps.setLong(3, e.getKey());
+                    ps.setObject(4, start);
+                    ps.setObject(5, start.plusDays(days));
+                    ps.setInt(6, days);
+                    ps.setObject(7, now);
+                    ps.setObject(8, now);
+                });
     }
 
     @Override
@@ -70,6 +91,29 @@ public class BookRentalHistoryRepositoryImpl implements BookRentalHistoryReposit
         return entities.stream().map(BookRentalHistoryEntity::toDomain).toList();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookRentalHistoryDetails> findAllDetailsByUserId(final Long userId) {
+        final var rows = em.createQuery("""
+                        SELECT h AS history, b.title AS title, b.author AS author, b.coverImageUrl AS cover
+                          FROM BookRentalHistoryEntity h
+                          JOIN BookEntity b ON b.id = h.bookId
+                         WHERE h.userId = :userId
+                         ORDER BY h.lastRentalStartAt DESC
+                        """, Tuple.class)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        return rows.stream()
+                .map(t -> BookRentalHistoryDetails.builder()
+                        .history(t.get("history", BookRentalHistoryEntity.class).toDomain())
+                        .bookTitle(t.get("title", String.class))
+                        .bookAuthor(t.get("author", String.class))
+                        .bookImageUrl(t.get("cover", String.class))
+                        .build())
+                .toList();
+    }
+
     @Override
     public List<UserBookOrderCount> aggregateCountsByUserBetween(final Instant fromInclusive,
                                                                  final Instant toExclusive) {
@@ -1,6 +1,8 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.Book;
+import com.knockbook.backend.domain.BookCounterDelta;
+import com.knockbook.backend.domain.BookSummariesResult;
 import com.knockbook.backend.domain.BookSummary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +27,12 @@ public interface BookRepository {
     Optional<Book> findById(final Long id);
 
     Map<Long, Book> findByIdsAsMap(final List<Long> ids);
+
+    /**
+     * Number of distinct books the user has purchased or rented, per book category id.
+     */
+    Map<Long, Long> countReadBooksByCategory(final Long userId);
+
     /**
      * Find books by category and subcategory with pagination.
      */
@@ -38,6 +46,33 @@ public interface BookRepository {
             final Integer minPrice
     );
 
+    /**
+     * Find books by the same filters using keyset pagination on (sortBy, id).
+     * The cursor is the opaque nextCursor of the previous page, or null for the first page.
+     */
+    BookSummariesResult findBooksByCursor(
+            final String categoryCodeName,
+            final String subcategoryCodeName,
+            final String sortBy,
+            final boolean ascending,
+            final String cursor,
+            final int size,
+            final String searchBy,
+            final String searchKeyword,
+            final Integer minPrice,
+            final Integer maxPrice
+    );
+
+    /**
+     * Fetch the text fields of non-deleted books in id order, for building the search index.
+     */
+    List<Book> findSearchableAfter(final Long afterId, final int limit);
+
+    /**
+     * Add buffered view/sales/rental deltas to the book counters in one batched UPDATE.
+     */
+    int applyCounterDeltas(final List<BookCounterDelta> deltas);
+
     boolean activateBookWishlist(Long userId, Long bookId);
 
     boolean deactivateBookWishlist(Long userId, Long bookId);
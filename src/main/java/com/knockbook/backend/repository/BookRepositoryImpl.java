@@ -1,30 +1,40 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.AfterCommit;
+import com.knockbook.backend.component.BookCatalog;
+import com.knockbook.backend.component.BookCatalog.SearchHit;
+import com.knockbook.backend.component.BookSearchIndex;
 import com.knockbook.backend.domain.Book;
+import com.knockbook.backend.domain.BookCounterDelta;
+import com.knockbook.backend.domain.BookSummariesResult;
 import com.knockbook.backend.domain.BookSummary;
 import com.knockbook.backend.entity.*;
 import com.knockbook.backend.exception.BookNotFoundException;
+import com.knockbook.backend.exception.InvalidCursorException;
+import com.knockbook.backend.exception.InvalidSortException;
 import com.querydsl.core.types.Order;
 import com.querydsl.core.types.OrderSpecifier;
 import com.querydsl.core.types.dsl.BooleanExpression;
+import com.querydsl.core.types.dsl.ComparableExpressionBase;
 import com.querydsl.core.types.dsl.DatePath;
 import com.querydsl.core.types.dsl.NumberPath;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Repository
 @RequiredArgsConstructor
@@ -32,6 +42,18 @@ public class BookRepositoryImpl implements BookRepository {
 
     private final JPAQueryFactory queryFactory;
     private final EntityManager em;
+    private final JdbcTemplate jdbc;
+    private final BookSearchIndex searchIndex;
+    private final BookCatalog bookCatalog;
+
+    // Without a catalog snapshot, search hits are run through the SQL filters this many ids at a time
+    private static final int SEARCH_FILTER_CHUNK_SIZE = 1000;
+    private static final String RELEVANCE_SORT = "relevance";
+
+    // Per-filter total counts for cursor paging; cleared on catalog writes
+    private static final long COUNT_CACHE_TTL_MILLIS = 60_000L;
+    private static final int MAX_COUNT_CACHE_ENTRIES = 1000;
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
 
     private static final QBookEntity book = QBookEntity.bookEntity;
     private static final QBookCategoryEntity category = QBookCategoryEntity.bookCategoryEntity;
@@ -41,6 +63,8 @@ public class BookRepositoryImpl implements BookRepository {
     @Override
     @Transactional
     public Book save(Book book) {
+        // Cleared once the write is visible, so a concurrent count cannot re-cache the old total
+        AfterCommit.run(countCache::clear);
         if (book.getId() == null) {
             // INSERT
             final var entity = BookEntityMapper.toBookEntityForInsert(book);
@@ -113,6 +137,26 @@ public class BookRepositoryImpl implements BookRepository {
         return map;
     }
 
+    @Override
+    public Map<Long, Long> countReadBooksByCategory(Long userId) {
+        // Each book is counted once however many times it was bought or rented
+        final var rows = em.createQuery("""
+                        SELECT b.bookCategoryId AS categoryId, COUNT(b) AS cnt
+                          FROM BookEntity b
+                         WHERE b.id IN (SELECT p.bookId FROM BookPurchaseHistoryEntity p WHERE p.userId = :userId)
+                            OR b.id IN (SELECT r.bookId FROM BookRentalHistoryEntity r WHERE r.userId = :userId)
+                         GROUP BY b.bookCategoryId
+                        """, Tuple.class)
+                .setParameter("userId", userId)
+                .getResultList();
+
+        final var counts = new HashMap<Long, Long>(rows.size() * 2);
+        for (final var t : rows) {
+            counts.put(t.get("categoryId", Long.class), t.get("cnt", Long.class));
+        }
+        return counts;
+    }
+
     @Override
     public Page<BookSummary> findBooksByCondition(
             String categoryCodeName, String subcategoryCodeName, Pageable pageable, String searchBy,
@@ -123,33 +167,16 @@ public class BookRepositoryImpl implements BookRepository {
         BooleanExpression onSubcategoryJoin = book.bookSubcategoryId.eq(subcategory.id);
 
         // 2) Build filtering conditions (WHERE clause)
-        BooleanExpression predicate = book.status.eq(BookEntity.Status.VISIBLE)
-                .and(book.deletedAt.isNull()); // Basic condition: only visible and not deleted books
-
-        if (categoryCodeName != null && !"all".equals(categoryCodeName)) {
-            predicate = predicate.and(
-                    book.bookCategoryId.eq(category.id)
-                            .and(category.categoryCodeName.eq(categoryCodeName))
-            );
-        } // Skip if categoryCodeName is "all"
-
-        if (subcategoryCodeName != null && !"all".equals(subcategoryCodeName)) {
-            predicate = predicate.and(
-                    book.bookSubcategoryId.eq(subcategory.id)
-                            .and(subcategory.subcategoryCodeName.eq(subcategoryCodeName))
-            );
-        } // Skip if subcategoryCodeName is "all"
-
-        if (searchBy != null && searchKeyword != null && !searchKeyword.isBlank()) {
-            predicate = predicate.and(buildSearchPredicate(searchBy, searchKeyword));
+        final var predicate = buildFilterPredicate(categoryCodeName, subcategoryCodeName, minPrice, maxPrice);
+        final var matchedIds = searchBookIds(searchBy, searchKeyword);
+        if (matchedIds != null) {
+            return findSearchPage(categoryCodeName, subcategoryCodeName, minPrice, maxPrice, matchedIds, pageable);
         }
 
-        if (minPrice != null) {
-            predicate = predicate.and(book.discountedPurchaseAmount.goe(minPrice));
-        }
-
-        if (maxPrice != null) {
-            predicate = predicate.and(book.discountedPurchaseAmount.loe(maxPrice));
+        // Relevance ordering needs a keyword; without one, fall back to the newest books first
+        var sort = pageable.getSort();
+        if (sort.getOrderFor(RELEVANCE_SORT) != null) {
+            sort = Sort.by("published").descending();
         }
 
         // 3) Execute paged query and fetch results
@@ -161,7 +188,7 @@ public class BookRepositoryImpl implements BookRepository {
                 .where(predicate)
                 .offset(pageable.getOffset())
                 .limit(pageable.getPageSize())
-                .orderBy(toOrderSpecifiers(pageable.getSort()))
+                .orderBy(toOrderSpecifiers(sort))
                 .fetch();
 
         // 4) Execute count query
@@ -186,6 +213,407 @@ public class BookRepositoryImpl implements BookRepository {
         return new PageImpl<>(content, pageable, totalItems);
     }
 
+    @Override
+    public BookSummariesResult findBooksByCursor(
+            String categoryCodeName, String subcategoryCodeName, String sortBy, boolean ascending,
+            String cursor, int size, String searchBy, String searchKeyword, Integer minPrice, Integer maxPrice) {
+
+        final var sortField = cursorSortField(sortBy);
+        final var filter = buildFilterPredicate(categoryCodeName, subcategoryCodeName, minPrice, maxPrice);
+        final var position = cursor == null || cursor.isBlank() ? null : BookCursor.decode(cursor, sortBy);
+
+        final var matchedIds = searchBookIds(searchBy, searchKeyword);
+        if (matchedIds != null) {
+            final var hits = filterSearchHits(matchedIds, categoryCodeName, subcategoryCodeName,
+                    minPrice, maxPrice, sortBy);
+            return findSearchHitsByCursor(hits, sortBy, ascending, position, size);
+        }
+
+        // 1) Seek past the last row of the previous page: (sortKey, id) strictly after the cursor
+        final var direction = ascending ? Order.ASC : Order.DESC;
+        var predicate = filter;
+        if (position != null) {
+            predicate = predicate.and(seekPredicate(sortField, ascending, position));
+        }
+
+        // 2) Page rows (size+1 to detect hasMore)
+        final var rows = queryFactory
+                .select(book)
+                .from(book)
+                .innerJoin(category).on(book.bookCategoryId.eq(category.id))
+                .innerJoin(subcategory).on(book.bookSubcategoryId.eq(subcategory.id))
+                .where(predicate)
+                .orderBy(sortOrder(sortField, direction), new OrderSpecifier<>(direction, book.id))
+                .limit(size + 1L)
+                .fetch();
+
+        final var hasMore = rows.size() > size;
+        final var pageRows = hasMore ? rows.subList(0, size) : rows;
+
+        // 3) Next cursor from the last row on the page
+        final var nextCursor = hasMore
+                ? BookCursor.encode(sortBy, sortValue(sortField, pageRows.get(pageRows.size() - 1)),
+                        pageRows.get(pageRows.size() - 1).getId())
+                : null;
+
+        final var countKey = String.join("|", String.valueOf(categoryCodeName), String.valueOf(subcategoryCodeName),
+                String.valueOf(searchBy), String.valueOf(searchKeyword),
+                String.valueOf(minPrice), String.valueOf(maxPrice));
+
+        return BookSummariesResult.builder()
+                .books(pageRows.stream().map(BookEntityMapper::toSummaryDomain).toList())
+                .nextCursor(nextCursor)
+                .totalItems(cachedCount(countKey, filter))
+                .build();
+    }
+
+    @Override
+    public List<Book> findSearchableAfter(Long afterId, int limit) {
+        final var rows = queryFactory
+                .select(book.id, book.title, book.author, book.publisher,
+                        book.introductionTitle, book.introductionDetail)
+                .from(book)
+                .where(book.deletedAt.isNull()
+                        .and(afterId == null ? null : book.id.gt(afterId)))
+                .orderBy(book.id.asc())
+                .limit(limit)
+                .fetch();
+
+        return rows.stream()
+                .map(t -> Book.builder()
+                        .id(t.get(book.id))
+                        .title(t.get(book.title))
+                        .author(t.get(book.author))
+                        .publisher(t.get(book.publisher))
+                        .introductionTitle(t.get(book.introductionTitle))
+                        .introductionDetail(t.get(book.introductionDetail))
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Returns ranked ids matching the keyword, or null when no search was requested.
+     */
+    private long[] searchBookIds(String searchBy, String searchKeyword) {
+        if (searchBy == null || searchKeyword == null || searchKeyword.isBlank()) {
+            return null;
+        }
+        return searchIndex.search(toSearchFields(searchBy), searchKeyword);
+    }
+
+    /**
+     * Runs the listing filters over the complete search hit set, so no hit is dropped before the category
+     * and price filters apply. The catalog snapshot filters in memory; without one (DATABASE mode or not
+     * loaded yet) the filters run in SQL, a chunk of ids at a time.
+     * Returns the surviving hits in rank order, with their sort value when sortBy is given.
+     */
+    private List<SearchHit> filterSearchHits(long[] rankedIds, String categoryCodeName, String subcategoryCodeName,
+                                             Integer minPrice, Integer maxPrice, String sortBy) {
+        final var sortField = sortBy == null ? null : mapToEntityField(sortBy);
+        final var inMemory = bookCatalog.filterSearchHits(
+                rankedIds, categoryCodeName, subcategoryCodeName, minPrice, maxPrice, sortBy);
+        if (inMemory.isPresent()) {
+            return inMemory.get();
+        }
+
+        final var filter = buildFilterPredicate(categoryCodeName, subcategoryCodeName, minPrice, maxPrice);
+        // Without a sort field the id stands in for the value; rank order is what counts then
+        final ComparableExpressionBase<?> valueExpression = sortField == null ? book.id : sortExpression(sortField);
+        final var values = new HashMap<Long, Long>();
+
+        for (int from = 0; from < rankedIds.length; from += SEARCH_FILTER_CHUNK_SIZE) {
+            final var chunk = Arrays.stream(rankedIds, from, Math.min(from + SEARCH_FILTER_CHUNK_SIZE, rankedIds.length))
+                    .boxed()
+                    .toList();
+            queryFactory.select(book.id, valueExpression)
+                    .from(book)
+                    .innerJoin(category).on(book.bookCategoryId.eq(category.id))
+                    .innerJoin(subcategory).on(book.bookSubcategoryId.eq(subcategory.id))
+                    .where(filter.and(book.id.in(chunk)))
+                    .fetch()
+                    .forEach(t -> values.put(t.get(0, Long.class), toSortValue(t.get(1, Object.class))));
+        }
+
+        final var hits = new ArrayList<SearchHit>(values.size());
+        for (final var id : rankedIds) {
+            final var value = values.get(id);
+            if (value != null) {
+                hits.add(new SearchHit(id, value));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Pages a keyword search, ordered by rank (relevance or no sort) or by the first requested sort.
+     */
+    private Page<BookSummary> findSearchPage(String categoryCodeName, String subcategoryCodeName,
+                                             Integer minPrice, Integer maxPrice, long[] rankedIds,
+                                             Pageable pageable) {
+        final var sort = pageable.getSort();
+        final var byRelevance = sort.isUnsorted() || sort.getOrderFor(RELEVANCE_SORT) != null;
+        final var order = byRelevance ? null : sort.iterator().next();
+
+        var hits = filterSearchHits(rankedIds, categoryCodeName, subcategoryCodeName, minPrice, maxPrice,
+                order == null ? null : order.getProperty());
+        if (order != null) {
+            hits = sortHits(hits, order.isAscending());
+        }
+        if (pageable.getOffset() >= hits.size()) {
+            return new PageImpl<>(List.of(), pageable, hits.size());
+        }
+
+        final var from = (int) pageable.getOffset();
+        final var to = Math.min(from + pageable.getPageSize(), hits.size());
+        final var pageIds = hits.subList(from, to).stream().map(SearchHit::id).toList();
+        return new PageImpl<>(loadSummaries(pageIds), pageable, hits.size());
+    }
+
+    /**
+     * Keyset page over a keyword search. The filtered hits are only (id, value) pairs,
+     * so they are sorted and sought in memory.
+     */
+    private BookSummariesResult findSearchHitsByCursor(List<SearchHit> filteredHits, String sortBy,
+                                                       boolean ascending, BookCursor position, int size) {
+        final var hits = sortHits(filteredHits, ascending);
+
+        int start = 0;
+        if (position != null) {
+            final var found = Collections.binarySearch(
+                    hits, new SearchHit(position.id(), position.value()), hitOrder(ascending));
+            start = found >= 0 ? found + 1 : -found - 1;
+        }
+
+        final var end = Math.min(start + size, hits.size());
+        final var pageHits = hits.subList(start, end);
+        final var last = pageHits.isEmpty() ? null : pageHits.get(pageHits.size() - 1);
+        final var nextCursor = end < hits.size() && last != null
+                ? BookCursor.encode(sortBy, last.value(), last.id())
+                : null;
+
+        return BookSummariesResult.builder()
+                .books(loadSummaries(pageHits.stream().map(SearchHit::id).toList()))
+                .nextCursor(nextCursor)
+                .totalItems((long) hits.size())
+                .build();
+    }
+
+    /**
+     * Loads summaries for the given ids, keeping their order.
+     */
+    private List<BookSummary> loadSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        final var byId = new HashMap<Long, BookEntity>();
+        queryFactory.selectFrom(book)
+                .where(book.id.in(ids))
+                .fetch()
+                .forEach(e -> byId.put(e.getId(), e));
+
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(BookEntityMapper::toSummaryDomain)
+                .toList();
+    }
+
+    private static List<SearchHit> sortHits(List<SearchHit> hits, boolean ascending) {
+        final var sorted = new ArrayList<>(hits);
+        sorted.sort(hitOrder(ascending));
+        return sorted;
+    }
+
+    // Same order as the SQL keyset: (sort value, id), both in the requested direction
+    private static Comparator<SearchHit> hitOrder(boolean ascending) {
+        final var order = Comparator.comparingLong(SearchHit::value).thenComparingLong(SearchHit::id);
+        return ascending ? order : order.reversed();
+    }
+
+    private static long toSortValue(Object value) {
+        if (value instanceof LocalDate date) {
+            return date.toEpochDay();
+        }
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+
+    private BooleanExpression buildFilterPredicate(
+            String categoryCodeName, String subcategoryCodeName, Integer minPrice, Integer maxPrice) {
+
+        BooleanExpression predicate = book.status.eq(BookEntity.Status.VISIBLE)
+                .and(book.deletedAt.isNull()); // Basic condition: only visible and not deleted books
+
+        if (categoryCodeName != null && !"all".equals(categoryCodeName)) {
+            predicate = predicate.and(
+                    book.bookCategoryId.eq(category.id)
+                            .and(category.categoryCodeName.eq(categoryCodeName))
+            );
+        } // Skip if categoryCodeName is "all"
+
+        if (subcategoryCodeName != null && !"all".equals(subcategoryCodeName)) {
+            predicate = predicate.and(
+                    book.bookSubcategoryId.eq(subcategory.id)
+                            .and(subcategory.subcategoryCodeName.eq(subcategoryCodeName))
+            );
+        } // Skip if subcategoryCodeName is "all"
+
+        if (minPrice != null) {
+            predicate = predicate.and(book.discountedPurchaseAmount.goe(minPrice));
+        }
+
+        if (maxPrice != null) {
+            predicate = predicate.and(book.discountedPurchaseAmount.loe(maxPrice));
+        }
+
+        return predicate;
+    }
+
+    /**
+     * Serves the total count of a filter from a short-lived cache instead of counting per page.
+     */
+    private Long cachedCount(String key, BooleanExpression filter) {
+        final var now = System.currentTimeMillis();
+        final var cached = countCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+
+        final var counted = queryFactory
+                .select(book.count())
+                .from(book)
+                .innerJoin(category).on(book.bookCategoryId.eq(category.id))
+                .innerJoin(subcategory).on(book.bookSubcategoryId.eq(subcategory.id))
+                .where(filter)
+                .fetchOne();
+        final var count = counted == null ? 0L : counted;
+
+        if (countCache.size() >= MAX_COUNT_CACHE_ENTRIES) {
+            countCache.clear();
+        }
+        countCache.put(key, new CachedCount(count, now + COUNT_CACHE_TTL_MILLIS));
+        return count;
+    }
+
+    private BooleanExpression seekPredicate(String sortField, boolean ascending, BookCursor position) {
+        final var afterId = ascending ? book.id.gt(position.id()) : book.id.lt(position.id());
+
+        if ("publishedAt".equals(sortField)) {
+            final var date = LocalDate.ofEpochDay(position.value());
+            return (ascending ? book.publishedAt.gt(date) : book.publishedAt.lt(date))
+                    .or(book.publishedAt.eq(date).and(afterId));
+        }
+
+        final var path = new PathBuilder<>(BookEntity.class, book.getMetadata())
+                .getNumber(sortField, Integer.class);
+        final var value = (int) position.value();
+        return (ascending ? path.gt(value) : path.lt(value))
+                .or(path.eq(value).and(afterId));
+    }
+
+    private OrderSpecifier<?> sortOrder(String sortField, Order direction) {
+        final var builder = new PathBuilder<>(BookEntity.class, book.getMetadata());
+        if ("publishedAt".equals(sortField)) {
+            return new OrderSpecifier<>(direction, builder.getDate(sortField, LocalDate.class));
+        }
+        return new OrderSpecifier<>(direction, builder.getNumber(sortField, Integer.class));
+    }
+
+    private static ComparableExpressionBase<?> sortExpression(String sortField) {
+        final var builder = new PathBuilder<>(BookEntity.class, book.getMetadata());
+        if ("publishedAt".equals(sortField)) {
+            return builder.getDate(sortField, LocalDate.class);
+        }
+        return builder.getNumber(sortField, Integer.class);
+    }
+
+    private static long sortValue(String sortField, BookEntity e) {
+        return switch (sortField) {
+            case "viewCount"                -> e.getViewCount();
+            case "salesCount"               -> e.getSalesCount();
+            case "rentalCount"              -> e.getRentalCount();
+            case "discountedPurchaseAmount" -> e.getDiscountedPurchaseAmount();
+            case "publishedAt"              -> e.getPublishedAt().toEpochDay();
+            default -> throw new IllegalArgumentException("Invalid sort field: " + sortField);
+        };
+    }
+
+    private record CachedCount(long count, long expiresAt) {}
+
+    /**
+     * Opaque keyset position: sort key name, sort value (epoch day for dates) and book id.
+     */
+    private record BookCursor(long value, long id) {
+
+        static String encode(String sortBy, long value, long id) {
+            final var raw = sortBy + ":" + value + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Decodes a cursor issued for the same sortBy; anything else is rejected as a bad request.
+         */
+        static BookCursor decode(String cursor, String sortBy) {
+            final String[] parts;
+            try {
+                parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            } catch (IllegalArgumentException e) {
+                throw new InvalidCursorException(cursor);
+            }
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new InvalidCursorException(cursor);
+            }
+            try {
+                return new BookCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            } catch (NumberFormatException e) {
+                throw new InvalidCursorException(cursor);
+            }
+        }
+    }
+
+    @Override
+    public int applyCounterDeltas(List<BookCounterDelta> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return 0;
+        }
+
+        // UPDATE books SET view_count = view_count + CASE book_id WHEN ? THEN ? ... END, ... WHERE book_id IN (...)
+        final var viewCase = new StringBuilder("CASE book_id");
+        final var salesCase = new StringBuilder("CASE book_id");
+        final var rentalCase = new StringBuilder("CASE book_id");
+        final var viewArgs = new ArrayList<Object>();
+        final var salesArgs = new ArrayList<Object>();
+        final var rentalArgs = new ArrayList<Object>();
+        final var idArgs = new ArrayList<Object>();
+
+        for (final var d : deltas) {
+            viewCase.append(" WHEN ? THEN ?");
+            salesCase.append(" WHEN ? THEN ?");
+            rentalCase.append(" WHEN ? THEN ?");
+            viewArgs.add(d.getBookId());
+            viewArgs.add(d.getViews());
+            salesArgs.add(d.getBookId());
+            salesArgs.add(d.getSales());
+            rentalArgs.add(d.getBookId());
+            rentalArgs.add(d.getRentals());
+            idArgs.add(d.getBookId());
+        }
+
+        final var sql = "UPDATE books SET"
+                + " view_count = view_count + (" + viewCase + " ELSE 0 END),"
+                + " sales_count = sales_count + (" + salesCase + " ELSE 0 END),"
+                + " rental_count = rental_count + (" + rentalCase + " ELSE 0 END)"
+                + " WHERE book_id IN (" + String.join(",", Collections.nCopies(idArgs.size(), "?")) + ")";
+
+        final var args = new ArrayList<Object>(viewArgs.size() * 3 + idArgs.size());
+        args.addAll(viewArgs);
+        args.addAll(salesArgs);
+        args.addAll(rentalArgs);
+        args.addAll(idArgs);
+
+        return jdbc.update(sql, args.toArray());
+    }
+
     @Override
     public boolean activateBookWishlist(Long userId, Long bookId) {
         // Check if the wishlist already exists
@@ -304,10 +732,25 @@ public class BookRepositoryImpl implements BookRepository {
                 .toArray(OrderSpecifier[]::new);
     }
 
+    /**
+     * Maps a keyset sortBy to its entity field. A cursor can only seek on a stored value, so relevance
+     * and unknown sorts are rejected as a bad request instead of failing deeper in the query.
+     */
+    static String cursorSortField(String sortBy) {
+        if (sortBy == null) {
+            throw new InvalidSortException(null);
+        }
+        try {
+            return mapToEntityField(sortBy);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSortException(sortBy);
+        }
+    }
+
     /**
      * Maps sortBy string to entity field name
      */
-    private String mapToEntityField(String sortBy) {
+    private static String mapToEntityField(String sortBy) {
         return switch (sortBy) {
             case "views"     -> "viewCount";
             case "sales"     -> "salesCount";
@@ -319,15 +762,14 @@ public class BookRepositoryImpl implements BookRepository {
     }
 
     /**
-     * Builds a LIKE predicate for the given searchBy and keyword
+     * Maps searchBy string to the indexed fields
      */
-    private BooleanExpression buildSearchPredicate(String searchBy, String searchKeyword) {
-        String pattern = "%" + searchKeyword + "%";
-
+    private List<BookSearchIndex.Field> toSearchFields(String searchBy) {
         return switch (searchBy) {
-            case "title"     -> book.title.likeIgnoreCase(pattern);
-            case "author"    -> book.author.likeIgnoreCase(pattern);
-            case "publisher" -> book.publisher.likeIgnoreCase(pattern);
+            case "title"     -> List.of(BookSearchIndex.Field.TITLE);
+            case "author"    -> List.of(BookSearchIndex.Field.AUTHOR);
+            case "publisher" -> List.of(BookSearchIndex.Field.PUBLISHER);
+            case "all"       -> List.of(BookSearchIndex.Field.values());
             default          -> throw new IllegalArgumentException("Invalid searchBy value: " + searchBy);
         };
     }
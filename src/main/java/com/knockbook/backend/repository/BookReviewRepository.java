@@ -1,7 +1,6 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.BookReview;
-import com.knockbook.backend.domain.BookReviewImage;
 import com.knockbook.backend.domain.BookReviewStatistic;
 import com.knockbook.backend.domain.RandomBookReview;
 import org.springframework.data.domain.Page;
@@ -9,7 +8,6 @@ import org.springframework.data.domain.Pageable;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
 
 public interface BookReviewRepository {
 
@@ -19,14 +17,16 @@ public interface BookReviewRepository {
     BookReview save(BookReview review);
 
     /**
-     * Save a book review image entity and return its corresponding domain object.
+     * Save a book review and its image rows (sort order = list position + 1) in one transaction.
+     * Returns the saved review including its images.
      */
-    BookReviewImage saveImageAndReturnDomain(Long reviewId, String imageUrl, int sortOrder);
+    BookReview saveWithImages(BookReview review, List<String> imageUrls);
 
     /**
      * Soft delete a review entity.
+     * Returns the deleted review (id, bookId, userId, rating) for statistics maintenance.
      */
-    void softDeleteById(Long reviewId, Long userId);
+    BookReview softDeleteById(Long reviewId, Long userId);
 
     /**
      * Returns paginated book reviews with optional filters, including images and likes count
@@ -37,46 +37,30 @@ public interface BookReviewRepository {
     List<BookReview> findAllBy(Long userId);
 
     /**
-     * Finds review IDs liked by the given user (used for likedByMe check)
-     */
-    Set<Long> findLikedReviewIdsBy(Long userId, List<Long> reviewIds);
-
-    /**
-     * Persist a like row for the given user and review.
-     * Should throw DataIntegrityViolationException on unique constraint violation (caller may ignore).
-     */
-    boolean saveReviewLike(Long userId, Long reviewId);
-
-    /**
-     * Delete a like row for the given user and review if exists.
-     * Returns true if a row was deleted, false otherwise.
-     */
-    boolean deleteReviewLikeIfExists(Long userId, Long reviewId);
-
-    /**
-     * Atomic increment of likes count on the review (DB update).
+     * Returns book review stats: avg rating, total, score counts, and MBTI counts.
      */
-    void incrementLikeCount(Long reviewId);
+    BookReviewStatistic findBookReviewStatisticsBy(Long bookId);
 
     /**
-     * Atomic decrement of likes count on the review (DB update, should not go below zero).
+     * Recompute books.average_rating and books.rating_count of one book from its visible reviews.
      */
-    void decrementLikeCount(Long reviewId);
+    void refreshBookRating(Long bookId);
 
     /**
-     * Checks if the given user has liked the specified review.
+     * Recompute books.average_rating and books.rating_count of every book in one statement.
+     * Returns the number of affected rows.
      */
-    boolean existsReviewLike(Long userId, Long reviewId);
+    int backfillBookRatings();
 
     /**
-     * Returns the total number of likes for the specified review.
+     * Fetch ids and ratings of visible reviews in id order (for loading the random sampler).
      */
-    int getLikeCount(Long reviewId);
+    List<BookReview> findVisibleReviewRatingsAfter(Long afterId, int limit);
 
     /**
-     * Returns book review stats: avg rating, total, score counts, and MBTI counts.
+     * Retrieves a visible review by id in the random-review shape (single PK lookup).
      */
-    BookReviewStatistic findBookReviewStatisticsBy(Long bookId);
+    Optional<RandomBookReview> findRandomReviewById(Long reviewId);
 
     /**
      * Retrieves a random review by rating
@@ -3,6 +3,7 @@ package com.knockbook.backend.repository;
 import com.knockbook.backend.domain.BookReview;
 import com.knockbook.backend.domain.BookReviewImage;
 import com.knockbook.backend.domain.BookReviewStatistic;
+import com.knockbook.backend.domain.ImageVariants;
 import com.knockbook.backend.domain.RandomBookReview;
 import com.knockbook.backend.entity.*;
 import com.knockbook.backend.exception.CommentNotFoundException;
@@ -12,13 +13,13 @@ import com.querydsl.core.types.dsl.BooleanExpression;
 import com.querydsl.core.types.dsl.PathBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -35,10 +36,10 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
 
     private final EntityManager em;
     private final JPAQueryFactory queryFactory;
+    private final JdbcTemplate jdbc;
 
     private static final QBookReviewEntity R = QBookReviewEntity.bookReviewEntity;
     private static final QBookReviewImageEntity I = QBookReviewImageEntity.bookReviewImageEntity;
-    private static final QBookReviewLikeEntity L = QBookReviewLikeEntity.bookReviewLikeEntity;
     private static final QUserEntity U = QUserEntity.userEntity;
 
     @Override
@@ -56,6 +57,7 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
         em.persist(entity);
         em.flush();
         em.refresh(entity);
+        refreshBookRating(entity.getBookId());
 
         return BookReview.builder()
                 .id(entity.getId())
@@ -70,7 +72,17 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
     }
 
     @Override
-    public BookReviewImage saveImageAndReturnDomain(Long reviewId, String imageUrl, int sortOrder) {
+    @Transactional
+    public BookReview saveWithImages(BookReview review, List<String> imageUrls) {
+        final var saved = save(review);
+        final var images = new ArrayList<BookReviewImage>(imageUrls.size());
+        for (int i = 0; i < imageUrls.size(); i++) {
+            images.add(saveImage(saved.getId(), imageUrls.get(i), i + 1));
+        }
+        return saved.toBuilder().imageUrls(images).build();
+    }
+
+    private BookReviewImage saveImage(Long reviewId, String imageUrl, int sortOrder) {
         BookReviewImageEntity entity = BookReviewImageEntity.builder()
                 .bookReviewId(reviewId)
                 .imageUrl(imageUrl)
@@ -80,13 +92,13 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
         em.persist(entity);
 
         return BookReviewImage.builder()
-                .imageUrl(entity.getImageUrl())
+                .imageUrl(ImageVariants.feedOf(entity.getImageUrl()))
                 .sortOrder(entity.getSortOrder())
                 .build();
     }
 
     @Override
-    public void softDeleteById(Long reviewId, Long userId) {
+    public BookReview softDeleteById(Long reviewId, Long userId) {
         final var review = queryFactory.selectFrom(R)
                 .where(R.id.eq(reviewId).and(R.deletedAt.isNull()))
                 .fetchOne();
@@ -104,6 +116,15 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
 
         em.merge(deletedReview);
         em.flush();
+        refreshBookRating(review.getBookId());
+
+        return BookReview.builder()
+                .id(review.getId())
+                .bookId(review.getBookId())
+                .userId(review.getUserId())
+                .rating(review.getRating())
+                .visible(review.getStatus() == BookReviewEntity.Status.VISIBLE)
+                .build();
     }
 
     @Override
@@ -180,7 +201,7 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
                             .orElse(List.of())
                             .stream()
                             .map(img -> BookReviewImage.builder()
-                                    .imageUrl(img.getImageUrl())
+                                    .imageUrl(ImageVariants.feedOf(img.getImageUrl()))
                                     .sortOrder(img.getSortOrder())
                                     .build())
                             .toList();
@@ -253,7 +274,7 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
                             .orElse(List.of())
                             .stream()
                             .map(img -> BookReviewImage.builder()
-                                    .imageUrl(img.getImageUrl())
+                                    .imageUrl(ImageVariants.feedOf(img.getImageUrl()))
                                     .sortOrder(img.getSortOrder())
                                     .build())
                             .toList();
@@ -276,135 +297,42 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
                 .toList();
     }
 
-    @Override
-    public Set<Long> findLikedReviewIdsBy(Long userId, List<Long> reviewIds) {
-        if (userId == null || reviewIds == null || reviewIds.isEmpty()) {
-            return Collections.emptySet();
-        }
-
-        // Find IDs of reviews liked by the given user (for likedByMe check)
-        final var likedReviewIds = queryFactory.select(L.bookReviewId)
-                .from(L)
-                .where(L.bookReviewId.in(reviewIds)
-                        .and(L.userId.eq(userId))
-                        .and(L.isLiked.eq(true)))
-                .fetch();
-
-        return Set.copyOf(likedReviewIds);
-    }
-
-    @Override
-    @Transactional
-    public boolean saveReviewLike(Long userId, Long reviewId) {
-        // 1) restore if exists with isLiked = false
-        final var updated = queryFactory.update(L)
-                .where(L.bookReviewId.eq(reviewId)
-                        .and(L.userId.eq(userId))
-                        .and(L.isLiked.eq(false)))
-                .set(L.isLiked, true)
-                .execute();
-
-        if (updated > 0) {
-            return true;
-        }
-
-        // 2) try insert
-        try {
-            final var like = BookReviewLikeEntity.builder()
-                    .bookReviewId(reviewId)
-                    .userId(userId)
-                    .isLiked(true)
-                    .build();
-            em.persist(like);
-            em.flush();
-            return true;
-        } catch (PersistenceException ex) {
-            return false;
-        }
-    }
-
-    @Override
-    @Transactional
-    public boolean deleteReviewLikeIfExists(Long userId, Long reviewId) {
-        final var updated = queryFactory.update(L)
-                .where(L.bookReviewId.eq(reviewId)
-                        .and(L.userId.eq(userId))
-                        .and(L.isLiked.eq(true)))
-                .set(L.isLiked, false)
-                .execute();
-
-        return updated > 0;
-    }
-
-    @Override
-    @Transactional
-    public void incrementLikeCount(Long reviewId) {
-        queryFactory.update(R)
-                .where(R.id.eq(reviewId))
-                .set(R.likesCount, R.likesCount.add(1))
-                .execute();
-    }
-
-    @Override
-    @Transactional
-    public void decrementLikeCount(Long reviewId) {
-        queryFactory.update(R)
-                .where(R.id.eq(reviewId).and(R.likesCount.gt(0)))
-                .set(R.likesCount, R.likesCount.subtract(1))
-                .execute();
-    }
-
-    @Override
-    public boolean existsReviewLike(Long userId, Long reviewId) {
-        final var found = queryFactory.selectOne()
-                .from(L)
-                .where(L.bookReviewId.eq(reviewId).and(L.userId.eq(userId)).and(L.isLiked.eq(true)))
-                .fetchFirst();
-        return found != null;
-    }
-
-    @Override
-    public int getLikeCount(Long reviewId) {
-        final var likeCount = queryFactory.select(R.likesCount)
-                .from(R)
-                .where(R.id.eq(reviewId))
-                .fetchOne();
-        return likeCount == null ? 0 : likeCount;
-    }
-
     @Override
     public BookReviewStatistic findBookReviewStatisticsBy(Long bookId) {
         BooleanExpression predicate = R.bookId.eq(bookId)
                 .and(R.status.eq(BookReviewEntity.Status.VISIBLE))
                 .and(R.deletedAt.isNull());
 
-        // avg rating (nullable) and total count
-        final var avg = queryFactory.select(R.rating.avg())
-                .from(R)
-                .where(predicate)
-                .fetchOne();
-
-        final var total = queryFactory.select(R.count())
-                .from(R)
-                .where(predicate)
-                .fetchOne();
-
-        final var averageRating = avg == null ? 0.0 : Math.round(avg * 10.0) / 10.0;
-        final var totalCount = total == null ? 0L : total;
-
-        // counts by score
-        final var scoreTuples = queryFactory.select(R.rating, R.count())
+        // single pass: counts grouped by (rating, mbti); every other figure is derived from it
+        final var tuples = queryFactory.select(R.rating, U.mbti, R.count())
                 .from(R)
+                .leftJoin(U).on(U.id.eq(R.userId))
                 .where(predicate)
-                .groupBy(R.rating)
+                .groupBy(R.rating, U.mbti)
                 .fetch();
 
-        final var scoreMap = scoreTuples.stream()
-                .filter(t -> t.get(R.rating) != null)
-                .collect(Collectors.toMap(
-                        t -> t.get(R.rating),
-                        t -> Optional.ofNullable(t.get(R.count())).orElse(0L)
-                ));
+        final var scoreMap = new HashMap<Integer, Long>();
+        final var mbtiMap = new LinkedHashMap<String, Long>();
+        long totalCount = 0L;
+        long ratingSum = 0L;
+
+        for (final var t : tuples) {
+            final var rating = t.get(R.rating);
+            final var mbti = t.get(U.mbti);
+            final var count = Optional.ofNullable(t.get(R.count())).orElse(0L);
+
+            totalCount += count;
+            if (rating != null) {
+                scoreMap.merge(rating, count, Long::sum);
+                ratingSum += rating * count;
+            }
+            if (mbti != null && !mbti.trim().isEmpty()) {
+                mbtiMap.merge(mbti, count, Long::sum);
+            }
+        }
+
+        final var averageRating = totalCount == 0L ? 0.0
+                : Math.round((double) ratingSum / totalCount * 10.0) / 10.0;
 
         final var scoreCounts = IntStream.rangeClosed(1, 5)
                 .mapToObj(score -> BookReviewStatistic.ScoreCount.builder()
@@ -413,20 +341,8 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
                         .build())
                 .collect(Collectors.toList());
 
-        // mbti counts (join user)
-        final var mbtiTuples = queryFactory.select(U.mbti, R.count())
-                .from(R)
-                .leftJoin(U).on(U.id.eq(R.userId))
-                .where(predicate)
-                .groupBy(U.mbti)
-                .fetch();
-
-        final var mbtiCounts = mbtiTuples.stream()
-                .filter(t -> {
-                    String mbti = t.get(U.mbti);
-                    return mbti != null && !mbti.trim().isEmpty();
-                })
-                .map(t -> new BookReviewStatistic.MbtiCount(t.get(U.mbti), Optional.ofNullable(t.get(R.count())).orElse(0L)))
+        final var mbtiCounts = mbtiMap.entrySet().stream()
+                .map(e -> new BookReviewStatistic.MbtiCount(e.getKey(), e.getValue()))
                 .collect(Collectors.toList());
 
         return BookReviewStatistic.builder()
@@ -437,6 +353,74 @@ public class BookReviewRepositoryImpl implements BookReviewRepository  {
                 .build();
     }
 
+    @Override
+    public void refreshBookRating(Long bookId) {
+        jdbc.update("""
+                UPDATE books b
+                   SET b.rating_count = (SELECT COUNT(*) FROM books_reviews r
+                                          WHERE r.book_id = b.book_id
+                                            AND r.status = 'VISIBLE' AND r.deleted_at IS NULL),
+                       b.average_rating = (SELECT COALESCE(ROUND(AVG(r.rating), 1), 0) FROM books_reviews r
+                                            WHERE r.book_id = b.book_id
+                                              AND r.status = 'VISIBLE' AND r.deleted_at IS NULL)
+                 WHERE b.book_id = ?
+                """, bookId);
+    }
+
+    @Override
+    public int backfillBookRatings() {
+        return jdbc.update("""
+                UPDATE books b
+                  LEFT JOIN (SELECT r.book_id, COUNT(*) AS cnt, ROUND(AVG(r.rating), 1) AS avg_rating
+                               FROM books_reviews r
+                              WHERE r.status = 'VISIBLE' AND r.deleted_at IS NULL
+                              GROUP BY r.book_id) s ON s.book_id = b.book_id
+                   SET b.rating_count = COALESCE(s.cnt, 0),
+                       b.average_rating = COALESCE(s.avg_rating, 0)
+                """);
+    }
+
+    @Override
+    public List<BookReview> findVisibleReviewRatingsAfter(Long afterId, int limit) {
+        final var rows = queryFactory
+                .select(R.id, R.rating)
+                .from(R)
+                .where(R.status.eq(BookReviewEntity.Status.VISIBLE)
+                        .and(R.deletedAt.isNull())
+                        .and(afterId == null ? null : R.id.gt(afterId)))
+                .orderBy(R.id.asc())
+                .limit(limit)
+                .fetch();
+
+        return rows.stream()
+                .map(t -> BookReview.builder()
+                        .id(t.get(R.id))
+                        .rating(t.get(R.rating))
+                        .build())
+                .toList();
+    }
+
+    @Override
+    public Optional<RandomBookReview> findRandomReviewById(Long reviewId) {
+        final var entity = queryFactory
+                .selectFrom(R)
+                .where(R.id.eq(reviewId)
+                        .and(R.status.eq(BookReviewEntity.Status.VISIBLE))
+                        .and(R.deletedAt.isNull()))
+                .fetchOne();
+
+        if (entity == null) {
+            return Optional.empty();
+        }
+
+        return Optional.of(RandomBookReview.builder()
+                .id(entity.getId())
+                .bookId(entity.getBookId())
+                .userId(entity.getUserId())
+                .content(entity.getBody())
+                .build());
+    }
+
     @Override
     public Optional<RandomBookReview> findRandomReviewByRating(Integer rating) {
 
@@ -4,6 +4,7 @@ import com.knockbook.backend.domain.Cart;
 import com.knockbook.backend.domain.CartItem;
 import com.knockbook.backend.domain.CartRef;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
@@ -18,4 +19,12 @@ public interface CartRepository {
     Cart incrementItem(Long cartId, Long cartItemId, int qty);
     Cart decrementItem(Long cartId, Long cartItemId, int qty);
     void deleteByUserIdAndRefs(Long userId, Collection<CartRef> refs);
+
+    /**
+     * Takes the paid order's lines out of its owner's open cart, once per order: claims the order's cart
+     * cleanup and, in the same transaction, subtracts each ref's ordered quantity from the matching lines
+     * added before {@code addedBefore}. A line holding more than was ordered keeps the rest.
+     * Returns false, changing nothing, when the cleanup was already claimed.
+     */
+    boolean removeOrderedLines(Long orderId, Long userId, Collection<CartRef> refs, Instant addedBefore);
 }
@@ -11,11 +11,17 @@ import com.querydsl.core.BooleanBuilder;
 import com.querydsl.core.types.dsl.CaseBuilder;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,8 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class CartRepositoryImpl implements CartRepository {
 
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
     private final EntityManager em;
     private final JPAQueryFactory query;
 
@@ -125,8 +133,15 @@ public class CartRepositoryImpl implements CartRepository {
                 ? Math.max(1, nz(item.getRentalDays())) : 0;
         final int delta = Math.max(1, item.getQuantity());
 
+        // Existing line: quantity bump and snapshot backfill in one UPDATE; otherwise insert it
         final var updated = query.update(i)
                 .set(i.quantity, i.quantity.add(delta))
+                .set(i.titleSnapshot, i.titleSnapshot.coalesce(item.getTitleSnapshot()))
+                .set(i.thumbnailUrl, i.thumbnailUrl.coalesce(item.getThumbnailUrl()))
+                .set(i.salePrice, i.salePrice.coalesce(nz(item.getSalePriceSnapshot())))
+                .set(i.listPrice, i.listPrice.coalesce(nz(item.getListPriceSnapshot())))
+                .set(i.rentalPrice, i.rentalPrice.coalesce(nz(item.getRentalPriceSnapshot())))
+                .set(i.pointsRate, i.pointsRate.coalesce(nz(item.getPointsRate())))
                 .where(i.cartId.eq(cartId),
                         i.refType.eq(refType),
                         i.refId.eq(item.getRefId()),
@@ -148,19 +163,6 @@ public class CartRepositoryImpl implements CartRepository {
                     .pointsRate(nz(item.getPointsRate()))
                     .build();
             em.persist(e);
-        } else {
-            query.update(i)
-                    .set(i.titleSnapshot, i.titleSnapshot.coalesce(item.getTitleSnapshot()))
-                    .set(i.thumbnailUrl, i.thumbnailUrl.coalesce(item.getThumbnailUrl()))
-                    .set(i.salePrice, i.salePrice.coalesce(nz(item.getSalePriceSnapshot())))
-                    .set(i.listPrice, i.listPrice.coalesce(nz(item.getListPriceSnapshot())))
-                    .set(i.rentalPrice, i.rentalPrice.coalesce(nz(item.getRentalPriceSnapshot())))
-                    .set(i.pointsRate, i.pointsRate.coalesce(nz(item.getPointsRate())))
-                    .where(i.cartId.eq(cartId),
-                            i.refType.eq(refType),
-                            i.refId.eq(item.getRefId()),
-                            i.rentalDays.coalesce(0).eq(rentalDays))
-                    .execute();
         }
 
         em.flush();
@@ -250,10 +252,77 @@ public class CartRepositoryImpl implements CartRepository {
                 .fetchOne();
         if (cart == null) { return; }
 
+        query.delete(ci).where(anyOf(cart.getId(), refs)).execute();
+        em.flush();
+        recalcAndPersist(cart.getId());
+    }
+
+    // Native claim: cart_cleaned_at is read-only on the entity, so saveHeader never clears it.
+    // It commits with the line changes; a failed cleanup rolls it back and the next sweep retries.
+    @Override
+    @Transactional
+    public boolean removeOrderedLines(Long orderId, Long userId, Collection<CartRef> refs, Instant addedBefore) {
+        final var claimed = em.createNativeQuery("""
+                        UPDATE orders SET cart_cleaned_at = ?
+                         WHERE id = ? AND cart_cleaned_at IS NULL
+                        """)
+                .setParameter(1, LocalDateTime.now(KST).truncatedTo(ChronoUnit.MILLIS))
+                .setParameter(2, orderId)
+                .executeUpdate() == 1;
+        if (!claimed) { return false; }
+        if (refs == null || refs.isEmpty()) { return true; }
+
+        final var c  = QCartEntity.cartEntity;
+        final var ci = QCartItemEntity.cartItemEntity;
+
+        final var cart = query.selectFrom(c)
+                .where(c.userId.eq(userId), c.status.eq(CartEntity.Status.OPEN))
+                .fetchOne();
+        if (cart == null) { return true; }
+
+        // Units still to take per (refType, refId); rentals match whatever their rental days
+        final var remaining = new HashMap<String, Integer>();
+        for (final var r : refs) {
+            remaining.merge(r.getRefType() + ":" + r.getRefId(), nz(r.getQuantity()), Integer::sum);
+        }
+
+        final var lines = query.selectFrom(ci)
+                .where(anyOf(cart.getId(), refs), addedBefore == null ? null : ci.createdAt.lt(addedBefore))
+                .orderBy(ci.id.asc())
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .fetch();
+        var changed = false;
+        for (final var line : lines) {
+            final var key = line.getRefType().name() + ":" + line.getRefId();
+            final int units = remaining.getOrDefault(key, 0);
+            if (units <= 0) { continue; }
+
+            // A line bumped after payment keeps the units that were not ordered
+            if (line.getQuantity() <= units) {
+                em.remove(line);
+            } else {
+                query.update(ci)
+                        .set(ci.quantity, ci.quantity.add(-units))
+                        .where(ci.id.eq(line.getId()))
+                        .execute();
+            }
+            remaining.put(key, units - Math.min(units, line.getQuantity()));
+            changed = true;
+        }
+        if (!changed) { return true; }
+
+        em.flush();
+        recalcAndPersist(cart.getId());
+        return true;
+    }
+
+    // Lines of the cart matching any ref: rentals by book whatever their rental days, others only as non-rentals
+    private static BooleanBuilder anyOf(Long cartId, Collection<CartRef> refs) {
+        final var ci = QCartItemEntity.cartItemEntity;
         final var or = new BooleanBuilder();
         for (final var r : refs) {
             final var type = CartItemEntity.RefType.valueOf(r.getRefType());
-            final var base = ci.cartId.eq(cart.getId())
+            final var base = ci.cartId.eq(cartId)
                     .and(ci.refType.eq(type))
                     .and(ci.refId.eq(r.getRefId()));
 
@@ -263,10 +332,7 @@ public class CartRepositoryImpl implements CartRepository {
                 or.or(base.and(ci.rentalDays.coalesce(0).eq(0)));
             }
         }
-
-        query.delete(ci).where(or).execute();
-        em.flush();
-        recalcAndPersist(cart.getId());
+        return or;
     }
 
     private void recalcAndPersist(Long cartId) {
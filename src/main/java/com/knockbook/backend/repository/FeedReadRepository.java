@@ -1,37 +1,82 @@
 package com.knockbook.backend.repository;
+import com.knockbook.backend.domain.FeedComment;
 import com.knockbook.backend.domain.FeedCommentsResult;
+import com.knockbook.backend.domain.FeedCursor;
+import com.knockbook.backend.domain.FeedPost;
 import com.knockbook.backend.domain.FeedPostsResult;
 import com.knockbook.backend.domain.FeedProfileResult;
 import com.knockbook.backend.domain.FeedResult;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
 public interface FeedReadRepository {
     FeedPostsResult findFeedPosts(
             Long userId,
             String searchKeyword,
-            Long after,
+            FeedCursor after,
             int size,
             String mbti
     );
 
+    /**
+     * Newest alive posts of the global feed without viewer-specific flags (for the timeline cache).
+     */
+    List<FeedPost> findFeedTimelineHead(int limit);
+
+    /**
+     * postsCount is filled only when includeCount is true (null otherwise).
+     */
     FeedProfileResult findProfilePostThumbnails(
             Long userId,
-            Long after,
-            int size
+            FeedCursor after,
+            int size,
+            boolean includeCount
     );
 
     FeedProfileResult findProfileSavedThumbnails(
             Long userId,
-            Long after,
-            int size
+            FeedCursor after,
+            int size,
+            boolean includeCount
     );
 
+    /**
+     * Resolves a legacy post-id cursor to its (createdAt, postId) position.
+     */
+    Optional<FeedCursor> findPostCursor(Long postId);
+
+    /**
+     * Resolves a legacy post-id cursor to its (savedAt, postId) position in the user's saved list.
+     */
+    Optional<FeedCursor> findSavedCursor(Long userId, Long postId);
+
+    /**
+     * One keyset page of comments, newest first; nextAfter is a signed cursor or null on the last page.
+     */
     FeedCommentsResult findFeedPostComments(
             Long userId,
-            Long postId
+            Long postId,
+            FeedCursor after,
+            int size
+    );
+
+    /**
+     * Hands every comment of the post to the sink in bounded chunks, newest first.
+     */
+    void streamFeedPostComments(
+            Long userId,
+            Long postId,
+            Consumer<List<FeedComment>> sink
     );
 
+    /**
+     * Post with the first commentsSize comments.
+     */
     FeedResult findFeedPostWithComments(
             Long userId,
-            Long PostId
+            Long PostId,
+            int commentsSize
     );
 }
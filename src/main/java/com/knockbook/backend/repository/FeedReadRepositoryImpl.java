@@ -1,5 +1,7 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.FeedCursorCodec;
+import com.knockbook.backend.component.FeedProfileCounts;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.entity.*;
 import com.querydsl.core.BooleanBuilder;
@@ -9,12 +11,17 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @Repository
 @RequiredArgsConstructor
 public class FeedReadRepositoryImpl implements FeedReadRepository {
 
     private final JPAQueryFactory query;
+    private final FeedCursorCodec cursorCodec;
+    private final FeedProfileCounts profileCounts;
+
+    private static final int COMMENT_STREAM_CHUNK = 500;
 
     private static final QFeedPostEntity P = QFeedPostEntity.feedPostEntity;
     private static final QFeedPostImageEntity I = QFeedPostImageEntity.feedPostImageEntity;
@@ -22,13 +29,12 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
     private static final QFeedPostSaveEntity S = QFeedPostSaveEntity.feedPostSaveEntity;
     private static final QUserEntity U = QUserEntity.userEntity;
     private static final QFeedCommentEntity C = QFeedCommentEntity.feedCommentEntity;
-    private static final QFeedCommentLikeEntity CL = QFeedCommentLikeEntity.feedCommentLikeEntity;
 
     @Override
     public FeedPostsResult findFeedPosts(
             Long userId,
             String searchKeyword,
-            Long after,
+            FeedCursor after,
             int size,
             String mbti
     ) {
@@ -45,21 +51,15 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
             predicate.and(U.mbti.eq(mbti));
         }
 
-        // 3) Resolve cursor createdAt (if after exists)
-        final var afterCreatedAt = (after == null) ? null
-                : query.select(P.createdAt).from(P)
-                .where(P.postId.eq(after), P.deletedAt.isNull())
-                .fetchOne();
-
-        // 4) Keyset window: (created_at DESC, post_id DESC)
-        if (afterCreatedAt != null) {
+        // 3) Keyset window: (created_at DESC, post_id DESC), straight from the cursor
+        if (after != null) {
             predicate.and(
-                    P.createdAt.lt(afterCreatedAt)
-                            .or(P.createdAt.eq(afterCreatedAt).and(P.postId.lt(after)))
+                    P.createdAt.lt(after.getSortedAt())
+                            .or(P.createdAt.eq(after.getSortedAt()).and(P.postId.lt(after.getId())))
             );
         }
 
-        // 5) likedByMe via EXISTS
+        // 4) likedByMe via EXISTS
         final var likedByMeExpr = JPAExpressions
                 .selectOne()
                 .from(L)
@@ -72,7 +72,7 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
                 .where(S.postId.eq(P.postId).and(S.userId.eq(userId)))
                 .exists();
 
-        // 6) Page rows (size+1 to detect hasMore)
+        // 5) Page rows (size+1 to detect hasMore)
         final var rows = query
                 .select(
                         P.postId, P.userId, P.content, P.likesCount, P.commentsCount, P.createdAt,
@@ -86,32 +86,20 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
                 .limit(size + 1L)
                 .fetch();
 
-        // 7) Trim to page
+        // 6) Trim to page
         final var hasMore = rows.size() > size;
         final var pageRows = hasMore ? rows.subList(0, size) : rows;
 
-        // 8) Early return when empty
+        // 7) Early return when empty
         final var postIds = pageRows.stream().map(t -> t.get(P.postId)).toList();
         if (postIds.isEmpty()) {
             return FeedPostsResult.builder().feedPosts(List.of()).nextAfter(null).build();
         }
 
-        // 9) Fetch images (ordered by postId, sortOrder)
-        final var imageRows = query
-                .select(I.postId, I.imageUrl, I.sortOrder)
-                .from(I)
-                .where(I.postId.in(postIds))
-                .orderBy(I.postId.asc(), I.sortOrder.asc())
-                .fetch();
+        // 8) Fetch images (postId -> url list)
+        final var imageMap = findImageMap(postIds);
 
-        // 10) Build image map (postId -> url list)
-        final var imageMap = new HashMap<Long, List<String>>();
-        for (final var r : imageRows) {
-            imageMap.computeIfAbsent(r.get(I.postId), k -> new ArrayList<>())
-                    .add(r.get(I.imageUrl));
-        }
-
-        // 11) Map tuples -> domain
+        // 9) Map tuples -> domain
         final var feedPosts = pageRows.stream().map(t ->
                 FeedPost.builder()
                         .postId(String.valueOf(t.get(P.postId)))
@@ -128,51 +116,91 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
                         .build()
         ).toList();
 
-        // 12) Next cursor
-        final var nextAfter = hasMore ? feedPosts.get(feedPosts.size() - 1).getPostId() : null;
+        // 10) Next cursor (legacy post id and signed composite cursor)
+        final var last = feedPosts.get(feedPosts.size() - 1);
+        final var nextAfter = hasMore ? last.getPostId() : null;
+        final var nextCursor = hasMore
+                ? cursorCodec.encode(last.getCreatedAt(), Long.valueOf(last.getPostId()))
+                : null;
 
-        // 13) Assemble result
+        // 11) Assemble result
         final var result = FeedPostsResult.builder()
                 .feedPosts(feedPosts)
                 .nextAfter(nextAfter)
+                .nextCursor(nextCursor)
                 .build();
         return result;
     }
 
+    @Override
+    public List<FeedPost> findFeedTimelineHead(int limit) {
+        // 1) Newest alive posts with author; no per-viewer columns
+        final var rows = query
+                .select(
+                        P.postId, P.userId, P.content, P.likesCount, P.commentsCount, P.createdAt,
+                        U.displayName, U.avatarUrl
+                )
+                .from(P)
+                .leftJoin(U).on(U.id.eq(P.userId))
+                .where(P.deletedAt.isNull())
+                .orderBy(P.createdAt.desc(), P.postId.desc())
+                .limit(limit)
+                .fetch();
+
+        final var postIds = rows.stream().map(t -> t.get(P.postId)).toList();
+        if (postIds.isEmpty()) {
+            return List.of();
+        }
+
+        // 2) Images in one query
+        final var imageMap = findImageMap(postIds);
+
+        // 3) Map tuples -> domain (likedByMe/savedByMe left unset)
+        return rows.stream().map(t ->
+                FeedPost.builder()
+                        .postId(String.valueOf(t.get(P.postId)))
+                        .userId(String.valueOf(t.get(P.userId)))
+                        .displayName(t.get(U.displayName))
+                        .avatarUrl(t.get(U.avatarUrl))
+                        .content(t.get(P.content))
+                        .images(imageMap.getOrDefault(t.get(P.postId), List.of()))
+                        .likesCount(t.get(P.likesCount))
+                        .commentsCount(t.get(P.commentsCount))
+                        .createdAt(t.get(P.createdAt))
+                        .build()
+        ).toList();
+    }
+
     @Override
     public FeedProfileResult findProfilePostThumbnails(
             Long userId,
-            Long after,
-            int size
+            FeedCursor after,
+            int size,
+            boolean includeCount
     ) {
-        final var postsCount = query
-                .select(P.postId.count())
-                .from(P)
-                .where(P.userId.eq(userId), P.deletedAt.isNull())
-                .fetchOne();
-
-        final var afterCreatedAt = (after == null) ? null
-                : query.select(P.createdAt)
-                .from(P)
-                .where(
-                        P.postId.eq(after),
-                        P.deletedAt.isNull(),
-                        P.userId.eq(userId)
-                )
-                .fetchOne();
+        // Count comes from the per-user cache, and only when the caller asks (first page by default)
+        final var postsCount = !includeCount ? null
+                : profileCounts.get(FeedProfileCounts.Kind.POSTS, userId, () -> {
+                    final var count = query
+                            .select(P.postId.count())
+                            .from(P)
+                            .where(P.userId.eq(userId), P.deletedAt.isNull())
+                            .fetchOne();
+                    return count == null ? 0L : count;
+                });
 
         final var pagePredicate = new BooleanBuilder()
                 .and(P.deletedAt.isNull())
                 .and(P.userId.eq(userId));
-        if (afterCreatedAt != null) {
+        if (after != null) {
             pagePredicate.and(
-                    P.createdAt.lt(afterCreatedAt)
-                            .or(P.createdAt.eq(afterCreatedAt).and(P.postId.lt(after)))
+                    P.createdAt.lt(after.getSortedAt())
+                            .or(P.createdAt.eq(after.getSortedAt()).and(P.postId.lt(after.getId())))
             );
         }
 
         final var rows = query
-                .select(P.postId, I.imageUrl)
+                .select(P.postId, P.createdAt, I.imageUrl)
                 .from(P)
                 .join(I).on(I.postId.eq(P.postId).and(I.sortOrder.eq(1)))
                 .where(pagePredicate)
@@ -186,18 +214,23 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
         final var thumbnails = page.stream()
                 .map(t -> FeedProfileThumbnail.builder()
                         .postId(String.valueOf(t.get(P.postId)))
-                        .thumbnailUrl(t.get(I.imageUrl))
+                        .thumbnailUrl(ImageVariants.thumbnailOf(t.get(I.imageUrl)))
                         .build())
                 .toList();
 
         final var nextAfter = (hasMore && !thumbnails.isEmpty())
                 ? thumbnails.get(thumbnails.size() - 1).getPostId()
                 : null;
+        final var nextCursor = (hasMore && !page.isEmpty())
+                ? cursorCodec.encode(page.get(page.size() - 1).get(P.createdAt),
+                        page.get(page.size() - 1).get(P.postId))
+                : null;
 
         final var result = FeedProfileResult.builder()
-                .postsCount(postsCount == null ? 0L : postsCount)
+                .postsCount(postsCount)
                 .profileThumbnails(thumbnails)
                 .nextAfter(nextAfter)
+                .nextCursor(nextCursor)
                 .build();
         return result;
     }
@@ -205,35 +238,34 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
     @Override
     public FeedProfileResult findProfileSavedThumbnails(
             Long userId,
-            Long after,
-            int size
+            FeedCursor after,
+            int size,
+            boolean includeCount
     ) {
-        final var postsCount = query
-                .select(S.postId.count())
-                .from(S)
-                .join(P).on(S.postId.eq(P.postId))
-                .where(S.userId.eq(userId), P.deletedAt.isNull())
-                .fetchOne();
-
-        final var afterSavedAt = (after == null) ? null
-                : query.select(S.createdAt)
-                .from(S)
-                .where(S.userId.eq(userId), S.postId.eq(after))
-                .fetchOne();
+        final var postsCount = !includeCount ? null
+                : profileCounts.get(FeedProfileCounts.Kind.SAVES, userId, () -> {
+                    final var count = query
+                            .select(S.postId.count())
+                            .from(S)
+                            .join(P).on(S.postId.eq(P.postId))
+                            .where(S.userId.eq(userId), P.deletedAt.isNull())
+                            .fetchOne();
+                    return count == null ? 0L : count;
+                });
 
         final var pagePredicate = new BooleanBuilder()
                 .and(P.deletedAt.isNull())
                 .and(S.userId.eq(userId));
 
-        if (afterSavedAt != null) {
+        if (after != null) {
             pagePredicate.and(
-                    S.createdAt.lt(afterSavedAt)
-                            .or(S.createdAt.eq(afterSavedAt).and(S.postId.lt(after)))
+                    S.createdAt.lt(after.getSortedAt())
+                            .or(S.createdAt.eq(after.getSortedAt()).and(S.postId.lt(after.getId())))
             );
         }
 
         final var rows = query
-                .select(P.postId, I.imageUrl)
+                .select(P.postId, S.createdAt, I.imageUrl)
                 .from(S)
                 .join(P).on(P.postId.eq(S.postId))
                 .join(I).on(I.postId.eq(P.postId).and(I.sortOrder.eq(1)))
@@ -248,77 +280,98 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
         final var thumbnails = page.stream()
                 .map(t -> FeedProfileThumbnail.builder()
                         .postId(String.valueOf(t.get(P.postId)))
-                        .thumbnailUrl(t.get(I.imageUrl))
+                        .thumbnailUrl(ImageVariants.thumbnailOf(t.get(I.imageUrl)))
                         .build())
                 .toList();
 
         final var nextAfter = (hasMore && !thumbnails.isEmpty())
                 ? thumbnails.get(thumbnails.size() - 1).getPostId()
                 : null;
+        final var nextCursor = (hasMore && !page.isEmpty())
+                ? cursorCodec.encode(page.get(page.size() - 1).get(S.createdAt),
+                        page.get(page.size() - 1).get(P.postId))
+                : null;
 
         final var result = FeedProfileResult.builder()
-                .postsCount(postsCount == null ? 0L : postsCount)
+                .postsCount(postsCount)
                 .profileThumbnails(thumbnails)
                 .nextAfter(nextAfter)
+                .nextCursor(nextCursor)
                 .build();
         return result;
     }
 
+    @Override
+    public Optional<FeedCursor> findPostCursor(Long postId) {
+        final var createdAt = query.select(P.createdAt)
+                .from(P)
+                .where(P.postId.eq(postId), P.deletedAt.isNull())
+                .fetchOne();
+        return Optional.ofNullable(createdAt)
+                .map(c -> FeedCursor.builder().sortedAt(c).id(postId).build());
+    }
+
+    @Override
+    public Optional<FeedCursor> findSavedCursor(Long userId, Long postId) {
+        final var savedAt = query.select(S.createdAt)
+                .from(S)
+                .where(S.userId.eq(userId), S.postId.eq(postId))
+                .fetchOne();
+        return Optional.ofNullable(savedAt)
+                .map(c -> FeedCursor.builder().sortedAt(c).id(postId).build());
+    }
+
     @Override
     public FeedCommentsResult findFeedPostComments(
             Long userId,
-            Long postId
+            Long postId,
+            FeedCursor after,
+            int size
     ) {
-        final var predicate = new BooleanBuilder()
-                .and(C.deletedAt.isNull())
-                .and(C.postId.eq(postId));
+        // 1) One keyset page (+1 row to detect hasMore)
+        final var rows = fetchCommentPage(userId, postId, after, size + 1);
 
-        final var likedByMeExpr = JPAExpressions
-                .selectOne()
-                .from(CL)
-                .where(CL.commentId.eq(C.commentId).and(CL.userId.eq(userId)))
-                .exists();
-
-        final var rows = query
-                .select(
-                    C.commentId,
-                    U.id,
-                    U.displayName,
-                    U.avatarUrl,
-                    C.body,
-                    C.createdAt,
-                    C.likesCount,
-                    likedByMeExpr
-                )
-                .from(C)
-                .leftJoin(U).on(U.id.eq(C.userId))
-                .where(predicate)
-                .orderBy(C.createdAt.desc(), C.commentId.desc())
-                .fetch();
-
-        final var feedComments = rows.stream()
-                .map(t -> FeedComment.builder()
-                        .commentId(String.valueOf(t.get(C.commentId)))
-                        .userId(String.valueOf(t.get(U.id)))
-                        .displayName(t.get(U.displayName))
-                        .avatarUrl(t.get(U.avatarUrl))
-                        .body(t.get(C.body))
-                        .createdAt(t.get(C.createdAt))
-                        .likesCount(t.get(C.likesCount))
-                        .likedByMe(Boolean.TRUE.equals(t.get(likedByMeExpr)))
-                        .build()
-        ).toList();
+        // 2) Trim and build the next cursor from the last returned comment
+        final var hasMore = rows.size() > size;
+        final var feedComments = hasMore ? rows.subList(0, size) : rows;
+        final var nextAfter = hasMore ? nextCommentCursor(feedComments) : null;
 
         final var result = FeedCommentsResult.builder()
                 .feedComments(feedComments)
                 .postId(String.valueOf(postId))
+                .nextAfter(nextAfter)
                 .build();
 
         return result;
     }
 
     @Override
-    public FeedResult findFeedPostWithComments(final Long userId, final Long postId) {
+    public void streamFeedPostComments(
+            Long userId,
+            Long postId,
+            Consumer<List<FeedComment>> sink
+    ) {
+        // Walk the keyset in fixed-size chunks so memory stays bounded however many comments exist
+        FeedCursor after = null;
+        while (true) {
+            final var chunk = fetchCommentPage(userId, postId, after, COMMENT_STREAM_CHUNK);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            sink.accept(chunk);
+            if (chunk.size() < COMMENT_STREAM_CHUNK) {
+                return;
+            }
+            final var last = chunk.get(chunk.size() - 1);
+            after = FeedCursor.builder()
+                    .sortedAt(last.getCreatedAt())
+                    .id(Long.valueOf(last.getCommentId()))
+                    .build();
+        }
+    }
+
+    @Override
+    public FeedResult findFeedPostWithComments(final Long userId, final Long postId, final int commentsSize) {
         final var likedByMePost = JPAExpressions.selectOne()
                 .from(L)
                 .where(L.postId.eq(P.postId).and(L.userId.eq(userId)))
@@ -341,34 +394,15 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
                 .from(I)
                 .where(I.postId.eq(postId))
                 .orderBy(I.sortOrder.asc())
-                .fetch();
-
-        final var likedByMeComment = JPAExpressions.selectOne()
-                .from(CL)
-                .where(CL.commentId.eq(C.commentId).and(CL.userId.eq(userId)))
-                .exists();
-
-        final var rows = query
-                .select(C.commentId, C.userId, U.displayName, U.avatarUrl,
-                        C.body, C.createdAt, C.likesCount, likedByMeComment)
-                .from(C)
-                .leftJoin(U).on(U.id.eq(C.userId))
-                .where(C.deletedAt.isNull().and(C.postId.eq(postId)))
-                .orderBy(C.createdAt.desc(), C.commentId.desc())
-                .fetch();
+                .fetch()
+                .stream()
+                .map(ImageVariants::feedOf)
+                .toList();
 
-        final var feedComments = rows.stream()
-                .map(t -> FeedComment.builder()
-                        .commentId(String.valueOf(t.get(C.commentId)))
-                        .userId(String.valueOf(t.get(C.userId)))
-                        .displayName(t.get(U.displayName))
-                        .avatarUrl(t.get(U.avatarUrl))
-                        .body(t.get(C.body))
-                        .createdAt(t.get(C.createdAt))
-                        .likesCount(t.get(C.likesCount))
-                        .likedByMe(Boolean.TRUE.equals(t.get(likedByMeComment)))
-                        .build()
-                ).toList();
+        // First page of comments only; the rest is fetched through the comments endpoint
+        final var rows = fetchCommentPage(userId, postId, null, commentsSize + 1);
+        final var hasMore = rows.size() > commentsSize;
+        final var feedComments = hasMore ? rows.subList(0, commentsSize) : rows;
 
         final var feedPost = FeedPost.builder()
                 .postId(String.valueOf(postTuple.get(P.postId)))
@@ -386,8 +420,65 @@ public class FeedReadRepositoryImpl implements FeedReadRepository {
         final var result = FeedResult.builder()
                 .feedPost(feedPost)
                 .feedComments(feedComments)
+                .commentsNextAfter(hasMore ? nextCommentCursor(feedComments) : null)
                 .build();
 
         return result;
     }
+
+    // Comments of a post in (createdAt DESC, commentId DESC) order after the cursor; likedByMe is left to the service
+    private List<FeedComment> fetchCommentPage(Long userId, Long postId, FeedCursor after, int limit) {
+        final var predicate = new BooleanBuilder()
+                .and(C.deletedAt.isNull())
+                .and(C.postId.eq(postId));
+        if (after != null) {
+            predicate.and(
+                    C.createdAt.lt(after.getSortedAt())
+                            .or(C.createdAt.eq(after.getSortedAt()).and(C.commentId.lt(after.getId())))
+            );
+        }
+
+        final var rows = query
+                .select(C.commentId, C.userId, U.displayName, U.avatarUrl,
+                        C.body, C.createdAt, C.likesCount)
+                .from(C)
+                .leftJoin(U).on(U.id.eq(C.userId))
+                .where(predicate)
+                .orderBy(C.createdAt.desc(), C.commentId.desc())
+                .limit(limit)
+                .fetch();
+        return rows.stream()
+                .map(t -> FeedComment.builder()
+                        .commentId(String.valueOf(t.get(C.commentId)))
+                        .userId(String.valueOf(t.get(C.userId)))
+                        .displayName(t.get(U.displayName))
+                        .avatarUrl(t.get(U.avatarUrl))
+                        .body(t.get(C.body))
+                        .createdAt(t.get(C.createdAt))
+                        .likesCount(t.get(C.likesCount))
+                        .build()
+                ).toList();
+    }
+
+    private String nextCommentCursor(List<FeedComment> page) {
+        final var last = page.get(page.size() - 1);
+        return cursorCodec.encode(last.getCreatedAt(), Long.valueOf(last.getCommentId()));
+    }
+
+    // postId -> feed-size image urls ordered by sortOrder
+    private Map<Long, List<String>> findImageMap(List<Long> postIds) {
+        final var imageRows = query
+                .select(I.postId, I.imageUrl, I.sortOrder)
+                .from(I)
+                .where(I.postId.in(postIds))
+                .orderBy(I.postId.asc(), I.sortOrder.asc())
+                .fetch();
+
+        final var imageMap = new HashMap<Long, List<String>>();
+        for (final var r : imageRows) {
+            imageMap.computeIfAbsent(r.get(I.postId), k -> new ArrayList<>())
+                    .add(ImageVariants.feedOf(r.get(I.imageUrl)));
+        }
+        return imageMap;
+    }
 }
@@ -1,5 +1,8 @@
 package com.knockbook.backend.repository;
 
+import java.util.Collection;
+import java.util.Set;
+
 public interface FeedSaveRepository {
     boolean insertPostSaveIfAbsent (
             Long postId,
@@ -9,4 +12,9 @@ public interface FeedSaveRepository {
             Long postId,
             Long userId
     );
+
+    Set<Long> findSavedPostIds (
+            Long userId,
+            Collection<Long> postIds
+    );
 }
@@ -1,5 +1,6 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.FeedProfileCounts;
 import com.knockbook.backend.entity.FeedPostSaveEntity;
 import com.knockbook.backend.entity.QFeedPostSaveEntity;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -7,11 +8,16 @@ import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+
 @Repository
 @RequiredArgsConstructor
 public class FeedSaveRepositoryImpl implements FeedSaveRepository {
     private final JPAQueryFactory query;
     private final EntityManager em;
+    private final FeedProfileCounts profileCounts;
 
     private static final QFeedPostSaveEntity PS = QFeedPostSaveEntity.feedPostSaveEntity;
 
@@ -32,6 +38,7 @@ public class FeedSaveRepositoryImpl implements FeedSaveRepository {
                 .build();
 
         em.persist(save);
+        profileCounts.adjust(FeedProfileCounts.Kind.SAVES, userId, 1);
 
         return true;
         }
@@ -45,6 +52,26 @@ public class FeedSaveRepositoryImpl implements FeedSaveRepository {
                 .where(PS.postId.eq(postId).and(PS.userId.eq(userId)))
                 .execute();
 
+        if (affected == 1) {
+            profileCounts.adjust(FeedProfileCounts.Kind.SAVES, userId, -1);
+        }
         return affected == 1;
     }
+
+    @Override
+    public Set<Long> findSavedPostIds (
+            Long userId,
+            Collection<Long> postIds
+    ) {
+        if (userId == null || postIds == null || postIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        final var saved = query.select(PS.postId)
+                .from(PS)
+                .where(PS.userId.eq(userId).and(PS.postId.in(postIds)))
+                .fetch();
+
+        return Set.copyOf(saved);
+    }
 }
@@ -1,12 +1,15 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.FeedProfileCounts;
 import com.knockbook.backend.domain.FeedComment;
 import com.knockbook.backend.domain.FeedProfileThumbnail;
+import com.knockbook.backend.domain.ImageVariants;
 import com.knockbook.backend.entity.*;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,10 +20,12 @@ public class FeedWriteRepositoryImpl implements FeedWriteRepository{
 
     private final JPAQueryFactory query;
     private final EntityManager em;
+    private final FeedProfileCounts profileCounts;
 
     private static final QFeedPostEntity P = QFeedPostEntity.feedPostEntity;
     private static final QUserEntity U = QUserEntity.userEntity;
     private static final QFeedCommentEntity C = QFeedCommentEntity.feedCommentEntity;
+    private static final QFeedPostSaveEntity PS = QFeedPostSaveEntity.feedPostSaveEntity;
 
     @Override
     public FeedComment insertComment (
@@ -68,6 +73,7 @@ public class FeedWriteRepositoryImpl implements FeedWriteRepository{
     }
 
     @Override
+    @Transactional
     public FeedProfileThumbnail insertPost (
             Long userId,
             String content,
@@ -96,8 +102,9 @@ public class FeedWriteRepositoryImpl implements FeedWriteRepository{
             em.persist(img);
         }
         em.flush();
+        profileCounts.adjust(FeedProfileCounts.Kind.POSTS, userId, 1);
 
-        final String thumbUrl = imageUrls.get(0);
+        final String thumbUrl = ImageVariants.thumbnailOf(imageUrls.get(0));
 
         return FeedProfileThumbnail.builder()
                 .postId(String.valueOf(postId))
@@ -146,10 +153,20 @@ public class FeedWriteRepositoryImpl implements FeedWriteRepository{
             Long postId,
             Long userId
     ) {
+        // Read before the delete: the saved counts of exactly these users lose this post
+        final var saverIds = query.select(PS.userId)
+                .from(PS)
+                .where(PS.postId.eq(postId))
+                .fetch();
+
         final var affected = query.delete(P)
                 .where(P.postId.eq(postId).and(P.userId.eq(userId)))
                 .execute();
 
+        if (affected > 0) {
+            profileCounts.adjust(FeedProfileCounts.Kind.POSTS, userId, -affected);
+            saverIds.forEach(saverId -> profileCounts.adjust(FeedProfileCounts.Kind.SAVES, saverId, -1));
+        }
         return affected;
     }
 }
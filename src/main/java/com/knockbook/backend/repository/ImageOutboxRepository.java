@@ -0,0 +1,13 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.ImageUploadTarget;
+
+public interface ImageOutboxRepository {
+
+    /**
+     * Replace a pending placeholder URL with the uploaded URL in the row(s) owned by ownerId
+     * (review, feed post, Q&A or lounge post id, depending on the target).
+     * Returns the number of rows changed (0 if the owning row is gone or not committed yet).
+     */
+    int replacePlaceholder(ImageUploadTarget target, Long ownerId, String placeholder, String url);
+}
@@ -0,0 +1,38 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.ImageUploadTarget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+@Repository
+@RequiredArgsConstructor
+public class ImageOutboxRepositoryImpl implements ImageOutboxRepository {
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    public int replacePlaceholder(ImageUploadTarget target, Long ownerId, String placeholder, String url) {
+        // Every statement is keyed on the owning row, so it is an index lookup rather than a scan for the URL
+        return switch (target) {
+            case BOOK_REVIEW_IMAGE -> jdbc.update(
+                    "UPDATE books_reviews_images SET image_url = ? WHERE book_review_id = ? AND image_url = ?",
+                    url, ownerId, placeholder);
+            case FEED_POST_IMAGE -> jdbc.update(
+                    "UPDATE feeds_post_images SET image_url = ? WHERE post_id = ? AND image_url = ?",
+                    url, ownerId, placeholder);
+            case CUSTOMER_QNA_FILE -> jdbc.update(
+                    "UPDATE customer_qna_files SET file_url = ? WHERE qna_id = ? AND file_url = ?",
+                    url, ownerId, placeholder);
+            // The placeholder is embedded in the post body; the preview is set if it was missing or pending
+            case LOUNGE_POST_CONTENT -> jdbc.update("""
+                    UPDATE lounge_posts
+                       SET content = REPLACE(content, ?, ?),
+                           preview_image_url = CASE
+                               WHEN preview_image_url IS NULL OR preview_image_url = ? THEN ?
+                               ELSE preview_image_url END
+                     WHERE id = ?
+                    """, placeholder, url, placeholder, url, ownerId);
+        };
+    }
+}
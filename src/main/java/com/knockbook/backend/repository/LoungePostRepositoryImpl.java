@@ -14,6 +14,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -28,6 +29,7 @@ public class LoungePostRepositoryImpl implements LoungePostRepository{
     private final QLoungePostEntity qPost = QLoungePostEntity.loungePostEntity;
 
     @Override
+    @Transactional
     public LoungePost save(LoungePost post) {
         final var entity = LoungePostEntity.builder()
                 .userId(post.getUserId())
@@ -0,0 +1,11 @@
+package com.knockbook.backend.repository;
+
+public interface OrderNumberBlockRepository {
+
+    /**
+     * Atomically reserves the next block of order sequence numbers for the given day (yyyyMMdd)
+     * and returns its block number k; the caller owns sequences (k-1)*blockSize+1 .. k*blockSize.
+     * Runs in its own transaction, so a rolled-back order never hands a block out twice.
+     */
+    long claimBlock(String day, int blockSize);
+}
@@ -0,0 +1,63 @@
+package com.knockbook.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+// order_no_blocks (one row per day, the last block handed out) is created by db/schema/002_order_no_blocks.sql
+@Repository
+@RequiredArgsConstructor
+public class OrderNumberBlockRepositoryImpl implements OrderNumberBlockRepository {
+
+    private final JdbcTemplate jdbc;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long claimBlock(String day, int blockSize) {
+        return jdbc.execute((ConnectionCallback<Long>) con -> {
+            // 1) Bump the day's counter; LAST_INSERT_ID(expr) returns it on this connection
+            try (var bump = con.prepareStatement(
+                    "UPDATE order_no_blocks SET next_hi = LAST_INSERT_ID(next_hi + 1) WHERE day = ?")) {
+                bump.setString(1, day);
+                if (bump.executeUpdate() == 0) {
+                    // 2) First claim of the day: start past any number already issued today
+                    //    (including ones from the old id-based scheme), then bump.
+                    //    A plain SELECT is a consistent (non-locking) read; INSERT ... SELECT would
+                    //    take shared locks on today's orders and block order inserts meanwhile
+                    final long issued;
+                    try (var max = con.prepareStatement("""
+                            SELECT COALESCE(MAX(CAST(SUBSTRING(order_no, 10) AS UNSIGNED)), 0)
+                              FROM orders
+                             WHERE order_no LIKE ?
+                            """)) {
+                        max.setString(1, "O" + day + "%");
+                        try (var rs = max.executeQuery()) {
+                            rs.next();
+                            issued = rs.getLong(1);
+                        }
+                    }
+                    // A concurrent first claim may have seeded the row already; its value wins
+                    try (var seed = con.prepareStatement(
+                            "INSERT IGNORE INTO order_no_blocks (day, next_hi) VALUES (?, ?)")) {
+                        seed.setString(1, day);
+                        seed.setLong(2, seedFor(issued, blockSize));
+                        seed.executeUpdate();
+                    }
+                    bump.executeUpdate();
+                }
+            }
+            try (var st = con.createStatement(); var rs = st.executeQuery("SELECT LAST_INSERT_ID()")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+    }
+
+    // Last block number covering {@code issued}, rounded up: the first claimed block starts after it
+    static long seedFor(long issued, int blockSize) {
+        return (issued + blockSize - 1) / blockSize;
+    }
+}
@@ -2,9 +2,15 @@ package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.OrderPayment;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface OrderPaymentQueryRepository {
     Optional<OrderPayment> findReadyByOrderId(final Long orderId);
     Optional<OrderPayment> findByTxId(final String txId);
+    Optional<OrderPayment> findLatestByOrderId(final Long orderId);
+
+    // APPROVING claims taken before the cutoff, oldest first
+    List<OrderPayment> findApprovingClaimedBefore(final Instant cutoff, final int limit);
 }
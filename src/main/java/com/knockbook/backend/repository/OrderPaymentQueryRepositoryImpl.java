@@ -9,6 +9,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,6 +22,7 @@ public class OrderPaymentQueryRepositoryImpl implements OrderPaymentQueryReposit
 
     private final EntityManager em;
     private final JPAQueryFactory qf;
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
     private static final QOrderPaymentEntity qPay = QOrderPaymentEntity.orderPaymentEntity;
 
     @Override
@@ -37,4 +42,24 @@ public class OrderPaymentQueryRepositoryImpl implements OrderPaymentQueryReposit
                 .fetchFirst();
         return Optional.ofNullable(e).map(OrderPaymentEntity::toDomain);
     }
+
+    @Override
+    public Optional<OrderPayment> findLatestByOrderId(Long orderId) {
+        final var e = qf.selectFrom(qPay)
+                .where(qPay.orderId.eq(orderId))
+                .orderBy(qPay.id.desc())
+                .fetchFirst();
+        return Optional.ofNullable(e).map(OrderPaymentEntity::toDomain);
+    }
+
+    @Override
+    public List<OrderPayment> findApprovingClaimedBefore(Instant cutoff, int limit) {
+        return qf.selectFrom(qPay)
+                .where(qPay.status.eq(OrderPaymentEntity.PaymentTxStatus.APPROVING),
+                        qPay.claimedAt.lt(LocalDateTime.ofInstant(cutoff, KST)))
+                .orderBy(qPay.claimedAt.asc())
+                .limit(limit)
+                .fetch()
+                .stream().map(OrderPaymentEntity::toDomain).toList();
+    }
 }
@@ -2,6 +2,26 @@ package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.OrderPayment;
 
+import java.time.Instant;
+
 public interface OrderPaymentRepository {
     OrderPayment save(OrderPayment record);
+
+    /**
+     * Moves the payment from one status to another only if it is still in {@code from}.
+     * Returns false when another request changed it first.
+     */
+    boolean transition(Long paymentId, OrderPayment.TxStatus from, OrderPayment.TxStatus to);
+
+    /**
+     * Claims a READY payment for approval (READY -> APPROVING), recording the pg_token hash and the claim time.
+     * Returns false when another request claimed or finished it first.
+     */
+    boolean claim(Long paymentId, String pgTokenHash);
+
+    /**
+     * Re-stamps an APPROVING claim that still carries {@code claimedAt}, so only one reconciler takes over
+     * a stale claim. Returns false when the claim changed meanwhile.
+     */
+    boolean reclaim(Long paymentId, Instant claimedAt);
 }
@@ -7,11 +7,18 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+
 @Repository
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class OrderPaymentRepositoryImpl implements OrderPaymentRepository {
 
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
     private final EntityManager em;
 
     @Override @Transactional
@@ -24,5 +31,46 @@ public class OrderPaymentRepositoryImpl implements OrderPaymentRepository {
         }
         return entity.toDomain();
     }
-}
 
+    @Override @Transactional
+    public boolean transition(Long paymentId, OrderPayment.TxStatus from, OrderPayment.TxStatus to) {
+        return em.createQuery("""
+                        UPDATE OrderPaymentEntity p SET p.status = :to
+                         WHERE p.id = :id AND p.status = :from
+                        """)
+                .setParameter("to", OrderPaymentEntity.PaymentTxStatus.valueOf(to.name()))
+                .setParameter("id", paymentId)
+                .setParameter("from", OrderPaymentEntity.PaymentTxStatus.valueOf(from.name()))
+                .executeUpdate() == 1;
+    }
+
+    // Native updates: pg_token_hash and claimed_at are read-only on the entity, so save() never clears a claim
+    @Override @Transactional
+    public boolean claim(Long paymentId, String pgTokenHash) {
+        return em.createNativeQuery("""
+                        UPDATE order_payments SET status = 'APPROVING', pg_token_hash = ?, claimed_at = ?
+                         WHERE id = ? AND status = 'READY'
+                        """)
+                .setParameter(1, pgTokenHash)
+                .setParameter(2, now())
+                .setParameter(3, paymentId)
+                .executeUpdate() == 1;
+    }
+
+    @Override @Transactional
+    public boolean reclaim(Long paymentId, Instant claimedAt) {
+        return em.createNativeQuery("""
+                        UPDATE order_payments SET claimed_at = ?
+                         WHERE id = ? AND status = 'APPROVING' AND claimed_at = ?
+                        """)
+                .setParameter(1, now())
+                .setParameter(2, paymentId)
+                .setParameter(3, LocalDateTime.ofInstant(claimedAt, KST))
+                .executeUpdate() == 1;
+    }
+
+    // claimed_at is DATETIME(3); truncating keeps the stored value equal to the one reclaim compares
+    private static LocalDateTime now() {
+        return LocalDateTime.now(KST).truncatedTo(ChronoUnit.MILLIS);
+    }
+}
@@ -3,7 +3,9 @@ package com.knockbook.backend.repository;
 import com.knockbook.backend.domain.CartItem;
 import com.knockbook.backend.domain.OrderAggregate;
 import com.knockbook.backend.domain.OrderItem;
+import com.knockbook.backend.domain.OrderStatusChange;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 
@@ -20,6 +22,12 @@ public interface OrderRepository {
 
     OrderAggregate saveAggregate(final OrderAggregate aggregate); // save timeline
 
+    /**
+     * Saves the order row only, for status/payment/address changes that leave the lines untouched:
+     * skips saveAggregate's item diff and returns the aggregate's own items.
+     */
+    OrderAggregate saveHeader(final OrderAggregate aggregate);
+
     Optional<OrderAggregate> findDraftById(final Long userId,
                                            final Long orderId);
 
@@ -28,12 +36,21 @@ public interface OrderRepository {
     List<OrderAggregate> findOrdersByUser(final Long userId,
                                           final OrderAggregate.PaymentStatus status);
 
-    // for payment approval
+    // for payment approval and coupon/points repricing
     Optional<OrderAggregate> findByIdAndUserIdForUpdate(final Long userId,
                                                         final Long orderId);
 
     List<OrderAggregate> findAllOrders(final OrderAggregate.PaymentStatus status);
 
+    /**
+     * Up to {@code limit} orders with id below {@code afterId} (all when null), newest first,
+     * with their items loaded in one batched query. {@code userId} null = every user's orders.
+     */
+    List<OrderAggregate> findOrdersPage(final Long userId,
+                                        final OrderAggregate.PaymentStatus status,
+                                        final Long afterId,
+                                        final int limit);
+
     Optional<OrderAggregate> findById(final Long orderId);
 
     Optional<OrderAggregate> findByIdForUpdate(final Long orderId);
@@ -42,11 +59,24 @@ public interface OrderRepository {
                                         final List<CartItem> items,
                                         final boolean resetDiscounts);
 
+    /**
+     * Writes the repriced amounts and coupon of a draft read (and locked) earlier in the same transaction.
+     * The returned aggregate carries the given draft's items; they are not re-read.
+     */
     OrderAggregate updateDraftAmountsAndCoupon(final OrderAggregate draft);
 
-    OrderAggregate updateStatusesOnly(final Long userId, Long orderId,
-                                      final OrderAggregate.Status statusOrNull,
-                                      final OrderAggregate.RentalStatus rentalStatusOrNull);
+    /**
+     * Locks the order, sets the given statuses and returns it together with the statuses it had before.
+     */
+    OrderStatusChange updateStatusesOnly(final Long userId, Long orderId,
+                                         final OrderAggregate.Status statusOrNull,
+                                         final OrderAggregate.RentalStatus rentalStatusOrNull);
 
     List<OrderItem> findItemsByOrderId(final Long orderId);
+
+    /**
+     * Orders paid at or after {@code since} whose cart cleanup has not been claimed yet, oldest payment
+     * first, with their items.
+     */
+    List<OrderAggregate> findPaidAwaitingCartCleanupSince(final Instant since);
 }
@@ -1,20 +1,24 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.OrderNumberAllocator;
 import com.knockbook.backend.domain.CartItem;
 import com.knockbook.backend.domain.OrderAggregate;
 import com.knockbook.backend.domain.OrderItem;
+import com.knockbook.backend.domain.OrderPricing;
+import com.knockbook.backend.domain.OrderStatusChange;
 import com.knockbook.backend.entity.*;
 import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.time.format.DateTimeFormatter;
 import java.util.*;
 
 @Repository
@@ -24,15 +28,24 @@ public class OrderRepositoryImpl implements OrderRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory qf;
+    private final JdbcTemplate jdbc;
 
     private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
-    private static final DateTimeFormatter YMD = DateTimeFormatter.ofPattern("yyyyMMdd");
     private static final QOrderEntity qOrder = QOrderEntity.orderEntity;
     private static final QOrderItemEntity qOrderItem = QOrderItemEntity.orderItemEntity;
     private static final QUserAddressEntity qAddress = QUserAddressEntity.userAddressEntity;
 
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO order_items (order_id, ref_type, ref_id, title_snapshot, thumbnail_url,
+                                     list_price_snapshot, sale_price_snapshot, quantity, rental_days,
+                                     rental_price_snapshot, points_rate, points_earned_item,
+                                     line_subtotal_amount, line_discount_amount, line_total_amount)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
     private final BookPurchaseHistoryRepository purchaseHistoryRepo;
     private final BookRentalHistoryRepository rentalHistoryRepo;
+    private final OrderNumberAllocator orderNumberAllocator;
 
     @Override
     @Transactional
@@ -51,84 +64,17 @@ public class OrderRepositoryImpl implements OrderRepository {
 
         order.setShippingAddressId(defaultAddressId);
 
+        // Lines priced and number allocated up front, so the header is written by a single INSERT
+        // (IDENTITY id) with its totals, and the lines get the generated id
+        final var pricing = new OrderPricing(nz(order.getShippingAmount()));
+        final var rows = cartRows(items, pricing);
+        applyLineTotals(order, pricing);
+        order.setOrderNo(orderNumberAllocator.next());
         em.persist(order);
-        em.flush();
-
-        em.refresh(order);
-        final var createdAt = order.getCreatedAt();
-        final var orderNo   = "O" + createdAt.format(YMD) + String.format("%06d", order.getId());
-        qf.update(qOrder)
-                .set(qOrder.orderNo, orderNo)
-                .where(qOrder.id.eq(order.getId()))
-                .execute();
-        em.refresh(order);
-
-        final var savedDomainItems = new ArrayList<OrderItem>();
-        int subtotal = 0, discount = 0, rental = 0, points = 0, count = 0;
-
-        for (final var s : items) {
-            final int unitList   = nz(s.getListPriceSnapshot());
-            final int unitSale   = nz(s.getSalePriceSnapshot());
-            final int unitRental = nz(s.getRentalPriceSnapshot());
-            final int qty        = (s.getQuantity() == null ? 1 : s.getQuantity());
-
-            final int lineSubtotal, lineDiscount, lineTotal;
-            switch (s.getRefType()) {
-                case BOOK_PURCHASE, PRODUCT -> {
-                    lineSubtotal = (unitList > 0 ? unitList : unitSale) * qty;
-                    final int effective = (unitSale > 0 ? unitSale : unitList);
-                    lineTotal = effective * qty;
-                    lineDiscount = Math.max(0, lineSubtotal - lineTotal);
-                }
-                case BOOK_RENTAL -> {
-                    lineSubtotal = unitRental * qty;
-                    lineTotal = lineSubtotal;
-                    lineDiscount = 0;
-                    rental += lineTotal;
-                }
-                default -> throw new IllegalStateException("Unexpected refType: " + s.getRefType());
-            }
-
-            final int pointsRate = nz(s.getPointsRate());
-            final int pointsItem = (lineTotal * pointsRate) / 100;
-
-            subtotal += lineSubtotal;
-            discount += lineDiscount;
-            points   += pointsItem;
-            count    += qty;
-
-            final var entity = OrderItemEntity.builder()
-                    .orderId(order.getId())
-                    .refType(OrderItemEntity.RefType.valueOf(s.getRefType().name()))
-                    .refId(s.getRefId())
-                    .titleSnapshot(s.getTitleSnapshot())
-                    .thumbnailUrl(s.getThumbnailUrl())
-                    .listPriceSnapshot(unitList)
-                    .salePriceSnapshot(unitSale)
-                    .quantity(qty)
-                    .rentalDays(nz(s.getRentalDays()))
-                    .rentalPriceSnapshot(unitRental)
-                    .pointsRate(pointsRate)
-                    .pointsEarnedItem(pointsItem)
-                    .lineSubtotalAmount(lineSubtotal)
-                    .lineDiscountAmount(lineDiscount)
-                    .lineTotalAmount(lineTotal)
-                    .build();
-
-            em.persist(entity);
-            savedDomainItems.add(entity.toModel());
-        }
-
-        order.setItemCount(count);
-        order.setSubtotalAmount(subtotal);
-        order.setDiscountAmount(discount);
-        order.setRentalAmount(rental);
-        order.setCouponDiscountAmount(0);
-        order.setTotalAmount(subtotal - discount + nz(order.getShippingAmount()));
-        order.setPointsEarned(points);
+        insertItems(jdbc, order.getId(), rows);
 
         em.flush();
-        return order.toDomain(savedDomainItems);
+        return order.toDomain(loadItems(order.getId()));
     }
 
     @Override
@@ -152,76 +98,15 @@ public class OrderRepositoryImpl implements OrderRepository {
             order.setShippingAddressId(null);
         }
 
+        final var pricing = new OrderPricing(nz(order.getShippingAmount()));
+        final var rows = itemRows(items, pricing);
+        applyLineTotals(order, pricing);
+        order.setOrderNo(orderNumberAllocator.next());
         em.persist(order);
+        insertItems(jdbc, order.getId(), rows);
         em.flush();
-        em.refresh(order);
-
-        final var createdAt = order.getCreatedAt();
-        final var orderNo = "O" + createdAt.format(YMD) + String.format("%06d", order.getId());
-        qf.update(qOrder).set(qOrder.orderNo, orderNo).where(qOrder.id.eq(order.getId())).execute();
-        em.refresh(order);
-
-        int subtotal = 0, discount = 0, total = 0, points = 0, count = 0;
-        int rental = 0;
-
-        final var savedDomainItems = new ArrayList<OrderItem>(items.size());
-        for (final var it : items) {
-            final var unitList = nz(it.getListPriceSnapshot());
-            final var unitSale = nz(it.getSalePriceSnapshot());
-            final var qty      = (it.getQuantity() == null ? 1 : it.getQuantity());
-
-            final int lineSubtotal, lineDiscount, lineTotal;
-            switch (it.getRefType()) {
-                case BOOK_PURCHASE, PRODUCT -> {
-                    lineSubtotal = (unitList > 0 ? unitList : unitSale) * qty;
-                    final var effective = (unitSale > 0 ? unitSale : unitList);
-                    lineTotal = effective * qty;
-                    lineDiscount = Math.max(0, lineSubtotal - lineTotal);
-                }
-                default -> throw new IllegalStateException("Unsupported refType: " + it.getRefType());
-            }
-
-            final var pointsRate = nz(it.getPointsRate());
-            final var pointsItem = (lineTotal * pointsRate) / 100;
-
-            subtotal += lineSubtotal;
-            discount += lineDiscount;
-            total    += lineTotal;
-            points   += pointsItem;
-            count    += qty;
-
-            final var entity = OrderItemEntity.builder()
-                    .orderId(order.getId())
-                    .refType(OrderItemEntity.RefType.valueOf(it.getRefType().name()))
-                    .refId(it.getRefId())
-                    .titleSnapshot(it.getTitleSnapshot())
-                    .thumbnailUrl(it.getThumbnailUrl())
-                    .listPriceSnapshot(unitList)
-                    .salePriceSnapshot(unitSale)
-                    .quantity(qty)
-                    .rentalDays(0)
-                    .rentalPriceSnapshot(0)
-                    .pointsRate(pointsRate)
-                    .pointsEarnedItem(pointsItem)
-                    .lineSubtotalAmount(lineSubtotal)
-                    .lineDiscountAmount(lineDiscount)
-                    .lineTotalAmount(lineTotal)
-                    .build();
-
-            em.persist(entity);
-            savedDomainItems.add(entity.toModel());
-        }
 
-        order.setItemCount(count);
-        order.setSubtotalAmount(subtotal);
-        order.setDiscountAmount(discount);
-        order.setRentalAmount(rental);
-        order.setCouponDiscountAmount(0);
-        order.setTotalAmount(subtotal - discount + nz(order.getShippingAmount()));
-        order.setPointsEarned(points);
-        em.flush();
-
-        return order.toDomain(savedDomainItems);
+        return order.toDomain(loadItems(order.getId()));
     }
 
     @Override
@@ -236,67 +121,9 @@ public class OrderRepositoryImpl implements OrderRepository {
 
         qf.delete(qOrderItem).where(qOrderItem.orderId.eq(order.getId())).execute();
 
-        int subtotal = 0, discount = 0, total = 0, points = 0, count = 0;
-        int rental = 0;
-
-        final var savedDomainItems = new ArrayList<OrderItem>(items.size());
-        for (final var it : items) {
-            final var unitList   = nz(it.getListPriceSnapshot());
-            final var unitSale   = nz(it.getSalePriceSnapshot());
-            final var qty        = (it.getQuantity() == null ? 1 : it.getQuantity());
-
-            final int lineSubtotal;
-            final int lineDiscount;
-            final int lineTotal;
-
-            switch (it.getRefType()) {
-                case BOOK_PURCHASE, PRODUCT -> {
-                    lineSubtotal = (unitList > 0 ? unitList : unitSale) * qty;
-                    final var effective = (unitSale > 0 ? unitSale : unitList);
-                    lineTotal = effective * qty;
-                    lineDiscount = Math.max(0, lineSubtotal - lineTotal);
-                }
-                default -> throw new IllegalStateException("Unsupported refType: " + it.getRefType());
-            }
-
-            final var pointsRate = nz(it.getPointsRate());
-            final var pointsItem = (lineTotal * pointsRate) / 100;
-
-            subtotal += lineSubtotal;
-            discount += lineDiscount;
-            total    += lineTotal;
-            points   += pointsItem;
-            count    += qty;
-
-            final var entity = OrderItemEntity.builder()
-                    .orderId(order.getId())
-                    .refType(OrderItemEntity.RefType.valueOf(it.getRefType().name()))
-                    .refId(it.getRefId())
-                    .titleSnapshot(it.getTitleSnapshot())
-                    .thumbnailUrl(it.getThumbnailUrl())
-                    .listPriceSnapshot(unitList)
-                    .salePriceSnapshot(unitSale)
-                    .quantity(qty)
-                    .rentalDays(0)
-                    .rentalPriceSnapshot(0)
-                    .pointsRate(pointsRate)
-                    .pointsEarnedItem(pointsItem)
-                    .lineSubtotalAmount(lineSubtotal)
-                    .lineDiscountAmount(lineDiscount)
-                    .lineTotalAmount(lineTotal)
-                    .build();
-
-            em.persist(entity);
-            savedDomainItems.add(entity.toModel());
-        }
-
-        order.setItemCount(count);
-        order.setSubtotalAmount(subtotal);
-        order.setDiscountAmount(discount);
-        order.setCouponDiscountAmount(0);
-        order.setRentalAmount(rental);
-        order.setTotalAmount(subtotal - discount + nz(order.getShippingAmount()));
-        order.setPointsEarned(points);
+        final var pricing = new OrderPricing(nz(order.getShippingAmount()));
+        insertItems(jdbc, order.getId(), itemRows(items, pricing));
+        applyLineTotals(order, pricing);
 
         if (resetDiscounts) {
             if (order.getAppliedCouponIssuanceId() != null) {
@@ -307,7 +134,7 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
 
         em.flush();
-        return order.toDomain(savedDomainItems);
+        return order.toDomain(loadItems(order.getId()));
     }
 
     @Override
@@ -371,12 +198,7 @@ public class OrderRepositoryImpl implements OrderRepository {
                 .orderBy(qOrder.id.desc())
                 .fetch();
 
-        final var results = new ArrayList<OrderAggregate>(entities.size());
-        for (final var e : entities) {
-            final var items = loadItems(e.getId());
-            results.add(e.toDomain(items));
-        }
-        return results;
+        return toDomainsWithItems(entities);
     }
 
     @Override
@@ -390,12 +212,28 @@ public class OrderRepositoryImpl implements OrderRepository {
                 .orderBy(qOrder.id.desc())
                 .fetch();
 
-        final var results = new ArrayList<OrderAggregate>(entities.size());
-        for (var e : entities) {
-            final var items = loadItems(e.getId());
-            results.add(e.toDomain(items));
-        }
-        return results;
+        return toDomainsWithItems(entities);
+    }
+
+    @Override
+    public List<OrderAggregate> findOrdersPage(@Nullable Long userId,
+                                               @Nullable OrderAggregate.PaymentStatus status,
+                                               @Nullable Long afterId,
+                                               int limit) {
+        final OrderEntity.PaymentStatus ps = (status == null)
+                ? null
+                : OrderEntity.PaymentStatus.valueOf(status.name());
+
+        // Keyset on the primary key: each page is an index range scan, however deep
+        final var entities = qf.selectFrom(qOrder)
+                .where(userId != null ? qOrder.userId.eq(userId) : null,
+                        ps != null ? qOrder.paymentStatus.eq(ps) : null,
+                        afterId != null ? qOrder.id.lt(afterId) : null)
+                .orderBy(qOrder.id.desc())
+                .limit(limit)
+                .fetch();
+
+        return toDomainsWithItems(entities);
     }
 
     @Override
@@ -409,70 +247,9 @@ public class OrderRepositoryImpl implements OrderRepository {
 
         qf.delete(qOrderItem).where(qOrderItem.orderId.eq(order.getId())).execute();
 
-        final var savedDomainItems = new ArrayList<OrderItem>();
-        int subtotal = 0, discount = 0, rental = 0, total = 0, points = 0, count = 0;
-
-        for (final var s : items) {
-            final var unitList   = nz(s.getListPriceSnapshot());
-            final var unitSale   = nz(s.getSalePriceSnapshot());
-            final var unitRental = nz(s.getRentalPriceSnapshot());
-            final var qty        = (s.getQuantity() == null ? 1 : s.getQuantity());
-
-            final int lineSubtotal, lineDiscount, lineTotal;
-            switch (s.getRefType()) {
-                case BOOK_PURCHASE, PRODUCT -> {
-                    lineSubtotal = (unitList > 0 ? unitList : unitSale) * qty;
-                    final var effective = (unitSale > 0 ? unitSale : unitList);
-                    lineTotal = effective * qty;
-                    lineDiscount = Math.max(0, lineSubtotal - lineTotal);
-                }
-                case BOOK_RENTAL -> {
-                    lineSubtotal = unitRental * qty;
-                    lineTotal = lineSubtotal;
-                    lineDiscount = 0;
-                    rental += lineTotal;
-                }
-                default -> throw new IllegalStateException("Unexpected refType: " + s.getRefType());
-            }
-
-            final var pointsRate = nz(s.getPointsRate());
-            final var pointsItem = (lineTotal * pointsRate) / 100;
-
-            subtotal += lineSubtotal;
-            discount += lineDiscount;
-            total    += lineTotal;
-            points   += pointsItem;
-            count    += qty;
-
-            final var entity = OrderItemEntity.builder()
-                    .orderId(order.getId())
-                    .refType(OrderItemEntity.RefType.valueOf(s.getRefType().name()))
-                    .refId(s.getRefId())
-                    .titleSnapshot(s.getTitleSnapshot())
-                    .thumbnailUrl(s.getThumbnailUrl())
-                    .listPriceSnapshot(unitList)
-                    .salePriceSnapshot(unitSale)
-                    .quantity(qty)
-                    .rentalDays(nz(s.getRentalDays()))
-                    .rentalPriceSnapshot(unitRental)
-                    .pointsRate(pointsRate)
-                    .pointsEarnedItem(pointsItem)
-                    .lineSubtotalAmount(lineSubtotal)
-                    .lineDiscountAmount(lineDiscount)
-                    .lineTotalAmount(lineTotal)
-                    .build();
-
-            em.persist(entity);
-            savedDomainItems.add(entity.toModel());
-        }
-
-        order.setItemCount(count);
-        order.setSubtotalAmount(subtotal);
-        order.setDiscountAmount(discount);
-        order.setCouponDiscountAmount(0);
-        order.setRentalAmount(rental);
-        order.setTotalAmount(subtotal - discount + nz(order.getShippingAmount()));
-        order.setPointsEarned(points);
+        final var pricing = new OrderPricing(nz(order.getShippingAmount()));
+        insertItems(jdbc, order.getId(), cartRows(items, pricing));
+        applyLineTotals(order, pricing);
 
         if (resetDiscounts) {
             if (order.getAppliedCouponIssuanceId() != null) {
@@ -483,7 +260,7 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
 
         em.flush();
-        return order.toDomain(savedDomainItems);
+        return order.toDomain(loadItems(order.getId()));
     }
 
     @Override
@@ -516,15 +293,16 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
 
         em.flush();
-        return findDraftById(order.getUserId(), order.getId()).orElseThrow();
+        // Lines are unchanged by repricing, so the caller's copy is returned instead of re-reading them
+        return order.toDomain(draft.getItems());
     }
 
     @Override
     @Transactional
-    public OrderAggregate updateStatusesOnly(Long userId,
-                                             Long orderId,
-                                             OrderAggregate.Status statusOrNull,
-                                             OrderAggregate.RentalStatus rentalStatusOrNull) {
+    public OrderStatusChange updateStatusesOnly(Long userId,
+                                                Long orderId,
+                                                OrderAggregate.Status statusOrNull,
+                                                OrderAggregate.RentalStatus rentalStatusOrNull) {
         final var cb = em.getCriteriaBuilder();
         final var cq = cb.createQuery(OrderEntity.class);
         final var root = cq.from(OrderEntity.class);
@@ -534,6 +312,8 @@ public class OrderRepositoryImpl implements OrderRepository {
                 .getResultStream().findFirst()
                 .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
 
+        final var previousStatus = orderEntity.getStatus();
+        final var previousRentalStatus = orderEntity.getRentalStatus();
         if (statusOrNull != null) {
             orderEntity.setStatus(OrderEntity.OrderStatus.valueOf(statusOrNull.name()));
             if (statusOrNull == OrderAggregate.Status.COMPLETED) {
@@ -546,7 +326,13 @@ public class OrderRepositoryImpl implements OrderRepository {
         em.merge(orderEntity);
 
         var items = findItemsByOrderId(orderId);
-        return orderEntity.toDomain(items);
+        return OrderStatusChange.builder()
+                .order(orderEntity.toDomain(items))
+                .previousStatus(previousStatus == null ? null
+                        : OrderAggregate.Status.valueOf(previousStatus.name()))
+                .previousRentalStatus(previousRentalStatus == null ? null
+                        : OrderAggregate.RentalStatus.valueOf(previousRentalStatus.name()))
+                .build();
     }
 
     @Override
@@ -611,10 +397,51 @@ public class OrderRepositoryImpl implements OrderRepository {
         return entity.toDomain(items);
     }
 
+    @Override
+    @Transactional
+    public OrderAggregate saveHeader(OrderAggregate aggregate) {
+        final var entity = em.merge(OrderEntity.fromModel(aggregate));
+        return entity.toDomain(aggregate.getItems());
+    }
+
+    @Override
+    public List<OrderAggregate> findPaidAwaitingCartCleanupSince(Instant since) {
+        final var entities = qf.selectFrom(qOrder)
+                .where(qOrder.paymentStatus.eq(OrderEntity.PaymentStatus.PAID),
+                        qOrder.cartCleanedAt.isNull(),
+                        qOrder.paidAt.goe(LocalDateTime.ofInstant(since, ZONE_SEOUL)))
+                .orderBy(qOrder.paidAt.asc())
+                .fetch();
+        return toDomainsWithItems(entities);
+    }
+
     private static int nz(final Integer v) {
         return v == null ? 0 : v;
     }
 
+    // Items of all given orders in one IN query, grouped in memory
+    private List<OrderAggregate> toDomainsWithItems(final List<OrderEntity> entities) {
+        if (entities.isEmpty()) {
+            return List.of();
+        }
+        final var orderIds = entities.stream().map(OrderEntity::getId).toList();
+        final var rows = qf.selectFrom(qOrderItem)
+                .where(qOrderItem.orderId.in(orderIds))
+                .orderBy(qOrderItem.orderId.asc(), qOrderItem.id.asc())
+                .fetch();
+
+        final var itemsByOrderId = new HashMap<Long, List<OrderItem>>(entities.size() * 2);
+        for (final var e : rows) {
+            itemsByOrderId.computeIfAbsent(e.getOrderId(), k -> new ArrayList<>()).add(e.toModel());
+        }
+
+        final var results = new ArrayList<OrderAggregate>(entities.size());
+        for (final var e : entities) {
+            results.add(e.toDomain(itemsByOrderId.getOrDefault(e.getId(), new ArrayList<>())));
+        }
+        return results;
+    }
+
     private List<OrderItem> loadItems(final Long orderId) {
         final var rows = qf.selectFrom(qOrderItem)
                 .where(qOrderItem.orderId.eq(orderId))
@@ -646,6 +473,7 @@ public class OrderRepositoryImpl implements OrderRepository {
         }
 
         final var seen = new HashSet<>();
+        final var fresh = new ArrayList<OrderItemEntity>();
         if (items != null) {
             for (final var it : items) {
                 Key k = new Key(
@@ -669,22 +497,104 @@ public class OrderRepositoryImpl implements OrderRepository {
                     target.setLineDiscountAmount(nz(it.getLineDiscountAmount()));
                     target.setLineTotalAmount(nz(it.getLineTotalAmount()));
                 } else {
-                    final var fresh = OrderItemEntity.fromModel(
-                            it.getOrderId() != null && it.getOrderId().equals(orderId) ? it : it.withOrderId(orderId)
-                    );
-                    fresh.setId(null);
-                    fresh.setOrderId(orderId);
-                    em.persist(fresh);
+                    fresh.add(OrderItemEntity.fromModel(it.withOrderId(orderId)));
                 }
             }
         }
 
+        final var removedIds = new ArrayList<Long>();
         for (var entry : existingMap.entrySet()) {
             if (!seen.contains(entry.getKey())) {
-                em.remove(entry.getValue());
+                removedIds.add(entry.getValue().getId());
             }
         }
 
+        // Changed rows go out as one batched UPDATE (hibernate.jdbc.batch_size), then one DELETE and one INSERT batch
         em.flush();
+        if (!removedIds.isEmpty()) {
+            qf.delete(qOrderItem).where(qOrderItem.id.in(removedIds)).execute();
+        }
+        insertItems(jdbc, orderId, fresh);
+    }
+
+    // Rows carry no order id; insertItems writes it
+    static List<OrderItemEntity> cartRows(final List<CartItem> items,
+                                          final OrderPricing pricing) {
+        final var rows = new ArrayList<OrderItemEntity>(items.size());
+        for (final var s : items) {
+            rows.add(priced(pricing, OrderItemEntity.builder()
+                    .refType(OrderItemEntity.RefType.valueOf(s.getRefType().name()))
+                    .refId(s.getRefId())
+                    .titleSnapshot(s.getTitleSnapshot())
+                    .thumbnailUrl(s.getThumbnailUrl())
+                    .listPriceSnapshot(nz(s.getListPriceSnapshot()))
+                    .salePriceSnapshot(nz(s.getSalePriceSnapshot()))
+                    .quantity(s.getQuantity() == null ? 1 : s.getQuantity())
+                    .rentalDays(nz(s.getRentalDays()))
+                    .rentalPriceSnapshot(nz(s.getRentalPriceSnapshot()))
+                    .pointsRate(nz(s.getPointsRate()))
+                    .build()));
+        }
+        return rows;
+    }
+
+    private static List<OrderItemEntity> itemRows(final List<OrderItem> items,
+                                                  final OrderPricing pricing) {
+        final var rows = new ArrayList<OrderItemEntity>(items.size());
+        for (final var it : items) {
+            final var row = OrderItemEntity.fromModel(it);
+            row.setId(null);
+            row.setOrderId(null);
+            rows.add(priced(pricing, row));
+        }
+        return rows;
+    }
+
+    // Prices the row from its unit snapshots and stamps the line amounts on it
+    private static OrderItemEntity priced(final OrderPricing pricing, final OrderItemEntity row) {
+        pricing.addLine(OrderItem.RefType.valueOf(row.getRefType().name()),
+                row.getListPriceSnapshot(), row.getSalePriceSnapshot(), row.getRentalPriceSnapshot(),
+                row.getQuantity(), row.getPointsRate());
+        row.setLineSubtotalAmount(pricing.getLineSubtotalAmount());
+        row.setLineDiscountAmount(pricing.getLineDiscountAmount());
+        row.setLineTotalAmount(pricing.getLineTotalAmount());
+        row.setPointsEarnedItem(pricing.getLinePointsEarned());
+        return row;
+    }
+
+    // Freshly priced lines: no coupon or points applied yet
+    private static void applyLineTotals(final OrderEntity order, final OrderPricing pricing) {
+        order.setItemCount(pricing.getItemCount());
+        order.setSubtotalAmount(pricing.getSubtotalAmount());
+        order.setDiscountAmount(pricing.getDiscountAmount());
+        order.setRentalAmount(pricing.getRentalAmount());
+        order.setCouponDiscountAmount(0);
+        order.setTotalAmount(pricing.getTotalAmount());
+        order.setPointsEarned(pricing.getPointsEarned());
+    }
+
+    // IDENTITY ids rule out Hibernate insert batching, so lines go through one JDBC batch instead
+    // (sent as a multi-row INSERT with rewriteBatchedStatements); callers re-read them for their ids
+    static void insertItems(final JdbcTemplate jdbc, final Long orderId, final List<OrderItemEntity> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate(INSERT_ITEM_SQL, rows, rows.size(), (ps, e) -> {
+            ps.setLong(1, orderId);
+            ps.setString(2, e.getRefType().name());
+            ps.setLong(3, e.getRefId());
+            ps.setString(4, e.getTitleSnapshot());
+            ps.setString(5, e.getThumbnailUrl());
+            ps.setInt(6, nz(e.getListPriceSnapshot()));
+            ps.setInt(7, nz(e.getSalePriceSnapshot()));
+            ps.setInt(8, e.getQuantity() == null ? 1 : e.getQuantity());
+            ps.setInt(9, nz(e.getRentalDays()));
+            ps.setInt(10, nz(e.getRentalPriceSnapshot()));
+            ps.setInt(11, nz(e.getPointsRate()));
+            ps.setInt(12, nz(e.getPointsEarnedItem()));
+            ps.setInt(13, nz(e.getLineSubtotalAmount()));
+            ps.setInt(14, nz(e.getLineDiscountAmount()));
+            ps.setInt(15, nz(e.getLineTotalAmount()));
+        });
     }
 }
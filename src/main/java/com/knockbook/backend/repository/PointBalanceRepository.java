@@ -7,4 +7,10 @@ import java.util.Optional;
 public interface PointBalanceRepository {
     Optional<PointBalance> findByUserIdForUpdate(Long userId);
     PointBalance save(PointBalance balance);
+
+    /**
+     * Spends and earns in one conditional UPDATE, without a locking read of the balance.
+     * Returns false, changing nothing, when the balance cannot cover {@code spend}.
+     */
+    boolean applyNetChange(Long userId, int spend, int earn);
 }
@@ -7,6 +7,7 @@ import com.querydsl.jpa.impl.JPAQueryFactory;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,6 +20,7 @@ public class PointBalanceRepositoryImpl implements PointBalanceRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory qf;
+    private final JdbcTemplate jdbc;
     private static final QPointBalanceEntity qBal = QPointBalanceEntity.pointBalanceEntity;
 
     @Override
@@ -44,5 +46,30 @@ public class PointBalanceRepositoryImpl implements PointBalanceRepository {
         }
         return entity.toDomain();
     }
-}
 
+    @Override
+    @Transactional
+    public boolean applyNetChange(final Long userId, final int spend, final int earn) {
+        if (spend == 0 && earn == 0) {
+            return true;
+        }
+
+        // The row lock is taken by the UPDATE itself and the coverage check is part of its WHERE
+        final var updated = jdbc.update(
+                "UPDATE point_balances SET balance = balance + ? WHERE user_id = ? AND balance >= ?",
+                earn - spend, userId, spend);
+        if (updated == 1) {
+            return true;
+        }
+        if (spend > 0) {
+            return false;
+        }
+
+        // Earning only, for a user who has no balance row yet
+        jdbc.update("""
+                INSERT INTO point_balances (user_id, balance) VALUES (?, ?)
+                ON DUPLICATE KEY UPDATE balance = balance + ?
+                """, userId, earn, earn);
+        return true;
+    }
+}
@@ -6,5 +6,10 @@ import java.util.List;
 
 public interface PointTransactionRepository {
     PointTransaction save(PointTransaction tx);
+
+    /**
+     * Appends ledger rows in one batched INSERT; nothing is read back.
+     */
+    void saveAll(List<PointTransaction> txs);
     List<PointTransaction> findAllByUserId(Long userId);
 }
@@ -5,9 +5,12 @@ import com.knockbook.backend.entity.OrderEntity;
 import com.knockbook.backend.entity.PointTransactionEntity;
 import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 
 @Repository
@@ -15,7 +18,10 @@ import java.util.List;
 @Transactional(readOnly = true)
 public class PointTransactionRepositoryImpl implements PointTransactionRepository {
 
+    private static final ZoneId KST = ZoneId.of("Asia/Seoul");
+
     private final EntityManager em;
+    private final JdbcTemplate jdbc;
 
     @Override
     @Transactional
@@ -38,6 +44,25 @@ public class PointTransactionRepositoryImpl implements PointTransactionRepositor
         return entity.toDomain(orderNo);
     }
 
+    @Override
+    @Transactional
+    public void saveAll(List<PointTransaction> txs) {
+        if (txs.isEmpty()) {
+            return;
+        }
+        jdbc.batchUpdate("""
+                        INSERT INTO point_transactions (user_id, kind, amount_signed, expires_at, order_id, memo)
+                        VALUES (?, ?, ?, ?, ?, ?)
+                        """, txs, txs.size(), (ps, tx) -> {
+                    ps.setLong(1, tx.getUserId());
+                    ps.setString(2, tx.getKind().name());
+                    ps.setInt(3, tx.getAmountSigned());
+                    ps.setObject(4, tx.getExpiresAt() == null ? null : LocalDateTime.ofInstant(tx.getExpiresAt(), KST));
+                    ps.setObject(5, tx.getOrderId());
+                    ps.setString(6, tx.getMemo());
+                });
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<PointTransaction> findAllByUserId(Long userId) {
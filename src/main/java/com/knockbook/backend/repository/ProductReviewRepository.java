@@ -29,15 +29,4 @@ public interface ProductReviewRepository {
             Long userId
     );
 
-    boolean addLikeIfAbsent (
-            Long reviewId,
-            Long userId
-    );
-    boolean removeLikeIfPresent (
-            Long reviewId,
-            Long userId
-    );
-
-    void incrementLikesCount (Long reviewId);
-    void decrementLikesCount (Long reviewId);
 }
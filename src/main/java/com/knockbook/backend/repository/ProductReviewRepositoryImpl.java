@@ -219,46 +219,6 @@ public class ProductReviewRepositoryImpl implements ProductReviewRepository{
                 .execute();
     }
 
-    @Override
-    public boolean addLikeIfAbsent(Long reviewId, Long userId) {
-        boolean likeRowExists = query.selectOne()
-                .from(PRL)
-                .where(PRL.reviewId.eq(reviewId).and(PRL.userId.eq(userId)))
-                .fetchFirst() != null;
-        if (likeRowExists) return false;
-
-        var like = ProductReviewLikeEntity.builder()
-                .reviewId(reviewId)
-                .userId(userId)
-                .build();
-        em.persist(like);
-        return true;
-    }
-
-    @Override
-    public boolean removeLikeIfPresent(Long reviewId, Long userId) {
-        long affected = query.delete(PRL)
-                .where(PRL.reviewId.eq(reviewId).and(PRL.userId.eq(userId)))
-                .execute();
-        return affected == 1;
-    }
-
-    @Override
-    public void incrementLikesCount(Long reviewId) {
-        query.update(PR)
-                .set(PR.likesCount, PR.likesCount.add(1))
-                .where(PR.reviewId.eq(reviewId))
-                .execute();
-    }
-
-    @Override
-    public void decrementLikesCount(Long reviewId) {
-        query.update(PR)
-                .set(PR.likesCount, PR.likesCount.subtract(1))
-                .where(PR.reviewId.eq(reviewId).and(PR.likesCount.gt(0)))
-                .execute();
-    }
-
     // pageable sort → QueryDSL order
     private static List<OrderSpecifier<?>> toOrderSpecifiers(Pageable pageable, QProductReviewEntity pr) {
         final var list = new ArrayList<OrderSpecifier<?>>();
@@ -0,0 +1,42 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.ReactionTarget;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+public interface ReactionRepository {
+
+    /**
+     * Idempotently set or clear the user's reaction on a target.
+     * Returns true only if the stored state actually changed.
+     */
+    boolean setReaction(ReactionTarget target, Long targetId, Long userId, boolean reacted);
+
+    /**
+     * Returns the subset of targetIds the user has reacted to, in one query.
+     */
+    Set<Long> findReactedTargetIds(ReactionTarget target, Long userId, Collection<Long> targetIds);
+
+    /**
+     * Returns the denormalized reaction count stored on the target row.
+     */
+    int findCount(ReactionTarget target, Long targetId);
+
+    /**
+     * Counts the target's like rows. Inside a transaction this includes the transaction's own writes,
+     * unlike the count column, which lags by the write-behind interval.
+     */
+    int countReactions(ReactionTarget target, Long targetId);
+
+    /**
+     * Recompute every target's count column from its like rows. Returns the number of rows written.
+     */
+    int recountAll(ReactionTarget target);
+
+    /**
+     * Add coalesced count deltas to the denormalized count column in one UPDATE (never below zero).
+     */
+    int applyCountDeltas(ReactionTarget target, Map<Long, Long> deltas);
+}
@@ -0,0 +1,165 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.ReactionTarget;
+import com.knockbook.backend.exception.ReactionTargetNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.*;
+
+@Repository
+@RequiredArgsConstructor
+public class ReactionRepositoryImpl implements ReactionRepository {
+
+    private final JdbcTemplate jdbc;
+
+    /**
+     * Table layout per target. Soft-flag tables keep the row and toggle is_liked;
+     * the others insert and delete the row. Every like table has a unique key on
+     * (likeTargetColumn, user_id); see db/schema/001_reaction_unique_keys.sql.
+     */
+    private record Spec(String likeTable, String likeTargetColumn, boolean softFlag,
+                        String targetTable, String targetIdColumn, String countColumn) {}
+
+    private static final Map<ReactionTarget, Spec> SPECS = new EnumMap<>(Map.of(
+            ReactionTarget.FEED_POST,
+            new Spec("feeds_post_likes", "post_id", false, "feeds_posts", "post_id", "likes_count"),
+            ReactionTarget.FEED_COMMENT,
+            new Spec("feeds_comment_likes", "comment_id", false, "feeds_comments", "comment_id", "likes_count"),
+            ReactionTarget.LOUNGE_POST,
+            new Spec("lounge_post_likes", "post_id", true, "lounge_posts", "id", "like_count"),
+            ReactionTarget.PRODUCT_REVIEW,
+            new Spec("products_review_likes", "review_id", false, "products_reviews", "review_id", "likes_count"),
+            ReactionTarget.BOOK_REVIEW,
+            new Spec("books_reviews_likes", "book_review_id", true, "books_reviews", "book_review_id", "likes_count")
+    ));
+
+    @Override
+    public boolean setReaction(ReactionTarget target, Long targetId, Long userId, boolean reacted) {
+        final var spec = SPECS.get(target);
+        final var t = spec.likeTable();
+        final var c = spec.likeTargetColumn();
+
+        if (!spec.softFlag()) {
+            if (!reacted) {
+                return jdbc.update("DELETE FROM " + t + " WHERE " + c + " = ? AND user_id = ?",
+                        targetId, userId) > 0;
+            }
+            return insertLike(target, spec, "INSERT INTO " + t + " (" + c + ", user_id) VALUES (?, ?)",
+                    targetId, userId);
+        }
+
+        if (!reacted) {
+            return jdbc.update("UPDATE " + t + " SET is_liked = 0"
+                    + " WHERE " + c + " = ? AND user_id = ? AND is_liked = 1",
+                    targetId, userId) > 0;
+        }
+        // First-time reactions are the common case, so try the insert before restoring a cleared row.
+        // ON DUPLICATE KEY UPDATE is avoided: with Connector/J's found-rows default an unchanged row
+        // and a fresh insert both report 1, while these two statements only count real changes.
+        return insertLike(target, spec, "INSERT INTO " + t + " (" + c + ", user_id, is_liked) VALUES (?, ?, 1)",
+                targetId, userId)
+                || jdbc.update("UPDATE " + t + " SET is_liked = 1"
+                + " WHERE " + c + " = ? AND user_id = ? AND is_liked = 0",
+                targetId, userId) > 0;
+    }
+
+    /**
+     * Inserts a like row; false when the unique key already holds one for this user.
+     * INSERT IGNORE would also turn a foreign key violation into 0 rows, so a like on a missing
+     * target is told apart here and reported as not found.
+     */
+    private boolean insertLike(ReactionTarget target, Spec spec, String sql, Long targetId, Long userId) {
+        try {
+            return jdbc.update(sql, targetId, userId) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        } catch (DataIntegrityViolationException e) {
+            final var exists = jdbc.queryForObject("SELECT COUNT(*) FROM " + spec.targetTable()
+                    + " WHERE " + spec.targetIdColumn() + " = ?", Integer.class, targetId);
+            if (exists == null || exists == 0) {
+                throw new ReactionTargetNotFoundException(target, targetId);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Set<Long> findReactedTargetIds(ReactionTarget target, Long userId, Collection<Long> targetIds) {
+        if (userId == null || targetIds == null || targetIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        final var spec = SPECS.get(target);
+        final var ids = List.copyOf(new LinkedHashSet<>(targetIds));
+
+        final var sql = "SELECT " + spec.likeTargetColumn() + " FROM " + spec.likeTable()
+                + " WHERE user_id = ? AND " + spec.likeTargetColumn()
+                + " IN (" + String.join(",", Collections.nCopies(ids.size(), "?")) + ")"
+                + (spec.softFlag() ? " AND is_liked = 1" : "");
+
+        final var args = new ArrayList<Object>(ids.size() + 1);
+        args.add(userId);
+        args.addAll(ids);
+
+        return Set.copyOf(jdbc.queryForList(sql, Long.class, args.toArray()));
+    }
+
+    @Override
+    public int findCount(ReactionTarget target, Long targetId) {
+        final var spec = SPECS.get(target);
+        final var counts = jdbc.queryForList("SELECT " + spec.countColumn() + " FROM " + spec.targetTable()
+                + " WHERE " + spec.targetIdColumn() + " = ?", Integer.class, targetId);
+        return counts.isEmpty() || counts.get(0) == null ? 0 : counts.get(0);
+    }
+
+    @Override
+    public int countReactions(ReactionTarget target, Long targetId) {
+        final var spec = SPECS.get(target);
+        final var count = jdbc.queryForObject("SELECT COUNT(*) FROM " + spec.likeTable()
+                + " WHERE " + spec.likeTargetColumn() + " = ?"
+                + (spec.softFlag() ? " AND is_liked = 1" : ""), Integer.class, targetId);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public int recountAll(ReactionTarget target) {
+        final var spec = SPECS.get(target);
+        final var c = spec.likeTargetColumn();
+        final var sql = "UPDATE " + spec.targetTable() + " t"
+                + " LEFT JOIN (SELECT " + c + ", COUNT(*) AS cnt FROM " + spec.likeTable()
+                + (spec.softFlag() ? " WHERE is_liked = 1" : "")
+                + " GROUP BY " + c + ") l ON l." + c + " = t." + spec.targetIdColumn()
+                + " SET t." + spec.countColumn() + " = COALESCE(l.cnt, 0)";
+        return jdbc.update(sql);
+    }
+
+    @Override
+    public int applyCountDeltas(ReactionTarget target, Map<Long, Long> deltas) {
+        if (deltas == null || deltas.isEmpty()) {
+            return 0;
+        }
+        final var spec = SPECS.get(target);
+        final var idColumn = spec.targetIdColumn();
+        final var countColumn = spec.countColumn();
+
+        final var caseSql = new StringBuilder("CASE ").append(idColumn);
+        final var args = new ArrayList<Object>(deltas.size() * 3);
+        for (final var e : deltas.entrySet()) {
+            caseSql.append(" WHEN ? THEN ?");
+            args.add(e.getKey());
+            args.add(e.getValue());
+        }
+        caseSql.append(" ELSE 0 END");
+        args.addAll(deltas.keySet());
+
+        final var sql = "UPDATE " + spec.targetTable()
+                + " SET " + countColumn + " = GREATEST(CAST(" + countColumn + " AS SIGNED) + (" + caseSql + "), 0)"
+                + " WHERE " + idColumn + " IN ("
+                + String.join(",", Collections.nCopies(deltas.size(), "?")) + ")";
+
+        return jdbc.update(sql, args.toArray());
+    }
+}
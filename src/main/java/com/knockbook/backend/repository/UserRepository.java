@@ -1,7 +1,10 @@
 package com.knockbook.backend.repository;
 
 import com.knockbook.backend.domain.User;
+import com.knockbook.backend.domain.UserDisplayProfile;
 
+import java.util.Collection;
+import java.util.Map;
 import java.util.Optional;
 
 public interface UserRepository {
@@ -11,5 +14,10 @@ public interface UserRepository {
 
     Optional<User> findById(final Long id);
 
+    /**
+     * Display fields of the given users in one query, keyed by user id; unknown ids are absent.
+     */
+    Map<Long, UserDisplayProfile> findDisplayProfilesByIds(final Collection<Long> ids);
+
     void update(final User patch);
 }
@@ -1,6 +1,8 @@
 package com.knockbook.backend.repository;
 
+import com.knockbook.backend.component.UserCache;
 import com.knockbook.backend.domain.User;
+import com.knockbook.backend.domain.UserDisplayProfile;
 import com.knockbook.backend.entity.*;
 import com.knockbook.backend.exception.UserNotFoundException;
 import com.querydsl.jpa.impl.JPAQueryFactory;
@@ -9,7 +11,9 @@ import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Optional;
 
 @Repository
@@ -18,6 +22,7 @@ public class UserRepositoryImpl implements UserRepository {
 
     private final EntityManager em;
     private final JPAQueryFactory qf;
+    private final UserCache userCache;
 
     @Override
     public User insert(String email, String displayName) {
@@ -58,6 +63,33 @@ public class UserRepositoryImpl implements UserRepository {
         return Optional.of(user);
     }
 
+    @Override
+    public Map<Long, UserDisplayProfile> findDisplayProfilesByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        final var qUser = QUserEntity.userEntity;
+
+        final var rows = qf
+                .select(qUser.id, qUser.displayName, qUser.avatarUrl, qUser.mbti, qUser.bio)
+                .from(qUser)
+                .where(qUser.id.in(ids))
+                .fetch();
+
+        final var profiles = new HashMap<Long, UserDisplayProfile>(rows.size());
+        for (final var t : rows) {
+            final var id = t.get(qUser.id);
+            profiles.put(id, UserDisplayProfile.builder()
+                    .id(id)
+                    .displayName(t.get(qUser.displayName))
+                    .avatarUrl(t.get(qUser.avatarUrl))
+                    .mbti(t.get(qUser.mbti))
+                    .bio(t.get(qUser.bio))
+                    .build());
+        }
+        return profiles;
+    }
+
     @Override
     @Transactional
     public void update(User patch) {
@@ -152,5 +184,7 @@ public class UserRepositoryImpl implements UserRepository {
         }
 
         em.flush();
+        // Covers every profile write (UserService.updateProfile, uploadAvatar, ...)
+        userCache.invalidate(userId);
     }
 }
@@ -1,6 +1,12 @@
 package com.knockbook.backend.service;
 
-import com.knockbook.backend.component.ImgbbUploader;
+import com.knockbook.backend.component.AfterCommit;
+import com.knockbook.backend.component.BookCatalog;
+import com.knockbook.backend.component.BookCounterBuffer;
+import com.knockbook.backend.component.BookReviewSampler;
+import com.knockbook.backend.component.BookReviewStatsCache;
+import com.knockbook.backend.component.BookSearchIndex;
+import com.knockbook.backend.component.ImageOutbox;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.dto.BookReviewsLikeResponse;
 import com.knockbook.backend.exception.BookNotFoundException;
@@ -11,6 +17,9 @@ import com.knockbook.backend.repository.BookRepository;
 import com.knockbook.backend.repository.BookReviewRepository;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -19,8 +28,6 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 
 @Log4j2
@@ -37,11 +44,75 @@ public class BookService {
     private BookCategoryRepository bookCategoryRepository;
 
     @Autowired
-    private ImgbbUploader imgbbUploader;
+    private ImageOutbox imageOutbox;
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BookSearchIndex bookSearchIndex;
+
+    @Autowired
+    private BookCatalog bookCatalog;
+
+    @Autowired
+    private BookCounterBuffer bookCounterBuffer;
+
+    @Autowired
+    private BookReviewStatsCache bookReviewStatsCache;
+
+    @Autowired
+    private BookReviewSampler bookReviewSampler;
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Value("${book.review-stats.backfill-on-startup:false}")
+    private boolean backfillReviewStatsOnStartup;
+
+    private static final int WARMUP_CHUNK_SIZE = 1000;
+    private static final int RANDOM_REVIEW_ATTEMPTS = 3;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildSearchIndex() {
+        Long afterId = null;
+        while (true) {
+            final var chunk = bookRepository.findSearchableAfter(afterId, WARMUP_CHUNK_SIZE);
+            chunk.forEach(bookSearchIndex::index);
+            if (chunk.size() < WARMUP_CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        log.info("Book search index built: {} books", bookSearchIndex.size());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadReviewSampler() {
+        Long afterId = null;
+        long loaded = 0;
+        while (true) {
+            final var chunk = bookReviewRepository.findVisibleReviewRatingsAfter(afterId, WARMUP_CHUNK_SIZE);
+            chunk.forEach(r -> bookReviewSampler.add(r.getId(), r.getRating()));
+            loaded += chunk.size();
+            if (chunk.size() < WARMUP_CHUNK_SIZE) {
+                break;
+            }
+            afterId = chunk.get(chunk.size() - 1).getId();
+        }
+        bookReviewSampler.markReady();
+        log.info("Book review sampler loaded: {} reviews, {} bytes", loaded, bookReviewSampler.memoryFootprintBytes());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillReviewStatistics() {
+        if (!backfillReviewStatsOnStartup) {
+            return;
+        }
+        final var updated = bookReviewRepository.backfillBookRatings();
+        log.info("Book rating backfill finished: {} books updated", updated);
+    }
+
     public Page<Book> getAllPaged(int page, int size) {
         final var pageRequest = PageRequest.of(page - 1, size);
         return bookRepository.findAllPaged(pageRequest); // 1-based -> 0-based
@@ -49,33 +120,69 @@ public class BookService {
 
     @Transactional
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        final var saved = bookRepository.save(book);
+        AfterCommit.run(() -> {
+            bookSearchIndex.index(saved);
+            bookCatalog.refresh(saved.getId());
+        });
+        return saved;
     }
 
     @Transactional
     public Book updateBook(Book book) {
-        return bookRepository.save(book);
+        final var saved = bookRepository.save(book);
+        AfterCommit.run(() -> {
+            bookSearchIndex.index(saved);
+            bookCatalog.refresh(saved.getId());
+        });
+        return saved;
     }
 
     public Page<BookSummary> getBooksSummary(
             String categoryCodeName, String subcategoryCodeName, Pageable pageable,
             String searchBy, String searchKeyword, Integer maxPrice, Integer minPrice) {
 
+        // Plain browsing is served from the in-memory catalog; keyword searches go to the repository
+        final var isSearch = searchBy != null && searchKeyword != null && !searchKeyword.isBlank();
+        if (!isSearch) {
+            final var cached = bookCatalog.find(categoryCodeName, subcategoryCodeName, pageable, maxPrice, minPrice);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+
         return bookRepository.findBooksByCondition(categoryCodeName, subcategoryCodeName, pageable,
                 searchBy, searchKeyword, maxPrice, minPrice);
     }
 
+    public BookSummariesResult getBooksSummaryByCursor(
+            String categoryCodeName, String subcategoryCodeName, String sortBy, boolean ascending,
+            String cursor, int size, String searchBy, String searchKeyword, Integer minPrice, Integer maxPrice) {
+
+        return bookRepository.findBooksByCursor(categoryCodeName, subcategoryCodeName, sortBy, ascending,
+                cursor, size, searchBy, searchKeyword, minPrice, maxPrice);
+    }
+
     public Book getBookDetails(Long id) {
         return bookRepository.findById(id)
                 .orElseThrow(() -> new BookNotFoundException(String.valueOf(id)));
     }
 
+    /**
+     * Same as getBookDetails, but counts a view for the book (written behind in batches).
+     */
+    public Book viewBookDetails(Long id) {
+        final var book = getBookDetails(id);
+        bookCounterBuffer.incrementViews(id);
+        return book;
+    }
+
     public Page<BookReview> getBookReviews(Long bookId, Pageable pageable, String transactionType,
                                            Long currentUserId, Boolean sameMbti) {
 
         final String currentUserMbti;
         if (Boolean.TRUE.equals(sameMbti) && currentUserId != null) {
-            final var currentUser = userService.getUser(currentUserId);
+            final var currentUser = userService.getDisplayProfile(currentUserId);
             currentUserMbti = currentUser == null ? null : currentUser.getMbti();
         } else {
             currentUserMbti = null;
@@ -89,33 +196,26 @@ public class BookService {
     }
 
     public BookReviewStatistic getBookReviewStatistics(Long bookId) {
-        return bookReviewRepository.findBookReviewStatisticsBy(bookId);
+        return bookReviewStatsCache.get(bookId,
+                () -> bookReviewRepository.findBookReviewStatisticsBy(bookId));
     }
 
     public Set<Long> getLikedReviewIds(Long userId, List<Long> reviewIds) {
-        return bookReviewRepository.findLikedReviewIdsBy(userId, reviewIds);
+        return reactionService.reactedTargetIds(ReactionTarget.BOOK_REVIEW, userId, reviewIds);
     }
 
+    @Transactional
     public BookReviewsLikeResponse likeReview(Long userId, Long reviewId) {
-        final var changed = bookReviewRepository.saveReviewLike(userId, reviewId);
-        if (changed) {
-            bookReviewRepository.incrementLikeCount(reviewId);
-        }
-
-        final var liked = bookReviewRepository.existsReviewLike(userId, reviewId);
-        final var count = bookReviewRepository.getLikeCount(reviewId);
-
+        final var state = reactionService.reactAndCount(ReactionTarget.BOOK_REVIEW, reviewId, userId, true);
         return BookReviewsLikeResponse.builder()
-                .liked(liked)
-                .count(count)
+                .liked(state.reacted())
+                .count(state.count())
                 .build();
     }
 
+    @Transactional
     public void unlikeReview(Long userId, Long reviewId) {
-        final var deleted = bookReviewRepository.deleteReviewLikeIfExists(userId, reviewId);
-        if (deleted) {
-            bookReviewRepository.decrementLikeCount(reviewId);
-        }
+        reactionService.react(ReactionTarget.BOOK_REVIEW, reviewId, userId, false);
     }
 
     public List<BookCategory> getAllCategories() {
@@ -154,18 +254,38 @@ public class BookService {
         return bookRepository.findAllWishlistedBookIdsByUserId(userId);
     }
 
-    @Transactional
+    // Not transactional: saveWithImages opens its own short transaction
     public BookReview createReview(BookReview review, List<MultipartFile> images) {
 
-        final var savedReview = bookReviewRepository.save(review);
-        final var userInfo = userService.getUser(review.getUserId());
+        // 1) Spool images to the upload outbox; a file that cannot be spooled is skipped, as before
+        final var placeholders = new ArrayList<String>();
+        for (final var image : images == null ? List.<MultipartFile>of() : images) {
+            try {
+                placeholders.add(imageOutbox.stage(image, ImageUploadTarget.BOOK_REVIEW_IMAGE));
+            } catch (Exception e) {
+                log.warn("Image spooling failed: name={}", image.getOriginalFilename(), e);
+            }
+        }
+
+        // 2) Review and image rows (placeholder URLs) in one transaction, then start the uploads
+        final BookReview savedReview;
+        try {
+            savedReview = bookReviewRepository.saveWithImages(review, placeholders);
+        } catch (RuntimeException e) {
+            imageOutbox.discard(placeholders);
+            throw e;
+        }
+        imageOutbox.dispatch(savedReview.getId(), placeholders);
+
+        final var userInfo = userService.getDisplayProfile(review.getUserId());
 
-        // try image upload
-        final var uploadedImages = uploadImages(savedReview.getId(), images);
+        AfterCommit.run(() -> {
+            bookReviewStatsCache.reviewAdded(savedReview.getBookId(), savedReview.getRating(), userInfo.getMbti());
+            bookReviewSampler.add(savedReview.getId(), savedReview.getRating());
+        });
 
         // toBulider
         return savedReview.toBuilder()
-                .imageUrls(uploadedImages)
                 .displayName(userInfo.getDisplayName())
                 .mbti(userInfo.getMbti())
                 .build();
@@ -173,15 +293,24 @@ public class BookService {
 
     @Transactional
     public void deleteReview(Long reviewId, Long userId) {
-        bookReviewRepository.softDeleteById(reviewId, userId);
+        final var deleted = bookReviewRepository.softDeleteById(reviewId, userId);
+        // Hidden reviews were never counted in the statistics nor loaded into the sampler
+        if (!Boolean.TRUE.equals(deleted.getVisible())) {
+            return;
+        }
+        final var userInfo = userService.getDisplayProfile(userId);
+        AfterCommit.run(() -> {
+            bookReviewStatsCache.reviewRemoved(deleted.getBookId(), deleted.getRating(), userInfo.getMbti());
+            bookReviewSampler.remove(deleted.getId(), deleted.getRating());
+        });
     }
 
     public RandomBookReview getRandomReview(Integer rating) {
 
-        final var review = bookReviewRepository.findRandomReviewByRating(rating)
+        final var review = pickRandomReview(rating)
                 .orElseThrow(() -> new RandomReviewNotFoundException(rating));
 
-        final var userInfo = userService.getUser(review.getUserId());
+        final var userInfo = userService.getDisplayProfile(review.getUserId());
         final var bookInfo = bookRepository.findById(review.getBookId())
                 .orElseThrow(() -> new BookNotFoundException(review.getBookId().toString()));
 
@@ -191,21 +320,28 @@ public class BookService {
                 .build();
     }
 
-    private List<BookReviewImage> uploadImages(Long reviewId, List<MultipartFile> images) {
-        if (images == null || images.isEmpty()) return Collections.emptyList();
-
-        return IntStream.range(0, images.size())
-                .mapToObj(i -> {
-                    try {
-                        String imageUrl = imgbbUploader.upload(images.get(i));
+    /**
+     * Samples an id in memory and loads it by primary key; falls back to the
+     * repository scan until the sampler has been loaded.
+     */
+    private Optional<RandomBookReview> pickRandomReview(Integer rating) {
+        if (!bookReviewSampler.isReady()) {
+            return bookReviewRepository.findRandomReviewByRating(rating);
+        }
 
-                        return bookReviewRepository.saveImageAndReturnDomain(reviewId, imageUrl, i + 1);
-                    } catch (Exception e) {
-                        log.warn("Image upload failed: index={}, reviewId={}", i, reviewId, e);
-                        return null;
-                    }
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toList());
+        for (int attempt = 0; attempt < RANDOM_REVIEW_ATTEMPTS; attempt++) {
+            final var sampled = bookReviewSampler.sample(rating);
+            if (sampled.isEmpty()) {
+                return Optional.empty();
+            }
+            final var review = bookReviewRepository.findRandomReviewById(sampled.getAsLong());
+            if (review.isPresent()) {
+                return review;
+            }
+            // Hidden or deleted outside this node: drop it from the sampler and retry.
+            // With no rating filter the id's bucket is unknown, so it is removed from all of them.
+            bookReviewSampler.remove(sampled.getAsLong());
+        }
+        return bookReviewRepository.findRandomReviewByRating(rating);
     }
 }
@@ -1,8 +1,9 @@
 package com.knockbook.backend.service;
 
-import com.knockbook.backend.component.ImgbbUploader;
+import com.knockbook.backend.component.ImageOutbox;
 import com.knockbook.backend.domain.CustomerQna;
 import com.knockbook.backend.domain.CustomerQnaFile;
+import com.knockbook.backend.domain.ImageUploadTarget;
 import com.knockbook.backend.domain.PageSlice;
 import com.knockbook.backend.exception.AttachmentLimitExceededException;
 import com.knockbook.backend.exception.FileTooLargeException;
@@ -28,9 +29,9 @@ public class CustomerQnaService {
             Set.of("gif","png","jpg","jpeg");
 
     private final CustomerQnaRepository repository;
-    private final ImgbbUploader imgbb;
+    private final ImageOutbox imageOutbox;
 
-    @Transactional
+    // Not transactional: repository.insert opens its own transaction; files upload in the outbox afterwards
     public CustomerQna create(final Long userId,
                               final String title,
                               final String content,
@@ -44,24 +45,27 @@ public class CustomerQnaService {
         }
 
         final var qnaFiles = new ArrayList<CustomerQnaFile>();
+        final var placeholders = new ArrayList<String>();
         if (files != null && !files.isEmpty()) {
 
             if (files.size() > MAX_NUM_FILES) {
                 throw new AttachmentLimitExceededException(MAX_NUM_FILES, files.size());
             }
 
-            for (final var file : files) {
-
-                if (file == null || file.isEmpty()) {
-                    continue;
-                }
+            final var nonEmpty = files.stream()
+                    .filter(f -> f != null && !f.isEmpty())
+                    .toList();
 
-                final var original = getOriginal(file);
+            // Validate every file before uploading any of them
+            final var originals = nonEmpty.stream().map(CustomerQnaService::getOriginal).toList();
+            final var urls = imageOutbox.stageAll(nonEmpty, ImageUploadTarget.CUSTOMER_QNA_FILE);
+            placeholders.addAll(urls);
 
-                final var url = imgbb.upload(file);
+            for (int i = 0; i < nonEmpty.size(); i++) {
+                final var file = nonEmpty.get(i);
                 qnaFiles.add(CustomerQnaFile.builder()
-                        .fileName(original)
-                        .fileUrl(url)
+                        .fileName(originals.get(i))
+                        .fileUrl(urls.get(i))
                         .fileSize(file.getSize())
                         .fileType(file.getContentType())
                         .build());
@@ -75,7 +79,15 @@ public class CustomerQnaService {
                 .files(qnaFiles)
                 .build();
 
-        return repository.insert(qna);
+        final CustomerQna saved;
+        try {
+            saved = repository.insert(qna);
+            imageOutbox.dispatch(saved.getId(), placeholders);
+        } catch (RuntimeException e) {
+            imageOutbox.discard(placeholders);
+            throw e;
+        }
+        return saved;
     }
 
     @Transactional
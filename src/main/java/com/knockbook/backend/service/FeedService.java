@@ -1,10 +1,11 @@
 package com.knockbook.backend.service;
 
-import com.knockbook.backend.component.ImgbbUploader;
+import com.knockbook.backend.component.FeedCursorCodec;
+import com.knockbook.backend.component.FeedTimelineCache;
+import com.knockbook.backend.component.ImageOutbox;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.dto.CreateFeedCommentRequest;
 import com.knockbook.backend.exception.AttachmentLimitExceededException;
-import com.knockbook.backend.repository.FeedLikeRepository;
 import com.knockbook.backend.repository.FeedReadRepository;
 import com.knockbook.backend.repository.FeedSaveRepository;
 import com.knockbook.backend.repository.FeedWriteRepository;
@@ -14,58 +15,169 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import org.springframework.security.access.AccessDeniedException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class FeedService {
     private final FeedReadRepository feedReadRepository;
-    private final FeedLikeRepository feedLikeRepository;
+    private final ReactionService reactionService;
     private final FeedSaveRepository feedSaveRepository;
     private final FeedWriteRepository feedWriteRepository;
 
     private static final int MAX_NUM_FILES = 3;
-    private final ImgbbUploader imgbb;
+    private static final int POST_DETAIL_COMMENTS = 20;
+    private final ImageOutbox imageOutbox;
+    private final FeedTimelineCache feedTimelineCache;
+    private final FeedCursorCodec feedCursorCodec;
 
     public FeedPostsResult getFeedPosts(
             Long userId,
             String searchKeyword,
+            String cursor,
             Long after,
             int size,
             String mbti
     ) {
-        return feedReadRepository.findFeedPosts(userId, searchKeyword, after, size, mbti);
+        final var position = resolveCursor(cursor, after, feedReadRepository::findPostCursor);
+
+        final var unfiltered = (searchKeyword == null || searchKeyword.isBlank())
+                && (mbti == null || mbti.isBlank());
+        if (unfiltered) {
+            final var afterPostId = position == null ? null : position.getId();
+            final var cached = feedTimelineCache.page(afterPostId, size, feedReadRepository::findFeedTimelineHead);
+            if (cached.isPresent()) {
+                return withViewerFlags(userId, cached.get());
+            }
+        }
+        return feedReadRepository.findFeedPosts(userId, searchKeyword, position, size, mbti);
+    }
+
+    // Signed cursor wins; a bare post id (legacy ?after=) costs one lookup to find its position
+    private FeedCursor resolveCursor(String cursor, Long after, Function<Long, Optional<FeedCursor>> legacyLookup) {
+        if (cursor != null && !cursor.isBlank()) {
+            return feedCursorCodec.decode(cursor);
+        }
+        return after == null ? null : legacyLookup.apply(after).orElse(null);
+    }
+
+    // Overlay likedByMe / savedByMe on shared cached posts with one IN query each
+    private FeedPostsResult withViewerFlags(Long userId, FeedTimelineCache.Page page) {
+        final var postIds = page.feedPosts().stream().map(p -> Long.valueOf(p.getPostId())).toList();
+        final var liked = reactionService.reactedTargetIds(ReactionTarget.FEED_POST, userId, postIds);
+        final var saved = feedSaveRepository.findSavedPostIds(userId, postIds);
+
+        final var feedPosts = page.feedPosts().stream()
+                .map(p -> FeedPost.builder()
+                        .postId(p.getPostId())
+                        .userId(p.getUserId())
+                        .displayName(p.getDisplayName())
+                        .avatarUrl(p.getAvatarUrl())
+                        .content(p.getContent())
+                        .images(p.getImages())
+                        .likesCount(p.getLikesCount())
+                        .commentsCount(p.getCommentsCount())
+                        .likedByMe(liked.contains(Long.valueOf(p.getPostId())))
+                        .savedByMe(saved.contains(Long.valueOf(p.getPostId())))
+                        .createdAt(p.getCreatedAt())
+                        .build())
+                .toList();
+
+        final var nextCursor = page.nextAfter() == null ? null
+                : feedCursorCodec.encode(feedPosts.get(feedPosts.size() - 1).getCreatedAt(),
+                        Long.valueOf(page.nextAfter()));
+
+        return FeedPostsResult.builder()
+                .feedPosts(feedPosts)
+                .nextAfter(page.nextAfter())
+                .nextCursor(nextCursor)
+                .build();
     }
 
     public FeedProfileResult getProfilePostThumbnails(
             Long userId,
+            String cursor,
             Long after,
-            int size
+            int size,
+            boolean includeCount
     ) {
-        return feedReadRepository.findProfilePostThumbnails(userId, after, size);
+        final var position = resolveCursor(cursor, after, feedReadRepository::findPostCursor);
+        return feedReadRepository.findProfilePostThumbnails(userId, position, size,
+                includeCount || position == null);
     }
 
     public FeedProfileResult getProfileSavedThumbnails(
             Long userId,
+            String cursor,
             Long after,
-            int size
+            int size,
+            boolean includeCount
     ) {
-        return feedReadRepository.findProfileSavedThumbnails(userId, after, size);
+        final var position = resolveCursor(cursor, after,
+                postId -> feedReadRepository.findSavedCursor(userId, postId));
+        return feedReadRepository.findProfileSavedThumbnails(userId, position, size,
+                includeCount || position == null);
     }
 
     public FeedCommentsResult getFeedPostComments(
             Long userId,
-            Long postId
+            Long postId,
+            String after,
+            int size
+    ) {
+        final var position = (after == null || after.isBlank()) ? null : feedCursorCodec.decode(after);
+        final var page = feedReadRepository.findFeedPostComments(userId, postId, position, size);
+        return FeedCommentsResult.builder()
+                .postId(page.getPostId())
+                .feedComments(withLikedByMe(userId, page.getFeedComments()))
+                .nextAfter(page.getNextAfter())
+                .build();
+    }
+
+    public void streamFeedPostComments(
+            Long userId,
+            Long postId,
+            Consumer<List<FeedComment>> sink
     ) {
-        return feedReadRepository.findFeedPostComments(userId, postId);
+        feedReadRepository.streamFeedPostComments(userId, postId,
+                chunk -> sink.accept(withLikedByMe(userId, chunk)));
     }
 
     public FeedResult getFeedPostWithComments(
             Long userId,
             Long postId
     ) {
-        return feedReadRepository.findFeedPostWithComments(userId, postId);
+        final var result = feedReadRepository.findFeedPostWithComments(userId, postId, POST_DETAIL_COMMENTS);
+        return FeedResult.builder()
+                .feedPost(result.getFeedPost())
+                .feedComments(withLikedByMe(userId, result.getFeedComments()))
+                .commentsNextAfter(result.getCommentsNextAfter())
+                .build();
+    }
+
+    // Overlay likedByMe on a page of comments with one IN query
+    private List<FeedComment> withLikedByMe(Long userId, List<FeedComment> comments) {
+        if (comments.isEmpty()) {
+            return comments;
+        }
+        final var commentIds = comments.stream().map(c -> Long.valueOf(c.getCommentId())).toList();
+        final var liked = reactionService.reactedTargetIds(ReactionTarget.FEED_COMMENT, userId, commentIds);
+
+        return comments.stream()
+                .map(c -> FeedComment.builder()
+                        .commentId(c.getCommentId())
+                        .userId(c.getUserId())
+                        .displayName(c.getDisplayName())
+                        .avatarUrl(c.getAvatarUrl())
+                        .body(c.getBody())
+                        .createdAt(c.getCreatedAt())
+                        .likesCount(c.getLikesCount())
+                        .likedByMe(liked.contains(Long.valueOf(c.getCommentId())))
+                        .build())
+                .toList();
     }
 
     @Transactional
@@ -89,8 +201,8 @@ public class FeedService {
             Long postId,
             Long userId
     ) {
-        if (feedLikeRepository.insertPostLikeIfAbsent(postId, userId)) {
-            feedLikeRepository.incrementPostLikesCount(postId);
+        if (reactionService.react(ReactionTarget.FEED_POST, postId, userId, true)) {
+            feedTimelineCache.adjustLikes(postId, 1);
         }
     }
 
@@ -99,8 +211,8 @@ public class FeedService {
             Long postId,
             Long userId
     ) {
-        if(feedLikeRepository.deletePostLikeIfPresent(postId, userId)) {
-            feedLikeRepository.decrementPostLikesCount(postId);
+        if (reactionService.react(ReactionTarget.FEED_POST, postId, userId, false)) {
+            feedTimelineCache.adjustLikes(postId, -1);
         }
     }
 
@@ -109,9 +221,7 @@ public class FeedService {
             Long commentId,
             Long userId
     ) {
-        if(feedLikeRepository.insertCommentLikeIfAbsent(commentId, userId)) {
-            feedLikeRepository.incrementCommentLikesCount(commentId);
-        }
+        reactionService.react(ReactionTarget.FEED_COMMENT, commentId, userId, true);
     }
 
     @Transactional
@@ -119,9 +229,7 @@ public class FeedService {
             Long commentId,
             Long userId
     ) {
-        if(feedLikeRepository.deleteCommentLikeIfPresent(commentId, userId)) {
-            feedLikeRepository.decrementCommentLikesCount(commentId);
-        }
+        reactionService.react(ReactionTarget.FEED_COMMENT, commentId, userId, false);
     }
 
     @Transactional
@@ -133,11 +241,12 @@ public class FeedService {
         final var commentBody = req.getCommentBody().trim();
         final var feedComment = feedWriteRepository.insertComment(postId, userId, commentBody);
         feedWriteRepository.incrementPostCommentsCount(postId);
+        feedTimelineCache.adjustComments(postId, 1);
 
         return feedComment;
     }
 
-    @Transactional
+    // Not transactional: insertPost opens its own transaction; images upload in the outbox afterwards
     public FeedProfileThumbnail createPost (
             Long userId,
             String content,
@@ -164,13 +273,19 @@ public class FeedService {
             throw new IllegalArgumentException("all files are empty");
         }
 
-        final var imageUrls = new ArrayList<String>();
-        for (final var file : safeFiles) {
-            final var url = imgbb.upload(file);
-            imageUrls.add(url);
+        final var imageUrls = imageOutbox.stageAll(safeFiles, ImageUploadTarget.FEED_POST_IMAGE);
+
+        final FeedProfileThumbnail thumbnail;
+        try {
+            thumbnail = feedWriteRepository.insertPost(userId, content, imageUrls);
+            imageOutbox.dispatch(Long.valueOf(thumbnail.getPostId()), imageUrls);
+        } catch (RuntimeException e) {
+            imageOutbox.discard(imageUrls);
+            throw e;
         }
+        feedTimelineCache.invalidate();
 
-        return feedWriteRepository.insertPost(userId, content, imageUrls);
+        return thumbnail;
     }
 
     @Transactional
@@ -186,6 +301,7 @@ public class FeedService {
 
         if (affected > 0) {
             feedWriteRepository.decrementPostCommentsCount(postId);
+            feedTimelineCache.adjustComments(postId, -1);
         }
     }
 
@@ -199,5 +315,6 @@ public class FeedService {
         if (affected == 0) {
             throw new AccessDeniedException("Not owner or not found");
         }
+        feedTimelineCache.invalidate();
     }
 }
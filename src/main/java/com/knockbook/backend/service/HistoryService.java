@@ -1,12 +1,10 @@
 package com.knockbook.backend.service;
 
+import com.knockbook.backend.component.BookCategoryDictionary;
 import com.knockbook.backend.domain.BookPreferCategoryStat;
 import com.knockbook.backend.domain.BookPurchaseHistoryDetails;
 import com.knockbook.backend.domain.BookReadCountStat;
 import com.knockbook.backend.domain.BookRentalHistoryDetails;
-import com.knockbook.backend.exception.BookNotFoundException;
-import com.knockbook.backend.exception.CategoryNotFoundException;
-import com.knockbook.backend.repository.BookCategoryRepository;
 import com.knockbook.backend.repository.BookPurchaseHistoryRepository;
 import com.knockbook.backend.repository.BookRentalHistoryRepository;
 import com.knockbook.backend.repository.BookRepository;
@@ -25,42 +23,18 @@ public class HistoryService {
     private final BookPurchaseHistoryRepository purchaseRepo;
     private final BookRentalHistoryRepository rentalRepo;
     private final BookRepository bookRepository;
-    private final BookCategoryRepository bookCategoryRepository;
+    private final BookCategoryDictionary categoryDictionary;
 
     private static final ZoneId ZONE_SEOUL = ZoneId.of("Asia/Seoul");
 
     @Transactional(readOnly = true)
     public List<BookPurchaseHistoryDetails> listPurchasesByUser(Long userId) {
-        final var histories = purchaseRepo.findAllByUserId(userId);
-        return histories.stream().map(h -> {
-            final var bookId = h.getBookId();
-            final var book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new BookNotFoundException(bookId.toString()));
-
-            return BookPurchaseHistoryDetails.builder()
-                    .history(h)
-                    .bookTitle(book.getTitle())
-                    .bookAuthor(book.getAuthor())
-                    .bookImageUrl(book.getCoverImageUrl())
-                    .build();
-        }).toList();
+        return purchaseRepo.findAllDetailsByUserId(userId);
     }
 
     @Transactional(readOnly = true)
     public List<BookRentalHistoryDetails> listRentalsByUser(Long userId) {
-        final var histories = rentalRepo.findAllByUserId(userId);
-        return histories.stream().map(h -> {
-            final var bookId = h.getBookId();
-            final var book = bookRepository.findById(bookId)
-                    .orElseThrow(() -> new BookNotFoundException(bookId.toString()));
-
-            return BookRentalHistoryDetails.builder()
-                    .history(h)
-                    .bookTitle(book.getTitle())
-                    .bookAuthor(book.getAuthor())
-                    .bookImageUrl(book.getCoverImageUrl())
-                    .build();
-        }).toList();
+        return rentalRepo.findAllDetailsByUserId(userId);
     }
 
     @Transactional(readOnly = true)
@@ -93,41 +67,14 @@ public class HistoryService {
     @Transactional(readOnly = true)
     public BookPreferCategoryStat getMyCategoryPreferenceAll(final Long userId) {
 
-        final var purchases = purchaseRepo.findAllByUserId(userId);
-        final var rentals   = rentalRepo.findAllByUserId(userId);
-
-        final var uniqueBookIds = new HashSet<Long>(Math.max(purchases.size(), rentals.size()) * 2);
-        purchases.forEach(h -> uniqueBookIds.add(h.getBookId()));
-        rentals.forEach(h -> uniqueBookIds.add(h.getBookId()));
-
-        if (uniqueBookIds.isEmpty()) {
-            return BookPreferCategoryStat.builder()
-                    .bookCategoryDisplayNameAndReadRatePair(Map.of())
-                    .build();
-        }
-
-        final var categoryCounts = new HashMap<String, Integer>();
-        int totalUniqueBooks = 0;
-
-        final var categoryNameCache = new HashMap<Long, String>();
-
-        for (final var bookId : uniqueBookIds) {
-            final var bookOpt = bookRepository.findById(bookId);
-            if (bookOpt.isEmpty()) { continue; }
-
-            final var book = bookOpt.get();
-            final var categoryId = book.getCategoryId();
-
-            String displayName = categoryNameCache.get(categoryId);
-            if (displayName == null) {
-                final var category = bookCategoryRepository.findBy(categoryId)
-                        .orElseThrow(() -> new CategoryNotFoundException(categoryId.toString()));
-                displayName = category.getDisplayName();
-                categoryNameCache.put(categoryId, displayName);
-            }
+        // One grouped query over the distinct purchased/rented books; names from the preloaded dictionary
+        final var countsByCategoryId = bookRepository.countReadBooksByCategory(userId);
 
-            categoryCounts.merge(displayName, 1, Integer::sum);
-            ++totalUniqueBooks;
+        final var categoryCounts = new HashMap<String, Long>();
+        long totalUniqueBooks = 0;
+        for (final var e : countsByCategoryId.entrySet()) {
+            categoryCounts.merge(categoryDictionary.displayNameOf(e.getKey()), e.getValue(), Long::sum);
+            totalUniqueBooks += e.getValue();
         }
 
         if (totalUniqueBooks == 0) {
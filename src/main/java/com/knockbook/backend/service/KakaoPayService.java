@@ -2,7 +2,9 @@ package com.knockbook.backend.service;
 
 import com.knockbook.backend.component.KakaoPayClient;
 import com.knockbook.backend.component.KakaoPayProps;
+import com.knockbook.backend.component.PaymentApprovalCoalescer;
 import com.knockbook.backend.domain.KakaoReadyInfo;
+import com.knockbook.backend.domain.OrderAggregate;
 import com.knockbook.backend.domain.OrderPayment;
 import com.knockbook.backend.domain.PaymentApprovalResult;
 import com.knockbook.backend.exception.OrderNotFoundException;
@@ -10,23 +12,33 @@ import com.knockbook.backend.repository.OrderPaymentQueryRepository;
 import com.knockbook.backend.repository.OrderPaymentRepository;
 import com.knockbook.backend.repository.OrderRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
+@Log4j2
 @Service
 @RequiredArgsConstructor
 public class KakaoPayService {
+    private static final int RECONCILE_BATCH = 100;
+
     private final KakaoPayProps props;
     private final KakaoPayClient kakao;
     private final OrderRepository orderRepository;
     private final OrderPaymentRepository orderPaymentRepository;
     private final OrderPaymentQueryRepository orderPaymentQueryRepository;
     private final OrderPaymentService paymentApprovalService;
+    private final PaymentApprovalCoalescer approvalCoalescer;
 
     // Prepare payment: call Kakao ready API and pre-save with READY status
     @Transactional
@@ -81,27 +93,203 @@ public class KakaoPayService {
                 .build();
     }
 
-    @Transactional
+    /**
+     * Approves a KakaoPay payment, idempotently per (orderId, pg_token): duplicates in flight share one
+     * approval, later ones get its result, and across nodes the READY -> APPROVING claim lets a single
+     * request call Kakao. A duplicate only gets the result when it carries the pg_token that claimed the
+     * approval. Not transactional itself, so no DB transaction is held open during the Kakao call.
+     */
     public PaymentApprovalResult approve(Long orderId, String pgToken) {
-        final var ready = orderPaymentQueryRepository.findReadyByOrderId(orderId)
-                .orElseThrow(() -> new IllegalStateException("READY_PAYMENT_NOT_FOUND"));
+        return approvalCoalescer.approveOnce(orderId + ":" + pgToken, () -> approveOnce(orderId, pgToken));
+    }
 
+    /**
+     * Settles APPROVING claims left behind by a crash or an unanswered Kakao call, using Kakao's order
+     * inquiry: captured payments are approved locally (or cancelled if that fails), the rest released.
+     */
+    @Scheduled(fixedDelayString = "${kakaopay.reconcile-interval-millis:60000}",
+            initialDelayString = "${kakaopay.reconcile-interval-millis:60000}")
+    public void reconcileStaleApprovals() {
+        final var cutoff = Instant.now().minusSeconds(props.getApprovalStaleAfterSeconds());
+        for (final var payment : orderPaymentQueryRepository.findApprovingClaimedBefore(cutoff, RECONCILE_BATCH)) {
+            // Another node may be reconciling the same claim; only the one that re-stamps it goes on
+            if (!orderPaymentRepository.reclaim(payment.getId(), payment.getClaimedAt())) {
+                continue;
+            }
+            try {
+                final var order = orderRepository.findById(payment.getOrderId())
+                        .orElseThrow(() -> new OrderNotFoundException(payment.getOrderId()));
+                settle(order.getUserId(), payment);
+            } catch (RuntimeException e) {
+                log.warn("KakaoPay approval of order {} (tid {}) not reconciled yet",
+                        payment.getOrderId(), payment.getTxId(), e);
+            }
+        }
+    }
+
+    private PaymentApprovalResult approveOnce(Long orderId, String pgToken) {
         final var order = orderRepository.findById(orderId)
                 .orElseThrow(() -> new OrderNotFoundException(orderId));
         final var userId = order.getUserId();
+        final var tokenHash = hash(pgToken);
+
+        // 1) Claim the READY payment under this pg_token; losing the claim means another request approved
+        //    or is approving it, and its result is only shared with a request carrying the same token
+        final var payment = orderPaymentQueryRepository.findLatestByOrderId(orderId)
+                .orElseThrow(() -> new IllegalStateException("READY_PAYMENT_NOT_FOUND"));
+        if (payment.getStatus() != OrderPayment.TxStatus.READY
+                || !orderPaymentRepository.claim(payment.getId(), tokenHash)) {
+            return approvedResult(orderId, tokenHash);
+        }
+
+        // 2) Call Kakao. A failure (a read timeout in particular) does not tell whether Kakao captured,
+        //    so the order inquiry decides between finishing the approval and releasing the claim
+        try {
+            kakao.approve(Map.of(
+                    "cid", props.getCid(),
+                    "tid", payment.getTxId(),
+                    "partner_order_id", String.valueOf(orderId),
+                    "partner_user_id", String.valueOf(userId),
+                    "pg_token", pgToken,
+                    "total_amount", payment.getAmount()
+            ));
+        } catch (RuntimeException e) {
+            final PaymentApprovalResult settled;
+            try {
+                settled = settle(userId, payment);
+            } catch (RuntimeException inquiryOrLocalFailure) {
+                e.addSuppressed(inquiryOrLocalFailure);
+                throw e;
+            }
+            if (settled == null) {
+                throw e;
+            }
+            return settled;
+        }
+
+        // 3) Kakao has captured the amount
+        return completeCaptured(userId, payment);
+    }
 
-        kakao.approve(Map.of(
+    // Settles a claimed payment by Kakao's status; returns the result when it was captured and approved here
+    private PaymentApprovalResult settle(Long userId, OrderPayment payment) {
+        final var res = kakao.order(Map.of(
                 "cid", props.getCid(),
-                "tid", ready.getTxId(),
-                "partner_order_id", String.valueOf(orderId),
-                "partner_user_id", String.valueOf(userId),
-                "pg_token", pgToken,
-                "total_amount", ready.getAmount()
+                "tid", payment.getTxId()
         ));
+        final var status = String.valueOf(res.get("status"));
+        switch (status) {
+            case "SUCCESS_PAYMENT" -> {
+                return completeCaptured(userId, payment);
+            }
+            case "CANCEL_PAYMENT", "PART_CANCEL_PAYMENT" -> orderPaymentRepository.transition(payment.getId(),
+                    OrderPayment.TxStatus.APPROVING, OrderPayment.TxStatus.CANCELLED);
+            case "FAIL_PAYMENT", "QUIT_PAYMENT", "FAIL_AUTH_PASSWORD" -> orderPaymentRepository.transition(
+                    payment.getId(), OrderPayment.TxStatus.APPROVING, OrderPayment.TxStatus.FAILED);
+            // Not captured yet: release the claim so the callback can be retried
+            default -> orderPaymentRepository.transition(payment.getId(),
+                    OrderPayment.TxStatus.APPROVING, OrderPayment.TxStatus.READY);
+        }
+        return null;
+    }
+
+    // A local failure after the capture refunds the payment instead of leaving the amount taken
+    private PaymentApprovalResult completeCaptured(Long userId, OrderPayment payment) {
+        try {
+            return paymentApprovalService.approve(userId, payment.getOrderId(), OrderPayment.Method.KAKAOPAY,
+                    "kakao", payment.getTxId(), payment.getAmount(), payment.getId());
+        } catch (RuntimeException e) {
+            // The failure may be a concurrent approval of this tid winning (e.g. a reconcile that took over
+            // a claim which looked stale); that capture is the order's payment and must not be refunded
+            final PaymentApprovalResult approvedMeanwhile;
+            try {
+                approvedMeanwhile = approvedForTid(payment);
+            } catch (RuntimeException rereadFailure) {
+                // Still APPROVING, so reconcileStaleApprovals decides once the claim goes stale
+                e.addSuppressed(rereadFailure);
+                throw e;
+            }
+            if (approvedMeanwhile != null) {
+                return approvedMeanwhile;
+            }
+            log.error("KakaoPay captured order {} (tid {}) but local approval failed; cancelling",
+                    payment.getOrderId(), payment.getTxId(), e);
+            cancelCaptured(payment);
+            throw e;
+        }
+    }
+
+    // Result of an approval of this tid that finished elsewhere, or null when nothing approved it
+    private PaymentApprovalResult approvedForTid(OrderPayment payment) {
+        final var current = orderPaymentQueryRepository.findByTxId(payment.getTxId())
+                .orElseThrow(() -> new IllegalStateException("READY_PAYMENT_NOT_FOUND"));
+        final var order = orderRepository.findById(payment.getOrderId())
+                .orElseThrow(() -> new OrderNotFoundException(payment.getOrderId()));
+        // The order is paid by this tid when its latest payment is this one; a PAID order settled by
+        // another tid leaves this capture to be refunded
+        final var paidByThisTid = order.getPaymentStatus() == OrderAggregate.PaymentStatus.PAID
+                && orderPaymentQueryRepository.findLatestByOrderId(order.getId())
+                        .map(latest -> payment.getTxId().equals(latest.getTxId()))
+                        .orElse(false);
+        if (current.getStatus() != OrderPayment.TxStatus.APPROVED && !paidByThisTid) {
+            return null;
+        }
+        return PaymentApprovalResult.builder()
+                .userId(order.getUserId())
+                .orderId(order.getId())
+                .order(order)
+                .payment(current)
+                .build();
+    }
+
+    private void cancelCaptured(OrderPayment payment) {
+        try {
+            kakao.cancel(Map.of(
+                    "cid", props.getCid(),
+                    "tid", payment.getTxId(),
+                    "cancel_amount", payment.getAmount(),
+                    "cancel_tax_free_amount", 0
+            ));
+            orderPaymentRepository.transition(payment.getId(),
+                    OrderPayment.TxStatus.APPROVING, OrderPayment.TxStatus.CANCELLED);
+        } catch (RuntimeException e) {
+            // Still APPROVING, so reconcileStaleApprovals retries once the claim goes stale
+            log.error("KakaoPay cancel of tid {} failed; left for reconciliation", payment.getTxId(), e);
+        }
+    }
+
+    // Result for a duplicate whose original request already finished (e.g. on another node or before a restart)
+    private PaymentApprovalResult approvedResult(Long orderId, String tokenHash) {
+        final var payment = orderPaymentQueryRepository.findLatestByOrderId(orderId)
+                .orElseThrow(() -> new IllegalStateException("READY_PAYMENT_NOT_FOUND"));
+        if (payment.getPgTokenHash() == null
+                || !MessageDigest.isEqual(payment.getPgTokenHash().getBytes(StandardCharsets.US_ASCII),
+                        tokenHash.getBytes(StandardCharsets.US_ASCII))) {
+            throw new IllegalStateException("PG_TOKEN_MISMATCH");
+        }
+        if (payment.getStatus() == OrderPayment.TxStatus.APPROVING) {
+            throw new IllegalStateException("PAYMENT_APPROVAL_IN_PROGRESS");
+        }
+        if (payment.getStatus() != OrderPayment.TxStatus.APPROVED) {
+            throw new IllegalStateException("READY_PAYMENT_NOT_FOUND");
+        }
+        final var order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        return PaymentApprovalResult.builder()
+                .userId(order.getUserId())
+                .orderId(orderId)
+                .order(order)
+                .payment(payment)
+                .build();
+    }
 
-        return paymentApprovalService.approve(
-                userId, orderId, OrderPayment.Method.KAKAOPAY, "kakao", ready.getTxId(), ready.getAmount()
-        );
+    private static String hash(String pgToken) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256").digest(pgToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     private static String appendQuery(String base, String v) {
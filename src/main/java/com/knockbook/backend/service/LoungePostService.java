@@ -1,11 +1,10 @@
 package com.knockbook.backend.service;
 
-import com.knockbook.backend.component.ImgbbUploader;
+import com.knockbook.backend.component.ImageOutbox;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.exception.CommentNotFoundException;
 import com.knockbook.backend.exception.PostNotFoundException;
 import com.knockbook.backend.repository.LoungePostCommentRepository;
-import com.knockbook.backend.repository.LoungePostLikeRepository;
 import com.knockbook.backend.repository.LoungePostRepository;
 import jakarta.persistence.PersistenceException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -16,9 +15,11 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -32,16 +33,16 @@ public class LoungePostService {
     private LoungePostCommentRepository postCommentRepo;
 
     @Autowired
-    private LoungePostLikeRepository postLikeRepo;
+    private ReactionService reactionService;
 
     @Autowired
     private UserService userService;
 
     @Autowired
-    private ImgbbUploader imgbb;
+    private ImageOutbox imageOutbox;
 
 
-    @Transactional
+    // Not transactional: postRepo.save opens its own transaction; images upload in the outbox afterwards
     public LoungePost createPost(LoungePost post, List<MultipartFile> images) {
         if (post == null) {
             throw new IllegalArgumentException("Post must not be null");
@@ -58,27 +59,25 @@ public class LoungePostService {
             throw new IllegalArgumentException("Content must not be empty");
         }
 
-        // 1. Upload images and replace blob URLs
+        // 1. Spool images to the upload outbox and replace blob URLs with placeholder URLs
         String processedContent = trimmedContent;
+        final var placeholders = new ArrayList<String>();
 
         if (images != null && !images.isEmpty()) {
             final var blobUrlPattern = Pattern.compile("blob:[a-zA-Z0-9\\-:/.]+");
 
-            for (final MultipartFile file : images) {
-                if (file == null || file.isEmpty()) {
-                    continue;
-                }
-
-                // 1) Find the next blob URL
-                final var matcher = blobUrlPattern.matcher(processedContent);
-                if (!matcher.find()) {
-                    break; // 더 이상 blob URL이 없으면 중단
-                }
-
-
-                // 2) Upload and replace URL
-                final var uploadedUrl = imgbb.upload(file);
-                processedContent = processedContent.replaceFirst(blobUrlPattern.pattern(), uploadedUrl);
+            // 1) One file per blob URL in the content, in order
+            final var blobCount = (int) blobUrlPattern.matcher(processedContent).results().count();
+            final var files = images.stream()
+                    .filter(f -> f != null && !f.isEmpty())
+                    .limit(blobCount)
+                    .toList();
+
+            // 2) Replace the blob URLs in order
+            placeholders.addAll(imageOutbox.stageAll(files, ImageUploadTarget.LOUNGE_POST_CONTENT));
+            for (final var placeholder : placeholders) {
+                processedContent = blobUrlPattern.matcher(processedContent)
+                        .replaceFirst(Matcher.quoteReplacement(placeholder));
             }
         }
 
@@ -95,11 +94,18 @@ public class LoungePostService {
                 .likeCount(0)
                 .build();
 
+        final LoungePost saved;
         try {
-            return postRepo.save(postToSave);
+            saved = postRepo.save(postToSave);
+            imageOutbox.dispatch(saved.getId(), placeholders);
         } catch (PersistenceException e) {
+            imageOutbox.discard(placeholders);
             throw new RuntimeException("Failed to save LoungePost", e);
+        } catch (RuntimeException e) {
+            imageOutbox.discard(placeholders);
+            throw e;
         }
+        return saved;
     }
 
     @Transactional
@@ -116,20 +122,14 @@ public class LoungePostService {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
 
-        final var displayNameMap = new HashMap<Long, String>();
-        for (final var userId : userIds) {
-            try {
-                final var user = userService.getUser(userId);
-                final var name = user.getDisplayName();
-                displayNameMap.put(userId, name);
-            } catch (final Exception e) {
-                displayNameMap.put(userId, "Unknown");
-            }
-        }
+        // One batched (cached) lookup for every author on the page
+        final var profiles = userService.getDisplayProfiles(userIds);
 
         final var updatedContent = page.getContent().stream()
                 .map(summary -> summary.toBuilder()
-                        .displayName(displayNameMap.get(summary.getUserId()))
+                        .displayName(Optional.ofNullable(profiles.get(summary.getUserId()))
+                                .map(UserDisplayProfile::getDisplayName)
+                                .orElse("Unknown"))
                         .build())
                 .collect(Collectors.toList());
 
@@ -145,7 +145,7 @@ public class LoungePostService {
             throw new IllegalStateException("Post has no userId, postId=" + id);
         }
 
-        final var user = userService.getUser(userId);
+        final var user = userService.getDisplayProfile(userId);
 
         return post.toBuilder()
                 .displayName(user.getDisplayName())
@@ -156,7 +156,7 @@ public class LoungePostService {
 
     @Transactional
     public LoungePostComment createComment(Long postId, Long userId, String content) {
-        final var user = userService.getUser(userId);
+        final var user = userService.getDisplayProfile(userId);
 
         final var newComment = LoungePostComment.builder()
                 .postId(postId)
@@ -188,24 +188,17 @@ public class LoungePostService {
                 .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
 
-        // 3) Map userId to displayName and avatarUrl
-        final var userMap = new HashMap<Long, User>();
-        for (final var userId : userIds) {
-            try {
-                final var user = userService.getUser(userId);
-                userMap.put(userId, user);
-            } catch (final Exception e) {
-                userMap.put(userId, User.builder()
-                        .displayName("Unknown")
-                        .avatarUrl(null)
-                        .build());
-            }
-        }
+        // 3) Map userId to displayName and avatarUrl in one batched (cached) lookup
+        final var userMap = userService.getDisplayProfiles(userIds);
+        final var unknown = UserDisplayProfile.builder()
+                .displayName("Unknown")
+                .avatarUrl(null)
+                .build();
 
         // 4) Inject displayName and avatarUrl into each comment
         final var updatedComments = page.getContent().stream()
                 .map(comment -> {
-                    final var user = userMap.get(comment.getUserId());
+                    final var user = userMap.getOrDefault(comment.getUserId(), unknown);
                     return comment.toBuilder()
                             .displayName(user.getDisplayName())
                             .avatarUrl(user.getAvatarUrl())
@@ -219,7 +212,7 @@ public class LoungePostService {
 
     @Transactional
     public LoungePostComment updateComment(Long id, Long userId, String newContent) {
-        final var user = userService.getUser(userId);
+        final var user = userService.getDisplayProfile(userId);
 
         final var updated = postCommentRepo.updateContentById(id, userId, newContent);
 
@@ -236,22 +229,16 @@ public class LoungePostService {
 
     @Transactional
     public void likePost(Long userId, Long postId) {
-        final var changed = postLikeRepo.savePostLike(userId, postId);
-        if (changed) {
-            postLikeRepo.incrementLikeCount(postId);
-        }
+        reactionService.react(ReactionTarget.LOUNGE_POST, postId, userId, true);
     }
 
     @Transactional
     public void unlikePost(Long userId, Long postId) {
-        final var deleted = postLikeRepo.deletePostLikeIfExists(userId, postId);
-        if (deleted) {
-            postLikeRepo.decrementLikeCount(postId);
-        }
+        reactionService.react(ReactionTarget.LOUNGE_POST, postId, userId, false);
     }
 
     public boolean isPostLikedByUser(Long userId, Long postId) {
-        return postLikeRepo.existsByUserIdAndPostIdAndIsLikedTrue(userId, postId);
+        return reactionService.hasReacted(ReactionTarget.LOUNGE_POST, userId, postId);
     }
 
     // Helper: Extracts the first image URL from the given content
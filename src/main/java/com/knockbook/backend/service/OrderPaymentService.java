@@ -1,5 +1,6 @@
 package com.knockbook.backend.service;
 
+import com.knockbook.backend.component.CartCleanupQueue;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.exception.CouponExpiredException;
 import com.knockbook.backend.exception.CouponIssuanceNotFoundException;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +27,7 @@ public class OrderPaymentService {
     private final OrderPaymentRepository orderPaymentRepository;
     private final PointBalanceRepository pointBalanceRepository;
     private final PointTransactionRepository pointTransactionRepository;
-    private final CartRepository cartRepository;
+    private final CartCleanupQueue cartCleanupQueue;
 
     @Transactional
     public PaymentApprovalResult approve(final Long userId,
@@ -34,6 +36,21 @@ public class OrderPaymentService {
                                          final String provider,
                                          final String txId,
                                          final Integer amount) {
+        return approve(userId, orderId, method, provider, txId, amount, null);
+    }
+
+    /**
+     * Approves the order's payment; {@code paymentId} is the PG flow's pre-saved payment row to mark
+     * APPROVED, or null to record a new one.
+     */
+    @Transactional
+    public PaymentApprovalResult approve(final Long userId,
+                                         final Long orderId,
+                                         final OrderPayment.Method method,
+                                         final String provider,
+                                         final String txId,
+                                         final Integer amount,
+                                         final Long paymentId) {
 
         final var nowLdt = LocalDateTime.now(KST);
         final var nowInstant = nowLdt.atZone(KST).toInstant();
@@ -42,6 +59,9 @@ public class OrderPaymentService {
             throw new IllegalArgumentException("INVALID_REQUEST");
         }
 
+        // Locks are always taken in the same order (order -> coupon issuance -> point balance),
+        // and only rows this approval writes are locked
+
         // 1) Lock and validate the order
         final var order = orderRepository.findByIdAndUserIdForUpdate(userId, orderId)
                 .orElseThrow(() -> new IllegalArgumentException("ORDER_NOT_FOUND"));
@@ -55,20 +75,18 @@ public class OrderPaymentService {
             throw new IllegalStateException("PAYMENT_AMOUNT_MISMATCH");
         }
 
-        // 2) Handle coupon redemption if applied
+        // 2) Handle coupon redemption if applied; the redemption check runs under the issuance lock
         if (order.getAppliedCouponIssuanceId() != null) {
             final var issuanceId = order.getAppliedCouponIssuanceId();
-            if (couponRedemptionRepository.existsByIssuanceId(issuanceId)) {
-                throw new IllegalStateException("COUPON_ALREADY_REDEEMED");
-            }
-
             final var issuance = couponIssuanceRepository.findByIdAndUserIdForUpdate(issuanceId, userId)
                     .orElseThrow(() -> new CouponIssuanceNotFoundException(issuanceId, userId));
 
+            if (couponRedemptionRepository.existsByIssuanceId(issuanceId)) {
+                throw new IllegalStateException("COUPON_ALREADY_REDEEMED");
+            }
             if (issuance.getStatus() != CouponIssuance.Status.AVAILABLE) {
                 throw new CouponNotAvailableException(issuanceId);
             }
-
             if (issuance.getExpiresAt() != null && issuance.getExpiresAt().isBefore(nowInstant)) {
                 throw new CouponExpiredException(issuanceId);
             }
@@ -93,37 +111,39 @@ public class OrderPaymentService {
             couponIssuanceRepository.save(updatedIssuance);
         }
 
-        // 3) Deduct and record points usage
+        // 3) Spend and earn points as one net balance update, then record both in one ledger insert
+        //    (earning is decided by the draft's pricing; marking the order paid does not change it)
         final var spend = order.getPointsSpent() == null ? 0 : order.getPointsSpent();
-        if (spend > 0) {
-            final var bal = pointBalanceRepository.findByUserIdForUpdate(userId)
-                    .orElse(PointBalance.builder().userId(userId).balance(0).build());
-            if (bal.getBalance() < spend) {
-                throw new InsufficientPointBalanceException(userId);
-            }
-
-            final var updatedBalance = PointBalance.builder()
-                    .userId(userId)
-                    .balance(bal.getBalance() - spend)
-                    .updatedAt(bal.getUpdatedAt())
-                    .build();
-
-            pointBalanceRepository.save(updatedBalance);
+        final var earn = order.getPointsEarned() == null ? 0 : order.getPointsEarned();
+        if (!pointBalanceRepository.applyNetChange(userId, spend, earn)) {
+            throw new InsufficientPointBalanceException(userId);
+        }
 
-            final var transaction = PointTransaction.builder()
+        final var ledger = new ArrayList<PointTransaction>(2);
+        if (spend > 0) {
+            ledger.add(PointTransaction.builder()
                     .userId(userId)
                     .kind(PointTransaction.Kind.SPEND)
                     .amountSigned(-spend)
                     .orderId(order.getId())
                     .memo("Order payment spending")
-                    .build();
-
-            pointTransactionRepository.save(transaction);
+                    .build());
         }
+        if (earn > 0) {
+            ledger.add(PointTransaction.builder()
+                    .userId(userId)
+                    .kind(PointTransaction.Kind.EARN)
+                    .amountSigned(earn)
+                    .orderId(order.getId())
+                    .memo("Order payment earning")
+                    .build());
+        }
+        pointTransactionRepository.saveAll(ledger);
 
-        // 4) Save payment record with APPROVED status
+        // 4) Save payment record with APPROVED status (updating the pre-saved row when given)
         final var payment = orderPaymentRepository.save(
                 OrderPayment.builder()
+                        .id(paymentId)
                         .orderId(order.getId())
                         .method(OrderPayment.Method.valueOf(method.name()))
                         .provider(provider)
@@ -133,43 +153,11 @@ public class OrderPaymentService {
                         .approvedAt(nowInstant)
                         .build());
 
-        // 5) Update order status and timeline
-        final var orderUpdated = order.paid(nowInstant);
-        final var orderSaved = orderRepository.saveAggregate(orderUpdated);
-
-        // 5.1) Earn and record points (based on the finalized orderSaved)
-        final var earn = orderSaved.getPointsEarned() == null ? 0 : orderSaved.getPointsEarned();
-        if (earn > 0) {
-            final var balAfterPay = pointBalanceRepository.findByUserIdForUpdate(userId)
-                    .orElse(PointBalance.builder().userId(userId).balance(0).build());
-
-            final var updatedBalanceAfterPay = PointBalance.builder()
-                    .userId(userId)
-                    .balance(balAfterPay.getBalance() + earn)
-                    .updatedAt(balAfterPay.getUpdatedAt())
-                    .build();
-
-            pointBalanceRepository.save(updatedBalanceAfterPay);
-
-            pointTransactionRepository.save(PointTransaction.builder()
-                    .userId(userId)
-                    .kind(PointTransaction.Kind.EARN)
-                    .amountSigned(earn)
-                    .orderId(orderSaved.getId())
-                    .memo("Order payment earning")
-                    .build());
-        }
-
-        // 6) Cleanup cart items consumed by this order
-        final var refs = orderSaved.getItems().stream().map(i ->
-                        CartRef.builder()
-                                .refId(i.getRefId())
-                                .refType(i.getRefType().name())
-                                .rentalDays(i.getRefType() == OrderItem.RefType.BOOK_RENTAL ? i.getRentalDays() : 0)
-                                .build())
-                .distinct().toList();
+        // 5) Update order status and timeline; the lines are unchanged, so no item diff
+        final var orderSaved = orderRepository.saveHeader(order.paid(nowInstant));
 
-        cartRepository.deleteByUserIdAndRefs(userId, refs);
+        // 6) Cleanup cart items consumed by this order, after commit and off this transaction
+        cartCleanupQueue.removeAfterCommit(orderSaved);
 
         return PaymentApprovalResult.builder()
                 .userId(userId)
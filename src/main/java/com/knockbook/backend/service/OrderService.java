@@ -1,5 +1,6 @@
 package com.knockbook.backend.service;
 
+import com.knockbook.backend.component.BookCounterBuffer;
 import com.knockbook.backend.domain.*;
 import com.knockbook.backend.exception.*;
 import com.knockbook.backend.repository.*;
@@ -10,13 +11,19 @@ import org.springframework.stereotype.Service;
 import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int MAX_ORDER_PAGE_SIZE = 100;
+    private static final int EXPORT_CHUNK_SIZE = 500;
+
     private final CartRepository cartRepository;
     private final OrderRepository orderRepository;
     private final CouponService couponService;
@@ -29,6 +36,8 @@ public class OrderService {
     private final BookPurchaseHistoryRepository purchaseHistoryRepository;
     private final BookRentalHistoryRepository rentalHistoryRepository;
 
+    private final BookCounterBuffer bookCounterBuffer;
+
     @Transactional
     public OrderAggregate createDraftFromCart(final Long userId,
                                               final List<String> cartItemIds) {
@@ -78,32 +87,65 @@ public class OrderService {
     @Transactional
     public List<OrderAggregate> getOrdersByUser(final Long userId,
                                                 final String paymentStatus) {
-
-        OrderAggregate.PaymentStatus status = null;
-        if (paymentStatus != null && !paymentStatus.isBlank()) {
-            try {
-                status = OrderAggregate.PaymentStatus.valueOf(paymentStatus.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid paymentStatus");
-            }
-        }
-
-        return orderRepository.findOrdersByUser(userId, status);
+        return orderRepository.findOrdersByUser(userId, parsePaymentStatus(paymentStatus));
     }
 
     @Transactional
     public List<OrderAggregate> getAllOrders(final String paymentStatus) {
+        return orderRepository.findAllOrders(parsePaymentStatus(paymentStatus));
+    }
+
+    /**
+     * One page of order history, newest first; {@code userId} null = all users (admin).
+     */
+    public OrderHistoryPage getOrderHistoryPage(final Long userId,
+                                                final String paymentStatus,
+                                                final Long afterId,
+                                                final int size) {
+        final var pageSize = Math.max(1, Math.min(size, MAX_ORDER_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        final var rows = orderRepository.findOrdersPage(
+                userId, parsePaymentStatus(paymentStatus), afterId, pageSize + 1);
+        final var hasMore = rows.size() > pageSize;
+        final var orders = hasMore ? rows.subList(0, pageSize) : rows;
+
+        return OrderHistoryPage.builder()
+                .orders(orders)
+                .nextAfter(hasMore ? String.valueOf(orders.get(orders.size() - 1).getId()) : null)
+                .build();
+    }
 
-        OrderAggregate.PaymentStatus status = null;
-        if (paymentStatus != null && !paymentStatus.isBlank()) {
-            try {
-                status = OrderAggregate.PaymentStatus.valueOf(paymentStatus.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                throw new IllegalArgumentException("Invalid paymentStatus");
+    /**
+     * Hands every matching order (newest first) to the consumer in chunks, so an export
+     * only ever holds one chunk in memory. Each chunk is read in its own short query.
+     */
+    public void exportAllOrders(final String paymentStatus,
+                                final Consumer<List<OrderAggregate>> chunkConsumer) {
+        final var status = parsePaymentStatus(paymentStatus);
+        Long afterId = null;
+        while (true) {
+            final var chunk = orderRepository.findOrdersPage(null, status, afterId, EXPORT_CHUNK_SIZE);
+            if (chunk.isEmpty()) {
+                return;
+            }
+            chunkConsumer.accept(chunk);
+            if (chunk.size() < EXPORT_CHUNK_SIZE) {
+                return;
             }
+            afterId = chunk.get(chunk.size() - 1).getId();
         }
+    }
 
-        return orderRepository.findAllOrders(status);
+    private static OrderAggregate.PaymentStatus parsePaymentStatus(final String paymentStatus) {
+        if (paymentStatus == null || paymentStatus.isBlank()) {
+            return null;
+        }
+        try {
+            return OrderAggregate.PaymentStatus.valueOf(paymentStatus.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid paymentStatus");
+        }
     }
 
     @Transactional
@@ -111,61 +153,49 @@ public class OrderService {
                                       final Long orderId,
                                       final String issuanceIdRaw) {
 
-        final var order = orderRepository.findDraftById(userId, orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-
+        final var order = lockDraft(userId, orderId);
         final var issuance = resolveIssuance(userId, issuanceIdRaw);
-        validateIssuanceUsable(order, issuance);
-        final var repriced = reprice(order, issuance, order.getPointsSpent());
-        return orderRepository.updateDraftAmountsAndCoupon(repriced);
+        final var pricing = OrderPricing.of(order.getItems(), nz(order.getShippingAmount()));
+        validateIssuanceUsable(pricing, issuance);
+
+        pricing.coupon(issuance).points(nz(order.getPointsSpent()));
+        return orderRepository.updateDraftAmountsAndCoupon(repriced(order, pricing));
     }
 
     @Transactional
     public OrderAggregate removeCoupon(final Long userId,
                                        final Long orderId) {
-        final var order = orderRepository.findDraftById(userId, orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-
-        final var repriced = reprice(order, null, order.getPointsSpent());
-        return orderRepository.updateDraftAmountsAndCoupon(repriced);
+        final var order = lockDraft(userId, orderId);
+        final var pricing = OrderPricing.of(order.getItems(), nz(order.getShippingAmount()))
+                .coupon(null)
+                .points(nz(order.getPointsSpent()));
+        return orderRepository.updateDraftAmountsAndCoupon(repriced(order, pricing));
     }
 
     @Transactional
     public OrderAggregate applyPoints(final Long userId,
                                       final Long orderId,
                                       final Integer requestedPoints) {
-        final var draft = orderRepository.findDraftById(userId, orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
+        final var draft = lockDraft(userId, orderId);
 
         final int want = Math.max(0, requestedPoints == null ? 0 : requestedPoints);
         final int have = pointsService.getAvailablePoints(userId);
 
-        final CouponIssuance appliedCoupon =
-                draft.getAppliedCouponIssuanceId() == null ? null
-                        : couponService.getOne(userId, draft.getAppliedCouponIssuanceId());
-
-        final var pricedWithCoupon = reprice(draft, appliedCoupon, /*pointsToUse*/ 0);
-        final int payableBase = pricedWithCoupon.getSubtotalAmount()
-                - pricedWithCoupon.getDiscountAmount();
-        final int maxByPayable = Math.max(0, payableBase);
-        final int pointsToUse = Math.min(Math.min(want, have), maxByPayable);
-
-        final var repriced = reprice(draft, appliedCoupon, pointsToUse);
-        return orderRepository.updateDraftAmountsAndCoupon(repriced);
+        // Capped by the balance here and by the payable amount (after coupon) in the pricing
+        final var pricing = OrderPricing.of(draft.getItems(), nz(draft.getShippingAmount()))
+                .coupon(appliedCoupon(userId, draft))
+                .points(Math.min(want, have));
+        return orderRepository.updateDraftAmountsAndCoupon(repriced(draft, pricing));
     }
 
     @Transactional
     public OrderAggregate removePoints(final Long userId,
                                        final Long orderId) {
-        final var draft = orderRepository.findDraftById(userId, orderId)
-                .orElseThrow(() -> new OrderNotFoundException(orderId));
-
-        final CouponIssuance appliedCoupon =
-                draft.getAppliedCouponIssuanceId() == null ? null
-                        : couponService.getOne(userId, draft.getAppliedCouponIssuanceId());
-
-        final var repriced = reprice(draft, appliedCoupon, 0);
-        return orderRepository.updateDraftAmountsAndCoupon(repriced);
+        final var draft = lockDraft(userId, orderId);
+        final var pricing = OrderPricing.of(draft.getItems(), nz(draft.getShippingAmount()))
+                .coupon(appliedCoupon(userId, draft))
+                .points(0);
+        return orderRepository.updateDraftAmountsAndCoupon(repriced(draft, pricing));
     }
 
     @Transactional
@@ -204,7 +234,7 @@ public class OrderService {
                 .items(order.getItems())
                 .build();
 
-        return orderRepository.saveAggregate(updated);
+        return orderRepository.saveHeader(updated);
     }
 
     @Transactional
@@ -228,7 +258,8 @@ public class OrderService {
             throw new NoOrderStatusToUpdateException(orderId);
         }
 
-        final var updated = orderRepository.updateStatusesOnly(userId, orderId, status, rentalStatus);
+        final var change  = orderRepository.updateStatusesOnly(userId, orderId, status, rentalStatus);
+        final var updated = change.getOrder();
         final var items   = updated.getItems();
 
         final var bookIds = items.stream()
@@ -239,28 +270,32 @@ public class OrderService {
 
         final var now = ZonedDateTime.now(ZoneId.of("Asia/Seoul")).toInstant();
 
-        if (status == OrderAggregate.Status.COMPLETED) {
+        // Counters move only on the transition itself; re-sending the same status must not count twice.
+        // The buffer applies them once this transaction commits.
+        if (change.becameStatus(OrderAggregate.Status.COMPLETED)) {
+            final var purchasedBookIds = new LinkedHashSet<Long>();
             items.stream().filter(i -> i.getRefType() == OrderItem.RefType.BOOK_PURCHASE)
                     .forEach(i -> {
                         final var book = bookMap.get(i.getRefId());
                         if (book != null) {
-                            purchaseHistoryRepository.upsertPurchase(
-                                    userId, orderId, book.getId(), now);
+                            purchasedBookIds.add(book.getId());
+                            bookCounterBuffer.addSales(book.getId(), nz(i.getQuantity()));
                         }
                     });
+            purchaseHistoryRepository.upsertPurchases(userId, orderId, purchasedBookIds, now);
         }
 
-        if (rentalStatus == OrderAggregate.RentalStatus.DELIVERED) {
+        if (change.becameRentalStatus(OrderAggregate.RentalStatus.DELIVERED)) {
+            final var rentalDaysByBookId = new LinkedHashMap<Long, Integer>();
             items.stream().filter(i -> i.getRefType() == OrderItem.RefType.BOOK_RENTAL)
                     .forEach(i -> {
                         final var book = bookMap.get(i.getRefId());
                         if (book != null) {
-                            final var days  = i.getRentalDays();
-                            final var end = now.plus(days, java.time.temporal.ChronoUnit.DAYS);
-                            rentalHistoryRepository.upsertRental(
-                                    userId, orderId, book.getId(), now, end, days);
+                            rentalDaysByBookId.putIfAbsent(book.getId(), nz(i.getRentalDays()));
+                            bookCounterBuffer.addRentals(book.getId(), nz(i.getQuantity()));
                         }
                     });
+            rentalHistoryRepository.upsertRentals(userId, orderId, rentalDaysByBookId, now);
         }
 
         return updated;
@@ -336,7 +371,20 @@ public class OrderService {
         return couponService.getOne(userId, issuanceId);
     }
 
-    private void validateIssuanceUsable(OrderAggregate order, CouponIssuance ci) {
+    // Coupon and points changes are a read-modify-write of the draft, so it is read under a row lock
+    private OrderAggregate lockDraft(final Long userId,
+                                     final Long orderId) {
+        return orderRepository.findByIdAndUserIdForUpdate(userId, orderId)
+                .orElseThrow(() -> new OrderNotFoundException(orderId));
+    }
+
+    private CouponIssuance appliedCoupon(final Long userId,
+                                         final OrderAggregate draft) {
+        return draft.getAppliedCouponIssuanceId() == null ? null
+                : couponService.getOne(userId, draft.getAppliedCouponIssuanceId());
+    }
+
+    private void validateIssuanceUsable(OrderPricing pricing, CouponIssuance ci) {
         if (ci.getStatus() != CouponIssuance.Status.AVAILABLE) {
             throw new IllegalStateException("COUPON_NOT_AVAILABLE");
         }
@@ -345,69 +393,33 @@ public class OrderService {
             throw new IllegalStateException("COUPON_EXPIRED");
         }
 
-        final var eligible = eligibleAmountByScope(order, ci.getScope());
+        final var eligible = pricing.eligibleAmount(ci.getScope());
         if (ci.getMinOrderAmount() != null && eligible < ci.getMinOrderAmount()) {
             throw new IllegalStateException("MIN_ORDER_NOT_MET");
         }
     }
 
-    private OrderAggregate reprice(OrderAggregate order,
-                                   CouponIssuance ciOrNull,
-                                   Integer pointsToUseOrNull) {
-
-        final var subtotal = order.getItems().stream()
-                .mapToInt(OrderItem::getLineSubtotalAmount).sum();
-        final var lineDiscount = order.getItems().stream()
-                .mapToInt(OrderItem::getLineDiscountAmount).sum();
-
-        var shipping = nz(order.getShippingAmount());
-        final var rental = nz(order.getRentalAmount());
-
-        var couponDiscount = 0;
-        Long appliedCouponId = null;
-
-        if (ciOrNull != null) {
-            appliedCouponId = ciOrNull.getId();
-
-            if ("FREESHIP".equalsIgnoreCase(ciOrNull.getType())) {
-                shipping = 0;
-            } else {
-                final int eligible = eligibleAmountByScope(order, ciOrNull.getScope());
-                if ("PERCENT".equalsIgnoreCase(ciOrNull.getType())) {
-                    final int raw = (eligible * nz(ciOrNull.getDiscountRateBp())) / 10_000;
-                    couponDiscount = (ciOrNull.getMaxDiscountAmount() == null)
-                            ? raw : Math.min(raw, ciOrNull.getMaxDiscountAmount());
-                } else { // AMOUNT
-                    couponDiscount = Math.min(eligible, nz(ciOrNull.getDiscountAmount()));
-                }
-            }
-        }
-
-        final var requestedPoints = Math.max(0, pointsToUseOrNull == null ? 0 : pointsToUseOrNull);
-        final var payableBase = Math.max(0, subtotal - lineDiscount - couponDiscount);
-        final var pointsSpent = Math.min(requestedPoints, payableBase);
-
-        final var total = subtotal - lineDiscount - couponDiscount - pointsSpent + shipping;
-
+    private OrderAggregate repriced(OrderAggregate order,
+                                    OrderPricing pricing) {
         return OrderAggregate.builder()
                 .id(order.getId())
                 .userId(order.getUserId())
                 .cartId(order.getCartId())
                 .status(order.getStatus())
                 .paymentStatus(order.getPaymentStatus())
-                .itemCount(order.getItemCount())
+                .itemCount(pricing.getItemCount())
 
-                .subtotalAmount(subtotal)
-                .discountAmount(lineDiscount)
-                .couponDiscountAmount(couponDiscount)
-                .shippingAmount(shipping)
-                .rentalAmount(rental)
-                .totalAmount(total)
+                .subtotalAmount(pricing.getSubtotalAmount())
+                .discountAmount(pricing.getDiscountAmount())
+                .couponDiscountAmount(pricing.getCouponDiscountAmount())
+                .shippingAmount(pricing.getShippingAmount())
+                .rentalAmount(pricing.getRentalAmount())
+                .totalAmount(pricing.getTotalAmount())
 
-                .pointsSpent(pointsSpent)
-                .pointsEarned(calcPoints(total, order.getItems()))
+                .pointsSpent(pricing.getPointsSpent())
+                .pointsEarned(pricing.getPointsEarned())
 
-                .appliedCouponIssuanceId(appliedCouponId)
+                .appliedCouponIssuanceId(pricing.getAppliedCouponIssuanceId())
                 .placedAt(order.getPlacedAt())
                 .cancelledAt(order.getCancelledAt())
                 .completedAt(order.getCompletedAt())
@@ -415,27 +427,6 @@ public class OrderService {
                 .build();
     }
 
-    private int eligibleAmountByScope(OrderAggregate o, String scope) {
-        if (scope == null || scope.equalsIgnoreCase("ALL") || scope.equalsIgnoreCase("CART")) {
-            return o.getItems().stream().mapToInt(OrderItem::getLineTotalAmount).sum();
-        }
-        return switch (scope) {
-            case "BOOK_PURCHASE" -> sumLines(o, OrderItem.RefType.BOOK_PURCHASE);
-            case "BOOK_RENTAL"   -> sumLines(o, OrderItem.RefType.BOOK_RENTAL);
-            case "PRODUCT"       -> sumLines(o, OrderItem.RefType.PRODUCT);
-            default -> 0;
-        };
-    }
-
-    private int sumLines(OrderAggregate o, OrderItem.RefType t) {
-        return o.getItems().stream().filter(i -> i.getRefType() == t)
-                .mapToInt(OrderItem::getLineTotalAmount).sum();
-    }
-
-    private int calcPoints(int total, List<OrderItem> items) {
-        return items.stream().mapToInt(OrderItem::getPointsEarnedItem).sum();
-    }
-
     private static int nz(Integer v) {
         return v == null ? 0 : v;
     }
@@ -23,6 +23,7 @@ public class ProductService {
     private final ProductReviewRepository productReviewRepository;
     private final ProductInquiryRepository productInquiryRepository;
     private final ProductWishRepository productWishRepository;
+    private final ReactionService reactionService;
 
     public Page<Product> getAllPaged(int page, int size) {
         final var pageRequest = PageRequest.of(page - 1, size);
@@ -96,15 +97,11 @@ public class ProductService {
 
     @Transactional
     public void likeReview(Long reviewId, Long userId) {
-        if (productReviewRepository.addLikeIfAbsent(reviewId, userId)) {
-            productReviewRepository.incrementLikesCount(reviewId);
-        }
+        reactionService.react(ReactionTarget.PRODUCT_REVIEW, reviewId, userId, true);
     }
     @Transactional
     public void unlikeReview(Long reviewId, Long userId) {
-        if (productReviewRepository.removeLikeIfPresent(reviewId, userId)) {
-            productReviewRepository.decrementLikesCount(reviewId);
-        }
+        reactionService.react(ReactionTarget.PRODUCT_REVIEW, reviewId, userId, false);
     }
 
     @Transactional
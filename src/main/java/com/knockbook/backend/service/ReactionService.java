@@ -0,0 +1,67 @@
+package com.knockbook.backend.service;
+
+import com.knockbook.backend.component.ReactionCounterBuffer;
+import com.knockbook.backend.domain.ReactionTarget;
+import com.knockbook.backend.repository.ReactionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Likes for every target type: the like row is written with one idempotent statement and
+ * the count change is handed to {@link ReactionCounterBuffer} instead of updating the hot row.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactionService {
+
+    private final ReactionRepository reactionRepository;
+    private final ReactionCounterBuffer counterBuffer;
+
+    /**
+     * The user's reaction and the target's count right after a write.
+     */
+    public record ReactionState(boolean reacted, boolean changed, int count) {}
+
+    /**
+     * Set or clear the user's reaction. Returns true if the state changed.
+     */
+    public boolean react(ReactionTarget target, Long targetId, Long userId, boolean reacted) {
+        final var changed = reactionRepository.setReaction(target, targetId, userId, reacted);
+        if (changed) {
+            counterBuffer.add(target, targetId, reacted ? 1 : -1);
+        }
+        return changed;
+    }
+
+    /**
+     * Sets or clears the reaction and reads the count back in the same transaction, so the response
+     * reflects this write (and a repeated like is not counted twice) without waiting for a flush.
+     */
+    public ReactionState reactAndCount(ReactionTarget target, Long targetId, Long userId, boolean reacted) {
+        final var changed = react(target, targetId, userId, reacted);
+        return new ReactionState(reacted, changed, reactionRepository.countReactions(target, targetId));
+    }
+
+    /**
+     * Stored count plus deltas that have not been flushed yet.
+     */
+    public int countOf(ReactionTarget target, Long targetId) {
+        final var count = reactionRepository.findCount(target, targetId)
+                + counterBuffer.pendingDelta(target, targetId);
+        return (int) Math.max(0L, count);
+    }
+
+    /**
+     * Batched likedByMe lookup for list endpoints.
+     */
+    public Set<Long> reactedTargetIds(ReactionTarget target, Long userId, Collection<Long> targetIds) {
+        return reactionRepository.findReactedTargetIds(target, userId, targetIds);
+    }
+
+    public boolean hasReacted(ReactionTarget target, Long userId, Long targetId) {
+        return reactionRepository.findReactedTargetIds(target, userId, Set.of(targetId)).contains(targetId);
+    }
+}
@@ -1,7 +1,11 @@
 package com.knockbook.backend.service;
 
+import com.knockbook.backend.component.ImageProcessor;
 import com.knockbook.backend.component.ImgbbUploader;
+import com.knockbook.backend.component.UserCache;
+import com.knockbook.backend.domain.ImageVariant;
 import com.knockbook.backend.domain.User;
+import com.knockbook.backend.domain.UserDisplayProfile;
 import com.knockbook.backend.exception.CredentialNotFoundException;
 import com.knockbook.backend.exception.IdentityNotFoundException;
 import com.knockbook.backend.exception.UserNotFoundException;
@@ -15,6 +19,11 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 public class UserService {
@@ -25,6 +34,8 @@ public class UserService {
     final private CredentialRepository credentialRepository;
     final private CouponService couponService;
     final private ImgbbUploader imgbbUploader;
+    final private ImageProcessor imageProcessor;
+    final private UserCache userCache;
 
     @Transactional
     public User registerUser(final String email,
@@ -59,10 +70,25 @@ public class UserService {
     }
 
     public User getUser(final Long userId) {
-        return userRepository.findById(userId)
+        return userCache.get(userId, userRepository::findById)
                 .orElseThrow(() -> new UserNotFoundException(userId));
     }
 
+    /**
+     * Display profiles of the given users (cached), keyed by id; unknown ids are absent.
+     */
+    public Map<Long, UserDisplayProfile> getDisplayProfiles(final Collection<Long> userIds) {
+        return userCache.getProfiles(userIds, userRepository::findDisplayProfilesByIds);
+    }
+
+    public UserDisplayProfile getDisplayProfile(final Long userId) {
+        final var profile = getDisplayProfiles(List.of(userId)).get(userId);
+        if (profile == null) {
+            throw new UserNotFoundException(userId);
+        }
+        return profile;
+    }
+
     public void verifyPassword(final Long userId, final String password) {
         final var identity = identityRepository.findByUserId(userId)
                 .orElseThrow(() -> new IdentityNotFoundException(userId));
@@ -91,7 +117,13 @@ public class UserService {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("EMPTY_FILE");
         }
-        final String url = imgbbUploader.upload(file);
+        // Avatars only ever render small, so upload just the thumbnail variant (EXIF stripped);
+        // files the processor cannot decode are uploaded as before
+        final String url = imageProcessor.process(file, EnumSet.of(ImageVariant.THUMBNAIL))
+                .map(variants -> imgbbUploader.upload(variants.get(ImageVariant.THUMBNAIL),
+                        ImageProcessor.variantFileName(file.getOriginalFilename(), ImageVariant.THUMBNAIL),
+                        ImageProcessor.CONTENT_TYPE))
+                .orElseGet(() -> imgbbUploader.upload(file));
         userRepository.update(User.builder()
                 .id(userId).avatarUrl(url).build());
         return url;
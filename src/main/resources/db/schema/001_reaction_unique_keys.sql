@@ -0,0 +1,42 @@
+-- Unique (target, user) keys on the like tables.
+-- ReactionRepositoryImpl relies on them: inserting a like that already exists fails with a duplicate
+-- key and is reported as unchanged, so concurrent likes by the same user can never create a second row.
+-- The schema is managed outside the application (ddl-auto=validate); apply before deploying.
+
+-- 1) Drop duplicate rows left by the former check-then-insert path, keeping the oldest row.
+--    For flag tables a liked duplicate wins over a cleared one.
+DELETE d FROM feeds_post_likes d
+  JOIN feeds_post_likes k ON k.post_id = d.post_id AND k.user_id = d.user_id AND k.post_like_id < d.post_like_id;
+
+DELETE d FROM feeds_comment_likes d
+  JOIN feeds_comment_likes k ON k.comment_id = d.comment_id AND k.user_id = d.user_id AND k.comment_like_id < d.comment_like_id;
+
+DELETE d FROM products_review_likes d
+  JOIN products_review_likes k ON k.review_id = d.review_id AND k.user_id = d.user_id AND k.review_likes_id < d.review_likes_id;
+
+UPDATE lounge_post_likes k
+  JOIN (SELECT post_id, user_id, MIN(id) AS keep_id, MAX(is_liked) AS liked
+          FROM lounge_post_likes GROUP BY post_id, user_id HAVING COUNT(*) > 1) g
+    ON k.id = g.keep_id
+   SET k.is_liked = g.liked;
+DELETE d FROM lounge_post_likes d
+  JOIN lounge_post_likes k ON k.post_id = d.post_id AND k.user_id = d.user_id AND k.id < d.id;
+
+UPDATE books_reviews_likes k
+  JOIN (SELECT book_review_id, user_id, MIN(book_review_like_id) AS keep_id, MAX(is_liked) AS liked
+          FROM books_reviews_likes GROUP BY book_review_id, user_id HAVING COUNT(*) > 1) g
+    ON k.book_review_like_id = g.keep_id
+   SET k.is_liked = g.liked;
+DELETE d FROM books_reviews_likes d
+  JOIN books_reviews_likes k ON k.book_review_id = d.book_review_id AND k.user_id = d.user_id
+                            AND k.book_review_like_id < d.book_review_like_id;
+
+-- 2) The keys themselves
+ALTER TABLE feeds_post_likes      ADD UNIQUE KEY uk_feeds_post_likes_post_user (post_id, user_id);
+ALTER TABLE feeds_comment_likes   ADD UNIQUE KEY uk_feeds_comment_likes_comment_user (comment_id, user_id);
+ALTER TABLE products_review_likes ADD UNIQUE KEY uk_products_review_likes_review_user (review_id, user_id);
+ALTER TABLE lounge_post_likes     ADD UNIQUE KEY uk_lounge_post_likes_post_user (post_id, user_id);
+ALTER TABLE books_reviews_likes   ADD UNIQUE KEY uk_books_reviews_likes_review_user (book_review_id, user_id);
+
+-- 3) Counts inflated by the duplicates are repaired by starting one node with
+--    reaction.counters.reconcile-on-startup=true (see ReactionCounterBuffer).
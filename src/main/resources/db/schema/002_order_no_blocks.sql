@@ -0,0 +1,7 @@
+-- Per-day order number blocks handed out by OrderNumberAllocator (OrderNumberBlockRepositoryImpl).
+-- One row per day holding the last block claimed; tiny and append-only.
+-- The schema is managed outside the application (ddl-auto=validate); apply before deploying.
+CREATE TABLE IF NOT EXISTS order_no_blocks (
+    day     CHAR(8) NOT NULL PRIMARY KEY,
+    next_hi BIGINT  NOT NULL
+);
@@ -0,0 +1,4 @@
+-- Index for CartCleanupQueue's sweep, which re-runs cart cleanup for orders paid in the last minutes
+-- (OrderRepositoryImpl.findPaidSince) so cleanups lost to a full queue or a crash still happen.
+-- The schema is managed outside the application (ddl-auto=validate); apply before deploying.
+ALTER TABLE orders ADD INDEX idx_orders_paid_at (paid_at);
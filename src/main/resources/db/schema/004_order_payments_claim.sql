@@ -0,0 +1,10 @@
+-- Approval claim columns on order_payments, written by OrderPaymentRepositoryImpl.claim / reclaim.
+-- pg_token_hash: SHA-256 (hex) of the pg_token that claimed the approval. A repeated success callback
+--   gets the approved result only when it carries the same token.
+-- claimed_at: when the claim was taken. KakaoPayService reconciles APPROVING claims older than
+--   kakaopay.approval-stale-after-seconds through Kakao's order inquiry.
+-- The schema is managed outside the application (ddl-auto=validate); apply before deploying.
+ALTER TABLE order_payments
+    ADD COLUMN pg_token_hash VARCHAR(64) NULL,
+    ADD COLUMN claimed_at    DATETIME(3) NULL,
+    ADD INDEX idx_order_payments_status_claimed_at (status, claimed_at);
@@ -0,0 +1,10 @@
+-- Cart cleanup claim on orders, written by CartRepositoryImpl.removeOrderedLines.
+-- cart_cleaned_at: when the paid order's lines were taken out of its owner's cart. Set once, by the first
+--   worker or node whose cleanup commits; CartCleanupQueue's sweep only reads orders where it is still NULL.
+-- Orders paid before this script are marked as cleaned so the first sweep does not revisit them.
+-- The schema is managed outside the application (ddl-auto=validate); apply before deploying.
+ALTER TABLE orders
+    ADD COLUMN cart_cleaned_at DATETIME(3) NULL,
+    ADD INDEX idx_orders_cart_cleaned_at_paid_at (cart_cleaned_at, paid_at);
+
+UPDATE orders SET cart_cleaned_at = paid_at WHERE paid_at IS NOT NULL;
@@ -0,0 +1,153 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.BookCatalogEntry;
+import com.knockbook.backend.domain.BookCounterDelta;
+import com.knockbook.backend.domain.BookSummary;
+import com.knockbook.backend.repository.BookCatalogRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookCatalogTest {
+
+    private static final int BENCH_BOOKS = 100_000;
+    private static final int BENCH_REFRESHES = 2_000;
+    private static final int BENCH_RELOADS = 5;
+
+    private final Map<Long, BookCatalogEntry> table = new TreeMap<>();
+    // Refreshes run on the calling thread so assertions see them
+    private final BookCatalog catalog = new BookCatalog(new Table(), BookCatalog.ConsistencyMode.SNAPSHOT, 300,
+            Runnable::run);
+
+    @Test
+    void refreshMovesTheBookWithinTheSortedIndexes() {
+        table.put(1L, entry(1L, "novel", "korean", 10_000, 0));
+        table.put(2L, entry(2L, "novel", "world", 20_000, 0));
+        table.put(3L, entry(3L, "essay", "korean", 15_000, 0));
+        catalog.load();
+        final var version = catalog.version();
+
+        table.put(1L, entry(1L, "novel", "korean", 30_000, 0)); // repriced
+        table.remove(2L);                                       // hidden
+        table.put(4L, entry(4L, "novel", "korean", 5_000, 0));  // created
+        catalog.refresh(1L);
+        catalog.refresh(2L);
+        catalog.refresh(4L);
+
+        assertThat(ids(page("all", "all", "price", true))).containsExactly(4L, 3L, 1L);
+        assertThat(ids(page("novel", "all", "price", false))).containsExactly(1L, 4L);
+        assertThat(ids(page("novel", "world", "price", true))).isEmpty();
+        assertThat(catalog.version()).isGreaterThan(version);
+    }
+
+    @Test
+    void flushedCountersReorderListingsAndShowInSummaries() {
+        table.put(1L, entry(1L, "novel", "korean", 10_000, 5));
+        table.put(2L, entry(2L, "novel", "korean", 10_000, 3));
+        catalog.load();
+
+        catalog.applyCounterDeltas(List.of(BookCounterDelta.builder().bookId(2L).views(4).sales(1).build()));
+
+        final var byViews = page("novel", "korean", "views", false);
+        assertThat(ids(byViews)).containsExactly(2L, 1L);
+        assertThat(byViews.get(0).getViewCount()).isEqualTo(7);
+        assertThat(byViews.get(0).getSalesCount()).isEqualTo(1);
+        assertThat(ids(page("all", "all", "sales", false))).containsExactly(2L, 1L);
+    }
+
+    /**
+     * Cost of applying one admin write: patching the row in place against the full rebuild every
+     * refresh used to do.
+     */
+    @Test
+    void patchingARowBeatsRebuildingTheCatalog() {
+        final var random = new Random(7);
+        for (long id = 1; id <= BENCH_BOOKS; id++) {
+            table.put(id, entry(id, "c" + (id % 10), "s" + (id % 50), 1_000 + random.nextInt(30_000),
+                    random.nextInt(10_000)));
+        }
+        catalog.load();
+
+        final var rebuilds = new long[BENCH_RELOADS];
+        for (int i = 0; i < BENCH_RELOADS; i++) {
+            final var start = System.nanoTime();
+            catalog.load();
+            rebuilds[i] = System.nanoTime() - start;
+        }
+
+        final var patches = new long[BENCH_REFRESHES];
+        for (int round = 0; round < 2; round++) { // the first round warms up the JIT
+            for (int i = 0; i < BENCH_REFRESHES; i++) {
+                final long id = 1 + random.nextInt(BENCH_BOOKS);
+                table.put(id, entry(id, "c" + (id % 10), "s" + (id % 50), 1_000 + random.nextInt(30_000),
+                        random.nextInt(10_000)));
+                final var start = System.nanoTime();
+                catalog.refresh(id);
+                patches[i] = System.nanoTime() - start;
+            }
+        }
+
+        final var prices = page("all", "all", "price", true, 50);
+        for (int i = 1; i < prices.size(); i++) {
+            assertThat(prices.get(i).getDiscountedPurchaseAmount())
+                    .isGreaterThanOrEqualTo(prices.get(i - 1).getDiscountedPurchaseAmount());
+        }
+
+        Arrays.sort(rebuilds);
+        Arrays.sort(patches);
+        System.out.printf("%d books: rebuild p50 %.2f ms, in-place refresh p50 %.3f ms p99 %.3f ms%n",
+                BENCH_BOOKS, rebuilds[BENCH_RELOADS / 2] / 1_000_000.0,
+                patches[BENCH_REFRESHES / 2] / 1_000_000.0, patches[BENCH_REFRESHES * 99 / 100] / 1_000_000.0);
+        assertThat(patches[BENCH_REFRESHES * 99 / 100]).isLessThan(rebuilds[BENCH_RELOADS / 2]);
+    }
+
+    private List<BookSummary> page(String category, String subcategory, String sortBy, boolean ascending) {
+        return page(category, subcategory, sortBy, ascending, 20);
+    }
+
+    private List<BookSummary> page(String category, String subcategory, String sortBy, boolean ascending, int size) {
+        final var sort = ascending ? Sort.by(sortBy).ascending() : Sort.by(sortBy).descending();
+        return catalog.find(category, subcategory, PageRequest.of(0, size, sort), null, null)
+                .orElseThrow()
+                .getContent();
+    }
+
+    private static List<Long> ids(List<BookSummary> books) {
+        return books.stream().map(BookSummary::getId).toList();
+    }
+
+    private static BookCatalogEntry entry(long id, String category, String subcategory, int price, int views) {
+        return BookCatalogEntry.builder()
+                .summary(BookSummary.builder()
+                        .id(id)
+                        .categoryId((long) category.hashCode())
+                        .subcategoryId((long) subcategory.hashCode())
+                        .discountedPurchaseAmount(price)
+                        .viewCount(views)
+                        .salesCount(0)
+                        .rentalCount(0)
+                        .publishedAt(LocalDate.of(2024, 1, 1))
+                        .build())
+                .categoryCodeName(category)
+                .subcategoryCodeName(subcategory)
+                .build();
+    }
+
+    private final class Table implements BookCatalogRepository {
+
+        @Override
+        public List<BookCatalogEntry> findAllCatalogEntries() {
+            return List.copyOf(table.values());
+        }
+
+        @Override
+        public Optional<BookCatalogEntry> findCatalogEntryById(Long id) {
+            return Optional.ofNullable(table.get(id));
+        }
+    }
+}
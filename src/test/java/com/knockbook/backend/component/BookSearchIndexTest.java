@@ -0,0 +1,218 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.Book;
+import com.knockbook.backend.domain.BookCatalogEntry;
+import com.knockbook.backend.domain.BookSummary;
+import com.knockbook.backend.repository.BookCatalogRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookSearchIndexTest {
+
+    private static final List<BookSearchIndex.Field> ALL = List.of(BookSearchIndex.Field.values());
+
+    // Bounded by the default test heap; the index holds about 30 bigram postings per book
+    private static final int BENCH_BOOKS = 200_000;
+    private static final int BENCH_QUERIES = 300;
+    private static final String SYLLABLES =
+            "가나다라마바사아자차카타파하고노도로모보소오조초코토포호구누두루무부수우주추쿠투푸후기니디리미비시이지치";
+
+    private final BookSearchIndex index = new BookSearchIndex();
+
+    @Test
+    void matchesSubstringsOfShortFieldsOnly() {
+        index.index(book(1L, "데미안", "헤르만 헤세", "민음사", null));
+        index.index(book(2L, "미안해", "작가", "출판사", null));
+
+        // "데미안" and "미안해" share the bigram "미안"; "데미" only belongs to the first title
+        assertThat(ids(index.search(List.of(BookSearchIndex.Field.TITLE), "데미"))).containsExactly(1L);
+        assertThat(ids(index.search(List.of(BookSearchIndex.Field.TITLE), "미안"))).containsExactlyInAnyOrder(1L, 2L);
+        // Whitespace in the keyword and the text is ignored
+        assertThat(ids(index.search(List.of(BookSearchIndex.Field.AUTHOR), "헤르만헤세"))).containsExactly(1L);
+        assertThat(ids(index.search(ALL, "없는책"))).isEmpty();
+    }
+
+    @Test
+    void ranksExactThenPrefixThenContainsWithTitlesAheadOfAuthors() {
+        index.index(book(1L, "자바의 정석", "남궁성", "도우출판", null));
+        index.index(book(2L, "이펙티브 자바", "조슈아 블로크", "인사이트", null));
+        index.index(book(3L, "파이썬", "자바스크립트", "출판사", null));
+        index.index(book(4L, "자바", "저자", "출판사", null));
+
+        assertThat(ids(index.search(ALL, "자바"))).containsExactly(4L, 1L, 3L, 2L);
+    }
+
+    @Test
+    void oneCharacterKeywordsScanShortFields() {
+        index.index(book(1L, "별", "작가", "출판사", "별 이야기"));
+        index.index(book(2L, "달", "작가", "출판사", "별 이야기"));
+
+        // Introductions are not stored, so only the title of book 1 can match a single character
+        assertThat(ids(index.search(ALL, "별"))).containsExactly(1L);
+    }
+
+    @Test
+    void reindexingReplacesEveryFieldIncludingTheIntroduction() {
+        index.index(book(1L, "옛 제목", "작가", "출판사", "바다 이야기"));
+        index.index(book(1L, "새 제목", "작가", "출판사", "산 이야기"));
+
+        assertThat(ids(index.search(ALL, "옛제목"))).isEmpty();
+        assertThat(ids(index.search(ALL, "바다"))).isEmpty();
+        assertThat(ids(index.search(ALL, "산이야기"))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1L);
+        assertThat(ids(index.search(ALL, "이야기"))).isEmpty();
+        assertThat(index.size()).isEqualTo(0);
+    }
+
+    @Test
+    void catalogKeepsHitsThatPassTheListingFiltersInRankOrder() {
+        final var catalog = catalogOf(List.of(
+                entry(1L, "novel", "korean", 10_000),
+                entry(2L, "novel", "world", 20_000),
+                entry(3L, "essay", "korean", 15_000)));
+        final var ranked = new long[]{3L, 2L, 1L, 99L}; // 99 is hidden or deleted: not in the catalog
+
+        assertThat(ids(catalog.filterSearchHits(ranked, "all", "all", null, null, null).orElseThrow()))
+                .containsExactly(3L, 2L, 1L);
+        assertThat(ids(catalog.filterSearchHits(ranked, "novel", "all", null, 15_000, null).orElseThrow()))
+                .containsExactly(1L);
+        assertThat(catalog.filterSearchHits(ranked, "all", "korean", null, null, "price").orElseThrow())
+                .containsExactly(new BookCatalog.SearchHit(3L, 15_000), new BookCatalog.SearchHit(1L, 10_000));
+    }
+
+    /**
+     * Keyword search with listing filters through the index and the catalog, against the full scan a
+     * LIKE '%keyword%' query performs over the same rows.
+     */
+    @Test
+    void indexedSearchBeatsFullScan() {
+        final var random = new Random(42);
+        final var texts = new String[BENCH_BOOKS];
+        final var entries = new ArrayList<BookCatalogEntry>(BENCH_BOOKS);
+        for (int i = 0; i < BENCH_BOOKS; i++) {
+            final long id = i + 1;
+            final var title = words(random, 3, 3);
+            final var author = words(random, 1, 3);
+            final var publisher = words(random, 1, 4);
+            final var introduction = words(random, 4, 5);
+            index.index(book(id, title, author, publisher, introduction));
+            texts[i] = (title + author + publisher + introduction).replace(" ", "");
+            entries.add(entry(id, "c" + (i % 10), "s" + (i % 50), 1_000 + random.nextInt(30_000)));
+        }
+        final var catalog = catalogOf(entries);
+
+        final var queries = new String[BENCH_QUERIES];
+        for (int q = 0; q < BENCH_QUERIES; q++) {
+            final var source = texts[random.nextInt(BENCH_BOOKS)];
+            final var from = random.nextInt(source.length() - 3);
+            queries[q] = source.substring(from, from + 3);
+        }
+
+        final var indexed = new long[BENCH_QUERIES];
+        final var scanned = new long[BENCH_QUERIES];
+        for (int round = 0; round < 2; round++) { // the first round warms up the JIT
+            for (int q = 0; q < BENCH_QUERIES; q++) {
+                var start = System.nanoTime();
+                final var hits = catalog.filterSearchHits(
+                        index.search(ALL, queries[q]), "c3", "all", 5_000, 20_000, null).orElseThrow();
+                indexed[q] = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                int matches = 0;
+                for (int i = 0; i < BENCH_BOOKS; i++) {
+                    if (texts[i].contains(queries[q])) {
+                        matches++;
+                    }
+                }
+                scanned[q] = System.nanoTime() - start;
+                assertThat(hits.size()).isLessThanOrEqualTo(matches);
+            }
+        }
+
+        Arrays.sort(indexed);
+        Arrays.sort(scanned);
+        System.out.printf("%d books, %d queries: index p50 %.2f ms p99 %.2f ms, full scan p50 %.2f ms p99 %.2f ms%n",
+                BENCH_BOOKS, BENCH_QUERIES, millis(indexed, 50), millis(indexed, 99),
+                millis(scanned, 50), millis(scanned, 99));
+        assertThat(percentile(indexed, 50)).isLessThan(percentile(scanned, 50));
+        assertThat(percentile(indexed, 99)).isLessThan(percentile(scanned, 99));
+    }
+
+    private static BookCatalog catalogOf(List<BookCatalogEntry> entries) {
+        final var catalog = new BookCatalog(new BookCatalogRepository() {
+            @Override
+            public List<BookCatalogEntry> findAllCatalogEntries() {
+                return entries;
+            }
+
+            @Override
+            public Optional<BookCatalogEntry> findCatalogEntryById(Long id) {
+                throw new UnsupportedOperationException();
+            }
+        }, BookCatalog.ConsistencyMode.SNAPSHOT, 300);
+        catalog.load();
+        return catalog;
+    }
+
+    private static BookCatalogEntry entry(long id, String category, String subcategory, int price) {
+        return BookCatalogEntry.builder()
+                .summary(BookSummary.builder()
+                        .id(id)
+                        .categoryId((long) category.hashCode())
+                        .subcategoryId((long) subcategory.hashCode())
+                        .discountedPurchaseAmount(price)
+                        .viewCount(0)
+                        .salesCount(0)
+                        .rentalCount(0)
+                        .publishedAt(LocalDate.of(2024, 1, 1))
+                        .build())
+                .categoryCodeName(category)
+                .subcategoryCodeName(subcategory)
+                .build();
+    }
+
+    private static Book book(long id, String title, String author, String publisher, String introduction) {
+        return Book.builder()
+                .id(id)
+                .title(title)
+                .author(author)
+                .publisher(publisher)
+                .introductionDetail(introduction)
+                .build();
+    }
+
+    private static String words(Random random, int count, int length) {
+        final var sb = new StringBuilder();
+        for (int w = 0; w < count; w++) {
+            if (w > 0) {
+                sb.append(' ');
+            }
+            for (int c = 0; c < length; c++) {
+                sb.append(SYLLABLES.charAt(random.nextInt(SYLLABLES.length())));
+            }
+        }
+        return sb.toString();
+    }
+
+    private static List<Long> ids(long[] ids) {
+        return Arrays.stream(ids).boxed().toList();
+    }
+
+    private static List<Long> ids(List<BookCatalog.SearchHit> hits) {
+        return hits.stream().map(BookCatalog.SearchHit::id).toList();
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+    }
+
+    private static double millis(long[] sorted, int p) {
+        return percentile(sorted, p) / 1_000_000.0;
+    }
+}
@@ -0,0 +1,138 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.FeedPost;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedTimelineCacheTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int VIEWERS = 32;
+    private static final int REQUESTS_PER_VIEWER = 200;
+    // The uncached first page: keyset query with two correlated EXISTS per row, plus the image query
+    private static final long FEED_QUERY_NANOS = 2_000_000;
+    // One of the two IN queries overlaying the viewer's likedByMe / savedByMe on a cached page
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FeedTimelineCache cache =
+            new FeedTimelineCache(new ReactionCounterBuffer(null, registry, false), registry);
+    private final List<FeedPost> table = new ArrayList<>(); // newest first
+    private final AtomicInteger loads = new AtomicInteger();
+    private final IntFunction<List<FeedPost>> loader = limit -> {
+        loads.incrementAndGet();
+        LockSupport.parkNanos(FEED_QUERY_NANOS);
+        return List.copyOf(table.subList(0, Math.min(limit, table.size())));
+    };
+
+    @Test
+    void countsArePatchedInPlaceUntilTheHeadIsInvalidated() {
+        posts(30);
+
+        final var first = cache.page(null, PAGE_SIZE, loader).orElseThrow();
+        cache.adjustLikes(30L, 2);
+        cache.adjustComments(30L, 1);
+        final var patched = cache.page(null, PAGE_SIZE, loader).orElseThrow().feedPosts().get(0);
+        final var last = cache.page(Long.valueOf(first.nextAfter()), PAGE_SIZE, loader).orElseThrow();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(patched.getLikesCount()).isEqualTo(7);
+        assertThat(patched.getCommentsCount()).isEqualTo(4);
+        assertThat(last.feedPosts()).hasSize(10);
+        assertThat(last.nextAfter()).isNull();
+
+        cache.invalidate();
+        final var reloaded = cache.page(null, PAGE_SIZE, loader).orElseThrow().feedPosts().get(0);
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(reloaded.getLikesCount()).isEqualTo(5);
+    }
+
+    /**
+     * First-page latency with 32 viewers scrolling at once: the shared head plus the two overlay
+     * queries, against running the feed query per request. Queries are simulated at fixed costs
+     * and without contention, so the uncached path only looks better than it is.
+     */
+    @Test
+    void concurrentFirstPagesShareTheCachedHead() throws Exception {
+        posts(FeedTimelineCache.CACHED_POSTS + 50);
+
+        final var cached = loadTest(() -> {
+            final var page = cache.page(null, PAGE_SIZE, loader).orElseThrow();
+            LockSupport.parkNanos(2 * ROUND_TRIP_NANOS);
+            return page.feedPosts();
+        });
+        final var cachedLoads = loads.getAndSet(0);
+        final var uncached = loadTest(() -> loader.apply(PAGE_SIZE));
+
+        final var p99 = cached.length * 99 / 100;
+        System.out.printf("%d viewers x %d first pages: cached p50 %.2f ms p99 %.2f ms (%d feed queries), "
+                        + "uncached p50 %.2f ms p99 %.2f ms (%d feed queries)%n",
+                VIEWERS, REQUESTS_PER_VIEWER,
+                cached[cached.length / 2] / 1_000_000.0, cached[p99] / 1_000_000.0, cachedLoads,
+                uncached[uncached.length / 2] / 1_000_000.0, uncached[p99] / 1_000_000.0, loads.get());
+        assertThat(cachedLoads).isEqualTo(1); // concurrent misses shared one reload
+        assertThat(cached[cached.length / 2] * 2).isLessThan(uncached[uncached.length / 2]);
+    }
+
+    // Sorted per-request latencies of VIEWERS threads issuing REQUESTS_PER_VIEWER requests each
+    private static long[] loadTest(final Supplier<List<FeedPost>> request) throws Exception {
+        final var latencies = new long[VIEWERS * REQUESTS_PER_VIEWER];
+        final var pool = Executors.newFixedThreadPool(VIEWERS);
+        final var start = new CountDownLatch(1);
+        try {
+            final var viewers = new ArrayList<Future<?>>();
+            for (int v = 0; v < VIEWERS; v++) {
+                final var offset = v * REQUESTS_PER_VIEWER;
+                viewers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < REQUESTS_PER_VIEWER; i++) {
+                        final var begin = System.nanoTime();
+                        assertThat(request.get()).hasSize(PAGE_SIZE);
+                        latencies[offset + i] = System.nanoTime() - begin;
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final var viewer : viewers) {
+                viewer.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        Arrays.sort(latencies);
+        return latencies;
+    }
+
+    // Posts 1..count, newest (highest id) first, each with 5 likes and 3 comments
+    private void posts(final int count) {
+        final var now = Instant.parse("2025-01-01T00:00:00Z");
+        for (long id = count; id >= 1; id--) {
+            table.add(FeedPost.builder()
+                    .postId(String.valueOf(id))
+                    .userId("1")
+                    .displayName("reader")
+                    .content("post " + id)
+                    .images(List.of("https://i.ibb.co/" + id + ".jpg"))
+                    .likesCount(5)
+                    .commentsCount(3)
+                    .createdAt(now.plusSeconds(id))
+                    .build());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.ImageUploadTarget;
+import com.knockbook.backend.repository.ImageOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageOutboxTest {
+
+    private static final ImageUploadTarget TARGET = ImageUploadTarget.CUSTOMER_QNA_FILE; // uploaded as-is
+    private static final String BASE_URL = "https://api.knockbook.test";
+    private static final String UPLOADED_URL = "https://i.ibb.co/stub/file.pdf";
+
+    @TempDir
+    Path spoolDir;
+
+    private StubImgbbUploader imgbb;
+    private RecordingRepository repository;
+    private ImageProcessor imageProcessor;
+    private ImageOutbox outbox;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        imgbb = new StubImgbbUploader();
+        repository = new RecordingRepository();
+        imageProcessor = new ImageProcessor(1, 4);
+        outbox = newOutbox(new MockEnvironment(), BASE_URL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        outbox.shutdown();
+        imageProcessor.shutdown();
+    }
+
+    @Test
+    void uploadsOnceAndPatchesTheOwningRow() throws Exception {
+        final var placeholder = outbox.stage(file(), TARGET);
+        assertThat(placeholder).startsWith(BASE_URL + ImageOutbox.PENDING_PATH);
+
+        outbox.dispatch(42L, List.of(placeholder));
+
+        await(() -> repository.patches.containsKey(placeholder));
+        assertThat(repository.patches.get(placeholder)).isEqualTo(42L + " -> " + UPLOADED_URL);
+        assertThat(imgbb.uploads.get()).isEqualTo(1);
+
+        // Any node can redirect the placeholder from the shared spool; the pending bytes are gone
+        final var token = placeholder.substring(placeholder.lastIndexOf('/') + 1);
+        assertThat(outbox.completedUrl(token)).contains(UPLOADED_URL);
+        assertThat(outbox.pendingFile(token)).isEmpty();
+    }
+
+    @Test
+    void rescanDoesNotResubmitARunningJob() throws Exception {
+        imgbb.gate = new CountDownLatch(1);
+        final var placeholder = outbox.stage(file(), TARGET);
+        outbox.dispatch(1L, List.of(placeholder));
+
+        // Startup scan and sweeps race with the dispatched job, on this node and on another one
+        outbox.resumePending();
+        outbox.sweep();
+        final var otherNode = newOutbox(new MockEnvironment(), BASE_URL);
+        try {
+            otherNode.resumePending();
+            imgbb.gate.countDown();
+
+            await(() -> repository.patches.containsKey(placeholder));
+            Thread.sleep(200); // a duplicate would upload right after the first
+            assertThat(imgbb.uploads.get()).isEqualTo(1);
+        } finally {
+            otherNode.shutdown();
+        }
+    }
+
+    @Test
+    void patchRetriesDoNotUseUpUploadAttempts() throws Exception {
+        imgbb.failuresLeft.set(4);     // upload succeeds on the 5th attempt
+        repository.notVisibleFor.set(3); // the row shows up on the 4th patch
+        final var placeholder = outbox.stage(file(), TARGET);
+        outbox.dispatch(7L, List.of(placeholder));
+
+        await(() -> repository.patches.containsKey(placeholder));
+        assertThat(imgbb.uploads.get()).isEqualTo(5);
+    }
+
+    @Test
+    void failedVariantUploadRetriesOnlyTheMissingVariants() throws Exception {
+        final var jpeg = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(3000, 2000, BufferedImage.TYPE_INT_RGB), "jpg", jpeg);
+        imgbb.failOnVariantUpload.set(2); // FEED fails once, after THUMBNAIL went through
+
+        final var placeholder = outbox.stage(
+                new MockMultipartFile("file", "photo.jpg", "image/jpeg", jpeg.toByteArray()),
+                ImageUploadTarget.FEED_POST_IMAGE);
+        outbox.dispatch(3L, List.of(placeholder));
+
+        await(() -> repository.patches.containsKey(placeholder));
+        // THUMBNAIL once, FEED twice, FULL once: the retry did not upload THUMBNAIL again
+        assertThat(imgbb.variantUploads.get()).isEqualTo(4);
+    }
+
+    @Test
+    void stagedFilesOfAFailedBatchAreDiscarded() throws Exception {
+        final var broken = new MockMultipartFile("file", "b.pdf", "application/pdf", new byte[]{1}) {
+            @Override
+            public void transferTo(Path dest) {
+                throw new IllegalStateException("disk full");
+            }
+        };
+
+        assertThatThrownBy(() -> outbox.stageAll(List.of(file(), broken), TARGET))
+                .isInstanceOf(IllegalStateException.class);
+        try (var files = Files.list(spoolDir)) {
+            assertThat(files.toList()).isEmpty();
+        }
+    }
+
+    @Test
+    void placeholderBaseUrlMustBeAbsolute() {
+        assertThatThrownBy(() -> newOutbox(new MockEnvironment(), "api.knockbook.test"))
+                .isInstanceOf(IllegalStateException.class);
+
+        final var prod = new MockEnvironment();
+        prod.setActiveProfiles("prod");
+        assertThatThrownBy(() -> newOutbox(prod, ""))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    private ImageOutbox newOutbox(MockEnvironment environment, String baseUrl) throws Exception {
+        final var registry = new SimpleMeterRegistry();
+        final var timelineCache = new FeedTimelineCache(new ReactionCounterBuffer(null, registry, false), registry);
+        return new ImageOutbox(imgbb, imageProcessor, repository, timelineCache, environment,
+                spoolDir, baseUrl, 2, 1L);
+    }
+
+    private static MockMultipartFile file() {
+        return new MockMultipartFile("file", "a.pdf", "application/pdf", new byte[]{1, 2, 3});
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * ImgBB stand-in: counts uploads, can fail the first attempts or hold uploads until released.
+     */
+    private static final class StubImgbbUploader extends ImgbbUploader {
+
+        private final AtomicInteger uploads = new AtomicInteger();
+        private final AtomicInteger failuresLeft = new AtomicInteger();
+        private final AtomicInteger variantUploads = new AtomicInteger();
+        private final AtomicInteger failOnVariantUpload = new AtomicInteger();
+        private volatile CountDownLatch gate;
+
+        StubImgbbUploader() {
+            super(null, null);
+        }
+
+        @Override
+        public String upload(Path file, String originalName, String contentType) {
+            uploads.incrementAndGet();
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new RuntimeException("ImgBB http error: 503");
+            }
+            return UPLOADED_URL;
+        }
+
+        @Override
+        public String upload(byte[] bytes, String fileName, String contentType) {
+            if (variantUploads.incrementAndGet() == failOnVariantUpload.get()) {
+                throw new RuntimeException("ImgBB http error: 503");
+            }
+            return "https://i.ibb.co/stub/" + fileName;
+        }
+    }
+
+    private static final class RecordingRepository implements ImageOutboxRepository {
+
+        private final Map<String, String> patches = new ConcurrentHashMap<>();
+        private final AtomicInteger notVisibleFor = new AtomicInteger();
+
+        @Override
+        public int replacePlaceholder(ImageUploadTarget target, Long ownerId, String placeholder, String url) {
+            if (notVisibleFor.getAndDecrement() > 0) {
+                return 0;
+            }
+            patches.put(placeholder, ownerId + " -> " + url);
+            return 1;
+        }
+    }
+}
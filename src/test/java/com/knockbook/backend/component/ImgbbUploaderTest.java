@@ -0,0 +1,211 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.config.ImgbbApiProperties;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImgbbUploaderTest {
+
+    private static final int UPLOADS = 50;
+    private static final int FILE_BYTES = 10 * 1024 * 1024;
+    private static final String RESPONSE = """
+            {"success":true,"status":200,"data":{"url":"https://i.ibb.co/stub.jpg"}}""";
+    private static final int POSTS = 20;
+    private static final int IMAGES_PER_POST = 3;
+    private static final long UPLOAD_LATENCY_MILLIS = 80;
+    private static final Pattern PHOTO_NAME = Pattern.compile("filename=\"(photo-(\\d)\\.jpg)\"");
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private final AtomicLong receivedBytes = new AtomicLong();
+    private ImgbbUploader uploader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Stub ImgBB: drains the multipart body in small reads and answers with a fixed URL
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(UPLOADS));
+        server.createContext("/1/upload", exchange -> {
+            try (final var in = exchange.getRequestBody()) {
+                final var buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) > 0) {
+                    receivedBytes.addAndGet(read);
+                }
+            }
+            respond(exchange, RESPONSE);
+        });
+        // Stub ImgBB with latency: answers each photo after ~80ms, earlier photos last, echoing the file name
+        server.createContext("/1/slow-upload", exchange -> {
+            final String body;
+            try (final var in = exchange.getRequestBody()) {
+                body = new String(in.readAllBytes(), StandardCharsets.ISO_8859_1);
+            }
+            final var photo = PHOTO_NAME.matcher(body);
+            if (!photo.find()) {
+                exchange.sendResponseHeaders(400, -1);
+                exchange.close();
+                return;
+            }
+            final var index = Integer.parseInt(photo.group(2));
+            try {
+                Thread.sleep(UPLOAD_LATENCY_MILLIS + 5L * (IMAGES_PER_POST - index)
+                        + ThreadLocalRandom.current().nextInt(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, RESPONSE.replace("stub.jpg", photo.group(1)));
+        });
+        server.start();
+
+        final var props = new ImgbbApiProperties();
+        props.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        props.setUploadPath("/1/upload");
+        props.setKey("test");
+        props.setFileTimeoutSeconds(60);
+        uploader = new ImgbbUploader(WebClient.create(props.getBaseUrl()), props);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void concurrentLargeUploadsDoNotBufferFilesOnHeap() throws Exception {
+        final var file = tempDir.resolve("large.jpg");
+        Files.write(file, new byte[FILE_BYTES]);
+
+        final var memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        final var baseline = memory.getHeapMemoryUsage().getUsed();
+        final var peak = new AtomicLong(baseline);
+        final var sampling = new AtomicBoolean(true);
+        // Collect before each sample so the peak is what uploads retain, not garbage 64KB chunks
+        final var sampler = new Thread(() -> {
+            while (sampling.get()) {
+                System.gc();
+                peak.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        final var pool = Executors.newFixedThreadPool(UPLOADS);
+        final var start = new CountDownLatch(1);
+        try {
+            final var uploads = new ArrayList<Future<String>>();
+            for (int i = 0; i < UPLOADS; i++) {
+                uploads.add(pool.submit(() -> {
+                    start.await();
+                    return uploader.upload(file, "large.jpg", "image/jpeg");
+                }));
+            }
+            start.countDown();
+            for (final var upload : uploads) {
+                assertThat(upload.get(2, TimeUnit.MINUTES)).isEqualTo("https://i.ibb.co/stub.jpg");
+            }
+        } finally {
+            pool.shutdownNow();
+            sampling.set(false);
+            sampler.join();
+        }
+
+        final var growth = peak.get() - baseline;
+        final var buffered = (long) UPLOADS * FILE_BYTES; // what getBytes() per upload would retain at once
+        System.out.printf("%d x %d MB uploads: peak heap growth %d MB%n",
+                UPLOADS, FILE_BYTES >> 20, growth >> 20);
+        assertThat(receivedBytes.get()).isGreaterThanOrEqualTo(buffered);
+        assertThat(growth).isLessThan(buffered / 2);
+    }
+
+    /**
+     * Latency of the uploads behind a 3-image feed post: uploadAll against the one-file-at-a-time
+     * loop the post services used to run, with every ImgBB call taking ~80ms.
+     */
+    @Test
+    void threeImagePostUploadsConcurrentlyInOrder() {
+        final var props = new ImgbbApiProperties();
+        props.setBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        props.setUploadPath("/1/slow-upload");
+        props.setKey("test");
+        final var slowUploader = new ImgbbUploader(WebClient.create(props.getBaseUrl()), props);
+
+        final var files = new ArrayList<MultipartFile>();
+        final var expected = new ArrayList<String>();
+        for (int i = 0; i < IMAGES_PER_POST; i++) {
+            files.add(new MockMultipartFile("file", "photo-" + i + ".jpg", "image/jpeg", new byte[16 * 1024]));
+            expected.add("https://i.ibb.co/photo-" + i + ".jpg");
+        }
+        slowUploader.uploadAll(files); // warm up the connection pool and codecs
+
+        final var sequential = new long[POSTS];
+        final var concurrent = new long[POSTS];
+        for (int post = 0; post < POSTS; post++) {
+            var start = System.nanoTime();
+            final var one = new ArrayList<String>();
+            for (final var file : files) {
+                one.add(slowUploader.upload(file));
+            }
+            sequential[post] = System.nanoTime() - start;
+            assertThat(one).isEqualTo(expected);
+
+            start = System.nanoTime();
+            final List<String> all = slowUploader.uploadAll(files);
+            concurrent[post] = System.nanoTime() - start;
+            assertThat(all).isEqualTo(expected);
+        }
+
+        Arrays.sort(sequential);
+        Arrays.sort(concurrent);
+        final var p99 = POSTS * 99 / 100;
+        System.out.printf("%d-image post uploads: sequential p50 %.1f ms p99 %.1f ms, "
+                        + "uploadAll p50 %.1f ms p99 %.1f ms%n",
+                IMAGES_PER_POST, sequential[POSTS / 2] / 1_000_000.0, sequential[p99] / 1_000_000.0,
+                concurrent[POSTS / 2] / 1_000_000.0, concurrent[p99] / 1_000_000.0);
+        assertThat(concurrent[p99] * 2).isLessThan(sequential[p99]);
+    }
+
+    private static void respond(final HttpExchange exchange, final String json) throws IOException {
+        final var body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.domain.User;
+import com.knockbook.backend.domain.UserDisplayProfile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalUserCacheInvalidationChannelTest {
+
+    private static final Long USER_ID = 1L;
+
+    private LocalUserCacheInvalidationChannel channel;
+    private UserCache nodeA;
+    private UserCache nodeB;
+    private final Map<Long, String> names = new HashMap<>();
+    private final AtomicInteger userLoads = new AtomicInteger();
+    private final AtomicInteger profileLoads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        // Two caches on one channel stand in for two nodes behind a broker-backed channel
+        channel = new LocalUserCacheInvalidationChannel();
+        nodeA = new UserCache(channel, new SimpleMeterRegistry(), 300, 100);
+        nodeB = new UserCache(channel, new SimpleMeterRegistry(), 300, 100);
+        names.put(USER_ID, "before");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void publishReachesEverySubscriber() {
+        final var received = new AtomicInteger();
+        channel.subscribe(id -> received.incrementAndGet());
+        channel.subscribe(id -> received.incrementAndGet());
+
+        channel.publish(USER_ID);
+
+        assertThat(received.get()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidateDropsBothViewsOnEveryNode() {
+        assertThat(displayName(nodeA)).isEqualTo("before");
+        assertThat(profileName(nodeB)).isEqualTo("before");
+
+        names.put(USER_ID, "after");
+        nodeA.invalidate(USER_ID);
+
+        assertThat(displayName(nodeB)).isEqualTo("after");
+        assertThat(profileName(nodeA)).isEqualTo("after");
+    }
+
+    @Test
+    void fullUserAnswersProfileLookupsAndProfileEntryIsUpgraded() {
+        displayName(nodeA);
+        profileName(nodeA);
+        assertThat(profileLoads.get()).isZero();
+
+        profileName(nodeB);
+        displayName(nodeB);
+        assertThat(profileLoads.get()).isEqualTo(1);
+        assertThat(userLoads.get()).isEqualTo(2);
+    }
+
+    @Test
+    void readRacingTheWriteIsEvictedAgainAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        names.put(USER_ID, "after");
+        nodeA.invalidate(USER_ID);
+        // Another request reads the committed (old) row before the write commits and re-caches it
+        names.put(USER_ID, "before");
+        assertThat(displayName(nodeB)).isEqualTo("before");
+
+        names.put(USER_ID, "after");
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(displayName(nodeB)).isEqualTo("after");
+    }
+
+    @Test
+    void loadOverlappingAnInvalidationIsNotCached() {
+        // The write and its invalidation land while the load is still reading the old row
+        final var stale = nodeA.get(USER_ID, id -> {
+            names.put(USER_ID, "after");
+            nodeB.invalidate(USER_ID);
+            return Optional.of(User.builder().id(id).displayName("before").build());
+        });
+        assertThat(stale.orElseThrow().getDisplayName()).isEqualTo("before");
+        assertThat(displayName(nodeA)).isEqualTo("after");
+
+        final var staleProfile = nodeA.getProfiles(List.of(2L), ids -> {
+            nodeB.invalidate(2L);
+            return Map.of(2L, UserDisplayProfile.builder().id(2L).displayName("before").build());
+        });
+        assertThat(staleProfile.get(2L).getDisplayName()).isEqualTo("before");
+        names.put(2L, "after");
+        assertThat(nodeA.getProfiles(List.of(2L), ids -> Map.of(2L,
+                UserDisplayProfile.builder().id(2L).displayName(names.get(2L)).build()))
+                .get(2L).getDisplayName()).isEqualTo("after");
+    }
+
+    private String displayName(UserCache cache) {
+        return cache.get(USER_ID, id -> {
+            userLoads.incrementAndGet();
+            return Optional.of(User.builder().id(id).displayName(names.get(id)).build());
+        }).orElseThrow().getDisplayName();
+    }
+
+    private String profileName(UserCache cache) {
+        return cache.getProfiles(List.of(USER_ID), ids -> {
+            profileLoads.incrementAndGet();
+            final var loaded = new HashMap<Long, UserDisplayProfile>();
+            for (final var id : Set.copyOf(ids)) {
+                loaded.put(id, UserDisplayProfile.builder().id(id).displayName(names.get(id)).build());
+            }
+            return loaded;
+        }).get(USER_ID).getDisplayName();
+    }
+}
@@ -0,0 +1,105 @@
+package com.knockbook.backend.component;
+
+import com.knockbook.backend.repository.OrderNumberBlockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderNumberAllocatorTest {
+
+    private static final int BLOCK_SIZE = 10;
+
+    private final InMemoryBlocks blocks = new InMemoryBlocks();
+    private volatile String day = "20261018";
+    private OrderNumberAllocator allocator;
+
+    @AfterEach
+    void tearDown() {
+        if (allocator != null) {
+            allocator.shutdown();
+        }
+    }
+
+    @Test
+    void concurrentCallersGetUniqueNumbersAndNeverClaimThemselves() throws Exception {
+        allocator = new OrderNumberAllocator(blocks, BLOCK_SIZE, () -> day);
+        final var pool = Executors.newFixedThreadPool(16);
+        final var start = new CountDownLatch(1);
+        final Set<String> numbers = ConcurrentHashMap.newKeySet();
+        try {
+            final var tasks = new ArrayList<Future<?>>();
+            for (int t = 0; t < 16; t++) {
+                tasks.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        assertThat(numbers.add(allocator.next())).isTrue();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (final var task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(numbers.size()).isEqualTo(16 * 500);
+        // Blocks are claimed by the allocator's own thread only, never by a caller holding a connection
+        assertThat(blocks.claimThreads).isEqualTo(Set.of("order-no-claim"));
+    }
+
+    @Test
+    void dayChangeStartsTheNewDaysSequence() {
+        allocator = new OrderNumberAllocator(blocks, BLOCK_SIZE, () -> day);
+        assertThat(allocator.next()).isEqualTo("O20261018000001");
+
+        day = "20261019";
+        assertThat(allocator.next()).isEqualTo("O20261019000001");
+    }
+
+    @Test
+    void failedClaimIsRetriedByTheNextCaller() {
+        allocator = new OrderNumberAllocator(blocks, BLOCK_SIZE, () -> day);
+        blocks.failNext = true;
+
+        try {
+            allocator.next();
+        } catch (IllegalStateException expected) {
+            // the caller gets the failure; the allocator is not stuck on it
+        }
+        assertThat(allocator.next()).isEqualTo("O20261018000001");
+    }
+
+    /**
+     * order_no_blocks stand-in: one counter per day, bumped atomically.
+     */
+    private static final class InMemoryBlocks implements OrderNumberBlockRepository {
+
+        private final Map<String, AtomicLong> days = new ConcurrentHashMap<>();
+        private final Set<String> claimThreads = ConcurrentHashMap.newKeySet();
+        private volatile boolean failNext;
+
+        @Override
+        public long claimBlock(String day, int blockSize) {
+            claimThreads.add(Thread.currentThread().getName());
+            if (failNext) {
+                failNext = false;
+                throw new RuntimeException("Connection is not available, request timed out");
+            }
+            return days.computeIfAbsent(day, d -> new AtomicLong()).incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.knockbook.backend.domain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPricingTest {
+
+    private static final int SHIPPING = 3_000;
+    private static final String[] TYPES = {"FREESHIP", "PERCENT", "AMOUNT"};
+    private static final String[] SCOPES = {null, "ALL", "CART", "BOOK_PURCHASE", "BOOK_RENTAL", "PRODUCT", "OTHER"};
+
+    @Test
+    void purchasesPaySalePriceAndRentalsPayRentalPriceWithoutDiscount() {
+        final var pricing = new OrderPricing(SHIPPING)
+                .addLine(OrderItem.RefType.BOOK_PURCHASE, 20_000, 18_000, 0, 2, 5)
+                .addLine(OrderItem.RefType.PRODUCT, 0, 7_000, 0, 1, 0)      // no list price: sale is the subtotal
+                .addLine(OrderItem.RefType.BOOK_RENTAL, 20_000, 18_000, 3_000, 1, 10);
+
+        assertThat(pricing.getItemCount()).isEqualTo(4);
+        assertThat(pricing.getSubtotalAmount()).isEqualTo(40_000 + 7_000 + 3_000);
+        assertThat(pricing.getDiscountAmount()).isEqualTo(4_000);
+        assertThat(pricing.getRentalAmount()).isEqualTo(3_000);
+        assertThat(pricing.getPointsEarned()).isEqualTo(1_800 + 300);
+        assertThat(pricing.getLineTotalAmount()).isEqualTo(3_000);
+        assertThat(pricing.getTotalAmount()).isEqualTo(50_000 - 4_000 + SHIPPING);
+    }
+
+    @Test
+    void couponScopesDiscountOnlyTheirLines() {
+        final var items = List.of(
+                line(OrderItem.RefType.BOOK_PURCHASE, 10_000, 10_000, 0, 1),
+                line(OrderItem.RefType.BOOK_RENTAL, 0, 0, 2_000, 2),
+                line(OrderItem.RefType.PRODUCT, 5_000, 4_000, 0, 1));
+
+        assertThat(OrderPricing.of(items, SHIPPING).eligibleAmount("BOOK_RENTAL")).isEqualTo(4_000);
+        assertThat(OrderPricing.of(items, SHIPPING).eligibleAmount("PRODUCT")).isEqualTo(4_000);
+        assertThat(OrderPricing.of(items, SHIPPING).eligibleAmount("CART")).isEqualTo(18_000);
+        assertThat(OrderPricing.of(items, SHIPPING).eligibleAmount("OTHER")).isZero();
+
+        // 50% of the rental lines, capped at 1,500
+        final var percent = OrderPricing.of(items, SHIPPING).coupon(coupon("PERCENT", "BOOK_RENTAL", 0, 5_000, 1_500));
+        assertThat(percent.getCouponDiscountAmount()).isEqualTo(1_500);
+        // An amount larger than its scope only takes the scope
+        final var amount = OrderPricing.of(items, SHIPPING).coupon(coupon("AMOUNT", "PRODUCT", 10_000, 0, null));
+        assertThat(amount.getCouponDiscountAmount()).isEqualTo(4_000);
+        final var freeShip = OrderPricing.of(items, SHIPPING).coupon(coupon("FREESHIP", "ALL", 0, 0, null));
+        assertThat(freeShip.getShippingAmount()).isZero();
+        assertThat(freeShip.getCouponDiscountAmount()).isZero();
+        assertThat(freeShip.getAppliedCouponIssuanceId()).isEqualTo(9L);
+    }
+
+    @Test
+    void pointsAreCappedAtWhatIsPayableAfterTheCoupon() {
+        final var items = List.of(line(OrderItem.RefType.BOOK_PURCHASE, 10_000, 9_000, 0, 1));
+
+        final var pricing = OrderPricing.of(items, SHIPPING)
+                .coupon(coupon("AMOUNT", "ALL", 2_000, 0, null))
+                .points(50_000);
+
+        assertThat(pricing.getPointsSpent()).isEqualTo(7_000);
+        assertThat(pricing.getTotalAmount()).isEqualTo(SHIPPING);
+        assertThat(OrderPricing.of(items, SHIPPING).points(-5).getPointsSpent()).isZero();
+    }
+
+    /**
+     * Every combination of line mix, coupon type, scope and points request prices exactly as the
+     * stream-based reprice that OrderPricing replaced.
+     */
+    @Test
+    void matchesTheRemovedRepriceOnRandomOrders() {
+        final var random = new Random(23);
+        for (int order = 0; order < 2_000; order++) {
+            final var items = new ArrayList<OrderItem>();
+            final var lines = 1 + random.nextInt(5);
+            for (int i = 0; i < lines; i++) {
+                final var type = OrderItem.RefType.values()[random.nextInt(3)];
+                final var list = random.nextInt(4) == 0 ? 0 : 1_000 + random.nextInt(30_000);
+                final var sale = random.nextInt(4) == 0 ? 0 : 1_000 + random.nextInt(30_000);
+                final var rental = 500 + random.nextInt(5_000);
+                items.add(line(type, list, sale, rental, 1 + random.nextInt(3)));
+            }
+            final var shipping = random.nextBoolean() ? SHIPPING : 0;
+            final var ci = random.nextInt(5) == 0 ? null : coupon(TYPES[random.nextInt(TYPES.length)],
+                    SCOPES[random.nextInt(SCOPES.length)], random.nextInt(20_000), random.nextInt(10_000),
+                    random.nextBoolean() ? null : random.nextInt(10_000));
+            final var points = random.nextInt(60_000) - 1_000;
+
+            final var pricing = OrderPricing.of(items, shipping).coupon(ci).points(points);
+            final var expected = legacyReprice(items, shipping, ci, points);
+
+            assertThat(new int[]{pricing.getSubtotalAmount(), pricing.getDiscountAmount(),
+                    pricing.getCouponDiscountAmount(), pricing.getShippingAmount(), pricing.getRentalAmount(),
+                    pricing.getTotalAmount(), pricing.getPointsSpent(), pricing.getPointsEarned()})
+                    .as("order " + order)
+                    .isEqualTo(expected);
+        }
+    }
+
+    /**
+     * The line pricing of the former draft builders, applied through addLine.
+     */
+    private static OrderItem line(OrderItem.RefType type, int list, int sale, int rental, int qty) {
+        final int subtotal, discount, total;
+        if (type == OrderItem.RefType.BOOK_RENTAL) {
+            subtotal = rental * qty;
+            total = subtotal;
+            discount = 0;
+        } else {
+            subtotal = (list > 0 ? list : sale) * qty;
+            total = (sale > 0 ? sale : list) * qty;
+            discount = Math.max(0, subtotal - total);
+        }
+        final var priced = new OrderPricing(0).addLine(type, list, sale, rental, qty, 5);
+        assertThat(new int[]{priced.getLineSubtotalAmount(), priced.getLineDiscountAmount(),
+                priced.getLineTotalAmount(), priced.getLinePointsEarned()})
+                .isEqualTo(new int[]{subtotal, discount, total, (total * 5) / 100});
+
+        return OrderItem.builder()
+                .refType(type)
+                .listPriceSnapshot(list)
+                .salePriceSnapshot(sale)
+                .rentalPriceSnapshot(rental)
+                .quantity(qty)
+                .pointsRate(5)
+                .pointsEarnedItem((total * 5) / 100)
+                .lineSubtotalAmount(subtotal)
+                .lineDiscountAmount(discount)
+                .lineTotalAmount(total)
+                .build();
+    }
+
+    private static CouponIssuance coupon(String type, String scope, int amount, int rateBp, Integer max) {
+        return CouponIssuance.builder()
+                .id(9L)
+                .type(type)
+                .scope(scope)
+                .discountAmount(amount)
+                .discountRateBp(rateBp)
+                .maxDiscountAmount(max)
+                .build();
+    }
+
+    /**
+     * OrderService.reprice before OrderPricing, with the draft's stored rental amount taken from its lines.
+     * Returns subtotal, discount, coupon discount, shipping, rental, total, points spent, points earned.
+     */
+    private static int[] legacyReprice(List<OrderItem> items, int shippingAmount, CouponIssuance ci, int points) {
+        final var subtotal = items.stream().mapToInt(OrderItem::getLineSubtotalAmount).sum();
+        final var lineDiscount = items.stream().mapToInt(OrderItem::getLineDiscountAmount).sum();
+        final var rental = items.stream().filter(i -> i.getRefType() == OrderItem.RefType.BOOK_RENTAL)
+                .mapToInt(OrderItem::getLineTotalAmount).sum();
+        var shipping = shippingAmount;
+        var couponDiscount = 0;
+        if (ci != null) {
+            if ("FREESHIP".equalsIgnoreCase(ci.getType())) {
+                shipping = 0;
+            } else {
+                final int eligible = legacyEligible(items, ci.getScope());
+                if ("PERCENT".equalsIgnoreCase(ci.getType())) {
+                    final int raw = (eligible * ci.getDiscountRateBp()) / 10_000;
+                    couponDiscount = ci.getMaxDiscountAmount() == null ? raw : Math.min(raw, ci.getMaxDiscountAmount());
+                } else {
+                    couponDiscount = Math.min(eligible, ci.getDiscountAmount());
+                }
+            }
+        }
+        final var payableBase = Math.max(0, subtotal - lineDiscount - couponDiscount);
+        final var pointsSpent = Math.min(Math.max(0, points), payableBase);
+        final var total = subtotal - lineDiscount - couponDiscount - pointsSpent + shipping;
+        final var earned = items.stream().mapToInt(OrderItem::getPointsEarnedItem).sum();
+        return new int[]{subtotal, lineDiscount, couponDiscount, shipping, rental, total, pointsSpent, earned};
+    }
+
+    private static int legacyEligible(List<OrderItem> items, String scope) {
+        if (scope == null || scope.equalsIgnoreCase("ALL") || scope.equalsIgnoreCase("CART")) {
+            return items.stream().mapToInt(OrderItem::getLineTotalAmount).sum();
+        }
+        final OrderItem.RefType type;
+        switch (scope) {
+            case "BOOK_PURCHASE" -> type = OrderItem.RefType.BOOK_PURCHASE;
+            case "BOOK_RENTAL" -> type = OrderItem.RefType.BOOK_RENTAL;
+            case "PRODUCT" -> type = OrderItem.RefType.PRODUCT;
+            default -> {
+                return 0;
+            }
+        }
+        return items.stream().filter(i -> i.getRefType() == type).mapToInt(OrderItem::getLineTotalAmount).sum();
+    }
+}
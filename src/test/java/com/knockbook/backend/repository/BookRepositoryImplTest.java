@@ -0,0 +1,29 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.exception.BookControllerExceptionHandler;
+import com.knockbook.backend.exception.InvalidSortException;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookRepositoryImplTest {
+
+    @Test
+    void cursorSortsMapToStoredValues() {
+        assertThat(BookRepositoryImpl.cursorSortField("price")).isEqualTo("discountedPurchaseAmount");
+        assertThat(BookRepositoryImpl.cursorSortField("published")).isEqualTo("publishedAt");
+    }
+
+    @Test
+    void relevanceAndUnknownCursorSortsAreBadRequests() {
+        for (final var sortBy : new String[]{"relevance", "title", "", null}) {
+            assertThatThrownBy(() -> BookRepositoryImpl.cursorSortField(sortBy))
+                    .isInstanceOf(InvalidSortException.class);
+        }
+
+        final var problem = new BookControllerExceptionHandler().invalidSort(new InvalidSortException("relevance"));
+        assertThat(problem.getStatus()).isEqualTo(400);
+        assertThat(problem.getProperties().get("code")).isEqualTo("INVALID_SORT");
+    }
+}
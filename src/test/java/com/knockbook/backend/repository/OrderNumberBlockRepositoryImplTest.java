@@ -0,0 +1,28 @@
+package com.knockbook.backend.repository;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderNumberBlockRepositoryImplTest {
+
+    private static final int BLOCK_SIZE = 100;
+
+    @Test
+    void firstBlockOfTheDayStartsAfterEveryIssuedNumber() {
+        for (final long issued : new long[]{0, 1, 99, 100, 101, 150, 199, 200, 250}) {
+            // The seeded row is bumped once, and OrderNumberAllocator starts block hi at (hi-1)*blockSize+1
+            final var hi = OrderNumberBlockRepositoryImpl.seedFor(issued, BLOCK_SIZE) + 1;
+            final var first = (hi - 1) * BLOCK_SIZE + 1;
+
+            assertThat(first).as("issued=" + issued).isGreaterThan(issued);
+            assertThat(first).as("issued=" + issued).isLessThanOrEqualTo(issued + BLOCK_SIZE);
+        }
+    }
+
+    @Test
+    void nonMultipleIssuedRoundsUp() {
+        // 101..150 were issued under the old scheme: the first block must not hand them out again
+        assertThat(OrderNumberBlockRepositoryImpl.seedFor(150, BLOCK_SIZE)).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,159 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.CartItem;
+import com.knockbook.backend.domain.OrderPricing;
+import com.knockbook.backend.entity.OrderItemEntity;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderRepositoryImplTest {
+
+    private static final Long ORDER_ID = 42L;
+    private static final int LINES = 50;
+    private static final int BENCH_ORDERS = 20;
+    // A same-zone MySQL round trip; every statement or batch sent pays it once
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    private final OrderItemsTable jdbc = new OrderItemsTable();
+
+    @Test
+    void draftLinesAreWrittenPricedInOneBatch() {
+        final var pricing = new OrderPricing(0);
+        final var rows = OrderRepositoryImpl.cartRows(cart(3), pricing);
+
+        OrderRepositoryImpl.insertItems(jdbc, ORDER_ID, rows);
+
+        assertThat(jdbc.roundTrips).isEqualTo(1);
+        assertThat(jdbc.rows).hasSize(3);
+        final var rental = jdbc.rows.get(1);
+        assertThat(rental[0]).isEqualTo(ORDER_ID);
+        assertThat(rental[1]).isEqualTo("BOOK_RENTAL");
+        assertThat(rental[8]).isEqualTo(14);               // rental days
+        assertThat(rental[14]).isEqualTo(3_000);           // line total: rental price, no discount
+        assertThat(jdbc.rows.get(0)[13]).isEqualTo(2_000); // line discount: list 20,000 - sale 18,000
+        assertThat(pricing.getItemCount()).isEqualTo(3);
+    }
+
+    /**
+     * Round trips and wall time to write a 50-line draft, against one INSERT per line as the
+     * IDENTITY-keyed persist loop sent them.
+     */
+    @Test
+    void fiftyLineDraftIsOneRoundTrip() {
+        final var rows = OrderRepositoryImpl.cartRows(cart(LINES), new OrderPricing(0));
+
+        final var batched = new long[BENCH_ORDERS];
+        final var perRow = new long[BENCH_ORDERS];
+        int batchedTrips = 0;
+        int perRowTrips = 0;
+        for (int i = 0; i < BENCH_ORDERS; i++) {
+            var before = jdbc.roundTrips;
+            var start = System.nanoTime();
+            OrderRepositoryImpl.insertItems(jdbc, ORDER_ID, rows);
+            batched[i] = System.nanoTime() - start;
+            batchedTrips = jdbc.roundTrips - before;
+
+            before = jdbc.roundTrips;
+            start = System.nanoTime();
+            for (final var row : rows) {
+                jdbc.update("INSERT INTO order_items (...) VALUES (...)", ORDER_ID, row.getRefType().name(),
+                        row.getRefId(), row.getTitleSnapshot(), row.getLineTotalAmount());
+            }
+            perRow[i] = System.nanoTime() - start;
+            perRowTrips = jdbc.roundTrips - before;
+        }
+
+        Arrays.sort(batched);
+        Arrays.sort(perRow);
+        System.out.printf("%d-line draft: batched %d round trip p50 %.2f ms, per-row %d round trips p50 %.2f ms%n",
+                LINES, batchedTrips, batched[BENCH_ORDERS / 2] / 1_000_000.0,
+                perRowTrips, perRow[BENCH_ORDERS / 2] / 1_000_000.0);
+        assertThat(batchedTrips).isEqualTo(1);
+        assertThat(perRowTrips).isEqualTo(LINES);
+        assertThat(batched[BENCH_ORDERS / 2] * 10).isLessThan(perRow[BENCH_ORDERS / 2]);
+    }
+
+    // A purchase, a rental and a product line, repeated
+    private static List<CartItem> cart(final int lines) {
+        final var items = new ArrayList<CartItem>(lines);
+        for (int i = 0; i < lines; i++) {
+            final var type = CartItem.RefType.values()[i % 3];
+            items.add(CartItem.builder()
+                    .refType(type)
+                    .refId(100L + i)
+                    .titleSnapshot("line-" + i)
+                    .listPriceSnapshot(20_000)
+                    .salePriceSnapshot(18_000)
+                    .rentalDays(type == CartItem.RefType.BOOK_RENTAL ? 14 : 0)
+                    .rentalPriceSnapshot(3_000)
+                    .quantity(1)
+                    .pointsRate(5)
+                    .build());
+        }
+        return items;
+    }
+
+    /**
+     * Records the parameters bound for each inserted row and charges one round trip per statement or
+     * batch, as Connector/J does with rewriteBatchedStatements.
+     */
+    private static final class OrderItemsTable extends JdbcTemplate {
+
+        private final List<Object[]> rows = new ArrayList<>();
+        private int roundTrips;
+
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            for (final var arg : batchArgs) {
+                final var row = new Object[15];
+                try {
+                    pss.setValues(recording(row), arg);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+                rows.add(row);
+            }
+            roundTrip();
+            final var counts = new int[batchArgs.size()];
+            Arrays.fill(counts, 1);
+            return new int[][]{counts};
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            rows.add(args);
+            roundTrip();
+            return 1;
+        }
+
+        private void roundTrip() {
+            roundTrips++;
+            LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        }
+
+        // A statement whose setXxx(index, value) calls land in row[index - 1]
+        private static PreparedStatement recording(final Object[] row) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length == 2) {
+                            row[(Integer) args[0] - 1] = args[1];
+                            return null;
+                        }
+                        throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+}
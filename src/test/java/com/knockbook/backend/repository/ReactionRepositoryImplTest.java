@@ -0,0 +1,117 @@
+package com.knockbook.backend.repository;
+
+import com.knockbook.backend.domain.ReactionTarget;
+import com.knockbook.backend.exception.ReactionTargetNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactionRepositoryImplTest {
+
+    private static final Long REVIEW_ID = 7L;
+
+    private final LikeTable jdbc = new LikeTable();
+    private final ReactionRepositoryImpl repository = new ReactionRepositoryImpl(jdbc);
+
+    @Test
+    void repeatedLikeHitsTheUniqueKeyAndReportsNoChange() {
+        jdbc.targets.add(REVIEW_ID);
+
+        assertThat(repository.setReaction(ReactionTarget.FEED_POST, REVIEW_ID, 1L, true)).isTrue();
+        assertThat(repository.setReaction(ReactionTarget.FEED_POST, REVIEW_ID, 1L, true)).isFalse();
+        assertThat(repository.setReaction(ReactionTarget.FEED_POST, REVIEW_ID, 2L, true)).isTrue();
+
+        assertThat(repository.countReactions(ReactionTarget.FEED_POST, REVIEW_ID)).isEqualTo(2);
+    }
+
+    @Test
+    void clearedFlagIsRestoredOnlyOnce() {
+        jdbc.targets.add(REVIEW_ID);
+
+        assertThat(repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, true)).isTrue();
+        assertThat(repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, false)).isTrue();
+        assertThat(repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, false)).isFalse();
+        assertThat(repository.countReactions(ReactionTarget.BOOK_REVIEW, REVIEW_ID)).isZero();
+
+        assertThat(repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, true)).isTrue();
+        assertThat(repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, true)).isFalse();
+        assertThat(repository.countReactions(ReactionTarget.BOOK_REVIEW, REVIEW_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void likeOnMissingTargetIsNotFound() {
+        assertThatThrownBy(() -> repository.setReaction(ReactionTarget.BOOK_REVIEW, REVIEW_ID, 1L, true))
+                .isInstanceOf(ReactionTargetNotFoundException.class)
+                .hasMessageContaining("BOOK_REVIEW");
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsMissingTargets() {
+        jdbc.targets.add(REVIEW_ID);
+        jdbc.missingUsers.add(9L);
+
+        assertThatThrownBy(() -> repository.setReaction(ReactionTarget.FEED_POST, REVIEW_ID, 9L, true))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    /**
+     * One like table and its target table, with the unique (target, user) key and the foreign keys
+     * MySQL enforces on them.
+     */
+    private static final class LikeTable extends JdbcTemplate {
+
+        private final Set<Long> targets = new HashSet<>();
+        private final Set<Long> missingUsers = new HashSet<>();
+        private final Map<String, Boolean> rows = new HashMap<>(); // "targetId:userId" -> is_liked
+
+        @Override
+        public int update(String sql, Object... args) {
+            final var key = args[0] + ":" + args[1];
+            if (sql.startsWith("INSERT INTO")) {
+                if (rows.containsKey(key)) {
+                    throw new DuplicateKeyException("Duplicate entry '" + key + "'");
+                }
+                if (!targets.contains((Long) args[0]) || missingUsers.contains((Long) args[1])) {
+                    throw new DataIntegrityViolationException("a foreign key constraint fails");
+                }
+                rows.put(key, true);
+                return 1;
+            }
+            if (sql.startsWith("DELETE")) {
+                return rows.remove(key) != null ? 1 : 0;
+            }
+            if (sql.contains("SET is_liked = 1")) {
+                return rows.replace(key, false, true) ? 1 : 0;
+            }
+            if (sql.contains("SET is_liked = 0")) {
+                return rows.replace(key, true, false) ? 1 : 0;
+            }
+            throw new UnsupportedOperationException(sql);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            if (!sql.startsWith("SELECT COUNT(*)")) {
+                throw new UnsupportedOperationException(sql);
+            }
+            if (!sql.contains("_likes ")) {
+                return requiredType.cast(targets.contains((Long) args[0]) ? 1 : 0);
+            }
+            final var flagged = sql.contains("is_liked = 1");
+            final var count = rows.entrySet().stream()
+                    .filter(e -> e.getKey().startsWith(args[0] + ":"))
+                    .filter(e -> !flagged || e.getValue())
+                    .count();
+            return requiredType.cast((int) count);
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package com.knockbook.backend.service;
+
+import com.knockbook.backend.component.BookCategoryDictionary;
+import com.knockbook.backend.domain.*;
+import com.knockbook.backend.repository.BookCategoryRepository;
+import com.knockbook.backend.repository.BookPurchaseHistoryRepository;
+import com.knockbook.backend.repository.BookRentalHistoryRepository;
+import com.knockbook.backend.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HistoryServiceTest {
+
+    private static final Long USER_ID = 1L;
+    private static final int PURCHASES = 1_500;
+    private static final int RENTALS = 500;   // 2,000 history rows over 1,500 distinct books
+    private static final int CATEGORIES = BookCategory.Category.values().length;
+    // A same-zone MySQL round trip; every repository call pays it once
+    private static final long ROUND_TRIP_NANOS = 200_000;
+
+    private final Map<Long, Book> books = new HashMap<>();
+    private final Map<Long, BookCategory> categories = new HashMap<>();
+    private final List<BookPurchaseHistory> purchases = new ArrayList<>();
+    private final List<BookRentalHistory> rentals = new ArrayList<>();
+    private int roundTrips;
+
+    private HistoryService service;
+
+    @BeforeEach
+    void setUp() {
+        for (long id = 1; id <= CATEGORIES; id++) {
+            final var code = BookCategory.Category.values()[(int) id - 1];
+            categories.put(id, BookCategory.builder().id(id).codeName(code).displayName("name-" + code).build());
+        }
+        final var now = Instant.parse("2025-01-01T00:00:00Z");
+        for (long bookId = 1; bookId <= PURCHASES; bookId++) {
+            books.put(bookId, Book.builder()
+                    .id(bookId)
+                    .title("title-" + bookId)
+                    .author("author-" + bookId)
+                    .coverImageUrl("cover-" + bookId)
+                    .categoryId(1 + bookId % CATEGORIES)
+                    .build());
+            purchases.add(BookPurchaseHistory.builder()
+                    .id(bookId).userId(USER_ID).bookId(bookId).purchaseCount(1)
+                    .lastPurchasedAt(now.minusSeconds(bookId))
+                    .build());
+        }
+        for (long bookId = PURCHASES - RENTALS + 1; bookId <= PURCHASES; bookId++) {
+            rentals.add(BookRentalHistory.builder()
+                    .id(bookId).userId(USER_ID).bookId(bookId).rentalCount(1)
+                    .lastRentalStartAt(now.minusSeconds(bookId * 7 % 1_000))
+                    .build());
+        }
+
+        final var dictionary = new BookCategoryDictionary(new Categories());
+        dictionary.load();
+        service = new HistoryService(new Purchases(), new Rentals(), new Books(), dictionary);
+    }
+
+    @Test
+    void historyPagesMatchThePerRowLookups() {
+        final var purchasePage = service.listPurchasesByUser(USER_ID);
+        final var rentalPage = service.listRentalsByUser(USER_ID);
+
+        assertThat(describe(purchasePage.stream().map(d -> d.getHistory().getBookId()).toList(),
+                purchasePage.stream().map(BookPurchaseHistoryDetails::getBookTitle).toList()))
+                .isEqualTo(describe(legacyPurchaseBookIds(), legacyTitles(legacyPurchaseBookIds())));
+        assertThat(describe(rentalPage.stream().map(d -> d.getHistory().getBookId()).toList(),
+                rentalPage.stream().map(BookRentalHistoryDetails::getBookTitle).toList()))
+                .isEqualTo(describe(legacyRentalBookIds(), legacyTitles(legacyRentalBookIds())));
+        assertThat(service.getMyCategoryPreferenceAll(USER_ID).getBookCategoryDisplayNameAndReadRatePair())
+                .isEqualTo(legacyCategoryPreference());
+    }
+
+    /**
+     * Queries and wall time for a reader with 2,000 history rows, against the findById-per-row
+     * lookups this service used to make. Each repository call pays one simulated round trip.
+     */
+    @Test
+    void twoThousandHistoryRowsTakeOneQueryPerCall() {
+        legacyPurchaseDetails(); // warm up both paths
+        service.listPurchasesByUser(USER_ID);
+
+        final var setBasedPage = measure(() -> service.listPurchasesByUser(USER_ID));
+        final var perRowPage = measure(this::legacyPurchaseDetails);
+        final var setBasedPreference = measure(() -> service.getMyCategoryPreferenceAll(USER_ID));
+        final var perRowPreference = measure(this::legacyCategoryPreference);
+
+        System.out.printf("%d history rows: purchase page %d queries %.1f ms (per-row %d queries %.1f ms), "
+                        + "category preference %d queries %.1f ms (per-row %d queries %.1f ms)%n",
+                PURCHASES + RENTALS,
+                setBasedPage[0], setBasedPage[1] / 1_000_000.0, perRowPage[0], perRowPage[1] / 1_000_000.0,
+                setBasedPreference[0], setBasedPreference[1] / 1_000_000.0,
+                perRowPreference[0], perRowPreference[1] / 1_000_000.0);
+        assertThat(setBasedPage[0]).isEqualTo(1L);
+        assertThat(setBasedPreference[0]).isEqualTo(1L);
+        assertThat(perRowPage[0]).isEqualTo(1L + PURCHASES);
+        assertThat(setBasedPage[1] * 10).isLessThan(perRowPage[1]);
+        assertThat(setBasedPreference[1] * 10).isLessThan(perRowPreference[1]);
+    }
+
+    // Returns {queries, nanos}
+    private long[] measure(final Supplier<?> call) {
+        final var before = roundTrips;
+        final var start = System.nanoTime();
+        call.get();
+        return new long[]{roundTrips - before, System.nanoTime() - start};
+    }
+
+    private static List<String> describe(final List<Long> bookIds, final List<String> titles) {
+        final var rows = new ArrayList<String>();
+        for (int i = 0; i < bookIds.size(); i++) {
+            rows.add(bookIds.get(i) + ":" + titles.get(i));
+        }
+        return rows;
+    }
+
+    // The former listPurchasesByUser: the histories, then one findById per row
+    private List<String> legacyPurchaseDetails() {
+        final var rows = new Purchases().findAllByUserId(USER_ID);
+        final var bookRepository = new Books();
+        return rows.stream().map(h -> bookRepository.findById(h.getBookId()).orElseThrow().getTitle()).toList();
+    }
+
+    private List<Long> legacyPurchaseBookIds() {
+        return new Purchases().findAllByUserId(USER_ID).stream().map(BookPurchaseHistory::getBookId).toList();
+    }
+
+    private List<Long> legacyRentalBookIds() {
+        return new Rentals().findAllByUserId(USER_ID).stream().map(BookRentalHistory::getBookId).toList();
+    }
+
+    private List<String> legacyTitles(final List<Long> bookIds) {
+        final var bookRepository = new Books();
+        return bookIds.stream().map(id -> bookRepository.findById(id).orElseThrow().getTitle()).toList();
+    }
+
+    // The former getMyCategoryPreferenceAll: every history, one findById per distinct book, one findBy per category
+    private Map<String, Double> legacyCategoryPreference() {
+        final var uniqueBookIds = new HashSet<Long>();
+        new Purchases().findAllByUserId(USER_ID).forEach(h -> uniqueBookIds.add(h.getBookId()));
+        new Rentals().findAllByUserId(USER_ID).forEach(h -> uniqueBookIds.add(h.getBookId()));
+
+        final var bookRepository = new Books();
+        final var categoryRepository = new Categories();
+        final var names = new HashMap<Long, String>();
+        final var counts = new HashMap<String, Integer>();
+        for (final var bookId : uniqueBookIds) {
+            final var categoryId = bookRepository.findById(bookId).orElseThrow().getCategoryId();
+            final var name = names.computeIfAbsent(categoryId,
+                    id -> categoryRepository.findBy(id).orElseThrow().getDisplayName());
+            counts.merge(name, 1, Integer::sum);
+        }
+        final var result = new LinkedHashMap<String, Double>();
+        counts.forEach((name, count) -> result.put(name, (count * 100.0) / uniqueBookIds.size()));
+        return result;
+    }
+
+    private void roundTrip() {
+        roundTrips++;
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+    }
+
+    private final class Purchases implements BookPurchaseHistoryRepository {
+
+        @Override
+        public void upsertPurchases(Long userId, Long orderId, Collection<Long> bookIds, Instant purchasedAt) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BookPurchaseHistory> findAllByUserId(Long userId) {
+            roundTrip();
+            return purchases.stream()
+                    .sorted(Comparator.comparing(BookPurchaseHistory::getLastPurchasedAt).reversed())
+                    .toList();
+        }
+
+        @Override
+        public List<BookPurchaseHistoryDetails> findAllDetailsByUserId(Long userId) {
+            roundTrip();
+            return purchases.stream()
+                    .sorted(Comparator.comparing(BookPurchaseHistory::getLastPurchasedAt).reversed())
+                    .map(h -> BookPurchaseHistoryDetails.builder()
+                            .history(h)
+                            .bookTitle(books.get(h.getBookId()).getTitle())
+                            .bookAuthor(books.get(h.getBookId()).getAuthor())
+                            .bookImageUrl(books.get(h.getBookId()).getCoverImageUrl())
+                            .build())
+                    .toList();
+        }
+
+        @Override
+        public List<UserBookOrderCount> aggregateCountsByUserBetween(Instant fromInclusive, Instant toExclusive) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class Rentals implements BookRentalHistoryRepository {
+
+        @Override
+        public void upsertRentals(Long userId, Long orderId, Map<Long, Integer> rentalDaysByBookId,
+                                  Instant rentalStart) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BookRentalHistory> findAllByUserId(Long userId) {
+            roundTrip();
+            return rentals.stream()
+                    .sorted(Comparator.comparing(BookRentalHistory::getLastRentalStartAt).reversed())
+                    .toList();
+        }
+
+        @Override
+        public List<BookRentalHistoryDetails> findAllDetailsByUserId(Long userId) {
+            roundTrip();
+            return rentals.stream()
+                    .sorted(Comparator.comparing(BookRentalHistory::getLastRentalStartAt).reversed())
+                    .map(h -> BookRentalHistoryDetails.builder()
+                            .history(h)
+                            .bookTitle(books.get(h.getBookId()).getTitle())
+                            .bookAuthor(books.get(h.getBookId()).getAuthor())
+                            .bookImageUrl(books.get(h.getBookId()).getCoverImageUrl())
+                            .build())
+                    .toList();
+        }
+
+        @Override
+        public List<UserBookOrderCount> aggregateCountsByUserBetween(Instant fromInclusive, Instant toExclusive) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class Books implements BookRepository {
+
+        @Override
+        public Optional<Book> findById(Long id) {
+            roundTrip();
+            return Optional.ofNullable(books.get(id));
+        }
+
+        @Override
+        public Map<Long, Long> countReadBooksByCategory(Long userId) {
+            roundTrip();
+            final var bookIds = new HashSet<Long>();
+            purchases.forEach(h -> bookIds.add(h.getBookId()));
+            rentals.forEach(h -> bookIds.add(h.getBookId()));
+            final var counts = new HashMap<Long, Long>();
+            bookIds.forEach(id -> counts.merge(books.get(id).getCategoryId(), 1L, Long::sum));
+            return counts;
+        }
+
+        @Override
+        public Book save(Book book) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Page<Book> findAllPaged(Pageable pageable) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Map<Long, Book> findByIdsAsMap(List<Long> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Page<BookSummary> findBooksByCondition(String categoryCodeName, String subcategoryCodeName,
+                                                      Pageable pageable, String searchBy, String searchKeyword,
+                                                      Integer maxPrice, Integer minPrice) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public BookSummariesResult findBooksByCursor(String categoryCodeName, String subcategoryCodeName,
+                                                     String sortBy, boolean ascending, String cursor, int size,
+                                                     String searchBy, String searchKeyword,
+                                                     Integer minPrice, Integer maxPrice) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<Book> findSearchableAfter(Long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int applyCounterDeltas(List<BookCounterDelta> deltas) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean activateBookWishlist(Long userId, Long bookId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean deactivateBookWishlist(Long userId, Long bookId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean existsBookWishlist(Long userId, Long bookId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<BookSummary> findAllWishlistedBookIdsByUserId(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class Categories implements BookCategoryRepository {
+
+        @Override
+        public Optional<BookCategory> findBy(Long id) {
+            roundTrip();
+            return Optional.ofNullable(categories.get(id));
+        }
+
+        @Override
+        public List<BookCategory> findAllCategories() {
+            roundTrip();
+            return List.copyOf(categories.values());
+        }
+
+        @Override
+        public List<BookSubcategory> findSubcategoriesByCategoryCodeName(String categoryCodeName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean existsByCategoryCodeName(String categoryCodeName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package com.knockbook.backend.service;
+
+import com.knockbook.backend.component.KakaoPayClient;
+import com.knockbook.backend.component.KakaoPayProps;
+import com.knockbook.backend.component.PaymentApprovalCoalescer;
+import com.knockbook.backend.domain.*;
+import com.knockbook.backend.repository.OrderPaymentQueryRepository;
+import com.knockbook.backend.repository.OrderPaymentRepository;
+import com.knockbook.backend.repository.OrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KakaoPayServiceTest {
+
+    private static final Long ORDER_ID = 10L;
+    private static final Long OWNER_ID = 7L;
+    private static final Long PAYMENT_ID = 100L;
+    private static final String PG_TOKEN = "pg-token-from-kakao";
+
+    private KakaoPayProps props;
+    private StubKakao kakao;
+    private InMemoryPayments payments;
+    private StubLocalApproval localApproval;
+    private KakaoPayService service;
+
+    @BeforeEach
+    void setUp() {
+        props = new KakaoPayProps();
+        props.setCid("TC0ONETIME");
+        kakao = new StubKakao();
+        payments = new InMemoryPayments();
+        localApproval = new StubLocalApproval();
+        service = newNode();
+    }
+
+    @Test
+    void concurrentDuplicateCallbacksApproveOnce() throws Exception {
+        final var pool = Executors.newFixedThreadPool(8);
+        final var start = new CountDownLatch(1);
+        try {
+            final var results = new ArrayList<Future<PaymentApprovalResult>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return service.approve(ORDER_ID, PG_TOKEN);
+                }));
+            }
+            start.countDown();
+            for (final var result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS).getUserId()).isEqualTo(OWNER_ID);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(kakao.approvals.get()).isEqualTo(1);
+        assertThat(localApproval.approvals.get()).isEqualTo(1);
+    }
+
+    @Test
+    void forgedTokenAgainstAnApprovedOrderIsRejected() {
+        service.approve(ORDER_ID, PG_TOKEN);
+
+        assertThatThrownBy(() -> service.approve(ORDER_ID, "forged"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("PG_TOKEN_MISMATCH");
+
+        // A node without the cached result checks the stored token hash instead
+        final var otherNode = newNode();
+        assertThatThrownBy(() -> otherNode.approve(ORDER_ID, "forged"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("PG_TOKEN_MISMATCH");
+        assertThat(otherNode.approve(ORDER_ID, PG_TOKEN).getUserId()).isEqualTo(OWNER_ID);
+
+        assertThat(kakao.approvals.get()).isEqualTo(1);
+    }
+
+    @Test
+    void forgedTokenAgainstAReadyOrderReleasesTheClaim() {
+        assertThatThrownBy(() -> service.approve(ORDER_ID, "forged"))
+                .isInstanceOf(RuntimeException.class);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.READY);
+
+        assertThat(service.approve(ORDER_ID, PG_TOKEN).getUserId()).isEqualTo(OWNER_ID);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVED);
+    }
+
+    @Test
+    void timeoutAfterCaptureFinishesTheApprovalInsteadOfReleasingIt() {
+        kakao.timeoutAfterCapture = true;
+
+        assertThat(service.approve(ORDER_ID, PG_TOKEN).getUserId()).isEqualTo(OWNER_ID);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVED);
+        assertThat(kakao.cancels.get()).isEqualTo(0);
+    }
+
+    @Test
+    void localFailureAfterCaptureCancelsTheKakaoPayment() {
+        localApproval.failure = new IllegalStateException("PAYMENT_AMOUNT_MISMATCH");
+
+        assertThatThrownBy(() -> service.approve(ORDER_ID, PG_TOKEN))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(kakao.cancels.get()).isEqualTo(1);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.CANCELLED);
+    }
+
+    @Test
+    void localFailureAgainstAConcurrentApprovalOfTheSameTidKeepsThePayment() {
+        // A reconcile took over the claim and approved the order while this request's Kakao call was slow
+        localApproval.approvedElsewhere = true;
+
+        final var result = service.approve(ORDER_ID, PG_TOKEN);
+
+        assertThat(result.getUserId()).isEqualTo(OWNER_ID);
+        assertThat(result.getPayment().getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVED);
+        assertThat(kakao.cancels.get()).isEqualTo(0);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVED);
+    }
+
+    @Test
+    void staleClaimsAreSettledThroughTheOrderInquiry() {
+        // A node crashed after Kakao captured: the claim is approved locally
+        payments.row = InMemoryPayments.with(OrderPayment.TxStatus.APPROVING, "hash", Instant.now().minus(Duration.ofMinutes(10)));
+        kakao.captured = true;
+        service.reconcileStaleApprovals();
+        assertThat(localApproval.approvals.get()).isEqualTo(1);
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVED);
+
+        // A node crashed before calling Kakao: the claim is released for the retried callback
+        payments.row = InMemoryPayments.with(OrderPayment.TxStatus.APPROVING, "hash", Instant.now().minus(Duration.ofMinutes(10)));
+        kakao.captured = false;
+        service.reconcileStaleApprovals();
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.READY);
+
+        // A fresh claim is left to the request holding it
+        payments.row = InMemoryPayments.with(OrderPayment.TxStatus.APPROVING, "hash", Instant.now());
+        service.reconcileStaleApprovals();
+        assertThat(payments.row.getStatus()).isEqualTo(OrderPayment.TxStatus.APPROVING);
+    }
+
+    private KakaoPayService newNode() {
+        return new KakaoPayService(props, kakao, new SingleOrderRepository(), payments, payments,
+                localApproval, new PaymentApprovalCoalescer());
+    }
+
+    /**
+     * Kakao stand-in: accepts only {@link #PG_TOKEN}, remembers whether it captured, and can fail
+     * the approve call after capturing (a read timeout).
+     */
+    private static final class StubKakao extends KakaoPayClient {
+
+        private final AtomicInteger approvals = new AtomicInteger();
+        private final AtomicInteger cancels = new AtomicInteger();
+        private volatile boolean captured;
+        private volatile boolean cancelled;
+        private volatile boolean timeoutAfterCapture;
+
+        StubKakao() {
+            super(null, null);
+        }
+
+        @Override
+        public Map<String, Object> approve(Map<String, Object> body) {
+            approvals.incrementAndGet();
+            if (!PG_TOKEN.equals(body.get("pg_token"))) {
+                throw new RuntimeException("400 Bad Request: invalid pg_token");
+            }
+            captured = true;
+            if (timeoutAfterCapture) {
+                throw new RuntimeException("I/O error on POST request: Read timed out");
+            }
+            return Map.of("tid", body.get("tid"));
+        }
+
+        @Override
+        public Map<String, Object> order(Map<String, Object> body) {
+            return Map.of("status", cancelled ? "CANCEL_PAYMENT" : captured ? "SUCCESS_PAYMENT" : "READY");
+        }
+
+        @Override
+        public Map<String, Object> cancel(Map<String, Object> body) {
+            cancels.incrementAndGet();
+            cancelled = true;
+            return Map.of("status", "CANCEL_PAYMENT");
+        }
+    }
+
+    /**
+     * The order's single payment row, with the claim and transition semantics of the conditional UPDATEs.
+     */
+    private static final class InMemoryPayments implements OrderPaymentRepository, OrderPaymentQueryRepository {
+
+        private volatile OrderPayment row = with(OrderPayment.TxStatus.READY, null, null);
+
+        static OrderPayment with(OrderPayment.TxStatus status, String pgTokenHash, Instant claimedAt) {
+            return OrderPayment.builder()
+                    .id(PAYMENT_ID)
+                    .orderId(ORDER_ID)
+                    .method(OrderPayment.Method.KAKAOPAY)
+                    .provider("kakao")
+                    .txId("T1234")
+                    .amount(15_000)
+                    .status(status)
+                    .pgTokenHash(pgTokenHash)
+                    .claimedAt(claimedAt)
+                    .build();
+        }
+
+        @Override
+        public synchronized boolean claim(Long paymentId, String pgTokenHash) {
+            if (row.getStatus() != OrderPayment.TxStatus.READY) {
+                return false;
+            }
+            row = with(OrderPayment.TxStatus.APPROVING, pgTokenHash, Instant.now());
+            return true;
+        }
+
+        @Override
+        public synchronized boolean reclaim(Long paymentId, Instant claimedAt) {
+            if (row.getStatus() != OrderPayment.TxStatus.APPROVING || !row.getClaimedAt().equals(claimedAt)) {
+                return false;
+            }
+            row = with(OrderPayment.TxStatus.APPROVING, row.getPgTokenHash(), Instant.now());
+            return true;
+        }
+
+        @Override
+        public synchronized boolean transition(Long paymentId, OrderPayment.TxStatus from, OrderPayment.TxStatus to) {
+            if (row.getStatus() != from) {
+                return false;
+            }
+            row = with(to, row.getPgTokenHash(), row.getClaimedAt());
+            return true;
+        }
+
+        @Override
+        public synchronized OrderPayment save(OrderPayment record) {
+            row = with(record.getStatus(), row.getPgTokenHash(), row.getClaimedAt());
+            return row;
+        }
+
+        @Override
+        public Optional<OrderPayment> findLatestByOrderId(Long orderId) {
+            return Optional.of(row);
+        }
+
+        @Override
+        public List<OrderPayment> findApprovingClaimedBefore(Instant cutoff, int limit) {
+            final var current = row;
+            return current.getStatus() == OrderPayment.TxStatus.APPROVING && current.getClaimedAt().isBefore(cutoff)
+                    ? List.of(current) : List.of();
+        }
+
+        @Override
+        public Optional<OrderPayment> findReadyByOrderId(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderPayment> findByTxId(String txId) {
+            return Optional.of(row).filter(p -> p.getTxId().equals(txId));
+        }
+    }
+
+    /**
+     * OrderPaymentService stand-in: marks the payment APPROVED the way its step 4 does, or fails.
+     * With {@code approvedElsewhere} it fails the way it does when another approval of the tid committed first.
+     */
+    private final class StubLocalApproval extends OrderPaymentService {
+
+        private final AtomicInteger approvals = new AtomicInteger();
+        private volatile RuntimeException failure;
+        private volatile boolean approvedElsewhere;
+
+        StubLocalApproval() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public PaymentApprovalResult approve(Long userId, Long orderId, OrderPayment.Method method, String provider,
+                                             String txId, Integer amount, Long paymentId) {
+            if (failure != null) {
+                throw failure;
+            }
+            if (approvedElsewhere) {
+                payments.save(OrderPayment.builder().status(OrderPayment.TxStatus.APPROVED).build());
+                throw new IllegalStateException("ORDER_NOT_READY_FOR_PAYMENT");
+            }
+            approvals.incrementAndGet();
+            final var payment = payments.save(OrderPayment.builder().status(OrderPayment.TxStatus.APPROVED).build());
+            return PaymentApprovalResult.builder()
+                    .userId(userId)
+                    .orderId(orderId)
+                    .payment(payment)
+                    .build();
+        }
+    }
+
+    /**
+     * The order, PAID once its payment row is APPROVED (both are written in one transaction).
+     */
+    private final class SingleOrderRepository implements OrderRepository {
+
+        @Override
+        public Optional<OrderAggregate> findById(Long orderId) {
+            final var paymentStatus = payments.row.getStatus() == OrderPayment.TxStatus.APPROVED
+                    ? OrderAggregate.PaymentStatus.PAID : OrderAggregate.PaymentStatus.READY;
+            return Optional.of(OrderAggregate.builder().id(ORDER_ID).userId(OWNER_ID).paymentStatus(paymentStatus).build())
+                    .filter(o -> o.getId().equals(orderId));
+        }
+
+        @Override
+        public OrderAggregate saveDraftFromCart(OrderAggregate aggregate, List<CartItem> items) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate saveDraftWithItems(OrderAggregate aggregate, List<OrderItem> items) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate replaceDraftWithItems(OrderAggregate existing, List<OrderItem> items, boolean resetDiscounts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate saveAggregate(OrderAggregate aggregate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate saveHeader(OrderAggregate aggregate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findDraftById(Long userId, Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findPendingDraftByUser(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findOrdersByUser(Long userId, OrderAggregate.PaymentStatus status) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findByIdAndUserIdForUpdate(Long userId, Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findAllOrders(OrderAggregate.PaymentStatus status) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findOrdersPage(Long userId, OrderAggregate.PaymentStatus status, Long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findByIdForUpdate(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate replaceDraftFromCart(OrderAggregate existing, List<CartItem> items, boolean resetDiscounts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate updateDraftAmountsAndCoupon(OrderAggregate draft) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderStatusChange updateStatusesOnly(Long userId, Long orderId, OrderAggregate.Status statusOrNull,
+                                                    OrderAggregate.RentalStatus rentalStatusOrNull) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderItem> findItemsByOrderId(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findPaidAwaitingCartCleanupSince(Instant since) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.knockbook.backend.service;
+
+import com.knockbook.backend.component.CartCleanupQueue;
+import com.knockbook.backend.domain.*;
+import com.knockbook.backend.exception.InsufficientPointBalanceException;
+import com.knockbook.backend.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderPaymentServiceTest {
+
+    private static final Long USER_ID = 1L;
+
+    private InMemoryOrderRepository orders;
+    private RecordingCartRepository carts;
+    private InMemoryPoints points;
+    private final AtomicInteger payments = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private CartCleanupQueue cartCleanupQueue;
+    private OrderPaymentService service;
+
+    @BeforeEach
+    void setUp() {
+        orders = new InMemoryOrderRepository();
+        carts = new RecordingCartRepository();
+        points = new InMemoryPoints();
+        newService(10_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        cartCleanupQueue.shutdown();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void concurrentApprovalsForOneUserNeverOverspendOrPayTwice() throws Exception {
+        // 20 orders spending 100 and earning 10 points each, every one approved twice at once
+        points.balance = 1_000;
+        for (long orderId = 1; orderId <= 20; orderId++) {
+            orders.put(order(orderId, 100, 10));
+        }
+
+        final var pool = Executors.newFixedThreadPool(16);
+        final var start = new CountDownLatch(1);
+        final var outcomes = new ConcurrentHashMap<String, AtomicInteger>();
+        try {
+            final var tasks = new ArrayList<Future<?>>();
+            for (int attempt = 0; attempt < 2; attempt++) {
+                for (long orderId = 1; orderId <= 20; orderId++) {
+                    final var oid = orderId;
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        String outcome;
+                        try {
+                            approveInTransaction(oid);
+                            outcome = "PAID";
+                        } catch (InsufficientPointBalanceException e) {
+                            outcome = "INSUFFICIENT_POINTS";
+                        } catch (IllegalStateException e) {
+                            outcome = e.getMessage();
+                        }
+                        outcomes.computeIfAbsent(outcome, k -> new AtomicInteger()).incrementAndGet();
+                        return null;
+                    }));
+                }
+            }
+            start.countDown();
+            for (final var task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Each paid order nets -90: 1000 covers ten spends at 100+ and an eleventh at exactly 100
+        final var paid = orders.paidIds();
+        assertThat(paid.size()).isEqualTo(11);
+        assertThat(outcomes.get("PAID").get()).isEqualTo(11);
+        assertThat(outcomes.get("ORDER_NOT_READY_FOR_PAYMENT").get()
+                + outcomes.get("INSUFFICIENT_POINTS").get()).isEqualTo(29);
+        assertThat(points.balance).isEqualTo(1_000 - 11 * 90);
+        assertThat(points.ledger.size()).isEqualTo(22);
+        assertThat(payments.get()).isEqualTo(11);
+
+        await(() -> carts.removedUnits.size() == 11);
+        assertThat(carts.removedUnits.keySet()).isEqualTo(paid);
+    }
+
+    @Test
+    void cleanupsDroppedByAFullQueueAreRedoneByTheSweep() throws Exception {
+        newService(1);
+        points.balance = 0;
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            orders.put(order(orderId, 0, 0));
+        }
+        carts.gate = new CountDownLatch(1);
+
+        // First cleanup holds the worker, the second fills the queue, the third is dropped
+        for (long orderId = 1; orderId <= 3; orderId++) {
+            approveInTransaction(orderId);
+        }
+        assertThat(meterRegistry.get("cart.cleanup.dropped").counter().count()).isEqualTo(1.0);
+
+        carts.gate.countDown();
+        await(() -> carts.removedUnits.size() == 2);
+        assertThat(carts.removedUnits.containsKey(3L)).isFalse();
+
+        // Orders 1 and 2 are already claimed, and order 3 is cleaned once however many sweeps (or nodes) run
+        cartCleanupQueue.sweep();
+        cartCleanupQueue.sweep();
+        assertThat(carts.removedUnits).isEqualTo(Map.of(1L, 2, 2L, 2, 3L, 2));
+    }
+
+    private void newService(int queueCapacity) {
+        if (cartCleanupQueue != null) {
+            try {
+                cartCleanupQueue.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        meterRegistry = new SimpleMeterRegistry();
+        cartCleanupQueue = new CartCleanupQueue(carts, orders, meterRegistry, queueCapacity, 60);
+        service = new OrderPaymentService(orders, new UnusedCouponIssuances(), new UnusedCouponRedemptions(),
+                new CountingPayments(), points, points, cartCleanupQueue);
+    }
+
+    /**
+     * Runs one approval as its own transaction: synchronizations (row lock release, cart cleanup)
+     * fire on commit or rollback, the way the transaction manager would fire them.
+     */
+    private void approveInTransaction(Long orderId) {
+        TransactionSynchronizationManager.initSynchronization();
+        var committed = false;
+        try {
+            service.approve(USER_ID, orderId, OrderPayment.Method.KAKAOPAY, "KAKAOPAY", "T" + orderId, 1_000);
+            committed = true;
+        } finally {
+            final var synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            for (final var synchronization : synchronizations) {
+                if (committed) {
+                    synchronization.afterCommit();
+                }
+                synchronization.afterCompletion(committed
+                        ? TransactionSynchronization.STATUS_COMMITTED
+                        : TransactionSynchronization.STATUS_ROLLED_BACK);
+            }
+        }
+    }
+
+    private static OrderAggregate order(Long orderId, int pointsSpent, int pointsEarned) {
+        return OrderAggregate.builder()
+                .id(orderId)
+                .userId(USER_ID)
+                .status(OrderAggregate.Status.PENDING)
+                .paymentStatus(OrderAggregate.PaymentStatus.READY)
+                .totalAmount(1_000)
+                .pointsSpent(pointsSpent)
+                .pointsEarned(pointsEarned)
+                .items(List.of(OrderItem.builder()
+                        .orderId(orderId)
+                        .refType(OrderItem.RefType.BOOK_PURCHASE)
+                        .refId(orderId)
+                        .quantity(2)
+                        .build()))
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("timed out").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Orders with row locks: FOR UPDATE reads hold the order's lock until the transaction completes.
+     */
+    private static final class InMemoryOrderRepository implements OrderRepository {
+
+        private final Map<Long, OrderAggregate> rows = new ConcurrentHashMap<>();
+        private final Map<Long, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+        void put(OrderAggregate order) {
+            rows.put(order.getId(), order);
+        }
+
+        Set<Long> paidIds() {
+            final var ids = new HashSet<Long>();
+            rows.values().stream()
+                    .filter(o -> o.getPaymentStatus() == OrderAggregate.PaymentStatus.PAID)
+                    .forEach(o -> ids.add(o.getId()));
+            return ids;
+        }
+
+        @Override
+        public Optional<OrderAggregate> findByIdAndUserIdForUpdate(Long userId, Long orderId) {
+            final var lock = locks.computeIfAbsent(orderId, k -> new ReentrantLock());
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+            return Optional.ofNullable(rows.get(orderId)).filter(o -> o.getUserId().equals(userId));
+        }
+
+        @Override
+        public OrderAggregate saveHeader(OrderAggregate aggregate) {
+            rows.put(aggregate.getId(), aggregate);
+            return aggregate;
+        }
+
+        // Claims live in RecordingCartRepository, so claimed orders come back too, as they would to a
+        // node that read them just before another node's cleanup committed
+        @Override
+        public List<OrderAggregate> findPaidAwaitingCartCleanupSince(Instant since) {
+            return rows.values().stream()
+                    .filter(o -> o.getPaymentStatus() == OrderAggregate.PaymentStatus.PAID)
+                    .filter(o -> !o.getPaidAt().isBefore(since))
+                    .toList();
+        }
+
+        @Override
+        public OrderAggregate saveDraftFromCart(OrderAggregate aggregate, List<CartItem> items) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate saveDraftWithItems(OrderAggregate aggregate, List<OrderItem> items) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate replaceDraftWithItems(OrderAggregate existing, List<OrderItem> items, boolean resetDiscounts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate saveAggregate(OrderAggregate aggregate) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findDraftById(Long userId, Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findPendingDraftByUser(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findOrdersByUser(Long userId, OrderAggregate.PaymentStatus status) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findAllOrders(OrderAggregate.PaymentStatus status) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderAggregate> findOrdersPage(Long userId, OrderAggregate.PaymentStatus status, Long afterId, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findById(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<OrderAggregate> findByIdForUpdate(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate replaceDraftFromCart(OrderAggregate existing, List<CartItem> items, boolean resetDiscounts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderAggregate updateDraftAmountsAndCoupon(OrderAggregate draft) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OrderStatusChange updateStatusesOnly(Long userId, Long orderId, OrderAggregate.Status statusOrNull,
+                                                    OrderAggregate.RentalStatus rentalStatusOrNull) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<OrderItem> findItemsByOrderId(Long orderId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Balance with the conditional UPDATE's semantics, plus the ledger.
+     */
+    private static final class InMemoryPoints implements PointBalanceRepository, PointTransactionRepository {
+
+        private int balance;
+        private final List<PointTransaction> ledger = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public synchronized boolean applyNetChange(Long userId, int spend, int earn) {
+            if (balance < spend) {
+                return false;
+            }
+            balance += earn - spend;
+            return true;
+        }
+
+        @Override
+        public void saveAll(List<PointTransaction> txs) {
+            ledger.addAll(txs);
+        }
+
+        @Override
+        public Optional<PointBalance> findByUserIdForUpdate(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PointBalance save(PointBalance balance) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PointTransaction save(PointTransaction tx) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PointTransaction> findAllByUserId(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private final class CountingPayments implements OrderPaymentRepository {
+
+        @Override
+        public OrderPayment save(OrderPayment record) {
+            payments.incrementAndGet();
+            return record;
+        }
+
+        @Override
+        public boolean transition(Long paymentId, OrderPayment.TxStatus from, OrderPayment.TxStatus to) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean claim(Long paymentId, String pgTokenHash) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean reclaim(Long paymentId, Instant claimedAt) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class RecordingCartRepository implements CartRepository {
+
+        private final Set<Long> claimedOrderIds = ConcurrentHashMap.newKeySet();
+        private final Map<Long, Integer> removedUnits = new ConcurrentHashMap<>();
+        private volatile CountDownLatch gate;
+
+        @Override
+        public boolean removeOrderedLines(Long orderId, Long userId, Collection<CartRef> refs, Instant addedBefore) {
+            if (gate != null) {
+                try {
+                    gate.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (!claimedOrderIds.add(orderId)) {
+                return false;
+            }
+            refs.forEach(ref -> removedUnits.merge(ref.getRefId(), ref.getQuantity(), Integer::sum));
+            return true;
+        }
+
+        @Override
+        public void deleteByUserIdAndRefs(Long userId, Collection<CartRef> refs) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Cart> findOpenByUserId(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<Cart> findById(Long cartId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CartItem> findSelectableItems(Long userId, List<Long> cartItemIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cart createEmpty(Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cart addItem(Long cartId, CartItem item) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cart deleteItem(Long cartId, Long cartItemId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cart incrementItem(Long cartId, Long cartItemId, int qty) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cart decrementItem(Long cartId, Long cartItemId, int qty) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class UnusedCouponIssuances implements CouponIssuanceRepository {
+
+        @Override
+        public void insertIfNotExists(Long userId, List<Long> couponIds) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CouponIssuance> findByUserId(Long userId, CouponIssuance.Status status) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<CouponIssuance> findByIdAndUserId(Long id, Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<CouponIssuance> findByIdAndUserIdForUpdate(Long id, Long userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CouponIssuance save(CouponIssuance issuance) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static final class UnusedCouponRedemptions implements CouponRedemptionRepository {
+
+        @Override
+        public boolean existsByIssuanceId(Long issuanceId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CouponRedemption save(CouponRedemption entity) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.knockbook.backend.service;
+
+import com.knockbook.backend.component.ReactionCounterBuffer;
+import com.knockbook.backend.domain.ReactionTarget;
+import com.knockbook.backend.repository.ReactionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReactionServiceTest {
+
+    private static final ReactionTarget TARGET = ReactionTarget.BOOK_REVIEW;
+    private static final Long TARGET_ID = 7L;
+
+    private InMemoryReactionRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private ReactionCounterBuffer buffer;
+    private ReactionService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = new InMemoryReactionRepository();
+        meterRegistry = new SimpleMeterRegistry();
+        buffer = new ReactionCounterBuffer(repository, meterRegistry, false);
+        service = new ReactionService(repository, buffer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * The buffer never double-counts a change the repository reports; that the repository reports a
+     * repeated like as unchanged is covered by ReactionRepositoryImplTest.
+     */
+    @Test
+    void concurrentLikesAndRetriesBufferOneDeltaPerReportedChange() throws Exception {
+        final int users = 400;
+        final var pool = Executors.newFixedThreadPool(16);
+        final var start = new CountDownLatch(1);
+        try {
+            // Every user likes twice (double click / retry) from different threads
+            final var tasks = new ArrayList<java.util.concurrent.Future<?>>();
+            for (int attempt = 0; attempt < 2; attempt++) {
+                for (long userId = 1; userId <= users; userId++) {
+                    final var uid = userId;
+                    tasks.add(pool.submit(() -> {
+                        start.await();
+                        service.react(TARGET, TARGET_ID, uid, true);
+                        return null;
+                    }));
+                }
+            }
+            // Flushes race with the writers
+            tasks.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 50; i++) {
+                    buffer.flush();
+                }
+                return null;
+            }));
+            start.countDown();
+            for (final var task : tasks) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+
+            // Every fourth user takes the like back, twice
+            final var unlikes = new ArrayList<java.util.concurrent.Future<?>>();
+            for (int attempt = 0; attempt < 2; attempt++) {
+                for (long userId = 4; userId <= users; userId += 4) {
+                    final var uid = userId;
+                    unlikes.add(pool.submit(() -> service.react(TARGET, TARGET_ID, uid, false)));
+                }
+            }
+            for (final var task : unlikes) {
+                task.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        final int expected = users - users / 4;
+        assertThat(service.countOf(TARGET, TARGET_ID)).isEqualTo(expected);
+
+        buffer.flush();
+        assertThat(repository.findCount(TARGET, TARGET_ID)).isEqualTo(expected);
+        assertThat(buffer.pendingDelta(TARGET, TARGET_ID)).isZero();
+    }
+
+    @Test
+    void repeatedLikeDoesNotChangeTheCount() {
+        assertThat(service.react(TARGET, TARGET_ID, 1L, true)).isTrue();
+        assertThat(service.react(TARGET, TARGET_ID, 1L, true)).isFalse();
+        assertThat(service.react(TARGET, TARGET_ID, 2L, false)).isFalse();
+
+        assertThat(service.countOf(TARGET, TARGET_ID)).isEqualTo(1);
+    }
+
+    @Test
+    void reactAndCountReportsTheStateAfterTheWrite() {
+        final var first = service.reactAndCount(TARGET, TARGET_ID, 1L, true);
+        final var repeated = service.reactAndCount(TARGET, TARGET_ID, 1L, true);
+
+        assertThat(first).isEqualTo(new ReactionService.ReactionState(true, true, 1));
+        assertThat(repeated).isEqualTo(new ReactionService.ReactionState(true, false, 1));
+        assertThat(service.reactAndCount(TARGET, TARGET_ID, 1L, false).count()).isZero();
+    }
+
+    @Test
+    void deltaIsBufferedOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.react(TARGET, TARGET_ID, 1L, true);
+        assertThat(buffer.pendingDelta(TARGET, TARGET_ID)).isZero();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        TransactionSynchronizationManager.clearSynchronization();
+        assertThat(buffer.pendingDelta(TARGET, TARGET_ID)).isEqualTo(1L);
+    }
+
+    @Test
+    void rolledBackReactionLeavesNoDelta() {
+        TransactionSynchronizationManager.initSynchronization();
+        service.react(TARGET, TARGET_ID, 1L, true);
+        TransactionSynchronizationManager.clearSynchronization(); // rollback: afterCommit never runs
+
+        assertThat(buffer.pendingDelta(TARGET, TARGET_ID)).isZero();
+    }
+
+    @Test
+    void idleTargetsAreEvictedAfterAFlush() {
+        for (long id = 1; id <= 100; id++) {
+            service.react(TARGET, id, 1L, true);
+        }
+        assertThat(trackedTargets()).isEqualTo(100.0);
+
+        buffer.flush(); // writes the deltas
+        buffer.flush(); // nothing new since: entries are dropped
+        assertThat(trackedTargets()).isZero();
+        assertThat(repository.findCount(TARGET, 42L)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcileRecountsFromLikeRows() {
+        final var reconciling = new ReactionCounterBuffer(repository, meterRegistry, true);
+        repository.setReaction(TARGET, TARGET_ID, 1L, true);
+        repository.setReaction(TARGET, TARGET_ID, 2L, true);
+        repository.applyCountDeltas(TARGET, Map.of(TARGET_ID, 5L)); // drifted
+
+        reconciling.reconcile();
+
+        assertThat(repository.findCount(TARGET, TARGET_ID)).isEqualTo(2);
+    }
+
+    private double trackedTargets() {
+        return meterRegistry.get("reaction.counters.tracked.targets").gauge().value();
+    }
+
+    /**
+     * Like rows keyed on (target, targetId, userId), mirroring the unique key on the like tables.
+     */
+    private static final class InMemoryReactionRepository implements ReactionRepository {
+
+        private final Set<String> rows = ConcurrentHashMap.newKeySet();
+        private final Map<String, Long> counts = new ConcurrentHashMap<>();
+
+        @Override
+        public boolean setReaction(ReactionTarget target, Long targetId, Long userId, boolean reacted) {
+            final var key = target + ":" + targetId + ":" + userId;
+            return reacted ? rows.add(key) : rows.remove(key);
+        }
+
+        @Override
+        public Set<Long> findReactedTargetIds(ReactionTarget target, Long userId, Collection<Long> targetIds) {
+            final var result = new HashSet<Long>();
+            for (final var id : targetIds) {
+                if (rows.contains(target + ":" + id + ":" + userId)) {
+                    result.add(id);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public int findCount(ReactionTarget target, Long targetId) {
+            return counts.getOrDefault(target + ":" + targetId, 0L).intValue();
+        }
+
+        @Override
+        public int countReactions(ReactionTarget target, Long targetId) {
+            return (int) rows.stream().filter(r -> r.startsWith(target + ":" + targetId + ":")).count();
+        }
+
+        @Override
+        public int recountAll(ReactionTarget target) {
+            final var recounted = new HashMap<String, Long>();
+            for (final var row : rows) {
+                if (row.startsWith(target + ":")) {
+                    recounted.merge(row.substring(0, row.lastIndexOf(':')), 1L, Long::sum);
+                }
+            }
+            counts.keySet().removeIf(k -> k.startsWith(target + ":"));
+            counts.putAll(recounted);
+            return recounted.size();
+        }
+
+        @Override
+        public int applyCountDeltas(ReactionTarget target, Map<Long, Long> deltas) {
+            deltas.forEach((id, delta) ->
+                    counts.merge(target + ":" + id, delta, (a, b) -> Math.max(0L, a + b)));
+            return deltas.size();
+        }
+    }
+}